@@ -24,6 +24,8 @@ import ai.djl.training.ParameterStore;
 import ai.djl.training.Trainer;
 import ai.djl.training.TrainingConfig;
 import ai.djl.translate.Translator;
+import ai.djl.util.AlignedDataOutputStream;
+import ai.djl.util.MappedDataInputStream;
 import ai.djl.util.Pair;
 import ai.djl.util.PairList;
 import ai.djl.util.Utils;
@@ -38,6 +40,7 @@ import java.io.DataOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -55,6 +58,7 @@ public abstract class BaseModel implements Model {
 
     private static final Logger logger = LoggerFactory.getLogger(BaseModel.class);
     private static final int MODEL_VERSION = 1;
+    private static final int ALIGNED_MODEL_VERSION = 2;
 
     protected Path modelDir;
     protected Block block;
@@ -278,10 +282,13 @@ public abstract class BaseModel implements Model {
 
         String fileName = String.format(Locale.ROOT, "%s-%04d.params", newModelName, epoch);
         Path paramFile = modelPath.resolve(fileName);
+        // the aligned format can be memory mapped, but is not readable by older DJL versions
+        boolean aligned = Boolean.getBoolean("ai.djl.save_aligned");
+        OutputStream os = new BufferedOutputStream(Files.newOutputStream(paramFile));
         try (DataOutputStream dos =
-                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(paramFile)))) {
+                aligned ? new AlignedDataOutputStream(os) : new DataOutputStream(os)) {
             dos.writeBytes("DJL@");
-            dos.writeInt(MODEL_VERSION);
+            dos.writeInt(aligned ? ALIGNED_MODEL_VERSION : MODEL_VERSION);
             dos.writeUTF(newModelName);
             dos.writeUTF(dataType.name());
             inputData = block.describeInput();
@@ -361,46 +368,89 @@ public abstract class BaseModel implements Model {
     protected boolean readParameters(Path paramFile, Map<String, ?> options)
             throws IOException, MalformedModelException {
         logger.debug("Try to load model from {}", paramFile);
+        MappedDataInputStream mis = openMapped(paramFile);
+        if (mis != null) {
+            try (DataInputStream dis = mis) {
+                return readParameters(dis);
+            }
+        }
         return readParameters(Files.newInputStream(paramFile), options);
     }
 
     protected boolean readParameters(InputStream paramStream, Map<String, ?> options)
             throws IOException, MalformedModelException {
         try (DataInputStream dis = new DataInputStream(new BufferedInputStream(paramStream))) {
-            byte[] buf = new byte[4];
-            dis.readFully(buf);
-            if (!"DJL@".equals(new String(buf, StandardCharsets.US_ASCII))) {
-                return false;
-            }
+            return readParameters(dis);
+        }
+    }
 
-            int version = dis.readInt();
-            if (version != MODEL_VERSION) {
-                throw new IOException("Unsupported model version: " + version);
-            }
+    private boolean readParameters(DataInputStream dis)
+            throws IOException, MalformedModelException {
+        byte[] buf = new byte[4];
+        dis.readFully(buf);
+        if (!"DJL@".equals(new String(buf, StandardCharsets.US_ASCII))) {
+            return false;
+        }
 
-            String savedModelName = dis.readUTF();
-            logger.debug("Loading saved model: {} parameter", savedModelName);
+        int version = dis.readInt();
+        if (version != MODEL_VERSION && version != ALIGNED_MODEL_VERSION) {
+            throw new IOException("Unsupported model version: " + version);
+        }
 
-            dataType = DataType.valueOf(dis.readUTF());
+        String savedModelName = dis.readUTF();
+        logger.debug("Loading saved model: {} parameter", savedModelName);
 
-            int numberOfInputs = dis.readInt();
-            inputData = new PairList<>();
-            for (int i = 0; i < numberOfInputs; ++i) {
-                String inputName = dis.readUTF(); // input name
-                Shape shape = Shape.decode(dis);
-                inputData.add(inputName, shape);
-            }
+        dataType = DataType.valueOf(dis.readUTF());
 
-            int numberOfProperties = dis.readInt();
-            for (int i = 0; i < numberOfProperties; ++i) {
-                String key = dis.readUTF();
-                String value = dis.readUTF();
-                properties.put(key, value);
-            }
+        int numberOfInputs = dis.readInt();
+        inputData = new PairList<>();
+        for (int i = 0; i < numberOfInputs; ++i) {
+            String inputName = dis.readUTF(); // input name
+            Shape shape = Shape.decode(dis);
+            inputData.add(inputName, shape);
+        }
 
-            block.loadParameters(manager, dis);
-            logger.debug("DJL model loaded successfully");
+        int numberOfProperties = dis.readInt();
+        for (int i = 0; i < numberOfProperties; ++i) {
+            String key = dis.readUTF();
+            String value = dis.readUTF();
+            properties.put(key, value);
         }
+
+        block.loadParameters(manager, dis);
+        logger.debug("DJL model loaded successfully");
         return true;
     }
+
+    /**
+     * Opens the parameter file with memory mapping if it is saved in the aligned format.
+     *
+     * <p>The parameters of an aligned file are loaded without copying, and only the pages that are
+     * used are read from disk.
+     *
+     * @param paramFile the parameter file
+     * @return the mapped input stream, or {@code null} if the file cannot be mapped
+     */
+    private static MappedDataInputStream openMapped(Path paramFile) {
+        // private mapping requires the file to be opened for writing
+        if (!Files.isWritable(paramFile)) {
+            return null;
+        }
+        try (DataInputStream dis = new DataInputStream(Files.newInputStream(paramFile))) {
+            byte[] buf = new byte[4];
+            dis.readFully(buf);
+            if (!"DJL@".equals(new String(buf, StandardCharsets.US_ASCII))
+                    || dis.readInt() != ALIGNED_MODEL_VERSION) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        try {
+            return new MappedDataInputStream(paramFile);
+        } catch (IOException e) {
+            logger.debug("Failed to memory map {}", paramFile, e);
+            return null;
+        }
+    }
 }
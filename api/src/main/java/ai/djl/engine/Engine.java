@@ -19,6 +19,7 @@ import ai.djl.nn.SymbolBlock;
 import ai.djl.training.GradientCollector;
 import ai.djl.training.LocalParameterServer;
 import ai.djl.training.ParameterServer;
+import ai.djl.training.SocketParameterServer;
 import ai.djl.training.optimizer.Optimizer;
 import ai.djl.util.Ec2Utils;
 import ai.djl.util.RandomUtils;
@@ -317,10 +318,16 @@ public abstract class Engine {
     /**
      * Returns a new instance of {@link ParameterServer}.
      *
+     * <p>A {@link SocketParameterServer} is returned for distributed training if the {@code
+     * DJL_PS_WORKERS} environment variable or system property is set.
+     *
      * @param optimizer the optimizer to update
      * @return a new instance of {@link ParameterServer}
      */
     public ParameterServer newParameterServer(Optimizer optimizer) {
+        if (Utils.getEnvOrSystemProperty("DJL_PS_WORKERS") != null) {
+            return SocketParameterServer.builder().setOptimizer(optimizer).build();
+        }
         return new LocalParameterServer(optimizer);
     }
 
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.inference;
+
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
+import ai.djl.translate.TranslateException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code BatchingPredictor} aggregates concurrent {@link #predict(Object)} calls into batches and
+ * runs them through the wrapped {@link Predictor}.
+ *
+ * <p>Requests are queued and a single dispatcher thread collects them until either {@code
+ * maxBatchSize} requests are pending or {@code maxDelay} has elapsed since the first request of the
+ * batch arrived. The batch is then executed with {@link Predictor#batchPredict(List)}, which in
+ * turn uses {@link ai.djl.translate.Translator#batchProcessInput} and the translator's {@link
+ * ai.djl.translate.Batchifier}. Each caller receives its own result.
+ *
+ * <pre>
+ * try (Predictor&lt;String, String&gt; predictor = model.newPredictor(translator);
+ *         BatchingPredictor&lt;String, String&gt; batching =
+ *                 new BatchingPredictor&lt;&gt;(predictor, 8, 10, TimeUnit.MILLISECONDS)) {
+ *     // can be called from many threads
+ *     String result = batching.predict("What's up");
+ * }
+ * </pre>
+ *
+ * <p>When {@link Metrics} are attached, the following metrics are recorded in addition to the
+ * {@link Predictor} metrics: {@code BatchQueueSize}, {@code BatchSize} and {@code BatchWaitTime}.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class BatchingPredictor<I, O> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingPredictor.class);
+
+    private Predictor<I, O> predictor;
+    private int maxBatchSize;
+    private long maxDelayNanos;
+    private BlockingQueue<Job<I, O>> queue;
+    private Job<I, O> shutdown;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    /**
+     * Constructs a new {@code BatchingPredictor} instance.
+     *
+     * @param predictor the predictor to run the batches with
+     * @param maxBatchSize the maximum number of requests in a batch
+     * @param maxDelay the maximum time to wait for a batch to fill up
+     * @param unit the time unit of {@code maxDelay}
+     */
+    public BatchingPredictor(
+            Predictor<I, O> predictor, int maxBatchSize, long maxDelay, TimeUnit unit) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.predictor = predictor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        queue = new LinkedBlockingQueue<>();
+        shutdown = new Job<>(null);
+        running = true;
+        dispatcher = new Thread(this::dispatch, "batching-predictor");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Predicts an item for inference, the call blocks until the batch containing the item is
+     * processed.
+     *
+     * @param input the input
+     * @return the output object defined by the user
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public O predict(I input) throws TranslateException {
+        try {
+            return predictAsync(input).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Prediction interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TranslateException) {
+                throw (TranslateException) cause;
+            }
+            throw new TranslateException(cause);
+        }
+    }
+
+    /**
+     * Submits an item for inference and returns a future of the result.
+     *
+     * @param input the input
+     * @return a future that completes when the batch containing the item is processed
+     */
+    public CompletableFuture<O> predictAsync(I input) {
+        Job<I, O> job = new Job<>(input);
+        if (!running) {
+            job.future.completeExceptionally(
+                    new IllegalStateException("BatchingPredictor is closed."));
+            return job.future;
+        }
+        queue.add(job);
+        // close() may have drained the queue between the check and the add
+        if (!running && queue.remove(job)) {
+            job.future.completeExceptionally(
+                    new IllegalStateException("BatchingPredictor is closed."));
+        }
+        return job.future;
+    }
+
+    /**
+     * Predicts a batch for inference directly, bypassing the request queue.
+     *
+     * @param inputs a list of inputs
+     * @return a list of output objects defined by the user
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public List<O> batchPredict(List<I> inputs) throws TranslateException {
+        synchronized (predictor) {
+            return predictor.batchPredict(inputs);
+        }
+    }
+
+    /**
+     * Attaches a Metrics param to use for benchmark.
+     *
+     * @param metrics the Metrics class
+     */
+    public void setMetrics(Metrics metrics) {
+        predictor.setMetrics(metrics);
+    }
+
+    /**
+     * Returns the number of requests waiting to be batched.
+     *
+     * @return the number of requests waiting to be batched
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the maximum number of requests in a batch.
+     *
+     * @return the maximum number of requests in a batch
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    private void dispatch() {
+        List<Job<I, O>> jobs = new ArrayList<>(maxBatchSize);
+        try {
+            while (running) {
+                Job<I, O> first = queue.take();
+                if (first == shutdown) {
+                    break;
+                }
+                jobs.add(first);
+                long deadline = first.begin + maxDelayNanos;
+                while (jobs.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        queue.drainTo(jobs, maxBatchSize - jobs.size());
+                        break;
+                    }
+                    Job<I, O> job = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (job == null) {
+                        break;
+                    }
+                    if (job == shutdown) {
+                        return;
+                    }
+                    jobs.add(job);
+                }
+                if (jobs.remove(shutdown)) {
+                    return;
+                }
+                runBatch(jobs);
+                jobs.clear();
+            }
+        } catch (InterruptedException e) {
+            logger.trace("BatchingPredictor dispatcher interrupted.");
+        } finally {
+            queue.drainTo(jobs);
+            failPending(jobs);
+        }
+    }
+
+    private void runBatch(List<Job<I, O>> jobs) {
+        int batchSize = jobs.size();
+        List<I> inputs = new ArrayList<>(batchSize);
+        for (Job<I, O> job : jobs) {
+            inputs.add(job.input);
+        }
+
+        Metrics metrics = predictor.metrics;
+        if (metrics != null) {
+            long now = System.nanoTime();
+            metrics.addMetric("BatchQueueSize", queue.size(), Unit.COUNT, predictor.dimension);
+            metrics.addMetric("BatchSize", batchSize, Unit.COUNT, predictor.dimension);
+            for (Job<I, O> job : jobs) {
+                long wait = (now - job.begin) / 1000;
+                metrics.addMetric("BatchWaitTime", wait, Unit.MICROSECONDS, predictor.dimension);
+            }
+        }
+
+        List<O> outputs;
+        try {
+            outputs = batchPredict(inputs);
+        } catch (TranslateException | RuntimeException e) {
+            for (Job<I, O> job : jobs) {
+                job.future.completeExceptionally(e);
+            }
+            return;
+        }
+        if (outputs.size() != batchSize) {
+            IllegalStateException e =
+                    new IllegalStateException(
+                            "Expected " + batchSize + " outputs, got " + outputs.size());
+            for (Job<I, O> job : jobs) {
+                job.future.completeExceptionally(e);
+            }
+            return;
+        }
+        for (int i = 0; i < batchSize; ++i) {
+            jobs.get(i).future.complete(outputs.get(i));
+        }
+    }
+
+    private void failPending(List<Job<I, O>> jobs) {
+        IllegalStateException e = new IllegalStateException("BatchingPredictor is closed.");
+        for (Job<I, O> job : jobs) {
+            if (job != shutdown) {
+                job.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Stops the dispatcher thread, pending requests are completed exceptionally.
+     *
+     * <p>A batch that is already running is allowed to finish. The wrapped {@link Predictor} is not
+     * closed.
+     */
+    @Override
+    public void close() {
+        running = false;
+        queue.add(shutdown);
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Job<I, O>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        failPending(remaining);
+    }
+
+    private static final class Job<I, O> {
+
+        I input;
+        long begin;
+        CompletableFuture<O> future;
+
+        Job(I input) {
+            this.input = input;
+            begin = System.nanoTime();
+            future = new CompletableFuture<>();
+        }
+    }
+}
@@ -38,7 +38,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The {@code Predictor} interface provides a session for model inference.
@@ -98,6 +104,11 @@ public class Predictor<I, O> implements AutoCloseable {
     protected ParameterStore parameterStore;
     protected Dimension dimension;
 
+    private Executor preprocessExecutor;
+    private Executor inferenceExecutor;
+    private Executor postprocessExecutor;
+    private ExecutorService defaultInferenceExecutor;
+
     /**
      * Creates a new instance of {@code BasePredictor} with the given {@link Model} and {@link
      * Translator}.
@@ -198,6 +209,112 @@ public class Predictor<I, O> implements AutoCloseable {
         }
     }
 
+    /**
+     * Predicts an item for inference asynchronously.
+     *
+     * <p>The prediction runs as a three-stage pipeline: pre-processing, inference and
+     * post-processing, each stage on its own {@link Executor} (see {@link
+     * #setPipelineExecutors(Executor, Executor, Executor)}). While the model runs inference for one
+     * request, the next request can be pre-processed and the previous one post-processed. The
+     * per-request {@link NDManager} is closed once the returned future completes.
+     *
+     * @param input the input
+     * @return a future of the output object defined by the user
+     */
+    public CompletableFuture<O> predictAsync(I input) {
+        PredictorContext context;
+        try {
+            context = new PredictorContext();
+            synchronized (this) {
+                if (!prepared) {
+                    translator.prepare(context);
+                    prepared = true;
+                }
+            }
+        } catch (Exception e) {
+            CompletableFuture<O> future = new CompletableFuture<>();
+            future.completeExceptionally(
+                    e instanceof TranslateException ? e : new TranslateException(e));
+            return future;
+        }
+
+        Batchifier batchifier = translator.getBatchifier();
+        long begin = System.nanoTime();
+        return CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                NDList ndList;
+                                if (batchifier == null) {
+                                    ndList = translator.processInput(context, input);
+                                } else {
+                                    List<I> inputs = Collections.singletonList(input);
+                                    ndList = translator.batchProcessInput(context, inputs);
+                                }
+                                stageEnd("Preprocess", begin, ndList);
+                                return ndList;
+                            } catch (Exception e) {
+                                throw toCompletionException(e);
+                            }
+                        },
+                        getPreprocessExecutor())
+                .thenApplyAsync(
+                        ndList -> {
+                            try {
+                                long start = System.nanoTime();
+                                NDList result = predictInternal(context, ndList);
+                                stageEnd("Inference", start, result);
+                                return result;
+                            } catch (Exception e) {
+                                throw toCompletionException(e);
+                            }
+                        },
+                        getInferenceExecutor())
+                .thenApplyAsync(
+                        result -> {
+                            try {
+                                long start = System.nanoTime();
+                                O output;
+                                if (batchifier == null) {
+                                    output = translator.processOutput(context, result);
+                                } else {
+                                    output = translator.batchProcessOutput(context, result).get(0);
+                                }
+                                stageEnd("Postprocess", start, null);
+                                if (metrics != null) {
+                                    long duration = (System.nanoTime() - begin) / 1000;
+                                    metrics.addMetric(
+                                            "Prediction", duration, Unit.MICROSECONDS, dimension);
+                                }
+                                return output;
+                            } catch (Exception e) {
+                                throw toCompletionException(e);
+                            }
+                        },
+                        getPostprocessExecutor())
+                .whenComplete((o, t) -> context.close());
+    }
+
+    /**
+     * Sets the executors used by each stage of {@link #predictAsync(Object)}.
+     *
+     * <p>A {@code null} executor keeps the default for that stage: pre-processing and
+     * post-processing run on the {@link ForkJoinPool#commonPool()}, inference runs on a single
+     * thread owned by this predictor so that the model is invoked by one thread at a time. I/O
+     * bound stages can use a virtual thread executor on JDK 21+, for example {@code
+     * Executors.newVirtualThreadPerTaskExecutor()}. Executors passed in are not shut down when the
+     * predictor is closed.
+     *
+     * @param preprocess the executor for pre-processing
+     * @param inference the executor for inference
+     * @param postprocess the executor for post-processing
+     */
+    public void setPipelineExecutors(
+            Executor preprocess, Executor inference, Executor postprocess) {
+        this.preprocessExecutor = preprocess;
+        this.inferenceExecutor = inference;
+        this.postprocessExecutor = postprocess;
+    }
+
     /**
      * Predicts an item for inference.
      *
@@ -304,6 +421,47 @@ public class Predictor<I, O> implements AutoCloseable {
         return translator.getBatchifier().batchify(preprocessed);
     }
 
+    private Executor getPreprocessExecutor() {
+        return preprocessExecutor == null ? ForkJoinPool.commonPool() : preprocessExecutor;
+    }
+
+    private Executor getPostprocessExecutor() {
+        return postprocessExecutor == null ? ForkJoinPool.commonPool() : postprocessExecutor;
+    }
+
+    private synchronized Executor getInferenceExecutor() {
+        if (inferenceExecutor != null) {
+            return inferenceExecutor;
+        }
+        if (defaultInferenceExecutor == null) {
+            defaultInferenceExecutor =
+                    Executors.newSingleThreadExecutor(
+                            r -> {
+                                Thread thread = new Thread(r, "predictor-inference");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+        }
+        return defaultInferenceExecutor;
+    }
+
+    private void stageEnd(String name, long start, NDList list) {
+        if (metrics != null) {
+            if (list != null) {
+                waitToRead(list);
+            }
+            long duration = (System.nanoTime() - start) / 1000;
+            metrics.addMetric(name, duration, Unit.MICROSECONDS, dimension);
+        }
+    }
+
+    private static CompletionException toCompletionException(Exception e) {
+        if (e instanceof TranslateException) {
+            return new CompletionException(e);
+        }
+        return new CompletionException(new TranslateException(e));
+    }
+
     private void preprocessEnd(NDList list, int batchSize) {
         if (metrics != null) {
             waitToRead(list);
@@ -338,6 +496,12 @@ public class Predictor<I, O> implements AutoCloseable {
     /** {@inheritDoc} */
     @Override
     public void close() {
+        synchronized (this) {
+            if (defaultInferenceExecutor != null) {
+                defaultInferenceExecutor.shutdown();
+                defaultInferenceExecutor = null;
+            }
+        }
         manager.close();
     }
 
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free, constant memory histogram for streaming percentile queries.
+ *
+ * <p>Values are bucketed by their binary exponent and the top {@value #SUB_BUCKET_BITS} bits of
+ * their mantissa, similar to an HDR histogram. This bounds the relative error of {@link
+ * #percentile(int)} to less than 1%, values with few significant bits (like small integers) are
+ * represented exactly. Recording a value is O(1) and does not allocate once the bucket range of its
+ * exponent has been touched.
+ */
+public class Histogram {
+
+    static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MANTISSA_SHIFT = 52 - SUB_BUCKET_BITS;
+    private static final int EXPONENTS = 2048;
+
+    private AtomicReferenceArray<AtomicLongArray> positive;
+    private AtomicReferenceArray<AtomicLongArray> negative;
+    private LongAdder zeros;
+    private LongAdder count;
+    private DoubleAdder sum;
+    private AtomicLong min;
+    private AtomicLong max;
+
+    /** Constructs an empty {@code Histogram} instance. */
+    public Histogram() {
+        positive = new AtomicReferenceArray<>(EXPONENTS);
+        negative = new AtomicReferenceArray<>(EXPONENTS);
+        zeros = new LongAdder();
+        count = new LongAdder();
+        sum = new DoubleAdder();
+        min = new AtomicLong(Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+        max = new AtomicLong(Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY));
+    }
+
+    /**
+     * Records a value, {@code NaN} values are ignored.
+     *
+     * @param value the value to record
+     */
+    public void record(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value == 0) {
+            zeros.increment();
+        } else {
+            long bits = Double.doubleToRawLongBits(Math.abs(value));
+            int exponent = (int) (bits >>> 52);
+            int sub = (int) (bits >>> MANTISSA_SHIFT) & (SUB_BUCKETS - 1);
+            AtomicReferenceArray<AtomicLongArray> buckets = value > 0 ? positive : negative;
+            AtomicLongArray array = buckets.get(exponent);
+            if (array == null) {
+                buckets.compareAndSet(exponent, null, new AtomicLongArray(SUB_BUCKETS));
+                array = buckets.get(exponent);
+            }
+            array.incrementAndGet(sub);
+        }
+        sum.add(value);
+        count.increment();
+        updateMin(value);
+        updateMax(value);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of recorded values.
+     *
+     * @return the sum of recorded values
+     */
+    public double getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the average of recorded values.
+     *
+     * @return the average of recorded values, {@code NaN} if the histogram is empty
+     */
+    public double getMean() {
+        long n = count.sum();
+        if (n == 0) {
+            return Double.NaN;
+        }
+        return sum.sum() / n;
+    }
+
+    /**
+     * Returns the smallest recorded value.
+     *
+     * @return the smallest recorded value, {@code NaN} if the histogram is empty
+     */
+    public double getMin() {
+        if (count.sum() == 0) {
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble(min.get());
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the largest recorded value, {@code NaN} if the histogram is empty
+     */
+    public double getMax() {
+        if (count.sum() == 0) {
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble(max.get());
+    }
+
+    /**
+     * Returns the estimated value at the given percentile.
+     *
+     * <p>The value is the one at index {@code count * percentile / 100} of the sorted samples,
+     * rounded down to its bucket boundary.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the estimated value, {@code NaN} if the histogram is empty
+     */
+    public double percentile(int percentile) {
+        long n = count.sum();
+        if (n == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.min(n * percentile / 100, n - 1);
+        long seen = 0;
+        for (int exp = EXPONENTS - 1; exp >= 0; --exp) {
+            AtomicLongArray array = negative.get(exp);
+            if (array == null) {
+                continue;
+            }
+            for (int i = SUB_BUCKETS - 1; i >= 0; --i) {
+                seen += array.get(i);
+                if (seen > rank) {
+                    return clamp(-bucketValue(exp, i));
+                }
+            }
+        }
+        seen += zeros.sum();
+        if (seen > rank) {
+            return 0;
+        }
+        for (int exp = 0; exp < EXPONENTS; ++exp) {
+            AtomicLongArray array = positive.get(exp);
+            if (array == null) {
+                continue;
+            }
+            for (int i = 0; i < SUB_BUCKETS; ++i) {
+                seen += array.get(i);
+                if (seen > rank) {
+                    return clamp(bucketValue(exp, i));
+                }
+            }
+        }
+        // concurrent updates may make count and buckets slightly inconsistent
+        return getMax();
+    }
+
+    /** Clears all recorded values. */
+    public void reset() {
+        for (int i = 0; i < EXPONENTS; ++i) {
+            positive.set(i, null);
+            negative.set(i, null);
+        }
+        zeros.reset();
+        count.reset();
+        sum.reset();
+        min.set(Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+        max.set(Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY));
+    }
+
+    private double clamp(double value) {
+        return Math.min(Math.max(value, getMin()), getMax());
+    }
+
+    private static double bucketValue(int exponent, int sub) {
+        return Double.longBitsToDouble(((long) exponent << 52) | ((long) sub << MANTISSA_SHIFT));
+    }
+
+    private void updateMin(double value) {
+        long current = min.get();
+        while (value < Double.longBitsToDouble(current)) {
+            if (min.compareAndSet(current, Double.doubleToRawLongBits(value))) {
+                return;
+            }
+            current = min.get();
+        }
+    }
+
+    private void updateMax(double value) {
+        long current = max.get();
+        while (value > Double.longBitsToDouble(current)) {
+            if (max.compareAndSet(current, Double.doubleToRawLongBits(value))) {
+                return;
+            }
+            current = max.get();
+        }
+    }
+}
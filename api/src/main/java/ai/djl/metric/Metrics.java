@@ -14,13 +14,14 @@ package ai.djl.metric;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
 
 /**
  * A collection of {@link Metric} objects organized by metric name.
@@ -35,24 +36,33 @@ import java.util.stream.Collectors;
  * performance indicators (KPIs) during inference and training runs. These KPIs include various
  * latencies, CPU and GPU memory consumption, losses, etc.
  *
+ * <p>Each metric name is backed by a lock-free {@link Histogram}, so {@link #percentile(String,
+ * int)} and {@link #mean(String)} are answered in constant time and memory. Individual {@link
+ * Metric} samples are also retained for {@link #getMetric(String)} unless disabled with {@link
+ * #setRetainSamples(boolean)}.
+ *
  * <p>For more details about using the metrics, see the <a
  * href="https://github.com/deepjavalibrary/djl/blob/master/docs/how_to_collect_metrics.md">metrics
  * tutorial</a>.
  */
 public class Metrics {
 
-    private Map<String, List<Metric>> metrics;
+    private Map<String, Series> metrics;
     private int limit;
     private BiConsumer<Metrics, String> onLimit;
+    private boolean retainSamples;
 
     /** Constructs an empty {@code Metrics} instance. */
     public Metrics() {
         metrics = new ConcurrentHashMap<>();
+        retainSamples = true;
     }
 
     /**
      * Sets the max size for each metric.
      *
+     * <p>When the limit is hit, the retained samples and the histogram of the metric are cleared.
+     *
      * @param limit the max size for each metric
      */
     public void setLimit(int limit) {
@@ -68,23 +78,28 @@ public class Metrics {
         this.onLimit = onLimit;
     }
 
+    /**
+     * Sets whether individual {@link Metric} samples are retained, default is {@code true}.
+     *
+     * <p>When disabled, only the histogram and the latest value of each metric are kept, and {@link
+     * #getMetric(String)} returns at most the latest {@link Metric}.
+     *
+     * @param retainSamples whether to retain individual samples
+     */
+    public void setRetainSamples(boolean retainSamples) {
+        this.retainSamples = retainSamples;
+    }
+
     /**
      * Adds a {@link Metric} to the collection.
      *
      * @param metric the {@link Metric} to be added
      */
     public void addMetric(Metric metric) {
-        List<Metric> list =
-                metrics.computeIfAbsent(
-                        metric.getMetricName(),
-                        v -> Collections.synchronizedList(new ArrayList<>()));
-        if (limit > 0 && list.size() >= limit) {
-            if (onLimit != null) {
-                onLimit.accept(this, metric.getMetricName());
-            }
-            list.clear();
-        }
-        list.add(metric);
+        String name = metric.getMetricName();
+        Series series = getSeries(name);
+        checkLimit(series, name);
+        series.add(metric, retainSamples);
     }
 
     /**
@@ -94,7 +109,7 @@ public class Metrics {
      * @param value the metric value
      */
     public void addMetric(String name, Number value) {
-        addMetric(new Metric(name, value));
+        addMetric(name, value, Unit.COUNT);
     }
 
     /**
@@ -106,7 +121,13 @@ public class Metrics {
      * @param dimensions the metric dimensions
      */
     public void addMetric(String name, Number value, Unit unit, Dimension... dimensions) {
-        addMetric(new Metric(name, value, unit, dimensions));
+        if (retainSamples) {
+            addMetric(new Metric(name, value, unit, dimensions));
+            return;
+        }
+        Series series = getSeries(name);
+        checkLimit(series, name);
+        series.record(name, value, unit, dimensions);
     }
 
     /**
@@ -123,14 +144,29 @@ public class Metrics {
      * Returns all {@link Metric}s with the specified metric name.
      *
      * @param name the name of the metric
-     * @return a list of {@link Metric} with the specified metric name
+     * @return a snapshot list of {@link Metric} with the specified metric name
      */
     public List<Metric> getMetric(String name) {
-        List<Metric> list = metrics.get(name);
-        if (list == null) {
+        Series series = metrics.get(name);
+        if (series == null) {
             return Collections.emptyList();
         }
-        return list;
+        return series.getSamples();
+    }
+
+    /**
+     * Returns the {@link Histogram} of the specified metric name.
+     *
+     * @param name the name of the metric
+     * @return the {@link Histogram} of the specified metric name
+     * @throws IllegalArgumentException if the given name is not found
+     */
+    public Histogram getHistogram(String name) {
+        Series series = metrics.get(name);
+        if (series == null) {
+            throw new IllegalArgumentException("Metric name not found: " + name);
+        }
+        return series.histogram;
     }
 
     /**
@@ -150,31 +186,37 @@ public class Metrics {
      * @throws IllegalArgumentException if the given name is not found
      */
     public Metric latestMetric(String name) {
-        List<Metric> list = metrics.get(name);
-        if (list == null || list.isEmpty()) {
+        Series series = metrics.get(name);
+        Metric latest = series == null ? null : series.getLatest();
+        if (latest == null) {
             throw new IllegalArgumentException("Could not find metric: " + name);
         }
-        return list.get(list.size() - 1);
+        return latest;
     }
 
     /**
      * Returns a percentile {@link Metric} object for the specified metric name.
      *
+     * <p>The value is estimated from the metric {@link Histogram} with less than 1% relative error.
+     *
      * @param metricName the name of the metric
      * @param percentile the percentile
      * @return the {@link Metric} object at specified {@code percentile}
      */
     public Metric percentile(String metricName, int percentile) {
-        List<Metric> metric = metrics.get(metricName);
-        if (metric == null || metrics.isEmpty()) {
+        Series series = metrics.get(metricName);
+        Metric latest = series == null ? null : series.getLatest();
+        if (latest == null || series.histogram.getCount() == 0) {
             throw new IllegalArgumentException("Metric name not found: " + metricName);
         }
 
-        List<Metric> list = new ArrayList<>(metric);
-        list.sort(Comparator.comparingDouble(Metric::getValue));
-        int index = metric.size() * percentile / 100;
-        Metric m = list.get(index);
-        return m.copyOf(m.getMetricName() + "_p" + percentile);
+        double value = series.histogram.percentile(percentile);
+        return new Metric(
+                metricName + "_p" + percentile,
+                latest.getMetricType(),
+                value,
+                latest.getUnit(),
+                latest.getDimensions());
     }
 
     /**
@@ -184,11 +226,99 @@ public class Metrics {
      * @return the average value of the specified metric
      */
     public double mean(String metricName) {
-        List<Metric> metric = metrics.get(metricName);
-        if (metric == null || metrics.isEmpty()) {
+        Series series = metrics.get(metricName);
+        if (series == null || series.histogram.getCount() == 0) {
             throw new IllegalArgumentException("Metric name not found: " + metricName);
         }
+        return series.histogram.getMean();
+    }
+
+    private Series getSeries(String name) {
+        Series series = metrics.get(name);
+        if (series == null) {
+            series = metrics.computeIfAbsent(name, k -> new Series());
+        }
+        return series;
+    }
 
-        return metric.stream().collect(Collectors.averagingDouble(Metric::getValue));
+    private void checkLimit(Series series, String name) {
+        if (limit > 0 && series.size() >= limit) {
+            if (onLimit != null) {
+                onLimit.accept(this, name);
+            }
+            series.clear();
+        }
+    }
+
+    private static final class Series {
+
+        Histogram histogram = new Histogram();
+        Deque<Metric> samples = new ConcurrentLinkedDeque<>();
+        AtomicInteger size = new AtomicInteger();
+        volatile Object latest;
+
+        void add(Metric metric, boolean retain) {
+            histogram.record(metric.getValue());
+            if (retain) {
+                samples.add(metric);
+                size.incrementAndGet();
+            }
+            latest = metric;
+        }
+
+        void record(String name, Number value, Unit unit, Dimension... dimensions) {
+            histogram.record(value.doubleValue());
+            latest = new Sample(name, value, unit, dimensions);
+        }
+
+        Metric getLatest() {
+            Object last = latest;
+            if (last instanceof Sample) {
+                Metric metric = ((Sample) last).toMetric();
+                latest = metric;
+                return metric;
+            }
+            return (Metric) last;
+        }
+
+        int size() {
+            return (int) Math.max(size.get(), histogram.getCount());
+        }
+
+        List<Metric> getSamples() {
+            if (samples.isEmpty()) {
+                Metric last = getLatest();
+                if (last == null || histogram.getCount() == 0) {
+                    return Collections.emptyList();
+                }
+                return Collections.singletonList(last);
+            }
+            return new ArrayList<>(samples);
+        }
+
+        void clear() {
+            samples.clear();
+            size.set(0);
+            histogram.reset();
+        }
+    }
+
+    private static final class Sample {
+
+        String name;
+        Number value;
+        Unit unit;
+        Dimension[] dimensions;
+
+        Sample(String name, Number value, Unit unit, Dimension... dimensions) {
+            this.name = name;
+            this.value = value;
+            this.unit = unit;
+            this.dimensions = dimensions;
+        }
+
+        Metric toMetric() {
+            return new Metric(name, value, unit, dimensions);
+        }
     }
 }
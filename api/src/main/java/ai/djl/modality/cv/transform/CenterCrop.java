@@ -41,6 +41,24 @@ public class CenterCrop implements Transform {
         this.height = height;
     }
 
+    /**
+     * Returns the width of the cropped image, or -1 to crop to a square.
+     *
+     * @return the width of the cropped image
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the cropped image, or -1 to crop to a square.
+     *
+     * @return the height of the cropped image
+     */
+    public int getHeight() {
+        return height;
+    }
+
     /** {@inheritDoc} */
     @Override
     public NDArray transform(NDArray array) {
@@ -57,6 +57,33 @@ public class Resize implements Transform {
         this.interpolation = interpolation;
     }
 
+    /**
+     * Returns the width of the resized image.
+     *
+     * @return the width of the resized image
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the resized image.
+     *
+     * @return the height of the resized image
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the interpolation of the resize.
+     *
+     * @return the interpolation of the resize
+     */
+    public Image.Interpolation getInterpolation() {
+        return interpolation;
+    }
+
     /** {@inheritDoc} */
     @Override
     public NDArray transform(NDArray array) {
@@ -19,8 +19,10 @@ import ai.djl.modality.cv.transform.CenterFit;
 import ai.djl.modality.cv.transform.Normalize;
 import ai.djl.modality.cv.transform.Resize;
 import ai.djl.modality.cv.transform.ToTensor;
+import ai.djl.modality.cv.util.ImagePreprocessor;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
 import ai.djl.translate.ArgumentsUtil;
 import ai.djl.translate.Batchifier;
 import ai.djl.translate.Pipeline;
@@ -76,9 +78,17 @@ public abstract class BaseImageTranslator<T> implements Translator<Image, T> {
     /** {@inheritDoc} */
     @Override
     public NDList processInput(TranslatorContext ctx, Image input) {
-        NDArray array = input.toNDArray(ctx.getNDManager(), flag);
+        NDManager manager = ctx.getNDManager();
         ctx.setAttachment("width", input.getWidth());
         ctx.setAttachment("height", input.getHeight());
+        // subclasses may still change the pipeline after construction
+        ImagePreprocessor preprocessor = ImagePreprocessor.fromPipeline(pipeline, flag);
+        if (preprocessor != null
+                && preprocessor.isSupported(input)
+                && !"TensorFlow".equals(manager.getEngine().getEngineName())) {
+            return new NDList(preprocessor.process(manager, input));
+        }
+        NDArray array = input.toNDArray(manager, flag);
         return pipeline.transform(new NDList(array));
     }
 
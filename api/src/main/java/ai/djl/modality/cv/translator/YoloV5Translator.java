@@ -15,6 +15,7 @@ package ai.djl.modality.cv.translator;
 import ai.djl.modality.cv.output.BoundingBox;
 import ai.djl.modality.cv.output.DetectedObjects;
 import ai.djl.modality.cv.output.Rectangle;
+import ai.djl.modality.cv.util.NmsUtils;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.translate.ArgumentsUtil;
@@ -73,50 +74,67 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
             List<Rectangle> boxes,
             List<Integer> classIds,
             List<Float> scores) {
-        List<String> retClasses = new ArrayList<>();
-        List<Double> retProbs = new ArrayList<>();
-        List<BoundingBox> retBB = new ArrayList<>();
-
-        for (int classId = 0; classId < classes.size(); classId++) {
-            List<Rectangle> r = new ArrayList<>();
-            List<Double> s = new ArrayList<>();
-            List<Integer> map = new ArrayList<>();
-            for (int j = 0; j < classIds.size(); ++j) {
-                if (classIds.get(j) == classId) {
-                    r.add(boxes.get(j));
-                    s.add(scores.get(j).doubleValue());
-                    map.add(j);
-                }
-            }
-            if (r.isEmpty()) {
-                continue;
-            }
-            List<Integer> nms = Rectangle.nms(r, s, nmsThreshold);
-            for (int index : nms) {
-                int pos = map.get(index);
-                int id = classIds.get(pos);
-                retClasses.add(classes.get(id));
-                retProbs.add(scores.get(pos).doubleValue());
-                Rectangle rect = boxes.get(pos);
-                if (removePadding) {
-                    int padW = (width - imageWidth) / 2;
-                    int padH = (height - imageHeight) / 2;
-                    rect =
-                            new Rectangle(
-                                    (rect.getX() - padW) / imageWidth,
-                                    (rect.getY() - padH) / imageHeight,
-                                    rect.getWidth() / imageWidth,
-                                    rect.getHeight() / imageHeight);
-                } else if (applyRatio) {
-                    rect =
-                            new Rectangle(
-                                    rect.getX() / width,
-                                    rect.getY() / height,
-                                    rect.getWidth() / width,
-                                    rect.getHeight() / height);
-                }
-                retBB.add(rect);
+        int size = boxes.size();
+        float[] corners = new float[size * 4];
+        float[] values = new float[size];
+        int[] ids = new int[size];
+        for (int i = 0; i < size; ++i) {
+            Rectangle rect = boxes.get(i);
+            corners[i * 4] = (float) rect.getX();
+            corners[i * 4 + 1] = (float) rect.getY();
+            corners[i * 4 + 2] = (float) (rect.getX() + rect.getWidth());
+            corners[i * 4 + 3] = (float) (rect.getY() + rect.getHeight());
+            values[i] = scores.get(i);
+            ids[i] = classIds.get(i);
+        }
+        return nms(imageWidth, imageHeight, corners, ids, values, size);
+    }
+
+    /**
+     * Applies per class NMS to the candidate boxes.
+     *
+     * @param imageWidth the original image width
+     * @param imageHeight the original image height
+     * @param boxes the box corners of the candidates, 4 values per box
+     * @param classIds the class ids of the candidates
+     * @param scores the scores of the candidates
+     * @param count the number of candidates
+     * @return the detected objects
+     */
+    protected DetectedObjects nms(
+            int imageWidth,
+            int imageHeight,
+            float[] boxes,
+            int[] classIds,
+            float[] scores,
+            int count) {
+        int[] keep = NmsUtils.batchedNms(boxes, scores, classIds, count, nmsThreshold);
+        List<String> retClasses = new ArrayList<>(keep.length);
+        List<Double> retProbs = new ArrayList<>(keep.length);
+        List<BoundingBox> retBB = new ArrayList<>(keep.length);
+        int padW = (width - imageWidth) / 2;
+        int padH = (height - imageHeight) / 2;
+        for (int index : keep) {
+            retClasses.add(classes.get(classIds[index]));
+            retProbs.add((double) scores[index]);
+            double x = boxes[index * 4];
+            double y = boxes[index * 4 + 1];
+            double w = boxes[index * 4 + 2] - x;
+            double h = boxes[index * 4 + 3] - y;
+            Rectangle rect;
+            if (removePadding) {
+                rect =
+                        new Rectangle(
+                                (x - padW) / imageWidth,
+                                (y - padH) / imageHeight,
+                                w / imageWidth,
+                                h / imageHeight);
+            } else if (applyRatio) {
+                rect = new Rectangle(x / width, y / height, w / width, h / height);
+            } else {
+                rect = new Rectangle(x, y, w, h);
             }
+            retBB.add(rect);
         }
         return new DetectedObjects(retClasses, retProbs, retBB);
     }
@@ -127,9 +145,10 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
         int stride = 5 + sizeClasses;
         int size = flattened.length / stride;
 
-        ArrayList<Rectangle> boxes = new ArrayList<>();
-        ArrayList<Float> scores = new ArrayList<>();
-        ArrayList<Integer> classIds = new ArrayList<>();
+        float[] boxes = new float[size * 4];
+        float[] scores = new float[size];
+        int[] classIds = new int[size];
+        int count = 0;
 
         for (int i = 0; i < size; i++) {
             int indexBase = i * stride;
@@ -147,14 +166,34 @@ public class YoloV5Translator extends ObjectDetectionTranslator {
                 float yPos = flattened[indexBase + 1];
                 float w = flattened[indexBase + 2];
                 float h = flattened[indexBase + 3];
-                Rectangle rect =
-                        new Rectangle(Math.max(0, xPos - w / 2), Math.max(0, yPos - h / 2), w, h);
-                boxes.add(rect);
-                scores.add(score);
-                classIds.add(maxIndex);
+                putBox(boxes, count, xPos, yPos, w, h);
+                scores[count] = score;
+                classIds[count] = maxIndex;
+                ++count;
             }
         }
-        return nms(imageWidth, imageHeight, boxes, classIds, scores);
+        return nms(imageWidth, imageHeight, boxes, classIds, scores, count);
+    }
+
+    /**
+     * Decodes a center based box into the corners of the box at the given position.
+     *
+     * @param boxes the box corners, 4 values per box
+     * @param index the index of the box to write
+     * @param xPos the center x
+     * @param yPos the center y
+     * @param w the box width
+     * @param h the box height
+     */
+    protected static void putBox(
+            float[] boxes, int index, float xPos, float yPos, float w, float h) {
+        float x = Math.max(0, xPos - w / 2);
+        float y = Math.max(0, yPos - h / 2);
+        int base = index * 4;
+        boxes[base] = x;
+        boxes[base + 1] = y;
+        boxes[base + 2] = x + w;
+        boxes[base + 3] = y + h;
     }
 
     private DetectedObjects processFromDetectOutput() {
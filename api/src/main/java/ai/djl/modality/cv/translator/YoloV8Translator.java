@@ -13,14 +13,12 @@
 package ai.djl.modality.cv.translator;
 
 import ai.djl.modality.cv.output.DetectedObjects;
-import ai.djl.modality.cv.output.Rectangle;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.translate.ArgumentsUtil;
 
-import java.util.ArrayList;
 import java.util.Map;
 
 /**
@@ -79,9 +77,10 @@ public class YoloV8Translator extends YoloV5Translator {
                     "Expected classes: " + (nClasses - 4) + ", got " + classes.size());
         }
 
-        ArrayList<Rectangle> boxes = new ArrayList<>();
-        ArrayList<Float> scores = new ArrayList<>();
-        ArrayList<Integer> classIds = new ArrayList<>();
+        float[] boxes = new float[numberRows * 4];
+        float[] scores = new float[numberRows];
+        int[] classIds = new int[numberRows];
+        int count = 0;
 
         // reverse order search in heap; searches through #maxBoxes for optimization when set
         for (int i = numberRows - 1; i > numberRows - maxBoxes; --i) {
@@ -102,15 +101,14 @@ public class YoloV8Translator extends YoloV5Translator {
                 float yPos = buf[index + 1]; // center y
                 float w = buf[index + 2];
                 float h = buf[index + 3];
-                Rectangle rect =
-                        new Rectangle(Math.max(0, xPos - w / 2), Math.max(0, yPos - h / 2), w, h);
-                boxes.add(rect);
-                scores.add(maxClassProb);
-                classIds.add(maxIndex);
+                putBox(boxes, count, xPos, yPos, w, h);
+                scores[count] = maxClassProb;
+                classIds[count] = maxIndex;
+                ++count;
             }
         }
 
-        return nms(imageWidth, imageHeight, boxes, classIds, scores);
+        return nms(imageWidth, imageHeight, boxes, classIds, scores, count);
     }
 
     /** The builder for {@link YoloV8Translator}. */
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.util;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.transform.CenterCrop;
+import ai.djl.modality.cv.transform.Normalize;
+import ai.djl.modality.cv.transform.Resize;
+import ai.djl.modality.cv.transform.ToTensor;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.Pipeline;
+import ai.djl.translate.Transform;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.FloatBuffer;
+import java.util.List;
+
+/**
+ * A fused image pre-processing path that converts a {@link BufferedImage} to a normalized CHW
+ * float32 tensor in a single pass.
+ *
+ * <p>It replaces a {@link Pipeline} of an optional {@link Resize} and {@link CenterCrop}, followed
+ * by a {@link ToTensor} and an optional {@link Normalize}. The pixels are read directly from the
+ * image raster, resampled, scaled and normalized without the intermediate HWC arrays, so it does
+ * not need an engine to run the transforms.
+ *
+ * <p>The resized values are not rounded to uint8 before they are normalized, so the output may
+ * differ slightly from the pipeline on engines that resize uint8 images.
+ */
+public final class ImagePreprocessor {
+
+    private Image.Flag flag;
+    private int channels;
+    private Resize resize;
+    private CenterCrop crop;
+    private boolean cropFirst;
+    private float[] scale;
+    private float[] bias;
+
+    private ImagePreprocessor(
+            Image.Flag flag, Resize resize, CenterCrop crop, boolean cropFirst, Normalize norm) {
+        this.flag = flag;
+        this.resize = resize;
+        this.crop = crop;
+        this.cropFirst = cropFirst;
+        channels = flag.numChannels();
+        scale = new float[channels];
+        bias = new float[channels];
+        for (int i = 0; i < channels; ++i) {
+            if (norm == null) {
+                scale[i] = 1f / 255;
+            } else {
+                float[] mean = norm.getMean();
+                float[] std = norm.getStd();
+                int j = mean.length == 1 ? 0 : i;
+                scale[i] = 1f / (255 * std[j]);
+                bias[i] = -mean[j] / std[j];
+            }
+        }
+    }
+
+    /**
+     * Creates an {@code ImagePreprocessor} that is equivalent to the given pipeline.
+     *
+     * @param pipeline the pre-processing pipeline
+     * @param flag the color mode of the images
+     * @return the {@code ImagePreprocessor}, or {@code null} if the pipeline cannot be fused
+     */
+    public static ImagePreprocessor fromPipeline(Pipeline pipeline, Image.Flag flag) {
+        if (pipeline == null) {
+            return null;
+        }
+        List<Transform> transforms = pipeline.getTransforms(0);
+        if (transforms.size() != pipeline.getTransforms().size()) {
+            return null;
+        }
+        Resize resize = null;
+        CenterCrop crop = null;
+        boolean cropFirst = false;
+        int i = 0;
+        for (; i < transforms.size(); ++i) {
+            Transform transform = transforms.get(i);
+            if (transform.getClass() == Resize.class && resize == null) {
+                resize = (Resize) transform;
+                Image.Interpolation interpolation = resize.getInterpolation();
+                if (interpolation != Image.Interpolation.NEAREST
+                        && interpolation != Image.Interpolation.BILINEAR) {
+                    return null;
+                }
+            } else if (transform.getClass() == CenterCrop.class && crop == null) {
+                crop = (CenterCrop) transform;
+                cropFirst = resize == null;
+            } else {
+                break;
+            }
+        }
+        if (i == transforms.size() || transforms.get(i).getClass() != ToTensor.class) {
+            return null;
+        }
+        ++i;
+        Normalize norm = null;
+        if (i < transforms.size() && transforms.get(i).getClass() == Normalize.class) {
+            norm = (Normalize) transforms.get(i++);
+            int length = norm.getMean().length;
+            if (length != norm.getStd().length || (length != 1 && length != flag.numChannels())) {
+                return null;
+            }
+        }
+        if (i != transforms.size()) {
+            return null;
+        }
+        return new ImagePreprocessor(flag, resize, crop, cropFirst, norm);
+    }
+
+    /**
+     * Returns whether the image can be processed by this {@code ImagePreprocessor}.
+     *
+     * @param image the image
+     * @return {@code true} if the image is backed by a {@link BufferedImage}
+     */
+    public boolean isSupported(Image image) {
+        return image.getWrappedImage() instanceof BufferedImage;
+    }
+
+    /**
+     * Converts the image to a normalized CHW float32 tensor.
+     *
+     * @param manager the manager to create the array
+     * @param image the image backed by a {@link BufferedImage}
+     * @return the CHW float32 tensor
+     */
+    public NDArray process(NDManager manager, Image image) {
+        BufferedImage img = (BufferedImage) image.getWrappedImage();
+        int[] region = {0, 0, img.getWidth(), img.getHeight()};
+        if (crop != null && cropFirst) {
+            region = centerCrop(region[2], region[3]);
+        }
+        int rw = region[2];
+        int rh = region[3];
+        if (resize != null) {
+            rw = resize.getWidth();
+            rh = resize.getHeight();
+        }
+        int[] out = {0, 0, rw, rh};
+        if (crop != null && !cropFirst) {
+            out = centerCrop(rw, rh);
+        }
+        int width = out[2];
+        int height = out[3];
+        boolean nearest =
+                resize != null && resize.getInterpolation() == Image.Interpolation.NEAREST;
+        Axis xs = new Axis(region[0], region[2], rw, out[0], width, nearest);
+        Axis ys = new Axis(region[1], region[3], rh, out[1], height, nearest);
+
+        PixelReader reader = newReader(img);
+        int plane = width * height;
+        FloatBuffer fb = manager.allocateDirect(channels * plane * 4).asFloatBuffer();
+        int[] row0 = new int[width];
+        int[] row1 = new int[width];
+        int[] row2 = new int[width];
+        int[] row3 = new int[width];
+        for (int y = 0; y < height; ++y) {
+            int y0 = ys.index0[y];
+            int y1 = ys.index1[y];
+            float ay = ys.weight[y];
+            for (int x = 0; x < width; ++x) {
+                row0[x] = reader.read(xs.index0[x], y0);
+                row1[x] = reader.read(xs.index1[x], y0);
+                row2[x] = reader.read(xs.index0[x], y1);
+                row3[x] = reader.read(xs.index1[x], y1);
+            }
+            for (int c = 0; c < channels; ++c) {
+                int shift = channels == 1 ? 0 : 16 - c * 8;
+                float a = scale[c];
+                float b = bias[c];
+                int offset = c * plane + y * width;
+                for (int x = 0; x < width; ++x) {
+                    float ax = xs.weight[x];
+                    float top =
+                            ((row0[x] >> shift) & 0xFF) * (1 - ax)
+                                    + ((row1[x] >> shift) & 0xFF) * ax;
+                    float bottom =
+                            ((row2[x] >> shift) & 0xFF) * (1 - ax)
+                                    + ((row3[x] >> shift) & 0xFF) * ax;
+                    fb.put(offset + x, (top * (1 - ay) + bottom * ay) * a + b);
+                }
+            }
+        }
+        return manager.create(fb, new Shape(channels, height, width));
+    }
+
+    private int[] centerCrop(int w, int h) {
+        int width = crop.getWidth();
+        int height = crop.getHeight();
+        if (width < 0) {
+            width = Math.min(w, h);
+            height = width;
+        }
+        int x = 0;
+        int y = 0;
+        int dw = (w - width) / 2;
+        int dh = (h - height) / 2;
+        if (dw > 0) {
+            x = dw;
+            w = width;
+        }
+        if (dh > 0) {
+            y = dh;
+            h = height;
+        }
+        return new int[] {x, y, w, h};
+    }
+
+    private PixelReader newReader(BufferedImage img) {
+        WritableRaster raster = img.getRaster();
+        SampleModel sm = raster.getSampleModel();
+        DataBuffer buffer = raster.getDataBuffer();
+        ColorModel cm = img.getColorModel();
+        int tx = raster.getSampleModelTranslateX();
+        int ty = raster.getSampleModelTranslateY();
+
+        PixelReader reader = null;
+        if (img.getType() == BufferedImage.TYPE_BYTE_GRAY
+                && sm instanceof PixelInterleavedSampleModel
+                && buffer instanceof DataBufferByte) {
+            PixelInterleavedSampleModel model = (PixelInterleavedSampleModel) sm;
+            byte[] data = ((DataBufferByte) buffer).getData();
+            int stride = model.getScanlineStride();
+            int step = model.getPixelStride();
+            int base = buffer.getOffset() + model.getBandOffsets()[0] - ty * stride - tx * step;
+            return (x, y) -> {
+                int gray = data[base + y * stride + x * step] & 0xFF;
+                return gray << 16 | gray << 8 | gray;
+            };
+        } else if (sm instanceof PixelInterleavedSampleModel
+                && buffer instanceof DataBufferByte
+                && cm instanceof ComponentColorModel
+                && cm.getColorSpace().isCS_sRGB()
+                && !cm.isAlphaPremultiplied()
+                && sm.getNumBands() >= 3) {
+            PixelInterleavedSampleModel model = (PixelInterleavedSampleModel) sm;
+            byte[] data = ((DataBufferByte) buffer).getData();
+            int stride = model.getScanlineStride();
+            int step = model.getPixelStride();
+            int[] bands = model.getBandOffsets();
+            int base = buffer.getOffset() - ty * stride - tx * step;
+            int r = bands[0];
+            int g = bands[1];
+            int b = bands[2];
+            reader =
+                    (x, y) -> {
+                        int pos = base + y * stride + x * step;
+                        return (data[pos + r] & 0xFF) << 16
+                                | (data[pos + g] & 0xFF) << 8
+                                | (data[pos + b] & 0xFF);
+                    };
+        } else if (sm instanceof SinglePixelPackedSampleModel
+                && buffer instanceof DataBufferInt
+                && cm instanceof DirectColorModel
+                && cm.getColorSpace().isCS_sRGB()
+                && !cm.isAlphaPremultiplied()
+                && isPacked8((SinglePixelPackedSampleModel) sm)) {
+            SinglePixelPackedSampleModel model = (SinglePixelPackedSampleModel) sm;
+            int[] data = ((DataBufferInt) buffer).getData();
+            int stride = model.getScanlineStride();
+            int[] offsets = model.getBitOffsets();
+            int base = buffer.getOffset() - ty * stride - tx;
+            int r = offsets[0];
+            int g = offsets[1];
+            int b = offsets[2];
+            reader =
+                    (x, y) -> {
+                        int pixel = data[base + y * stride + x];
+                        return ((pixel >>> r) & 0xFF) << 16
+                                | ((pixel >>> g) & 0xFF) << 8
+                                | ((pixel >>> b) & 0xFF);
+                    };
+        }
+        if (reader == null) {
+            // get an array of integer pixels in the default RGB color mode
+            int width = img.getWidth();
+            int[] pixels = img.getRGB(0, 0, width, img.getHeight(), null, 0, width);
+            reader = (x, y) -> pixels[y * width + x];
+        }
+        if (flag == Image.Flag.GRAYSCALE) {
+            PixelReader rgb = reader;
+            reader =
+                    (x, y) -> {
+                        int pixel = rgb.read(x, y);
+                        int red = (pixel >> 16) & 0xFF;
+                        int green = (pixel >> 8) & 0xFF;
+                        int blue = pixel & 0xFF;
+                        return Math.round(0.299f * red + 0.587f * green + 0.114f * blue);
+                    };
+        }
+        return reader;
+    }
+
+    private static boolean isPacked8(SinglePixelPackedSampleModel model) {
+        if (model.getNumBands() < 3) {
+            return false;
+        }
+        int[] masks = model.getBitMasks();
+        int[] offsets = model.getBitOffsets();
+        for (int i = 0; i < 3; ++i) {
+            if (masks[i] != 0xFF << offsets[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Reads a pixel as a packed RGB integer. */
+    private interface PixelReader {
+
+        int read(int x, int y);
+    }
+
+    /** The source indices and interpolation weights along one axis of the output image. */
+    private static final class Axis {
+
+        int[] index0;
+        int[] index1;
+        float[] weight;
+
+        Axis(int start, int length, int resized, int offset, int size, boolean nearest) {
+            index0 = new int[size];
+            index1 = new int[size];
+            weight = new float[size];
+            double ratio = (double) length / resized;
+            for (int i = 0; i < size; ++i) {
+                int dst = i + offset;
+                int src;
+                if (length == resized) {
+                    src = dst;
+                } else if (nearest) {
+                    src = Math.min((int) Math.floor(dst * ratio), length - 1);
+                } else {
+                    double pos = (dst + 0.5) * ratio - 0.5;
+                    src = (int) Math.floor(pos);
+                    float w = (float) (pos - src);
+                    if (src < 0) {
+                        src = 0;
+                        w = 0;
+                    } else if (src >= length - 1) {
+                        src = length - 1;
+                        w = 0;
+                    }
+                    index1[i] = start + Math.min(src + 1, length - 1);
+                    weight[i] = w;
+                    index0[i] = start + src;
+                    continue;
+                }
+                index0[i] = start + src;
+                index1[i] = index0[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.util;
+
+import java.util.Arrays;
+
+/**
+ * {@code NmsUtils} implements non-maximum suppression over primitive arrays.
+ *
+ * <p>Boxes are stored in a flat {@code float[]} as {@code [x1, y1, x2, y2]} corners, 4 values per
+ * box, and their scores in a parallel {@code float[]}. Only the first {@code count} boxes are
+ * considered, so callers can reuse oversized buffers. The candidates are sorted once with their
+ * scores encoded into {@code long} keys, the suppression pass only allocates a few arrays of the
+ * candidate size.
+ */
+public final class NmsUtils {
+
+    private NmsUtils() {}
+
+    /**
+     * Applies non-maximum suppression to the boxes.
+     *
+     * <p>A box is dropped if its IoU with a higher scored box that has been kept is not less than
+     * {@code iouThreshold}.
+     *
+     * @param boxes the box corners, 4 values per box
+     * @param scores the box scores
+     * @param count the number of boxes
+     * @param iouThreshold the IoU threshold
+     * @return the indices of the kept boxes, in descending score order
+     */
+    public static int[] nms(float[] boxes, float[] scores, int count, float iouThreshold) {
+        return suppress(boxes, sortByScore(scores, count), null, iouThreshold);
+    }
+
+    /**
+     * Applies non-maximum suppression to the boxes of each class independently.
+     *
+     * @param boxes the box corners, 4 values per box
+     * @param scores the box scores
+     * @param classIds the non-negative class id of each box
+     * @param count the number of boxes
+     * @param iouThreshold the IoU threshold
+     * @return the indices of the kept boxes, grouped by ascending class id and in descending score
+     *     order within a class
+     */
+    public static int[] batchedNms(
+            float[] boxes, float[] scores, int[] classIds, int count, float iouThreshold) {
+        int[] sorted = sortByScore(scores, count);
+        int numClasses = 0;
+        for (int i = 0; i < count; ++i) {
+            if (classIds[i] < 0) {
+                throw new IllegalArgumentException("Invalid class id: " + classIds[i]);
+            }
+            numClasses = Math.max(numClasses, classIds[i] + 1);
+        }
+
+        // stable counting sort by class id, keeps the score order within a class
+        int[] offsets = new int[numClasses + 1];
+        for (int i = 0; i < count; ++i) {
+            offsets[classIds[i] + 1]++;
+        }
+        for (int c = 0; c < numClasses; ++c) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] order = new int[count];
+        for (int index : sorted) {
+            order[offsets[classIds[index]]++] = index;
+        }
+        return suppress(boxes, order, classIds, iouThreshold);
+    }
+
+    /**
+     * Applies Gaussian soft non-maximum suppression to the boxes.
+     *
+     * <p>Instead of dropping the overlapping boxes, their scores are decayed by {@code exp(-iou^2 /
+     * sigma)}. The decayed scores are written back to {@code scores}, the boxes whose score falls
+     * below {@code scoreThreshold} are dropped.
+     *
+     * @param boxes the box corners, 4 values per box
+     * @param scores the box scores, updated in place with the decayed scores
+     * @param count the number of boxes
+     * @param sigma the Gaussian decay parameter
+     * @param scoreThreshold the minimum score to keep a box
+     * @return the indices of the kept boxes, in the order they were selected
+     */
+    public static int[] softNms(
+            float[] boxes, float[] scores, int count, float sigma, float scoreThreshold) {
+        float[] areas = areas(boxes, count);
+        int[] remaining = new int[count];
+        int size = 0;
+        for (int i = 0; i < count; ++i) {
+            if (scores[i] >= scoreThreshold) {
+                remaining[size++] = i;
+            }
+        }
+        int[] keep = new int[size];
+        int kept = 0;
+        while (size > 0) {
+            int best = 0;
+            for (int p = 1; p < size; ++p) {
+                if (scores[remaining[p]] > scores[remaining[best]]) {
+                    best = p;
+                }
+            }
+            int i = remaining[best];
+            keep[kept++] = i;
+            remaining[best] = remaining[--size];
+
+            int p = 0;
+            while (p < size) {
+                int j = remaining[p];
+                float iou = iou(boxes, areas[i], areas[j], i, j);
+                scores[j] *= (float) Math.exp(-iou * iou / sigma);
+                if (scores[j] < scoreThreshold) {
+                    remaining[p] = remaining[--size];
+                } else {
+                    ++p;
+                }
+            }
+        }
+        return Arrays.copyOf(keep, kept);
+    }
+
+    /**
+     * Returns the IoU (intersection over union) of two boxes.
+     *
+     * @param boxes the box corners, 4 values per box
+     * @param i the index of the first box
+     * @param j the index of the second box
+     * @return the IoU of the two boxes
+     */
+    public static float iou(float[] boxes, int i, int j) {
+        float areaI = (boxes[i * 4 + 2] - boxes[i * 4]) * (boxes[i * 4 + 3] - boxes[i * 4 + 1]);
+        float areaJ = (boxes[j * 4 + 2] - boxes[j * 4]) * (boxes[j * 4 + 3] - boxes[j * 4 + 1]);
+        return iou(boxes, areaI, areaJ, i, j);
+    }
+
+    private static float iou(float[] boxes, float areaI, float areaJ, int i, int j) {
+        int a = i * 4;
+        int b = j * 4;
+        float w = Math.min(boxes[a + 2], boxes[b + 2]) - Math.max(boxes[a], boxes[b]);
+        float h = Math.min(boxes[a + 3], boxes[b + 3]) - Math.max(boxes[a + 1], boxes[b + 1]);
+        if (w < 0 || h < 0) {
+            return 0;
+        }
+        float intersection = w * h;
+        return intersection / (areaI + areaJ - intersection);
+    }
+
+    private static int[] suppress(float[] boxes, int[] order, int[] classIds, float threshold) {
+        int count = order.length;
+        float[] areas = areas(boxes, count);
+        boolean[] suppressed = new boolean[count];
+        int[] keep = new int[count];
+        int kept = 0;
+        for (int p = 0; p < count; ++p) {
+            if (suppressed[p]) {
+                continue;
+            }
+            int i = order[p];
+            keep[kept++] = i;
+            for (int q = p + 1; q < count; ++q) {
+                int j = order[q];
+                if (classIds != null && classIds[j] != classIds[i]) {
+                    // the order is grouped by class
+                    break;
+                }
+                if (!suppressed[q] && !(iou(boxes, areas[i], areas[j], i, j) < threshold)) {
+                    suppressed[q] = true;
+                }
+            }
+        }
+        return Arrays.copyOf(keep, kept);
+    }
+
+    private static int[] sortByScore(float[] scores, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; ++i) {
+            int bits = Float.floatToIntBits(scores[i]);
+            // flip the bits of negative values to get an int with the same order as the float
+            bits ^= (bits >> 31) & 0x7fffffff;
+            // invert for the descending order, the lower half keeps the original index
+            keys[i] = ((long) ~bits << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[count];
+        for (int i = 0; i < count; ++i) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private static float[] areas(float[] boxes, int count) {
+        float[] areas = new float[count];
+        for (int i = 0; i < count; ++i) {
+            int base = i * 4;
+            areas[i] = (boxes[base + 2] - boxes[base]) * (boxes[base + 3] - boxes[base + 1]);
+        }
+        return areas;
+    }
+}
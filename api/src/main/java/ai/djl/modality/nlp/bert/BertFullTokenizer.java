@@ -26,6 +26,7 @@ import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * BertFullTokenizer runs end to end tokenization of input text
@@ -67,11 +68,51 @@ public class BertFullTokenizer extends BertTokenizer {
     /** {@inheritDoc} */
     @Override
     public List<String> tokenize(String input) {
-        List<String> tokens = new ArrayList<>(Collections.singletonList(input));
-        for (TextProcessor processor : basicBertPreprocessors) {
-            tokens = processor.preprocess(tokens);
+        return wordpieceTokenizer.preprocess(basicTokenize(input));
+    }
+
+    /**
+     * Tokenizes the input and returns the indices of the word pieces in the vocabulary.
+     *
+     * @param input the input to tokenize
+     * @return the indices of the word pieces
+     */
+    public long[] tokenizeToIndices(String input) {
+        List<String> words = basicTokenize(input);
+        long[][] pieces = new long[words.size()][];
+        int size = 0;
+        for (int i = 0; i < pieces.length; ++i) {
+            pieces[i] = wordpieceTokenizer.tokenizeToIndices(words.get(i));
+            size += pieces[i].length;
+        }
+        long[] indices = new long[size];
+        int pos = 0;
+        for (long[] piece : pieces) {
+            System.arraycopy(piece, 0, indices, pos, piece.length);
+            pos += piece.length;
         }
-        return wordpieceTokenizer.preprocess(tokens);
+        return indices;
+    }
+
+    /**
+     * Tokenizes a batch of inputs in parallel on the common {@code ForkJoinPool}.
+     *
+     * @param inputs the inputs to tokenize
+     * @return the tokens of each input
+     */
+    public List<List<String>> batchTokenize(List<String> inputs) {
+        return inputs.parallelStream().map(this::tokenize).collect(Collectors.toList());
+    }
+
+    /**
+     * Tokenizes a batch of inputs in parallel on the common {@code ForkJoinPool} and returns the
+     * indices of the word pieces in the vocabulary.
+     *
+     * @param inputs the inputs to tokenize
+     * @return the indices of the word pieces of each input
+     */
+    public List<long[]> batchTokenizeToIndices(List<String> inputs) {
+        return inputs.parallelStream().map(this::tokenizeToIndices).collect(Collectors.toList());
     }
 
     /** {@inheritDoc} */
@@ -80,6 +121,14 @@ public class BertFullTokenizer extends BertTokenizer {
         return String.join(" ", tokens).replace(" ##", "").trim();
     }
 
+    private List<String> basicTokenize(String input) {
+        List<String> tokens = new ArrayList<>(Collections.singletonList(input));
+        for (TextProcessor processor : basicBertPreprocessors) {
+            tokens = processor.preprocess(tokens);
+        }
+        return tokens;
+    }
+
     /**
      * Get a list of {@link TextProcessor}s to process input text for Bert models.
      *
@@ -16,7 +16,10 @@ import ai.djl.modality.nlp.Vocabulary;
 import ai.djl.modality.nlp.preprocess.SimpleTokenizer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * WordpieceTokenizer tokenizes a piece of text into its word pieces.
@@ -36,9 +39,13 @@ import java.util.List;
  */
 public class WordpieceTokenizer extends SimpleTokenizer {
 
+    private static final long NO_MATCH = -1;
+
     private String unknown;
     private int maxInputChars;
     private Vocabulary vocabulary;
+    private Trie prefixes;
+    private Trie suffixes;
 
     /**
      * Creates an instance of {@code WordpieceTokenizer}.
@@ -51,57 +58,183 @@ public class WordpieceTokenizer extends SimpleTokenizer {
         this.unknown = unknown;
         this.maxInputChars = maxInputChars;
         this.vocabulary = vocabulary;
+        prefixes = new Trie(vocabulary, false);
+        suffixes = new Trie(vocabulary, true);
     }
 
     /** {@inheritDoc} */
     @Override
     public List<String> tokenize(String sentence) {
-        StringBuilder sb = new StringBuilder();
-        List<String> subTokens = new ArrayList<>();
         List<String> outputTokens = new ArrayList<>();
+        long[] indices = encode(sentence);
+        for (long index : indices) {
+            outputTokens.add(index < 0 ? unknown : vocabulary.getToken(index));
+        }
+        return outputTokens;
+    }
+
+    /**
+     * Tokenizes the input and returns the indices of the word pieces in the vocabulary.
+     *
+     * @param sentence the input to tokenize
+     * @return the indices of the word pieces, unknown words are mapped to the index of the unknown
+     *     token
+     */
+    public long[] tokenizeToIndices(String sentence) {
+        long[] indices = encode(sentence);
+        long unknownIndex = -1;
+        for (int i = 0; i < indices.length; ++i) {
+            if (indices[i] < 0) {
+                if (unknownIndex < 0) {
+                    unknownIndex = vocabulary.getIndex(unknown);
+                }
+                indices[i] = unknownIndex;
+            }
+        }
+        return indices;
+    }
+
+    private long[] encode(String sentence) {
+        long[] output = new long[16];
+        int size = 0;
         for (String token : super.tokenize(sentence.trim())) {
-            char[] chars = token.toCharArray();
-            if (chars.length > maxInputChars) {
-                outputTokens.add(unknown);
+            int length = token.length();
+            if (length > maxInputChars) {
+                output = grow(output, size + 1);
+                output[size++] = NO_MATCH;
                 continue;
             }
-            boolean isBad = false;
+            int mark = size;
             int start = 0;
-            subTokens.clear();
-            String currentSubString = null;
-            while (start < chars.length) {
-                int end = chars.length;
-                while (start < end) {
-                    sb.setLength(0);
-                    sb.append(token, start, end);
-                    if (start > 0) {
-                        sb.insert(0, "##");
+            while (start < length) {
+                Trie trie = start == 0 ? prefixes : suffixes;
+                long match = trie.longestMatch(token, start);
+                if (match == NO_MATCH) {
+                    break;
+                }
+                if (size - mark >= maxInputChars) {
+                    throw new IllegalStateException("Too many subTokens for: '" + sentence + '\'');
+                }
+                output = grow(output, size + 1);
+                output[size++] = (int) match;
+                start = (int) (match >>> 32);
+            }
+            if (start < length) {
+                // the word cannot be tokenized, drop its word pieces
+                size = mark;
+                output = grow(output, size + 1);
+                output[size++] = NO_MATCH;
+            }
+        }
+        return Arrays.copyOf(output, size);
+    }
+
+    private static long[] grow(long[] array, int minSize) {
+        if (minSize <= array.length) {
+            return array;
+        }
+        return Arrays.copyOf(array, Math.max(minSize, array.length * 2));
+    }
+
+    /**
+     * A character trie of the vocabulary.
+     *
+     * <p>The edges of each node are stored as a sorted range of the flat {@code labels} array, so a
+     * word is matched in a single walk without creating substrings.
+     */
+    private static final class Trie {
+
+        private int[] offsets;
+        private char[] labels;
+        private int[] targets;
+        private int[] values;
+
+        /**
+         * Builds the trie of a vocabulary.
+         *
+         * @param vocabulary the vocabulary
+         * @param suffix {@code true} to build the trie of the "##" continuation word pieces without
+         *     the "##" prefix
+         */
+        Trie(Vocabulary vocabulary, boolean suffix) {
+            List<TreeMap<Character, Integer>> children = new ArrayList<>();
+            List<Integer> tokenIndices = new ArrayList<>();
+            children.add(new TreeMap<>());
+            tokenIndices.add(-1);
+            long size = vocabulary.size();
+            for (long i = 0; i < size; ++i) {
+                String token = vocabulary.getToken(i);
+                if (token == null) {
+                    continue;
+                }
+                int begin = 0;
+                if (suffix) {
+                    if (!token.startsWith("##")) {
+                        continue;
                     }
-                    String subString = sb.toString();
-                    if (vocabulary.contains(subString)) {
-                        currentSubString = subString;
-                        break;
-                    } else {
-                        currentSubString = null;
+                    begin = 2;
+                }
+                if (begin == token.length()) {
+                    continue;
+                }
+                int node = 0;
+                for (int j = begin; j < token.length(); ++j) {
+                    Integer next = children.get(node).get(token.charAt(j));
+                    if (next == null) {
+                        next = children.size();
+                        children.get(node).put(token.charAt(j), next);
+                        children.add(new TreeMap<>());
+                        tokenIndices.add(-1);
                     }
-                    end--;
+                    node = next;
                 }
-                if (currentSubString == null) {
-                    isBad = true;
-                    break;
+                if (tokenIndices.get(node) < 0) {
+                    tokenIndices.set(node, Math.toIntExact(vocabulary.getIndex(token)));
                 }
-                subTokens.add(currentSubString);
-                if (subTokens.size() > maxInputChars) {
-                    throw new IllegalStateException("Too many subTokens for: '" + sentence + '\'');
+            }
+
+            int nodes = children.size();
+            offsets = new int[nodes + 1];
+            labels = new char[nodes - 1];
+            targets = new int[nodes - 1];
+            values = new int[nodes];
+            int edge = 0;
+            for (int node = 0; node < nodes; ++node) {
+                offsets[node] = edge;
+                values[node] = tokenIndices.get(node);
+                for (Map.Entry<Character, Integer> entry : children.get(node).entrySet()) {
+                    labels[edge] = entry.getKey();
+                    targets[edge] = entry.getValue();
+                    ++edge;
                 }
-                start = end;
             }
-            if (isBad) {
-                outputTokens.add(unknown);
-            } else {
-                outputTokens.addAll(subTokens);
+            offsets[nodes] = edge;
+        }
+
+        /**
+         * Finds the longest word piece at the start position of the word.
+         *
+         * @param word the word
+         * @param start the start position
+         * @return the end position in the high 32 bits and the token index in the low 32 bits, or
+         *     {@code -1} if no word piece matches
+         */
+        long longestMatch(String word, int start) {
+            long match = NO_MATCH;
+            int node = 0;
+            for (int i = start; i < word.length(); ++i) {
+                int edge =
+                        Arrays.binarySearch(
+                                labels, offsets[node], offsets[node + 1], word.charAt(i));
+                if (edge < 0) {
+                    break;
+                }
+                node = targets[edge];
+                if (values[node] >= 0) {
+                    match = (long) (i + 1) << 32 | values[node];
+                }
             }
+            return match;
         }
-        return outputTokens;
     }
 }
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.generate;
+
+import ai.djl.inference.streaming.ChunkedBytesSupplier;
+import ai.djl.ndarray.BytesSupplier;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.TranslateException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * {@code ContinuousBatcher} drives a {@link SeqBatchScheduler} on a background thread to serve text
+ * generation requests with continuous batching.
+ *
+ * <p>Requests can be submitted from any thread. Before each forward step, the pending requests are
+ * admitted into the running batch as long as the maximum batch size and the token budget allow it.
+ * The token generated for each sequence is streamed as soon as the step completes, and finished
+ * sequences are evicted from the batch immediately, so their slots are available for the next step.
+ *
+ * <p>A request is charged its prompt length plus its generation budget: the number of tokens it
+ * may still generate, which is {@code maxNewTokens} capped by {@link
+ * SearchConfig#getMaxSeqLength()} and at least one. The charge is returned as soon as the sequence
+ * finishes, either with the EOS token or when its generation budget is used up.
+ */
+public class ContinuousBatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContinuousBatcher.class);
+
+    private SeqBatchScheduler scheduler;
+    private NDManager manager;
+    private int maxBatchSize;
+    private int maxTokens;
+    private LongFunction<BytesSupplier> tokenEncoder;
+
+    private LinkedBlockingQueue<Generation> pending;
+    private Map<Long, Generation> active;
+    private int reservedTokens;
+    private AtomicLong uidGenerator;
+    private ExecutorService executor;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new {@code ContinuousBatcher} instance and starts its serving thread.
+     *
+     * @param scheduler the scheduler that runs the search algorithm, it must not be used by others
+     * @param manager the manager to create the input arrays
+     * @param maxBatchSize the maximum number of sequences in the running batch
+     * @param maxTokens the maximum total token budget of the sequences in the running batch
+     * @param tokenEncoder the function to convert a generated token id into a streaming chunk,
+     *     usually by decoding it with a tokenizer
+     */
+    public ContinuousBatcher(
+            SeqBatchScheduler scheduler,
+            NDManager manager,
+            int maxBatchSize,
+            int maxTokens,
+            LongFunction<BytesSupplier> tokenEncoder) {
+        if (maxBatchSize <= 0 || maxTokens <= 0) {
+            throw new IllegalArgumentException("maxBatchSize and maxTokens must be positive");
+        }
+        this.scheduler = scheduler;
+        this.manager = manager;
+        this.maxBatchSize = maxBatchSize;
+        this.maxTokens = maxTokens;
+        this.tokenEncoder = tokenEncoder;
+        pending = new LinkedBlockingQueue<>();
+        active = new ConcurrentHashMap<>();
+        uidGenerator = new AtomicLong();
+        executor =
+                Executors.newSingleThreadExecutor(
+                        r -> {
+                            Thread thread = new Thread(r, "continuous-batcher");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        executor.execute(this::run);
+    }
+
+    /**
+     * Submits a generation request that generates up to {@link SearchConfig#getMaxSeqLength()}
+     * tokens in total.
+     *
+     * @param inputIds the token ids of the prompt, without padding
+     * @return the {@link Generation} that streams the generated tokens
+     * @throws IllegalArgumentException if the request exceeds the token budget
+     */
+    public Generation submit(long[] inputIds) {
+        return submit(inputIds, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Submits a generation request.
+     *
+     * @param inputIds the token ids of the prompt, without padding
+     * @param maxNewTokens the maximum number of tokens to generate
+     * @return the {@link Generation} that streams the generated tokens
+     * @throws IllegalArgumentException if the request exceeds the token budget
+     */
+    public Generation submit(long[] inputIds, int maxNewTokens) {
+        if (closed) {
+            throw new IllegalStateException("ContinuousBatcher is closed.");
+        }
+        if (inputIds.length == 0) {
+            throw new IllegalArgumentException("inputIds must not be empty");
+        }
+        if (maxNewTokens <= 0) {
+            throw new IllegalArgumentException("maxNewTokens must be positive: " + maxNewTokens);
+        }
+        int remaining = scheduler.config.getMaxSeqLength() - inputIds.length;
+        int budget = Math.max(1, Math.min(maxNewTokens, remaining));
+        int cost = inputIds.length + budget;
+        if (cost > maxTokens) {
+            throw new IllegalArgumentException(
+                    "Request requires " + cost + " tokens, exceeds maxTokens: " + maxTokens);
+        }
+        Generation generation =
+                new Generation(uidGenerator.incrementAndGet(), inputIds, budget, cost);
+        pending.offer(generation);
+        // close() may have drained the queue between the check and the offer
+        if (closed && pending.remove(generation)) {
+            generation.fail(new IllegalStateException("ContinuousBatcher is closed."));
+        }
+        return generation;
+    }
+
+    /**
+     * Returns the number of sequences in the running batch.
+     *
+     * @return the number of sequences in the running batch
+     */
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Returns the number of requests waiting to be admitted.
+     *
+     * @return the number of requests waiting to be admitted
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /** Stops the serving thread, the unfinished requests fail. */
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        boolean terminated = false;
+        try {
+            terminated = executor.awaitTermination(1, TimeUnit.MINUTES);
+            if (!terminated) {
+                logger.warn("Timed out waiting for the generation step to finish.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failAll(new IllegalStateException("ContinuousBatcher is closed."), terminated);
+        if (terminated) {
+            discardBatch();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                try {
+                    admit();
+                    if (!active.isEmpty()) {
+                        step();
+                    }
+                } catch (TranslateException | RuntimeException e) {
+                    logger.error("Generation step failed, dropping the running batch.", e);
+                    discardBatch();
+                    reservedTokens = 0;
+                    for (Generation generation : active.values()) {
+                        generation.fail(e);
+                    }
+                    active.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void admit() throws InterruptedException, TranslateException {
+        List<Generation> admitted = new ArrayList<>();
+        if (active.isEmpty()) {
+            Generation first = pending.take();
+            admitted.add(first);
+            reservedTokens += first.cost;
+        }
+        while (active.size() + admitted.size() < maxBatchSize) {
+            Generation next = pending.peek();
+            if (next == null || reservedTokens + next.cost > maxTokens) {
+                // keep the FIFO order, a large request is not starved by smaller ones
+                break;
+            }
+            pending.poll();
+            admitted.add(next);
+            reservedTokens += next.cost;
+        }
+        if (admitted.isEmpty()) {
+            return;
+        }
+
+        int batch = admitted.size();
+        int seqLength = 0;
+        for (Generation generation : admitted) {
+            seqLength = Math.max(seqLength, generation.inputIds.length);
+        }
+        long[] ids = new long[batch * seqLength];
+        long[] uids = new long[batch];
+        Arrays.fill(ids, scheduler.config.getPadTokenId());
+        for (int i = 0; i < batch; ++i) {
+            Generation generation = admitted.get(i);
+            long[] input = generation.inputIds;
+            System.arraycopy(input, 0, ids, (i + 1) * seqLength - input.length, input.length);
+            uids[i] = generation.uid;
+            active.put(generation.uid, generation);
+        }
+        SeqBatcher previous = scheduler.seqBatcher;
+        NDList stale =
+                previous == null || previous.getData() == null
+                        ? null
+                        : previous.getData().getList();
+        scheduler.addRequest(
+                manager.create(ids, new Shape(batch, seqLength)), manager.create(uids));
+        release(stale);
+    }
+
+    private void step() throws TranslateException {
+        SeqBatcher batcher = scheduler.seqBatcher;
+        NDList stale = batcher.getData().getList();
+        long[] tokens;
+        try (NDArray outputIds = scheduler.inferenceCall()) {
+            tokens = outputIds.toLongArray();
+        }
+        long[] uids = batcher.batchUid.toLongArray();
+        for (int i = 0; i < uids.length; ++i) {
+            Generation generation = active.get(uids[i]);
+            if (generation != null && ++generation.generated >= generation.maxNewTokens) {
+                batcher.exitSequence(i);
+            }
+        }
+        Map<Long, NDArray> finished = Collections.emptyMap();
+        if (batcher.sequenceComplete()) {
+            finished = batcher.collectAndTrim();
+        }
+        for (int i = 0; i < uids.length; ++i) {
+            Generation generation = active.get(uids[i]);
+            if (generation != null) {
+                generation.append(tokens[i], finished.containsKey(uids[i]));
+            }
+        }
+        for (Map.Entry<Long, NDArray> entry : finished.entrySet()) {
+            Generation generation = active.remove(entry.getKey());
+            try (NDArray output = entry.getValue()) {
+                if (generation != null) {
+                    reservedTokens -= generation.cost;
+                    generation.result.complete(output.toLongArray());
+                }
+            }
+        }
+        release(stale);
+    }
+
+    /** Closes the arrays of the previous search state that are not part of the current one. */
+    private void release(NDList stale) {
+        if (stale == null) {
+            return;
+        }
+        SeqBatcher batcher = scheduler.seqBatcher;
+        Set<NDArray> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (batcher != null && batcher.getData() != null) {
+            current.addAll(batcher.getData().getList());
+        }
+        for (NDArray array : stale) {
+            if (!current.contains(array)) {
+                array.close();
+            }
+        }
+    }
+
+    /** Closes the arrays of the running batch after it has been dropped. */
+    private void discardBatch() {
+        SeqBatcher batcher = scheduler.seqBatcher;
+        scheduler.seqBatcher = null;
+        if (batcher == null) {
+            return;
+        }
+        if (batcher.getData() != null) {
+            batcher.getData().getList().close();
+        }
+        if (batcher.kvCache != null) {
+            for (long uid : batcher.batchUid.toLongArray()) {
+                batcher.kvCache.free(uid);
+            }
+        }
+        batcher.batchUid.close();
+        batcher.offSets.close();
+        batcher.manager.close();
+    }
+
+    /** Fails the pending and the running requests. */
+    private void failAll(Throwable t, boolean terminated) {
+        Generation generation;
+        while ((generation = pending.poll()) != null) {
+            generation.fail(t);
+        }
+        for (Generation g : active.values()) {
+            g.fail(t);
+        }
+        // the serving thread still uses the running batch if it did not stop in time
+        if (terminated) {
+            active.clear();
+        }
+    }
+
+    /** A generation request submitted to the {@link ContinuousBatcher}. */
+    public final class Generation {
+
+        long uid;
+        long[] inputIds;
+        int maxNewTokens;
+        int generated;
+        int cost;
+        ChunkedBytesSupplier output;
+        CompletableFuture<long[]> result;
+
+        Generation(long uid, long[] inputIds, int maxNewTokens, int cost) {
+            this.uid = uid;
+            this.inputIds = inputIds;
+            this.maxNewTokens = maxNewTokens;
+            this.cost = cost;
+            output = new ChunkedBytesSupplier();
+            result = new CompletableFuture<>();
+        }
+
+        /**
+         * Returns the unique id of the request.
+         *
+         * @return the unique id of the request
+         */
+        public long getUid() {
+            return uid;
+        }
+
+        /**
+         * Returns the stream of the generated tokens, one chunk per token.
+         *
+         * @return the stream of the generated tokens
+         */
+        public ChunkedBytesSupplier getOutput() {
+            return output;
+        }
+
+        /**
+         * Returns the future of the complete sequence, including the prompt.
+         *
+         * @return the future of the complete sequence
+         */
+        public CompletableFuture<long[]> getResult() {
+            return result;
+        }
+
+        void append(long token, boolean last) {
+            output.appendContent(tokenEncoder.apply(token), last);
+        }
+
+        void fail(Throwable t) {
+            if (result.completeExceptionally(t)) {
+                output.appendContent(new byte[0], true);
+            }
+        }
+    }
+}
@@ -64,18 +64,26 @@ public class ContrastiveSeqBatchScheduler extends SeqBatchScheduler {
             seqDimOrder[3] = -1; // -1 means no sequence dimension
             Arrays.fill(seqDimOrder, 4, seqDimOrder.length, 2);
 
+            NDList pastKeyValues = output.getPastKeyValuesList();
+            if (kvCache != null) {
+                // the cache takes over the key values, the prompt padding is skipped
+                kvCache.append(batchUids.toLongArray(), initOffSets.toLongArray(), pastKeyValues);
+                pastKeyValues = new NDList();
+            }
+
             BatchTensorList batchTensorList =
                     new ContrastiveBatchTensorList(
                             inputIds,
                             attentionMask,
                             output.getHiddenState(),
                             lastLogits,
-                            output.getPastKeyValuesList(),
+                            pastKeyValues,
                             seqDimOrder);
             SeqBatcher ret = new SeqBatcher(batchTensorList, batchUids, initOffSets, manager);
+            ret.kvCache = kvCache;
 
             // memory management
-            NDScope.unregister(output.getPastKeyValuesList());
+            NDScope.unregister(pastKeyValues);
             NDScope.unregister(output.getHiddenState(), attentionMask, lastLogits);
             NDScope.unregister(ret.offSets, ret.batchUid);
 
@@ -94,6 +102,12 @@ public class ContrastiveSeqBatchScheduler extends SeqBatchScheduler {
             NDArray logits = ((ContrastiveBatchTensorList) seqBatcher.getData()).getLogits();
             NDArray topKIds = logits.topK(config.getK(), -1, true, false).get(1); // [batch, topK]
             ContrastiveBatchTensorList searchState = (ContrastiveBatchTensorList) seqBatcher.data;
+            long[] uids = null;
+            NDList pastKeyValues = searchState.getPastKeyValues();
+            if (kvCache != null) {
+                uids = seqBatcher.batchUid.toLongArray();
+                pastKeyValues = kvCache.gather(uids, Math.toIntExact(seqBatcher.seqLength));
+            }
 
             // Embed the topk dimension into batch dimension for an inference all
             // [batch, topK] -> [batch * [topK]] -> [[batch * [topK]], seqLength=1]
@@ -105,7 +119,7 @@ public class ContrastiveSeqBatchScheduler extends SeqBatchScheduler {
             // [batch, heads, seq_past, feature] -> [batch * topK, head, seq_past, feature]
             NDList kCopyPastKeyValues =
                     new NDList(
-                            searchState.getPastKeyValues().stream()
+                            pastKeyValues.stream()
                                     .map(ndarray -> ndarray.repeat(0, config.getK()))
                                     .collect(Collectors.toList()));
             assert kCopyPastKeyValues.get(0).getDataType() == DataType.FLOAT32
@@ -146,8 +160,8 @@ public class ContrastiveSeqBatchScheduler extends SeqBatchScheduler {
 
             /* Update searchState for next loop */
             long logitsDim = logits.getShape().get(1);
-            long numHeads = searchState.getPastKeyValues().get(0).getShape().get(1);
-            long kvDim = searchState.getPastKeyValues().get(0).getShape().get(3);
+            long numHeads = pastKeyValues.get(0).getShape().get(1);
+            long kvDim = pastKeyValues.get(0).getShape().get(3);
             long currentSeqLength = searchState.getPastOutputIds().getShape().get(1);
             long hiddenDim = searchState.getPastHiddenStates().getShape().get(2);
 
@@ -169,13 +183,16 @@ public class ContrastiveSeqBatchScheduler extends SeqBatchScheduler {
 
             // Take from candidateOutput
             // [batch * k, heads, seq_past, feature] --select--> [batch, heads, seq_past, feature]
+            // With the cache only the new token is taken: [batch, heads, 1, feature]
+            long selectSeqLength = kvCache == null ? currentSeqLength + 1 : 1;
             Function<NDArray, NDArray> fn =
                     ndarray ->
-                            ndarray.reshape(
+                            (kvCache == null ? ndarray : ndarray.get(":, :, -1:, :"))
+                                    .reshape(
                                             numBatch,
                                             config.getK(),
                                             numHeads,
-                                            currentSeqLength + 1,
+                                            selectSeqLength,
                                             kvDim)
                                     .get(selectIndex);
             NDList nextPastKeyValue =
@@ -183,6 +200,10 @@ public class ContrastiveSeqBatchScheduler extends SeqBatchScheduler {
                             candidateOutput.getPastKeyValuesList().stream()
                                     .map(fn)
                                     .collect(Collectors.toList()));
+            if (kvCache != null) {
+                kvCache.append(uids, null, nextPastKeyValue);
+                nextPastKeyValue = new NDList();
+            }
 
             // To be concatenated into searchState.pastHiddenStates
             // [batch * k, inputSeq=1, hiddenDim]
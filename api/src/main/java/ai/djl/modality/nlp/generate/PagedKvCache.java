@@ -0,0 +1,436 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.generate;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.NDScope;
+import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code PagedKvCache} stores the past key values of a set of sequences in fixed-size blocks.
+ *
+ * <p>Each of the (k, v) * numLayer tensors owns a pool of shape [numBlocks * blockSize, heads,
+ * kvfeature]. A sequence is described by a block table that lists the blocks holding its tokens.
+ * The entries of a step are scattered into the blocks of their sequences with a single write per
+ * tensor. Adding, trimming or evicting sequences only changes the block tables, the cached tensors
+ * are never copied.
+ *
+ * <p>{@link #gather(long[], int)} returns the dense, left padded [batch, heads, seq_past,
+ * kvfeature] tensors expected by the language models. Block 0 is reserved and stays zero, it
+ * backs the padding positions. By default the dense tensors are kept between calls: as long as the
+ * batch does not change, a step only writes its new tokens into them. This trades memory for
+ * speed, the kept copies hold up to twice the cached tokens of the batch in addition to the pools.
+ * Use {@link #setKeepDenseViews(boolean)} to build the dense tensors from the block tables on every
+ * call instead.
+ */
+public class PagedKvCache implements AutoCloseable {
+
+    private NDManager manager;
+    private int blockSize;
+    private int numBlocks;
+    private long heads;
+    private long kvDim;
+    private NDList pools;
+    private Deque<Integer> freeBlocks;
+    private Map<Long, BlockTable> tables;
+
+    // [batch, heads, capacity, kvfeature], the dense view of the last gathered batch
+    private NDList views;
+    private boolean keepViews = true;
+    private long[] viewUids;
+    private int viewLength;
+
+    /**
+     * Constructs a new {@code PagedKvCache} instance.
+     *
+     * @param manager the manager to allocate the block pools
+     * @param numTensors the number of cached tensors, usually 2 * numLayer
+     * @param heads the number of attention heads
+     * @param kvDim the feature size of each head
+     * @param dataType the data type of the cached tensors
+     * @param blockSize the number of tokens in each block
+     * @param numBlocks the total number of blocks, including the reserved padding block
+     */
+    public PagedKvCache(
+            NDManager manager,
+            int numTensors,
+            long heads,
+            long kvDim,
+            DataType dataType,
+            int blockSize,
+            int numBlocks) {
+        if (blockSize <= 0 || numBlocks < 2) {
+            throw new IllegalArgumentException("Invalid blockSize or numBlocks");
+        }
+        this.manager = manager.newSubManager();
+        this.blockSize = blockSize;
+        this.numBlocks = numBlocks;
+        this.heads = heads;
+        this.kvDim = kvDim;
+        pools = new NDList(numTensors);
+        Shape shape = new Shape((long) numBlocks * blockSize, heads, kvDim);
+        for (int i = 0; i < numTensors; ++i) {
+            pools.add(this.manager.zeros(shape, dataType));
+        }
+        NDScope.unregister(pools);
+        freeBlocks = new ArrayDeque<>(numBlocks);
+        for (int i = 1; i < numBlocks; ++i) {
+            freeBlocks.add(i);
+        }
+        tables = new HashMap<>();
+    }
+
+    /**
+     * Appends the key values of a step to the given sequences, new sequences are added
+     * automatically.
+     *
+     * @param uids the sequence uids, one for each batch entry
+     * @param offSets the number of left padding positions of each batch entry to skip, or {@code
+     *     null} if there is no padding
+     * @param keyValues the (k, v) * numLayer tensors of the step, each of shape [batch, heads, seq,
+     *     kvfeature]
+     * @throws IllegalStateException if there are not enough free blocks
+     */
+    public void append(long[] uids, long[] offSets, NDList keyValues) {
+        if (keyValues.size() != pools.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + pools.size() + " tensors, got " + keyValues.size());
+        }
+        int seq = Math.toIntExact(keyValues.get(0).getShape().get(2));
+        int required = 0;
+        int total = 0;
+        for (int i = 0; i < uids.length; ++i) {
+            BlockTable table = tables.get(uids[i]);
+            int count = seq - (offSets == null ? 0 : Math.toIntExact(offSets[i]));
+            if (table == null) {
+                required += (count + blockSize - 1) / blockSize;
+            } else {
+                required += table.blocksFor(count, blockSize) - table.numBlocks;
+            }
+            total += count;
+        }
+        if (required > freeBlocks.size()) {
+            throw new IllegalStateException("Out of KV cache blocks");
+        }
+
+        // Flat pool slot of every new token, and its row in the [batch * seq] step layout
+        long[] slots = new long[total];
+        long[] rows = offSets == null ? null : new long[total];
+        int k = 0;
+        for (int i = 0; i < uids.length; ++i) {
+            BlockTable table = tables.computeIfAbsent(uids[i], key -> new BlockTable());
+            int skip = offSets == null ? 0 : Math.toIntExact(offSets[i]);
+            int start = table.start + table.length;
+            reserve(table, seq - skip);
+            for (int j = skip; j < seq; ++j) {
+                int pos = start + j - skip;
+                slots[k] = (long) table.blocks[pos / blockSize] * blockSize + pos % blockSize;
+                if (rows != null) {
+                    rows[k] = (long) i * seq + j;
+                }
+                ++k;
+            }
+        }
+
+        if (total == 0) {
+            return;
+        }
+        try (NDArray slotIndex = manager.create(slots);
+                NDArray rowIndex = rows == null ? null : manager.create(rows)) {
+            NDIndex dst = new NDIndex("{}", slotIndex);
+            for (int t = 0; t < pools.size(); ++t) {
+                // [batch, heads, seq, kvfeature] -> [batch * seq, heads, kvfeature]
+                try (NDArray transposed = keyValues.get(t).transpose(0, 2, 1, 3);
+                        NDArray tokens = transposed.reshape(-1, heads, kvDim);
+                        NDArray valid =
+                                rowIndex == null ? null : tokens.get(new NDIndex("{}", rowIndex))) {
+                    pools.get(t).set(dst, valid == null ? tokens : valid);
+                }
+            }
+        }
+
+        if (offSets == null && views != null && Arrays.equals(uids, viewUids)) {
+            extendViews(keyValues, seq);
+        } else {
+            closeViews();
+        }
+    }
+
+    /**
+     * Sets whether the dense tensors returned by {@link #gather(long[], int)} are kept between
+     * calls.
+     *
+     * <p>Keeping them avoids copying all cached tokens of the batch on every step, but they take up
+     * to [batch, heads, 2 * seq_past, kvfeature] per cached tensor until the batch changes.
+     *
+     * @param keepViews {@code true} to keep the dense tensors, {@code false} to build them on every
+     *     call
+     */
+    public void setKeepDenseViews(boolean keepViews) {
+        this.keepViews = keepViews;
+        if (!keepViews) {
+            closeViews();
+        }
+    }
+
+    /**
+     * Returns the dense past key values of the given sequences, left padded to the longest one.
+     *
+     * @param uids the sequence uids in batch order
+     * @return the (k, v) * numLayer tensors of shape [batch, heads, seq_past, kvfeature]
+     * @see #gather(long[], int)
+     */
+    public NDList gather(long[] uids) {
+        int maxLength = 0;
+        for (long uid : uids) {
+            maxLength = Math.max(maxLength, getTable(uid).length);
+        }
+        return gather(uids, maxLength);
+    }
+
+    /**
+     * Returns the dense past key values of the given sequences, left padded to the given length.
+     *
+     * <p>If the dense tensors are kept, and the same sequences are gathered again after a step was
+     * appended to all of them, only the new tokens are copied. The returned tensors may share
+     * memory with the cache, they are valid until the next call that modifies the cache.
+     *
+     * @param uids the sequence uids in batch order
+     * @param length the sequence length of the result
+     * @return the (k, v) * numLayer tensors of shape [batch, heads, length, kvfeature]
+     */
+    public NDList gather(long[] uids, int length) {
+        for (long uid : uids) {
+            if (getTable(uid).length > length) {
+                throw new IllegalArgumentException(
+                        "Sequence " + uid + " is longer than the requested length: " + length);
+            }
+        }
+        NDManager outManager = manager.getParentManager();
+        if (!keepViews) {
+            NDList list = buildDense(uids, length, length);
+            list.attach(outManager);
+            return list;
+        }
+        if (views == null || viewLength != length || !Arrays.equals(uids, viewUids)) {
+            closeViews();
+            // leave room for the next steps, so that they only write the new tokens
+            views = buildDense(uids, length, length + blockSize);
+            NDScope.unregister(views);
+            viewUids = uids.clone();
+            viewLength = length;
+        }
+        NDIndex index = new NDIndex(":, :, :{}", length);
+        NDList list = new NDList(views.size());
+        for (NDArray view : views) {
+            NDArray dense = view.get(index);
+            dense.attach(outManager);
+            list.add(dense);
+        }
+        return list;
+    }
+
+    /**
+     * Keeps only the last {@code length} tokens of a sequence, and releases the blocks that are no
+     * longer used.
+     *
+     * @param uid the sequence uid
+     * @param length the number of tokens to keep
+     */
+    public void truncate(long uid, int length) {
+        BlockTable table = getTable(uid);
+        int drop = table.length - length;
+        if (drop <= 0) {
+            return;
+        }
+        int start = table.start + drop;
+        int released = start / blockSize;
+        for (int i = 0; i < released; ++i) {
+            freeBlocks.add(table.blocks[i]);
+        }
+        table.blocks = Arrays.copyOfRange(table.blocks, released, table.numBlocks);
+        table.numBlocks -= released;
+        table.start = start - released * blockSize;
+        table.length = length;
+        closeViews();
+    }
+
+    /**
+     * Removes a sequence and returns its blocks to the pool.
+     *
+     * @param uid the sequence uid
+     */
+    public void free(long uid) {
+        BlockTable table = tables.remove(uid);
+        if (table != null) {
+            for (int i = 0; i < table.numBlocks; ++i) {
+                freeBlocks.add(table.blocks[i]);
+            }
+            closeViews();
+        }
+    }
+
+    /**
+     * Returns the number of cached tokens of a sequence.
+     *
+     * @param uid the sequence uid
+     * @return the number of cached tokens, 0 if the sequence is unknown
+     */
+    public int getLength(long uid) {
+        BlockTable table = tables.get(uid);
+        return table == null ? 0 : table.length;
+    }
+
+    /**
+     * Returns the number of blocks that are not used by any sequence.
+     *
+     * @return the number of free blocks
+     */
+    public int getFreeBlocks() {
+        return freeBlocks.size();
+    }
+
+    /**
+     * Returns the number of tokens in each block.
+     *
+     * @return the number of tokens in each block
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        closeViews();
+        tables.clear();
+        freeBlocks.clear();
+        manager.close();
+    }
+
+    /** Copies the cached tokens into [batch, heads, capacity, kvfeature] tensors. */
+    private NDList buildDense(long[] uids, int length, int capacity) {
+        // Flat slot index of every [batch, seq_past] position, the padding points to block 0
+        long[] slots = new long[uids.length * length];
+        for (int i = 0; i < uids.length; ++i) {
+            BlockTable table = getTable(uids[i]);
+            int base = i * length + length - table.length;
+            for (int token = 0; token < table.length; ++token) {
+                int pos = table.start + token;
+                int block = table.blocks[pos / blockSize];
+                slots[base + token] = (long) block * blockSize + pos % blockSize;
+            }
+        }
+
+        Shape shape = new Shape(uids.length, heads, capacity, kvDim);
+        NDList list = new NDList(pools.size());
+        try (NDArray index = manager.create(slots)) {
+            NDIndex src = new NDIndex("{}", index);
+            NDIndex dst = new NDIndex(":, :, :{}", length);
+            for (NDArray pool : pools) {
+                if (slots.length == 0) {
+                    list.add(manager.zeros(shape, pool.getDataType()));
+                    continue;
+                }
+                try (NDArray taken = pool.get(src);
+                        NDArray dense = taken.reshape(uids.length, length, heads, kvDim)) {
+                    NDArray transposed = dense.transpose(0, 2, 1, 3);
+                    if (capacity == length) {
+                        list.add(transposed);
+                    } else {
+                        NDArray view = manager.zeros(shape, pool.getDataType());
+                        view.set(dst, transposed);
+                        transposed.close();
+                        list.add(view);
+                    }
+                }
+            }
+        }
+        return list;
+    }
+
+    private void extendViews(NDList keyValues, int seq) {
+        int length = viewLength + seq;
+        NDIndex dst = new NDIndex(":, :, {}:{}", viewLength, length);
+        for (int t = 0; t < views.size(); ++t) {
+            NDArray view = views.get(t);
+            Shape shape = view.getShape();
+            long capacity = shape.get(2);
+            if (length > capacity) {
+                // grow geometrically, the copy is amortized over the following steps
+                Shape grown = new Shape(shape.get(0), heads, Math.max(length, capacity * 2), kvDim);
+                NDArray larger = manager.zeros(grown, view.getDataType());
+                NDScope.unregister(larger);
+                NDIndex old = new NDIndex(":, :, :{}", viewLength);
+                try (NDArray valid = view.get(old)) {
+                    larger.set(old, valid);
+                }
+                view.close();
+                views.set(t, larger);
+                view = larger;
+            }
+            view.set(dst, keyValues.get(t));
+        }
+        viewLength = length;
+    }
+
+    private void closeViews() {
+        if (views != null) {
+            views.close();
+            views = null;
+            viewUids = null;
+        }
+    }
+
+    private BlockTable getTable(long uid) {
+        BlockTable table = tables.get(uid);
+        if (table == null) {
+            throw new IllegalArgumentException("Unknown sequence: " + uid);
+        }
+        return table;
+    }
+
+    private void reserve(BlockTable table, int count) {
+        int required = table.blocksFor(count, blockSize);
+        if (required > table.blocks.length) {
+            table.blocks = Arrays.copyOf(table.blocks, Math.max(required, table.blocks.length * 2));
+        }
+        while (table.numBlocks < required) {
+            table.blocks[table.numBlocks++] = freeBlocks.poll();
+        }
+        table.length += count;
+    }
+
+    /** The blocks holding the tokens of one sequence. */
+    private static final class BlockTable {
+
+        int[] blocks = new int[4];
+        int numBlocks;
+        int start;
+        int length;
+
+        int blocksFor(int count, int blockSize) {
+            return (start + length + count + blockSize - 1) / blockSize;
+        }
+    }
+}
@@ -43,6 +43,7 @@ public abstract class SeqBatchScheduler {
     NDManager manager;
     SearchConfig config;
     Map<Long, NDArray> results;
+    PagedKvCache kvCache;
 
     /**
      * Constructs a new {@code SeqBatchScheduler} instance.
@@ -67,6 +68,19 @@ public abstract class SeqBatchScheduler {
     public abstract SeqBatcher initForward(NDArray inputIds, NDArray batchUids)
             throws TranslateException;
 
+    /**
+     * Sets the {@link PagedKvCache} to store the past key values of the running sequences.
+     *
+     * <p>With a cache, adding, trimming and evicting sequences only update its block tables, and
+     * each forward call stores the key values of the new token only. It must be set before the
+     * first request is added.
+     *
+     * @param kvCache the cache to store the past key values
+     */
+    public void setKvCache(PagedKvCache kvCache) {
+        this.kvCache = kvCache;
+    }
+
     /**
      * Executes forward for a given number of iterations.
      *
@@ -110,7 +124,8 @@ public abstract class SeqBatchScheduler {
      */
     public void addRequest(NDArray inputIds, NDArray batchUids) throws TranslateException {
         SeqBatcher seqBatcherNew = initForward(inputIds, batchUids);
-        if (seqBatcher == null) {
+        if (seqBatcher == null || seqBatcher.getData() == null) {
+            // all the previous sequences have finished
             seqBatcher = seqBatcherNew;
         } else {
             seqBatcher.addBatch(seqBatcherNew);
@@ -44,6 +44,9 @@ public class SeqBatcher {
     /** This is a struct that contains NDArrays with batch dimension. */
     BatchTensorList data;
 
+    /** Holds the past key values instead of the data when set. */
+    PagedKvCache kvCache;
+
     /** batchIndex -> seqEndPosition. */
     private Map<Long, Long> exitIndexEndPosition;
 
@@ -187,6 +190,15 @@ public class SeqBatcher {
         }
     }
 
+    /**
+     * Marks a sequence as finished at the current position, regardless of the exit criteria.
+     *
+     * @param batchIndex the index of the sequence in the batch
+     */
+    void exitSequence(long batchIndex) {
+        exitIndexEndPosition.putIfAbsent(batchIndex, seqLength);
+    }
+
     /**
      * Collects the finished sequences and trim the left padding.
      *
@@ -213,6 +225,9 @@ public class SeqBatcher {
                                 .get("{}, {}:{}", batchIndex, offSet, seqEndPosition);
                 finishedSequences.put(uid, output);
                 exitIndices.add(batchIndex);
+                if (kvCache != null) {
+                    kvCache.free(uid);
+                }
 
                 NDScope.unregister(output);
             }
@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
@@ -32,47 +33,93 @@ import java.nio.LongBuffer;
 import java.nio.ShortBuffer;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-/** {@code BaseNDManager} is the default implementation of {@link NDManager}. */
+/**
+ * {@code BaseNDManager} is the default implementation of {@link NDManager}.
+ *
+ * <p>Creating a {@code BaseNDManager} is cheap since a new manager is created for every prediction:
+ * the uid is taken from a process wide counter, the resource tables are allocated on the first
+ * attach and the alternative engine manager is only created when it is first requested.
+ */
 public abstract class BaseNDManager implements NDManager {
 
     private static final Logger logger = LoggerFactory.getLogger(BaseNDManager.class);
 
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<BaseNDManager, ConcurrentHashMap> RESOURCES =
+            AtomicReferenceFieldUpdater.newUpdater(
+                    BaseNDManager.class, ConcurrentHashMap.class, "resources");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<BaseNDManager, ConcurrentHashMap>
+            TEMP_RESOURCES =
+                    AtomicReferenceFieldUpdater.newUpdater(
+                            BaseNDManager.class, ConcurrentHashMap.class, "tempResources");
+
     protected NDManager parent;
-    protected NDManager alternativeManager;
+    protected volatile NDManager alternativeManager;
     protected String uid;
     protected String name;
     protected Device device;
-    protected ConcurrentHashMap<String, AutoCloseable> resources;
-    protected ConcurrentHashMap<String, TempResource> tempResources;
+    protected volatile ConcurrentHashMap<String, AutoCloseable> resources;
+    protected volatile ConcurrentHashMap<String, TempResource> tempResources;
     protected AtomicBoolean closed = new AtomicBoolean(false);
     protected AtomicBoolean capped = new AtomicBoolean(false);
 
+    private volatile boolean alternativeManagerCreated;
+    private BufferPool bufferPool;
+    private Queue<Lease> leases;
+    private ThreadLocal<List<Lease>> unclaimedLeases;
+
     @SuppressWarnings("this-escape")
     protected BaseNDManager(NDManager parent, Device device) {
         this.parent = parent;
         this.device = device == null ? defaultDevice() : device;
-        resources = new ConcurrentHashMap<>();
-        tempResources = new ConcurrentHashMap<>();
-        uid = UUID.randomUUID().toString();
-        Engine engine = getEngine().getAlternativeEngine();
-        if (engine != null) {
-            // Use the same device if possible for efficiency
-            if (this.device.isGpu() && engine.hasCapability(StandardCapabilities.CUDA)) {
-                alternativeManager = engine.newBaseManager(this.device);
-            } else {
-                // Use the default device
-                alternativeManager = engine.newBaseManager();
-            }
+        uid = "nd-" + Long.toHexString(COUNTER.incrementAndGet());
+        if (parent instanceof BaseNDManager) {
+            setBufferPool(((BaseNDManager) parent).bufferPool);
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ByteBuffer allocateDirect(int capacity) {
+        if (bufferPool == null) {
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+        ByteBuffer buf = bufferPool.acquire(capacity);
+        Lease lease = new Lease(buf);
+        leases.add(lease);
+        // claimed by the next array that is attached on this thread, usually the array created
+        // from this buffer
+        unclaimedLeases.get().add(lease);
+        buf.limit(capacity);
+        return buf.slice().order(ByteOrder.nativeOrder());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDManager newArena(BufferPool pool) {
+        NDManager manager = newSubManager();
+        ((BaseNDManager) manager).setBufferPool(pool);
+        return manager;
+    }
+
     /** {@inheritDoc} */
     @Override
     public final Device defaultDevice() {
@@ -274,9 +321,14 @@ public abstract class BaseNDManager implements NDManager {
     /** {@inheritDoc} */
     @Override
     public List<NDArray> getManagedArrays() {
+        Map<String, AutoCloseable> res = getResources();
+        Map<String, TempResource> temp = getTempResources();
+        if (res == null && temp == null) {
+            return Collections.emptyList();
+        }
         return Stream.concat(
                         // Main resources
-                        resources.values().stream()
+                        values(res).stream()
                                 .flatMap(
                                         r -> {
                                             if (r instanceof NDResource) {
@@ -290,7 +342,7 @@ public abstract class BaseNDManager implements NDManager {
                                         }),
 
                         // Temp resouces
-                        tempResources.values().stream()
+                        values(temp).stream()
                                 .flatMap(tr -> tr.resource.getResourceNDArrays().stream()))
                 .collect(Collectors.toList());
     }
@@ -306,12 +358,12 @@ public abstract class BaseNDManager implements NDManager {
                 + " isOpen: "
                 + isOpen()
                 + " Resource size: "
-                + resources.size();
+                + size(getResources());
     }
 
     /** {@inheritDoc} */
     @Override
-    public synchronized void attachInternal(String resourceId, AutoCloseable... resources) {
+    public void attachInternal(String resourceId, AutoCloseable... resources) {
         if (capped.get()) {
             throw new IllegalStateException("NDManager is capped for addition of resources.");
         }
@@ -323,11 +375,20 @@ public abstract class BaseNDManager implements NDManager {
 
     /** {@inheritDoc} */
     @Override
-    public synchronized void attachUncappedInternal(String resourceId, AutoCloseable resource) {
+    public void attachUncappedInternal(String resourceId, AutoCloseable resource) {
         if (closed.get()) {
             throw new IllegalStateException("NDManager has been closed already.");
         }
-        tempResources.compute(
+        if (bufferPool != null && resource instanceof NDArray) {
+            claimLeases((NDArray) resource);
+        }
+        ConcurrentHashMap<String, TempResource> temp = getTempResources();
+        if (temp == null || !temp.containsKey(resourceId)) {
+            // fast path, the resource was never temp attached to this manager
+            resources().put(resourceId, resource);
+            return;
+        }
+        temp.compute(
                 resourceId,
                 (key, tempResource) -> {
                     if (tempResource != null) {
@@ -339,7 +400,7 @@ public abstract class BaseNDManager implements NDManager {
                         // In that case, it should stay as a tempResource in this (manA)
                         tempResource.detached = false;
                     } else {
-                        resources.put(resourceId, resource);
+                        resources().put(resourceId, resource);
                     }
                     return tempResource;
                 });
@@ -356,23 +417,29 @@ public abstract class BaseNDManager implements NDManager {
         if (closed.get()) {
             throw new IllegalStateException("NDManager has been closed already.");
         }
-        tempResources.put(resourceId, new TempResource(resource, originalManager));
+        tempResources().put(resourceId, new TempResource(resource, originalManager));
     }
 
     /** {@inheritDoc} */
     @Override
-    public synchronized void detachInternal(String resourceId) {
+    public void detachInternal(String resourceId) {
         if (closed.get()) {
             // This may happen in the middle of BaseNDManager.close()
             return;
         }
-        tempResources.computeIfPresent(
-                resourceId,
-                (key, tempResource) -> {
-                    tempResource.detached = true;
-                    return tempResource;
-                });
-        resources.remove(resourceId);
+        ConcurrentHashMap<String, TempResource> temp = getTempResources();
+        if (temp != null) {
+            temp.computeIfPresent(
+                    resourceId,
+                    (key, tempResource) -> {
+                        tempResource.detached = true;
+                        return tempResource;
+                    });
+        }
+        ConcurrentHashMap<String, AutoCloseable> res = getResources();
+        if (res != null) {
+            res.remove(resourceId);
+        }
     }
 
     /** {@inheritDoc} */
@@ -397,19 +464,36 @@ public abstract class BaseNDManager implements NDManager {
                             + " of the process");
         }
         if (!closed.getAndSet(true)) {
-            for (AutoCloseable closeable : resources.values()) {
-                try {
-                    closeable.close();
-                } catch (Exception e) {
-                    logger.error("Resource close failed.", e);
+            ConcurrentHashMap<String, AutoCloseable> res = getResources();
+            if (res != null) {
+                for (AutoCloseable closeable : res.values()) {
+                    try {
+                        closeable.close();
+                    } catch (Exception e) {
+                        logger.error("Resource close failed.", e);
+                    }
                 }
+                res.clear();
             }
-            for (TempResource resource : tempResources.values()) {
-                resource.returnResource();
+            ConcurrentHashMap<String, TempResource> temp = getTempResources();
+            if (temp != null) {
+                for (TempResource resource : temp.values()) {
+                    resource.returnResource();
+                }
+                temp.clear();
             }
             parent.detachInternal(uid);
-            resources.clear();
-            tempResources.clear();
+            if (bufferPool != null) {
+                Lease lease;
+                while ((lease = leases.poll()) != null) {
+                    // the buffer of an array that was detached or attached to another manager is
+                    // still in use, its memory is released by the garbage collector
+                    if (lease.owner == null || lease.owner.isReleased()) {
+                        bufferPool.release(lease.buffer);
+                    }
+                }
+                unclaimedLeases.remove();
+            }
         }
     }
 
@@ -424,22 +508,100 @@ public abstract class BaseNDManager implements NDManager {
             sb.append("    ");
         }
         sb.append("\\--- NDManager(")
-                .append(uid.substring(24))
+                .append(uid)
                 .append(") resource count: ")
-                .append(resources.size());
+                .append(size(getResources()));
 
         System.out.println(sb); // NOPMD
-        for (AutoCloseable c : resources.values()) {
+        for (AutoCloseable c : values(getResources())) {
             if (c instanceof BaseNDManager) {
                 ((BaseNDManager) c).debugDump(level + 1);
             }
         }
     }
 
-    NDManager getAlternativeManager() {
+    /**
+     * Returns the {@link NDManager} of the alternative engine, creates it on first use.
+     *
+     * @return the {@link NDManager} of the alternative engine, or {@code null} if there is no
+     *     alternative engine
+     */
+    protected NDManager getAlternativeManager() {
+        if (alternativeManagerCreated || closed.get()) {
+            return alternativeManager;
+        }
+        synchronized (this) {
+            if (!alternativeManagerCreated) {
+                Engine engine = getEngine().getAlternativeEngine();
+                if (engine != null) {
+                    // Use the same device if possible for efficiency
+                    if (device.isGpu() && engine.hasCapability(StandardCapabilities.CUDA)) {
+                        alternativeManager = engine.newBaseManager(device);
+                    } else {
+                        // Use the default device
+                        alternativeManager = engine.newBaseManager();
+                    }
+                }
+                alternativeManagerCreated = true;
+            }
+        }
         return alternativeManager;
     }
 
+    private ConcurrentHashMap<String, AutoCloseable> getResources() {
+        return resources;
+    }
+
+    private ConcurrentHashMap<String, TempResource> getTempResources() {
+        return tempResources;
+    }
+
+    private void setBufferPool(BufferPool pool) {
+        if (pool != null) {
+            bufferPool = pool;
+            leases = new ConcurrentLinkedQueue<>();
+            unclaimedLeases = ThreadLocal.withInitial(ArrayList::new);
+        }
+    }
+
+    private void claimLeases(NDArray owner) {
+        List<Lease> unclaimed = unclaimedLeases.get();
+        if (!unclaimed.isEmpty()) {
+            for (Lease lease : unclaimed) {
+                lease.owner = owner;
+            }
+            unclaimed.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentHashMap<String, AutoCloseable> resources() {
+        ConcurrentHashMap<String, AutoCloseable> res = resources;
+        if (res == null) {
+            RESOURCES.compareAndSet(this, null, new ConcurrentHashMap<>());
+            res = resources;
+        }
+        return res;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentHashMap<String, TempResource> tempResources() {
+        ConcurrentHashMap<String, TempResource> temp = tempResources;
+        if (temp == null) {
+            TEMP_RESOURCES.compareAndSet(this, null, new ConcurrentHashMap<>());
+            temp = tempResources;
+        }
+        return temp;
+    }
+
+    private static <T> Collection<T> values(Map<String, T> map) {
+        return map == null ? Collections.emptyList() : map.values();
+    }
+
+    private static int size(Map<String, ?> map) {
+        return map == null ? 0 : map.size();
+    }
+
     /**
      * Checks if the input buffer size is match expected data type.
      *
@@ -525,6 +687,17 @@ public abstract class BaseNDManager implements NDManager {
         target.rewind();
     }
 
+    /** A buffer leased from the {@link BufferPool} and the array that uses it. */
+    private static final class Lease {
+
+        ByteBuffer buffer;
+        volatile NDArray owner;
+
+        Lease(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
     protected static final class TempResource {
 
         private NDResource resource;
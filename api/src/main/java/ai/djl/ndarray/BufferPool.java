@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe pool of direct {@code ByteBuffer}s organized in power of two size classes.
+ *
+ * <p>A {@code BufferPool} backs the arena managers created by {@link
+ * NDManager#newArena(BufferPool)}. Buffers allocated by an arena are returned to the pool when the
+ * arena is closed, so that the next request can reuse them instead of calling {@link
+ * ByteBuffer#allocateDirect(int)} again. Buffers still used by an array that outlives the arena are
+ * left to the garbage collector.
+ *
+ * <p>Like {@link ByteBuffer#allocateDirect(int)}, the requested capacity of a recycled buffer is
+ * zeroed before it is handed out, so {@link NDManager#zeros} keeps working on arena managers.
+ */
+public class BufferPool {
+
+    private static final int MIN_CLASS = 6;
+
+    private int maxClass;
+    private long maxPooledBytes;
+    private Queue<ByteBuffer>[] freeLists;
+    private AtomicLong pooledBytes;
+    private LongAdder hits;
+    private LongAdder misses;
+
+    /**
+     * Constructs a new {@code BufferPool} that pools buffers up to 64 MB, and keeps at most 1 GB of
+     * idle buffers.
+     */
+    public BufferPool() {
+        this(64 * 1024 * 1024, 1024L * 1024 * 1024);
+    }
+
+    /**
+     * Constructs a new {@code BufferPool}.
+     *
+     * @param maxBufferSize the largest buffer size in bytes to pool, bigger buffers are allocated
+     *     directly and not recycled
+     * @param maxPooledBytes the maximum total size of idle buffers kept in the pool
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BufferPool(int maxBufferSize, long maxPooledBytes) {
+        this.maxClass = Math.min(sizeClass(maxBufferSize), 30);
+        this.maxPooledBytes = maxPooledBytes;
+        freeLists = new Queue[maxClass + 1];
+        for (int i = MIN_CLASS; i <= maxClass; ++i) {
+            freeLists[i] = new ConcurrentLinkedQueue<>();
+        }
+        pooledBytes = new AtomicLong();
+        hits = new LongAdder();
+        misses = new LongAdder();
+    }
+
+    /**
+     * Returns a direct buffer in native order with at least the given capacity.
+     *
+     * <p>The returned buffer's capacity is rounded up to its size class, and must be passed back to
+     * {@link #release(ByteBuffer)}. The first {@code capacity} bytes are zero.
+     *
+     * @param capacity the required capacity in bytes
+     * @return a direct buffer with at least the given capacity
+     */
+    public ByteBuffer acquire(int capacity) {
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass > maxClass) {
+            misses.increment();
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+        ByteBuffer buf = freeLists[sizeClass].poll();
+        if (buf == null) {
+            misses.increment();
+            return ByteBuffer.allocateDirect(1 << sizeClass).order(ByteOrder.nativeOrder());
+        }
+        hits.increment();
+        pooledBytes.addAndGet(-buf.capacity());
+        buf.clear();
+        zero(buf, capacity);
+        return buf;
+    }
+
+    /**
+     * Returns a buffer obtained from {@link #acquire(int)} to the pool.
+     *
+     * @param buf the buffer to return
+     */
+    public void release(ByteBuffer buf) {
+        int capacity = buf.capacity();
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass > maxClass || capacity != 1 << sizeClass) {
+            return;
+        }
+        if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+            pooledBytes.addAndGet(-capacity);
+            return;
+        }
+        freeLists[sizeClass].offer(buf);
+    }
+
+    /**
+     * Returns the total size in bytes of the idle buffers in the pool.
+     *
+     * @return the total size in bytes of the idle buffers in the pool
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * Returns the number of allocations served from the pool.
+     *
+     * @return the number of allocations served from the pool
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of allocations that required a new buffer.
+     *
+     * @return the number of allocations that required a new buffer
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Drops all idle buffers, their memory is released by the garbage collector. */
+    public void clear() {
+        for (int i = MIN_CLASS; i <= maxClass; ++i) {
+            ByteBuffer buf;
+            while ((buf = freeLists[i].poll()) != null) {
+                pooledBytes.addAndGet(-buf.capacity());
+            }
+        }
+    }
+
+    private static void zero(ByteBuffer buf, int length) {
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            buf.putLong(i, 0L);
+        }
+        for (; i < length; ++i) {
+            buf.put(i, (byte) 0);
+        }
+    }
+
+    private static int sizeClass(int capacity) {
+        if (capacity <= 1 << MIN_CLASS) {
+            return MIN_CLASS;
+        }
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1);
+    }
+}
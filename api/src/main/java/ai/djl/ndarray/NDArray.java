@@ -21,6 +21,8 @@ import ai.djl.ndarray.types.Shape;
 import ai.djl.ndarray.types.SparseFormat;
 import ai.djl.util.Float16Utils;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.DoubleBuffer;
@@ -146,6 +148,18 @@ public interface NDArray extends NDResource, BytesSupplier {
         return NDSerializer.encode(this);
     }
 
+    /**
+     * Writes the encoded {@code NDArray} to {@code OutputStream}.
+     *
+     * <p>The data is aligned if the stream is an {@link ai.djl.util.AlignedDataOutputStream}.
+     *
+     * @param os the {@code OutputStream} to be written to
+     * @throws IOException if failed on IO operation
+     */
+    default void encode(OutputStream os) throws IOException {
+        NDSerializer.encode(this, os);
+    }
+
     /**
      * Moves this {@code NDArray} to a different {@link Device}.
      *
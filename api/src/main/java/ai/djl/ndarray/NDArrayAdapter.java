@@ -23,6 +23,7 @@ import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
@@ -32,15 +33,30 @@ import java.util.function.Function;
  * <p>This interface should only be used for the NDArray implementations that do not plan to
  * implement a large portion of the interface. For the ones that do, they should directly implement
  * {@link NDArray} so that the unsupported operations are better highlighted in the code.
+ *
+ * <p>The unsupported operations are delegated to a copy of the array in the alternative engine. The
+ * copy is cached and only refreshed after the content of this array changes, implementations must
+ * call {@link #markDirty()} whenever they modify the data outside of {@link #set(Buffer)}. The
+ * delegated {@code set} operations only modify the copy, implementations must call {@link
+ * #syncAlternativeArray()} before they read their own data. The results of {@code get}, {@code
+ * reshape} and the other operations that may return a view are copied, so that they neither share
+ * memory with the cached copy nor change when it is refreshed.
  */
 public abstract class NDArrayAdapter implements NDArray {
 
     private static final String UNSUPPORTED_MSG =
             "This NDArray implementation does not currently support this operation";
 
+    private static final LongAdder ALTERNATIVE_COPIES = new LongAdder();
+    private static final LongAdder ALTERNATIVE_COPIED_BYTES = new LongAdder();
+
     protected NDManager manager;
     protected NDManager alternativeManager;
+    private boolean alternativeResolved;
     private NDArray alternativeArray;
+    private long version;
+    private long alternativeVersion;
+    private boolean primaryStale;
 
     protected Shape shape;
     protected DataType dataType;
@@ -54,8 +70,22 @@ public abstract class NDArrayAdapter implements NDArray {
             Shape shape,
             DataType dataType,
             String uid) {
-        this.manager = manager;
+        this(manager, shape, dataType, uid);
         this.alternativeManager = alternativeManager;
+        alternativeResolved = true;
+    }
+
+    /**
+     * Constructs a new {@code NDArrayAdapter} whose alternative manager is resolved from {@code
+     * manager} on the first unsupported operation.
+     *
+     * @param manager the manager of the array
+     * @param shape the shape of the array
+     * @param dataType the data type of the array
+     * @param uid the unique id of the array
+     */
+    protected NDArrayAdapter(NDManager manager, Shape shape, DataType dataType, String uid) {
+        this.manager = manager;
         this.shape = shape;
         this.dataType = dataType;
         this.uid = uid;
@@ -73,10 +103,13 @@ public abstract class NDArrayAdapter implements NDArray {
         detach();
         this.manager = manager;
         manager.attachInternal(getUid(), this);
-        alternativeManager = ((BaseNDManager) manager).getAlternativeManager();
-        if (alternativeManager == null) {
+        if (manager.getEngine().getAlternativeEngine() == null) {
             // to prevent hybrid engine memory leak
             alternativeManager = manager;
+            alternativeResolved = true;
+        } else {
+            alternativeManager = null;
+            alternativeResolved = false;
         }
     }
 
@@ -238,13 +271,13 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray gather(NDArray index, int axis) {
-        return getAlternativeArray().gather(alternativeManager.from(index), axis);
+        return getAlternativeArray().gather(getAlternativeManager().from(index), axis);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray gatherNd(NDArray index) {
-        return getAlternativeArray().gatherNd(alternativeManager.from(index));
+        return getAlternativeArray().gatherNd(getAlternativeManager().from(index));
     }
 
     /** {@inheritDoc} */
@@ -268,7 +301,13 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray get(NDIndex index) {
-        return get(alternativeManager, index);
+        return get(getAlternativeManager(), index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray get(NDManager manager, NDIndex index) {
+        return copyOfView(getAlternativeArray().get(manager, index));
     }
 
     /** {@inheritDoc} */
@@ -277,53 +316,55 @@ public abstract class NDArrayAdapter implements NDArray {
         NDArray array = manager.create(buffer, getShape(), getDataType());
         intern(array);
         array.detach();
+        markDirty();
     }
 
     /** {@inheritDoc} */
     @Override
     public void set(NDIndex index, NDArray value) {
         getAlternativeArray().set(index, value);
-        set(alternativeArray.toByteBuffer());
+        primaryStale = true;
     }
 
     /** {@inheritDoc} */
     @Override
     public void set(NDIndex index, Number value) {
         getAlternativeArray().set(index, value);
-        set(alternativeArray.toByteBuffer());
+        primaryStale = true;
     }
 
     /** {@inheritDoc} */
     @Override
     public void set(NDIndex index, Function<NDArray, NDArray> function) {
         getAlternativeArray().set(index, function);
-        set(alternativeArray.toByteBuffer());
+        primaryStale = true;
     }
 
     /** {@inheritDoc} */
     @Override
     public void set(NDArray index, Number value) {
         getAlternativeArray().set(index, value);
-        set(alternativeArray.toByteBuffer());
+        primaryStale = true;
     }
 
     /** {@inheritDoc} */
     @Override
     public void setScalar(NDIndex index, Number value) {
         getAlternativeArray().setScalar(index, value);
-        set(alternativeArray.toByteBuffer());
+        primaryStale = true;
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray booleanMask(NDArray index, int axis) {
-        return getAlternativeArray().booleanMask(alternativeManager.from(index), axis);
+        return getAlternativeArray().booleanMask(getAlternativeManager().from(index), axis);
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray sequenceMask(NDArray sequenceLength, float value) {
-        return getAlternativeArray().sequenceMask(alternativeManager.from(sequenceLength), value);
+        NDArray alternativeLength = getAlternativeManager().from(sequenceLength);
+        return getAlternativeArray().sequenceMask(alternativeLength, value);
     }
 
     /** {@inheritDoc} */
@@ -357,7 +398,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray eq(NDArray other) {
-        return getAlternativeArray().eq(alternativeManager.from(other));
+        return getAlternativeArray().eq(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -369,7 +410,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray neq(NDArray other) {
-        return getAlternativeArray().neq(alternativeManager.from(other));
+        return getAlternativeArray().neq(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -381,7 +422,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray gt(NDArray other) {
-        return getAlternativeArray().gt(alternativeManager.from(other));
+        return getAlternativeArray().gt(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -393,7 +434,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray gte(NDArray other) {
-        return getAlternativeArray().gte(alternativeManager.from(other));
+        return getAlternativeArray().gte(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -405,7 +446,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray lt(NDArray other) {
-        return getAlternativeArray().lt(alternativeManager.from(other));
+        return getAlternativeArray().lt(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -417,7 +458,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray lte(NDArray other) {
-        return getAlternativeArray().lte(alternativeManager.from(other));
+        return getAlternativeArray().lte(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -429,7 +470,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray add(NDArray other) {
-        return getAlternativeArray().add(alternativeManager.from(other));
+        return getAlternativeArray().add(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -441,7 +482,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray sub(NDArray other) {
-        return getAlternativeArray().sub(alternativeManager.from(other));
+        return getAlternativeArray().sub(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -453,7 +494,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray mul(NDArray other) {
-        return getAlternativeArray().mul(alternativeManager.from(other));
+        return getAlternativeArray().mul(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -465,7 +506,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray div(NDArray other) {
-        return getAlternativeArray().div(alternativeManager.from(other));
+        return getAlternativeArray().div(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -477,7 +518,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray mod(NDArray other) {
-        return getAlternativeArray().mod(alternativeManager.from(other));
+        return getAlternativeArray().mod(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -489,7 +530,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray pow(NDArray other) {
-        return getAlternativeArray().pow(alternativeManager.from(other));
+        return getAlternativeArray().pow(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -585,7 +626,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray maximum(NDArray other) {
-        return getAlternativeArray().maximum(alternativeManager.from(other));
+        return getAlternativeArray().maximum(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -597,7 +638,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray minimum(NDArray other) {
-        return getAlternativeArray().minimum(alternativeManager.from(other));
+        return getAlternativeArray().minimum(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -873,19 +914,29 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDList split(long sections, int axis) {
-        return getAlternativeArray().split(sections, axis);
+        NDList views = getAlternativeArray().split(sections, axis);
+        NDList list = new NDList(views.size());
+        for (NDArray view : views) {
+            list.add(copyOfView(view));
+        }
+        return list;
     }
 
     /** {@inheritDoc} */
     @Override
     public NDList split(long[] indices, int axis) {
-        return getAlternativeArray().split(indices, axis);
+        NDList views = getAlternativeArray().split(indices, axis);
+        NDList list = new NDList(views.size());
+        for (NDArray view : views) {
+            list.add(copyOfView(view));
+        }
+        return list;
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray flatten() {
-        return getAlternativeArray().flatten();
+        return copyOfView(getAlternativeArray().flatten());
     }
 
     /** {@inheritDoc} */
@@ -951,19 +1002,19 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray reshape(Shape shape) {
-        return getAlternativeArray().reshape(shape);
+        return copyOfView(getAlternativeArray().reshape(shape));
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray expandDims(int axis) {
-        return getAlternativeArray().expandDims(axis);
+        return copyOfView(getAlternativeArray().expandDims(axis));
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray squeeze(int[] axes) {
-        return getAlternativeArray().squeeze(axes);
+        return copyOfView(getAlternativeArray().squeeze(axes));
     }
 
     /** {@inheritDoc} */
@@ -975,19 +1026,19 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray logicalAnd(NDArray other) {
-        return getAlternativeArray().logicalAnd(alternativeManager.from(other));
+        return getAlternativeArray().logicalAnd(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray logicalOr(NDArray other) {
-        return getAlternativeArray().logicalOr(alternativeManager.from(other));
+        return getAlternativeArray().logicalOr(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray logicalXor(NDArray other) {
-        return getAlternativeArray().logicalXor(alternativeManager.from(other));
+        return getAlternativeArray().logicalXor(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -1137,19 +1188,19 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray transpose() {
-        return getAlternativeArray().transpose();
+        return copyOfView(getAlternativeArray().transpose());
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray transpose(int... axes) {
-        return getAlternativeArray().transpose(axes);
+        return copyOfView(getAlternativeArray().transpose(axes));
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray broadcast(Shape shape) {
-        return getAlternativeArray().broadcast(shape);
+        return copyOfView(getAlternativeArray().broadcast(shape));
     }
 
     /** {@inheritDoc} */
@@ -1209,13 +1260,13 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray toDense() {
-        return getAlternativeArray().toDense();
+        return newAlternativeArray().toDense();
     }
 
     /** {@inheritDoc} */
     @Override
     public NDArray toSparse(SparseFormat fmt) {
-        return getAlternativeArray().toSparse(fmt);
+        return newAlternativeArray().toSparse(fmt);
     }
 
     /** {@inheritDoc} */
@@ -1263,7 +1314,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArray batchDot(NDArray other) {
-        return getAlternativeArray().batchDot(alternativeManager.from(other));
+        return getAlternativeArray().batchDot(getAlternativeManager().from(other));
     }
 
     /** {@inheritDoc} */
@@ -1287,7 +1338,7 @@ public abstract class NDArrayAdapter implements NDArray {
     /** {@inheritDoc} */
     @Override
     public NDArrayEx getNDArrayInternal() {
-        NDArray array = getAlternativeArray();
+        NDArray array = newAlternativeArray();
         if (array instanceof NDArrayAdapter) {
             throw new UnsupportedOperationException("Operation not supported.");
         }
@@ -1337,16 +1388,115 @@ public abstract class NDArrayAdapter implements NDArray {
         return toDebugString();
     }
 
-    private NDArray getAlternativeArray() {
+    /**
+     * Returns the number of times the data of an array was copied between an {@code NDArrayAdapter}
+     * and its alternative array.
+     *
+     * @return the number of copies
+     */
+    public static long getAlternativeCopyCount() {
+        return ALTERNATIVE_COPIES.sum();
+    }
+
+    /**
+     * Returns the number of bytes copied between {@code NDArrayAdapter}s and their alternative
+     * arrays.
+     *
+     * @return the number of bytes copied
+     */
+    public static long getAlternativeCopiedBytes() {
+        return ALTERNATIVE_COPIED_BYTES.sum();
+    }
+
+    /**
+     * Marks the content of this array as modified, so that the cached alternative array is
+     * refreshed before the next delegated operation.
+     */
+    protected void markDirty() {
+        ++version;
+        primaryStale = false;
+    }
+
+    /**
+     * Copies the changes made by the delegated {@code set} operations from the alternative array
+     * back to this array. Implementations must call this method before they read their own data or
+     * pass it to the native engine.
+     */
+    protected void syncAlternativeArray() {
+        if (primaryStale) {
+            checkPendingChanges();
+            primaryStale = false;
+            // copy the data, the engine may wrap the buffer and the alternative array can be
+            // closed or refreshed while this array is still alive
+            ByteBuffer data = alternativeArray.toByteBuffer(true);
+            ByteBuffer bb = manager.allocateDirect(data.remaining());
+            bb.put(data);
+            bb.rewind();
+            set(bb);
+            recordCopy();
+            // the alternative array holds the same content, no need to copy it again
+            alternativeVersion = version;
+        }
+    }
+
+    private NDManager getAlternativeManager() {
+        if (!alternativeResolved) {
+            alternativeManager = ((BaseNDManager) manager).getAlternativeManager();
+            alternativeResolved = true;
+        }
         if (alternativeManager == null) {
             throw new UnsupportedOperationException(UNSUPPORTED_MSG);
         }
-        if (alternativeArray == null) {
-            alternativeArray = alternativeManager.from(this);
-        } else {
-            alternativeArray.set(getDataType().asDataType(toByteBuffer()));
+        return alternativeManager;
+    }
+
+    private NDArray getAlternativeArray() {
+        if (primaryStale) {
+            checkPendingChanges();
+        } else if (alternativeArray == null || alternativeArray.isReleased()) {
+            alternativeArray = getAlternativeManager().from(this);
+            recordCopy();
+        } else if (alternativeVersion != version) {
+            alternativeArray.set(getDataType().asDataType(toByteBuffer(true)));
+            recordCopy();
         }
+        alternativeVersion = version;
         NDScope.unregister(alternativeArray);
         return alternativeArray;
     }
+
+    /**
+     * Returns a new copy of this array in the alternative engine, used by the operations that may
+     * return the alternative array itself.
+     */
+    private NDArray newAlternativeArray() {
+        NDArray array = getAlternativeManager().from(this);
+        recordCopy();
+        return array;
+    }
+
+    private void checkPendingChanges() {
+        if (alternativeArray == null || alternativeArray.isReleased()) {
+            primaryStale = false;
+            throw new IllegalStateException(
+                    "The alternative array was released before its changes were written back.");
+        }
+    }
+
+    /**
+     * Returns a copy of the result of an operation on the cached alternative array that may be a
+     * view of it, and releases the view.
+     */
+    private NDArray copyOfView(NDArray view) {
+        NDArray copy = view.duplicate();
+        if (view != alternativeArray) {
+            view.close();
+        }
+        return copy;
+    }
+
+    private void recordCopy() {
+        ALTERNATIVE_COPIES.increment();
+        ALTERNATIVE_COPIED_BYTES.add(getShape().size() * getDataType().getNumOfBytes());
+    }
 }
@@ -16,6 +16,7 @@ import ai.djl.Device;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.util.JsonUtils;
+import ai.djl.util.MappedDataInputStream;
 import ai.djl.util.Pair;
 
 import com.google.gson.JsonObject;
@@ -153,21 +154,30 @@ public class NDList extends ArrayList<NDArray> implements NDResource, BytesSuppl
                 return decodeSafetensors(manager, pis);
             }
 
-            dis = new DataInputStream(pis);
-            int size = dis.readInt();
-            if (size < 0) {
-                throw new IllegalArgumentException("Invalid NDList size: " + size);
+            if (is instanceof MappedDataInputStream) {
+                // decode directly from the mapped file to avoid copying the data
+                MappedDataInputStream mapped = (MappedDataInputStream) is;
+                mapped.seek(mapped.position() - magic.length);
+                return decodeNDList(manager, mapped);
             }
-            NDList list = new NDList();
-            for (int i = 0; i < size; i++) {
-                list.add(i, manager.decode(dis));
-            }
-            return list;
+            return decodeNDList(manager, new DataInputStream(pis));
         } catch (IOException e) {
             throw new IllegalArgumentException("Malformed data", e);
         }
     }
 
+    private static NDList decodeNDList(NDManager manager, DataInputStream dis) throws IOException {
+        int size = dis.readInt();
+        if (size < 0) {
+            throw new IllegalArgumentException("Invalid NDList size: " + size);
+        }
+        NDList list = new NDList();
+        for (int i = 0; i < size; i++) {
+            list.add(i, manager.decode(dis));
+        }
+        return list;
+    }
+
     private static NDList decodeSafetensors(NDManager manager, InputStream is) throws IOException {
         DataInputStream dis;
         if (is instanceof DataInputStream) {
@@ -486,7 +496,12 @@ public class NDList extends ArrayList<NDArray> implements NDResource, BytesSuppl
             return;
         }
 
-        DataOutputStream dos = new DataOutputStream(os);
+        DataOutputStream dos;
+        if (os instanceof DataOutputStream) {
+            dos = (DataOutputStream) os;
+        } else {
+            dos = new DataOutputStream(os);
+        }
         dos.writeInt(size());
         for (NDArray nd : this) {
             NDSerializer.encode(nd, dos);
@@ -1563,6 +1563,23 @@ public interface NDManager extends AutoCloseable {
      */
     NDManager newSubManager(Device device);
 
+    /**
+     * Creates a child {@code NDManager} that allocates its direct buffers from the given {@link
+     * BufferPool}.
+     *
+     * <p>The buffers returned by {@link #allocateDirect(int)} of the arena and of all its
+     * sub-managers are handed back to the pool when the arena is closed. The buffer of an {@link
+     * NDArray} that was detached or attached to another manager and is still open is not recycled,
+     * it is released by the garbage collector. Managers that don't support pooling return a regular
+     * sub-manager.
+     *
+     * @param pool the {@link BufferPool} to allocate direct buffers from
+     * @return a child {@code NDManager}
+     */
+    default NDManager newArena(BufferPool pool) {
+        return newSubManager();
+    }
+
     /**
      * Returns the default {@link Device} of this {@code NDManager}.
      *
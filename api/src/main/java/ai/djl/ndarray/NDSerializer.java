@@ -15,6 +15,8 @@ package ai.djl.ndarray;
 
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
+import ai.djl.util.AlignedDataOutputStream;
+import ai.djl.util.MappedDataInputStream;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
@@ -33,6 +35,7 @@ import java.util.regex.Pattern;
 final class NDSerializer {
 
     private static final int VERSION = 3;
+    private static final int ALIGNED_VERSION = 4;
 
     private static final int BUFFER_SIZE = 1024 * 1024;
     private static final String MAGIC_NUMBER = "NDAR";
@@ -67,9 +70,13 @@ final class NDSerializer {
         } else {
             dos = new DataOutputStream(os);
         }
+        AlignedDataOutputStream aligned = null;
+        if (dos instanceof AlignedDataOutputStream) {
+            aligned = (AlignedDataOutputStream) dos;
+        }
         // magic string for version identification
         dos.writeUTF(MAGIC_NUMBER);
-        dos.writeInt(VERSION);
+        dos.writeInt(aligned == null ? VERSION : ALIGNED_VERSION);
         String name = array.getName();
         if (name == null) {
             dos.write(0);
@@ -97,6 +104,10 @@ final class NDSerializer {
         dos.write(bb.order() == ByteOrder.BIG_ENDIAN ? '>' : '<');
         int length = bb.remaining();
         dos.writeInt(length);
+        if (aligned != null) {
+            // pad the data to start at an aligned offset of the file
+            aligned.writePadding();
+        }
 
         if (length > 0) {
             if (bb.hasArray() && bb.remaining() == bb.array().length) {
@@ -157,7 +168,7 @@ final class NDSerializer {
 
         // NDArray encode version
         int version = bb.getInt();
-        if (version < 1 || version > VERSION) {
+        if (version < 1 || version > ALIGNED_VERSION) {
             throw new IllegalArgumentException("Unexpected NDArray encode version " + version);
         }
 
@@ -196,6 +207,10 @@ final class NDSerializer {
             order = ByteOrder.nativeOrder();
         }
         int length = bb.getInt();
+        if (version > VERSION) {
+            int padding = bb.get() & 0xFF;
+            bb.position(bb.position() + padding);
+        }
         ByteBuffer data = bb.slice();
         data.limit(length);
         data.order(order);
@@ -228,7 +243,7 @@ final class NDSerializer {
 
         // NDArray encode version
         int version = dis.readInt();
-        if (version < 1 || version > VERSION) {
+        if (version < 1 || version > ALIGNED_VERSION) {
             throw new IllegalArgumentException("Unexpected NDArray encode version " + version);
         }
 
@@ -256,9 +271,20 @@ final class NDSerializer {
             order = ByteOrder.nativeOrder();
         }
         int length = dis.readInt();
-        ByteBuffer data = manager.allocateDirect(length);
-        data.order(order);
-        readData(dis, data, length);
+        if (version > VERSION) {
+            int padding = dis.readUnsignedByte();
+            dis.readFully(new byte[padding]);
+        }
+        ByteBuffer data;
+        if (dis instanceof MappedDataInputStream) {
+            // use the mapped file directly without copying
+            data = ((MappedDataInputStream) dis).map(length);
+            data.order(order);
+        } else {
+            data = manager.allocateDirect(length);
+            data.order(order);
+            readData(dis, data, length);
+        }
 
         NDArray array = manager.create(data, shape, dataType);
         array.setName(name);
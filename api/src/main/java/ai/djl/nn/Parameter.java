@@ -232,7 +232,7 @@ public class Parameter implements AutoCloseable {
         dos.writeChar('P');
         dos.writeByte(VERSION);
         dos.writeUTF(getName());
-        dos.write(array.encode());
+        array.encode(dos);
     }
 
     /**
@@ -0,0 +1,470 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn.tree;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * {@code TreeEnsemble} is a gradient boosted decision tree model evaluated in pure Java.
+ *
+ * <p>The trees of the ensemble are flattened into primitive arrays shared by all trees. A split
+ * node {@code n} compares the feature {@code features[n]} with {@code thresholds[n]} and continues
+ * with {@code children[2 * n]} if the value is less than or equal to the threshold, or with {@code
+ * children[2 * n + 1]} otherwise. A negative child {@code c} is the leaf {@code ~c}. The child is
+ * selected by index arithmetic instead of a branch, and the rows are scored in blocks so a tree
+ * stays in the CPU cache while it is applied to all rows of the block.
+ *
+ * <p>The trees are assigned to outputs, for example one output per class of a multi-class model.
+ * The score of an output is the base score plus the sum of the leaf values of its trees, the
+ * optional {@link Transform} converts the scores into the prediction.
+ */
+public final class TreeEnsemble {
+
+    /** Missing values are treated as zero. */
+    public static final byte MISSING_NONE = 0;
+
+    /** Zero and missing values go to the default child. */
+    public static final byte MISSING_ZERO = 1;
+
+    /** Missing values go to the default child. */
+    public static final byte MISSING_NAN = 2;
+
+    private static final int DEFAULT_LEFT = 4;
+    private static final double ZERO_THRESHOLD = 1e-35f;
+    private static final int BLOCK_SIZE = 64;
+    private static final int PARALLEL_ROWS = 1024;
+
+    private int numFeatures;
+    private int numOutputs;
+    private int[] roots;
+    private int[] treeOutputs;
+    private int[] features;
+    private double[] thresholds;
+    private byte[] missing;
+    private int[] children;
+    private double[] leaves;
+    private double[] baseScores;
+    private Transform transform;
+    private double sigmoidScale;
+    private double[] averageScales;
+
+    private TreeEnsemble(Builder builder) {
+        numFeatures = builder.numFeatures;
+        numOutputs = builder.numOutputs;
+        int numTrees = builder.numTrees;
+        roots = Arrays.copyOf(builder.roots, numTrees);
+        treeOutputs = Arrays.copyOf(builder.treeOutputs, numTrees);
+        features = Arrays.copyOf(builder.features, builder.numNodes);
+        thresholds = Arrays.copyOf(builder.thresholds, builder.numNodes);
+        missing = Arrays.copyOf(builder.missing, builder.numNodes);
+        children = Arrays.copyOf(builder.children, builder.numNodes * 2);
+        leaves = Arrays.copyOf(builder.leaves, builder.numLeaves);
+        baseScores = new double[numOutputs];
+        Arrays.fill(baseScores, builder.baseScore);
+        transform = builder.transform;
+        sigmoidScale = builder.sigmoidScale;
+        if (builder.averageOutput) {
+            // random forest, the prediction is the mean of the trees of an output
+            averageScales = new double[numOutputs];
+            for (int output : treeOutputs) {
+                ++averageScales[output];
+            }
+            for (int i = 0; i < numOutputs; ++i) {
+                averageScales[i] = 1 / averageScales[i];
+            }
+        }
+    }
+
+    /**
+     * Creates a builder to build a {@code TreeEnsemble}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the number of features of a row.
+     *
+     * @return the number of features of a row
+     */
+    public int getNumFeatures() {
+        return numFeatures;
+    }
+
+    /**
+     * Returns the number of trees in the ensemble.
+     *
+     * @return the number of trees in the ensemble
+     */
+    public int getNumTrees() {
+        return roots.length;
+    }
+
+    /**
+     * Returns the number of predicted values per row.
+     *
+     * @param raw whether to return the raw scores without the {@link Transform}
+     * @return the number of predicted values per row
+     */
+    public int getOutputSize(boolean raw) {
+        return !raw && transform == Transform.ARGMAX ? 1 : numOutputs;
+    }
+
+    /**
+     * Predicts the rows of a row major matrix.
+     *
+     * <p>Large batches are scored in parallel on the common fork join pool.
+     *
+     * @param data the features of all rows, missing values are {@code NaN}
+     * @param rows the number of rows
+     * @param raw whether to return the raw scores without the {@link Transform}
+     * @return the predictions of all rows, {@link #getOutputSize(boolean)} values per row
+     */
+    public double[] predict(double[] data, int rows, boolean raw) {
+        if (data.length != rows * numFeatures) {
+            throw new IllegalArgumentException(
+                    "Expected " + rows + " rows of " + numFeatures + " features");
+        }
+        int outputSize = getOutputSize(raw);
+        double[] out = new double[rows * outputSize];
+        int blocks = (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if (rows >= PARALLEL_ROWS) {
+            IntStream.range(0, blocks)
+                    .parallel()
+                    .forEach(b -> predictBlock(data, rows, b, raw, out));
+        } else {
+            for (int b = 0; b < blocks; ++b) {
+                predictBlock(data, rows, b, raw, out);
+            }
+        }
+        return out;
+    }
+
+    private void predictBlock(double[] data, int rows, int block, boolean raw, double[] out) {
+        int from = block * BLOCK_SIZE;
+        int to = Math.min(from + BLOCK_SIZE, rows);
+        double[] scores = new double[(to - from) * numOutputs];
+        for (int row = from; row < to; ++row) {
+            System.arraycopy(baseScores, 0, scores, (row - from) * numOutputs, numOutputs);
+        }
+        for (int tree = 0; tree < roots.length; ++tree) {
+            int root = roots[tree];
+            int output = treeOutputs[tree];
+            for (int row = from; row < to; ++row) {
+                scores[(row - from) * numOutputs + output] += leaves[~findLeaf(root, data, row)];
+            }
+        }
+        int outputSize = getOutputSize(raw);
+        for (int row = from; row < to; ++row) {
+            int offset = (row - from) * numOutputs;
+            if (raw) {
+                System.arraycopy(scores, offset, out, row * outputSize, outputSize);
+            } else {
+                if (averageScales != null) {
+                    for (int i = 0; i < numOutputs; ++i) {
+                        scores[offset + i] *= averageScales[i];
+                    }
+                }
+                transform(scores, offset, out, row * outputSize);
+            }
+        }
+    }
+
+    private int findLeaf(int root, double[] data, int row) {
+        int offset = row * numFeatures;
+        int node = root;
+        while (node >= 0) {
+            double value = data[offset + features[node]];
+            byte type = missing[node];
+            if (type == MISSING_NONE && !Double.isNaN(value)) {
+                node = children[(node << 1) + (value <= thresholds[node] ? 0 : 1)];
+            } else {
+                node = nextMissing(node, value, type);
+            }
+        }
+        return node;
+    }
+
+    private int nextMissing(int node, double value, byte type) {
+        int defaultChild = children[(node << 1) + ((type & DEFAULT_LEFT) != 0 ? 0 : 1)];
+        int missingType = type & 3;
+        if (Double.isNaN(value)) {
+            if (missingType == MISSING_NAN) {
+                return defaultChild;
+            }
+            value = 0;
+        }
+        if (missingType == MISSING_ZERO && Math.abs(value) <= ZERO_THRESHOLD) {
+            return defaultChild;
+        }
+        return children[(node << 1) + (value <= thresholds[node] ? 0 : 1)];
+    }
+
+    private void transform(double[] scores, int offset, double[] out, int outOffset) {
+        switch (transform) {
+            case SIGMOID:
+                for (int i = 0; i < numOutputs; ++i) {
+                    out[outOffset + i] = 1 / (1 + Math.exp(-sigmoidScale * scores[offset + i]));
+                }
+                break;
+            case EXP:
+                for (int i = 0; i < numOutputs; ++i) {
+                    out[outOffset + i] = Math.exp(scores[offset + i]);
+                }
+                break;
+            case LOG1P_EXP:
+                for (int i = 0; i < numOutputs; ++i) {
+                    out[outOffset + i] = Math.log1p(Math.exp(scores[offset + i]));
+                }
+                break;
+            case SOFTMAX:
+                double max = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < numOutputs; ++i) {
+                    max = Math.max(max, scores[offset + i]);
+                }
+                double sum = 0;
+                for (int i = 0; i < numOutputs; ++i) {
+                    double e = Math.exp(scores[offset + i] - max);
+                    out[outOffset + i] = e;
+                    sum += e;
+                }
+                for (int i = 0; i < numOutputs; ++i) {
+                    out[outOffset + i] /= sum;
+                }
+                break;
+            case ARGMAX:
+                int best = 0;
+                for (int i = 1; i < numOutputs; ++i) {
+                    if (scores[offset + i] > scores[offset + best]) {
+                        best = i;
+                    }
+                }
+                out[outOffset] = best;
+                break;
+            case NONE:
+            default:
+                System.arraycopy(scores, offset, out, outOffset, numOutputs);
+                break;
+        }
+    }
+
+    /** The function that converts the scores of a row into the prediction. */
+    public enum Transform {
+        /** Returns the scores. */
+        NONE,
+        /** Applies the logistic function to each score. */
+        SIGMOID,
+        /** Applies the exponential function to each score. */
+        EXP,
+        /** Applies {@code log(1 + exp(x))} to each score. */
+        LOG1P_EXP,
+        /** Applies the softmax function across the scores of a row. */
+        SOFTMAX,
+        /** Returns the index of the largest score of a row. */
+        ARGMAX
+    }
+
+    /** The Builder to construct a {@link TreeEnsemble} object. */
+    public static final class Builder {
+
+        int numFeatures;
+        int numOutputs = 1;
+        double baseScore;
+        Transform transform = Transform.NONE;
+        double sigmoidScale = 1;
+        boolean averageOutput;
+
+        int numTrees;
+        int numNodes;
+        int numLeaves;
+        int[] roots = new int[16];
+        int[] treeOutputs = new int[16];
+        int[] features = new int[256];
+        double[] thresholds = new double[256];
+        byte[] missing = new byte[256];
+        int[] children = new int[512];
+        double[] leaves = new double[256];
+
+        Builder() {}
+
+        /**
+         * Sets the number of features of a row.
+         *
+         * @param numFeatures the number of features
+         * @return this {@code Builder}
+         */
+        public Builder setNumFeatures(int numFeatures) {
+            this.numFeatures = numFeatures;
+            return this;
+        }
+
+        /**
+         * Sets the number of scores per row, default is 1.
+         *
+         * @param numOutputs the number of scores per row, for example the number of classes
+         * @return this {@code Builder}
+         */
+        public Builder optNumOutputs(int numOutputs) {
+            this.numOutputs = numOutputs;
+            return this;
+        }
+
+        /**
+         * Sets the initial score of every output, default is 0.
+         *
+         * @param baseScore the initial score
+         * @return this {@code Builder}
+         */
+        public Builder optBaseScore(double baseScore) {
+            this.baseScore = baseScore;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Transform} that converts the scores into the prediction, default is
+         * {@link Transform#NONE}.
+         *
+         * @param transform the {@link Transform}
+         * @return this {@code Builder}
+         */
+        public Builder optTransform(Transform transform) {
+            this.transform = transform;
+            return this;
+        }
+
+        /**
+         * Sets the scale of the scores for {@link Transform#SIGMOID}, default is 1.
+         *
+         * @param sigmoidScale the scale of the scores
+         * @return this {@code Builder}
+         */
+        public Builder optSigmoidScale(double sigmoidScale) {
+            this.sigmoidScale = sigmoidScale;
+            return this;
+        }
+
+        /**
+         * Sets whether the score of an output is the mean instead of the sum of its trees.
+         *
+         * <p>The mean is only applied to the transformed predictions, the raw scores are the sum of
+         * the trees.
+         *
+         * @param averageOutput {@code true} to average the trees, like a random forest
+         * @return this {@code Builder}
+         */
+        public Builder optAverageOutput(boolean averageOutput) {
+            this.averageOutput = averageOutput;
+            return this;
+        }
+
+        /**
+         * Adds a tree to the ensemble.
+         *
+         * <p>The split nodes of the tree are numbered from 0, the root is node 0. A child index
+         * {@code c} is a split node if it is not negative, or the leaf {@code ~c} otherwise. A tree
+         * without split nodes has a single leaf.
+         *
+         * @param output the output the tree contributes to
+         * @param splitFeatures the feature index of each split node
+         * @param thresholds the thresholds of the split nodes, values less than or equal to the
+         *     threshold go to the left child
+         * @param leftChildren the left child of each split node
+         * @param rightChildren the right child of each split node
+         * @param missingTypes how each split node handles missing values, one of {@link
+         *     #MISSING_NONE}, {@link #MISSING_ZERO} or {@link #MISSING_NAN}
+         * @param defaultLeft whether the missing values go to the left child of each split node
+         * @param leafValues the values of the leaves
+         * @return this {@code Builder}
+         */
+        public Builder addTree(
+                int output,
+                int[] splitFeatures,
+                double[] thresholds,
+                int[] leftChildren,
+                int[] rightChildren,
+                byte[] missingTypes,
+                boolean[] defaultLeft,
+                double[] leafValues) {
+            if (output < 0 || output >= numOutputs) {
+                throw new IllegalArgumentException("Invalid tree output: " + output);
+            }
+            int splits = splitFeatures.length;
+            if (leafValues.length != splits + 1) {
+                throw new IllegalArgumentException(
+                        "A tree with " + splits + " splits must have " + (splits + 1) + " leaves");
+            }
+            ensureCapacity(splits, leafValues.length);
+            int nodeBase = numNodes;
+            int leafBase = numLeaves;
+            for (int i = 0; i < splits; ++i) {
+                int node = nodeBase + i;
+                if (splitFeatures[i] < 0 || splitFeatures[i] >= numFeatures) {
+                    throw new IllegalArgumentException(
+                            "Invalid split feature: " + splitFeatures[i]);
+                }
+                features[node] = splitFeatures[i];
+                this.thresholds[node] = thresholds[i];
+                byte type = missingTypes[i];
+                if (type != MISSING_NONE && defaultLeft[i]) {
+                    type |= DEFAULT_LEFT;
+                }
+                missing[node] = type;
+                children[node << 1] = toGlobal(leftChildren[i], nodeBase, leafBase);
+                children[(node << 1) + 1] = toGlobal(rightChildren[i], nodeBase, leafBase);
+            }
+            System.arraycopy(leafValues, 0, leaves, leafBase, leafValues.length);
+            roots[numTrees] = splits == 0 ? ~leafBase : nodeBase;
+            treeOutputs[numTrees] = output;
+            ++numTrees;
+            numNodes += splits;
+            numLeaves += leafValues.length;
+            return this;
+        }
+
+        /**
+         * Builds a {@link TreeEnsemble} with the trees added to this builder.
+         *
+         * @return the {@link TreeEnsemble}
+         */
+        public TreeEnsemble build() {
+            if (numFeatures <= 0) {
+                throw new IllegalArgumentException("Number of features is required.");
+            }
+            return new TreeEnsemble(this);
+        }
+
+        private static int toGlobal(int child, int nodeBase, int leafBase) {
+            return child >= 0 ? nodeBase + child : ~(leafBase + ~child);
+        }
+
+        private void ensureCapacity(int splits, int leafCount) {
+            if (numTrees == roots.length) {
+                roots = Arrays.copyOf(roots, numTrees * 2);
+                treeOutputs = Arrays.copyOf(treeOutputs, numTrees * 2);
+            }
+            if (numNodes + splits > features.length) {
+                int capacity = Math.max(features.length * 2, numNodes + splits);
+                features = Arrays.copyOf(features, capacity);
+                thresholds = Arrays.copyOf(thresholds, capacity);
+                missing = Arrays.copyOf(missing, capacity);
+                children = Arrays.copyOf(children, capacity * 2);
+            }
+            if (numLeaves + leafCount > leaves.length) {
+                leaves = Arrays.copyOf(leaves, Math.max(leaves.length * 2, numLeaves + leafCount));
+            }
+        }
+    }
+}
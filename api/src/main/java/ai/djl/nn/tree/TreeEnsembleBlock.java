@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn.tree;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.AbstractSymbolBlock;
+import ai.djl.nn.ParameterList;
+import ai.djl.training.ParameterStore;
+import ai.djl.util.PairList;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * {@code TreeEnsembleBlock} is a {@link ai.djl.nn.SymbolBlock} that predicts with a {@link
+ * TreeEnsemble} in pure Java.
+ *
+ * <p>The input is a single 2D array of float32 or float64 features with one row per sample. The
+ * output is a 1D array with the predictions of all rows, in the data type of the input.
+ */
+public class TreeEnsembleBlock extends AbstractSymbolBlock {
+
+    private TreeEnsemble ensemble;
+    private boolean rawOutput;
+
+    /**
+     * Constructs a {@code TreeEnsembleBlock}.
+     *
+     * @param ensemble the {@link TreeEnsemble} to predict with
+     */
+    public TreeEnsembleBlock(TreeEnsemble ensemble) {
+        this.ensemble = ensemble;
+    }
+
+    /**
+     * Returns the {@link TreeEnsemble} of this block.
+     *
+     * @return the {@link TreeEnsemble} of this block
+     */
+    public TreeEnsemble getEnsemble() {
+        return ensemble;
+    }
+
+    /**
+     * Sets whether to return the raw scores instead of the transformed predictions.
+     *
+     * @param rawOutput {@code true} to return the raw scores
+     */
+    public void setRawOutput(boolean rawOutput) {
+        this.rawOutput = rawOutput;
+    }
+
+    /**
+     * Returns whether the block returns the raw scores instead of the transformed predictions.
+     *
+     * @return {@code true} if the block returns the raw scores
+     */
+    public boolean isRawOutput() {
+        return rawOutput;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected NDList forwardInternal(
+            ParameterStore parameterStore,
+            NDList inputs,
+            boolean training,
+            PairList<String, Object> params) {
+        NDArray array = inputs.singletonOrThrow();
+        Shape shape = array.getShape();
+        if (shape.dimension() != 2) {
+            throw new IllegalArgumentException(
+                    "Tree ensemble input must be a 2D array, but got: " + shape);
+        }
+        int rows = Math.toIntExact(shape.get(0));
+        double[] result = ensemble.predict(getFeatures(array), rows, rawOutput);
+
+        NDManager manager = array.getManager();
+        ByteBuffer bb;
+        DataType dataType = array.getDataType();
+        if (dataType == DataType.FLOAT64) {
+            bb = manager.allocateDirect(result.length * 8);
+            bb.asDoubleBuffer().put(result);
+        } else {
+            dataType = DataType.FLOAT32;
+            bb = manager.allocateDirect(result.length * 4);
+            FloatBuffer fb = bb.asFloatBuffer();
+            for (double value : result) {
+                fb.put((float) value);
+            }
+        }
+        return new NDList(manager.create(bb, new Shape(result.length), dataType));
+    }
+
+    /**
+     * Returns the features of the input as a row major array.
+     *
+     * @param array the input array
+     * @return the features of the input as a row major array
+     */
+    protected double[] getFeatures(NDArray array) {
+        DataType dataType = array.getDataType();
+        if (dataType == DataType.FLOAT64) {
+            return array.toDoubleArray();
+        } else if (dataType == DataType.FLOAT32) {
+            return toDoubleArray(array.toByteBuffer(true).asFloatBuffer());
+        }
+        throw new IllegalArgumentException(
+                "Tree ensemble input must be float32 or float64, but got: " + dataType);
+    }
+
+    /**
+     * Converts float features to double.
+     *
+     * @param fb the float features
+     * @return the double features
+     */
+    protected static double[] toDoubleArray(FloatBuffer fb) {
+        double[] data = new double[fb.remaining()];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = fb.get();
+        }
+        return data;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Shape[] getOutputShapes(Shape[] inputShapes) {
+        long rows = inputShapes[0].get(0);
+        return new Shape[] {new Shape(rows * ensemble.getOutputSize(rawOutput))};
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ParameterList getDirectParameters() {
+        return new ParameterList();
+    }
+}
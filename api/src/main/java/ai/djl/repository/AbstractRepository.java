@@ -24,6 +24,7 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLDecoder;
@@ -34,8 +35,15 @@ import java.nio.file.StandardCopyOption;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipInputStream;
 
@@ -49,6 +57,8 @@ public abstract class AbstractRepository implements Repository {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractRepository.class);
 
+    private static final long CHUNK_SIZE = 64L * 1024 * 1024;
+
     protected String name;
     protected URI uri;
     protected Map<String, String> arguments;
@@ -148,8 +158,13 @@ public abstract class AbstractRepository implements Repository {
 
         try {
             logger.debug("Items to download: {}", files.size());
-            for (Artifact.Item item : files.values()) {
-                download(tmp, baseUri, item, progress);
+            int threads = Math.min(files.size(), getDownloadThreads());
+            if (threads <= 1) {
+                for (Artifact.Item item : files.values()) {
+                    download(tmp, baseUri, item, progress);
+                }
+            } else {
+                downloadAll(tmp, baseUri, files.values(), progress, threads);
             }
             Utils.moveQuietly(tmp, resourceDir);
         } finally {
@@ -187,8 +202,50 @@ public abstract class AbstractRepository implements Repository {
         }
 
         logger.debug("Downloading artifact: {} ...", fileUri);
-        try (InputStream is = new BufferedInputStream(fileUri.toURL().openStream())) {
-            save(is, tmp, item, progress);
+        downloadFile(tmp, fileUri, item, progress);
+    }
+
+    /**
+     * Downloads and saves a file.
+     *
+     * <p>HTTP downloads are resumed from the partial files left by a previous failed download, and
+     * large files are downloaded in parallel chunks when the server accepts range requests.
+     *
+     * @param tmp the temporary directory to save the file
+     * @param fileUri the absolute uri of the file
+     * @param item the item to save
+     * @param progress the progress tracker
+     * @throws IOException if failed to download the file
+     */
+    protected void downloadFile(Path tmp, URI fileUri, Artifact.Item item, Progress progress)
+            throws IOException {
+        String scheme = fileUri.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            try (InputStream is = new BufferedInputStream(fileUri.toURL().openStream())) {
+                save(is, tmp, item, progress);
+            }
+            return;
+        }
+
+        // keep the partial files outside of the temporary directory to resume later
+        Path partFile = tmp.toAbsolutePath().resolveSibling(getPartFileName(fileUri));
+        try (RangeDownloader downloader =
+                new RangeDownloader(
+                        fileUri.toURL(),
+                        partFile,
+                        tmp.toAbsolutePath(),
+                        getDownloadThreads(),
+                        getDownloadChunkSize())) {
+            try (InputStream is = new BufferedInputStream(downloader.open())) {
+                save(is, tmp, item, progress);
+            } catch (IOException e) {
+                if (downloader.isComplete()) {
+                    // the downloaded file is corrupted, it should not be resumed
+                    downloader.delete();
+                }
+                throw e;
+            }
+            downloader.delete();
         }
     }
 
@@ -230,6 +287,61 @@ public abstract class AbstractRepository implements Repository {
         pis.validateChecksum(item);
     }
 
+    private void downloadAll(
+            Path tmp, URI baseUri, Collection<Artifact.Item> items, Progress progress, int threads)
+            throws IOException {
+        Progress shared = progress == null ? null : new SynchronizedProgress(progress);
+        ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        threads,
+                        r -> {
+                            Thread thread = new Thread(r, "djl-download");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Artifact.Item item : items) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    download(tmp, baseUri, item, shared);
+                                    return null;
+                                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Download is interrupted.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to download artifact.", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String getPartFileName(URI fileUri) {
+        return '.' + Utils.hash(fileUri.toString()) + ".part";
+    }
+
+    private static int getDownloadThreads() {
+        return Integer.parseInt(Utils.getEnvOrSystemProperty("DJL_DOWNLOAD_THREADS", "4"));
+    }
+
+    private static long getDownloadChunkSize() {
+        return Long.parseLong(
+                Utils.getEnvOrSystemProperty(
+                        "DJL_DOWNLOAD_CHUNK_SIZE", String.valueOf(CHUNK_SIZE)));
+    }
+
     private static Map<String, String> parseQueryString(URI uri) {
         try {
             Map<String, String> map = new ConcurrentHashMap<>();
@@ -327,4 +439,44 @@ public abstract class AbstractRepository implements Repository {
             dis.close();
         }
     }
+
+    /** A {@link Progress} that can be updated by concurrent downloads. */
+    private static final class SynchronizedProgress implements Progress {
+
+        private Progress progress;
+
+        SynchronizedProgress(Progress progress) {
+            this.progress = progress;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void reset(String message, long max, String trailingMessage) {
+            progress.reset(message, max, trailingMessage);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void start(long initialProgress) {
+            progress.start(initialProgress);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void end() {
+            // the download ends when all the items are downloaded
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void increment(long increment) {
+            progress.increment(increment);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized void update(long progress, String message) {
+            this.progress.update(progress, message);
+        }
+    }
 }
@@ -0,0 +1,558 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Downloads a file over HTTP into partial files that survive failures.
+ *
+ * <p>The content is returned as a stream while it is being downloaded, so the caller can verify and
+ * extract it at the same time. A later download of the same URL resumes from the partial files with
+ * HTTP range requests. Large files are split into chunks that are downloaded in parallel when the
+ * server accepts range requests.
+ *
+ * <p>The partial files are only resumed if the server returned a strong {@code ETag} or a {@code
+ * Last-Modified} date for them, which is sent back in an {@code If-Range} header, and the length of
+ * the result is checked against the length reported by the server. A lock file keeps other
+ * processes from writing the same partial files, a download that can't get the lock uses private
+ * partial files instead.
+ */
+final class RangeDownloader implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RangeDownloader.class);
+
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+    private static final int MAX_RETRIES = 3;
+
+    /** The partial files locked by this process, file locks are held per process. */
+    private static final Set<Path> LOCKED = ConcurrentHashMap.newKeySet();
+
+    private URL url;
+    private Path partFile;
+    private Path privateDir;
+    private int threads;
+    private long chunkSize;
+    private String validator;
+    private FileChannel lockChannel;
+    private Path lockedFile;
+
+    private long[] offsets;
+    private long[] lengths;
+    private long[] written;
+    private IOException error;
+    private ExecutorService executor;
+    private volatile boolean closed;
+    private volatile boolean complete;
+
+    /**
+     * Constructs a {@code RangeDownloader}.
+     *
+     * @param url the url to download
+     * @param partFile the partial file, chunks are stored next to it with a numeric suffix
+     * @param privateDir the directory for the partial files if {@code partFile} is locked by
+     *     another download
+     * @param threads the number of parallel chunk downloads
+     * @param chunkSize the size of a chunk in bytes
+     */
+    RangeDownloader(URL url, Path partFile, Path privateDir, int threads, long chunkSize) {
+        this.url = url;
+        this.partFile = partFile;
+        this.privateDir = privateDir;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Opens the content of the url, resuming from the partial files if they exist.
+     *
+     * @return the content of the url
+     * @throws IOException if failed to connect to the url
+     */
+    InputStream open() throws IOException {
+        if (!lock()) {
+            logger.debug("{} is locked by another download, not resuming", partFile);
+            partFile = privateDir.resolve(partFile.getFileName());
+        }
+        if (threads > 1) {
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            try {
+                conn.setRequestMethod("HEAD");
+                long length = conn.getContentLengthLong();
+                if (conn.getResponseCode() == HttpURLConnection.HTTP_OK
+                        && "bytes".equalsIgnoreCase(conn.getHeaderField("Accept-Ranges"))
+                        && length >= chunkSize * 2) {
+                    return openChunks(length, getValidator(conn));
+                }
+            } finally {
+                conn.disconnect();
+            }
+        }
+        return openStream();
+    }
+
+    /**
+     * Returns whether the whole content has been downloaded.
+     *
+     * @return {@code true} if the whole content has been downloaded
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /** Deletes the partial files. */
+    void delete() {
+        Utils.deleteQuietly(partFile);
+        Utils.deleteQuietly(infoFile());
+        if (lengths != null) {
+            for (int i = 0; i < lengths.length; ++i) {
+                Utils.deleteQuietly(chunkFile(i));
+            }
+        }
+    }
+
+    /** Releases the lock on the partial files. */
+    @Override
+    public void close() {
+        if (lockChannel != null) {
+            try {
+                // closing the channel releases the lock
+                lockChannel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to release the lock of {}", lockedFile, e);
+            }
+            lockChannel = null;
+            LOCKED.remove(lockedFile);
+        }
+    }
+
+    private boolean lock() {
+        Path file = partFile.resolveSibling(partFile.getFileName().toString() + ".lock");
+        // closing any channel of a locked file releases the locks of the whole process on some
+        // platforms, so a file locked by this process is never opened again
+        if (!LOCKED.add(file)) {
+            return false;
+        }
+        FileChannel channel = null;
+        try {
+            channel =
+                    FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                lockChannel = channel;
+                lockedFile = file;
+                return true;
+            }
+        } catch (IOException | OverlappingFileLockException e) {
+            logger.debug("Failed to lock {}", file, e);
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close {}", file, e);
+            }
+        }
+        LOCKED.remove(file);
+        return false;
+    }
+
+    private InputStream openStream() throws IOException {
+        String[] info = readInfo();
+        long offset = 0;
+        if (info != null && Files.isRegularFile(partFile)) {
+            offset = Files.size(partFile);
+        }
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        if (offset > 0) {
+            conn.setRequestProperty("Range", "bytes=" + offset + '-');
+            // the range is ignored if the content has changed since the partial file was written
+            conn.setRequestProperty("If-Range", info[1]);
+        }
+        int code = conn.getResponseCode();
+        if (offset > 0 && code == HTTP_RANGE_NOT_SATISFIABLE) {
+            long[] range = parseContentRange(conn.getHeaderField("Content-Range"));
+            conn.disconnect();
+            if (offset == Long.parseLong(info[0]) && (range == null || range[2] == offset)) {
+                // the partial file is already complete
+                complete = true;
+                return Files.newInputStream(partFile);
+            }
+            logger.debug("Partial file of {} does not match, downloading again", url);
+            delete();
+            return openStream();
+        }
+
+        long length;
+        OutputStream os;
+        if (offset > 0 && code == HttpURLConnection.HTTP_PARTIAL) {
+            long[] range = parseContentRange(conn.getHeaderField("Content-Range"));
+            length = Long.parseLong(info[0]);
+            if (range == null || range[0] != offset || range[2] != length) {
+                logger.debug("Unexpected range of {}, downloading again", url);
+                conn.disconnect();
+                delete();
+                return openStream();
+            }
+            logger.debug("Resume downloading {} from {} bytes", url, offset);
+            os = Files.newOutputStream(partFile, StandardOpenOption.APPEND);
+        } else {
+            offset = 0;
+            length = conn.getContentLengthLong();
+            writeInfo(length, getValidator(conn));
+            os = Files.newOutputStream(partFile);
+        }
+        InputStream tee = new TeeInputStream(conn.getInputStream(), os, offset, length);
+        if (offset > 0) {
+            return new SequenceInputStream(Files.newInputStream(partFile), tee);
+        }
+        return tee;
+    }
+
+    private InputStream openChunks(long length, String tag) throws IOException {
+        String[] info = readInfo();
+        // the chunks of a previous download are only resumed if the content is unchanged
+        boolean resume =
+                tag != null
+                        && info != null
+                        && Long.parseLong(info[0]) == length
+                        && tag.equals(info[1]);
+        validator = tag;
+        int count = Math.toIntExact((length + chunkSize - 1) / chunkSize);
+        offsets = new long[count];
+        lengths = new long[count];
+        written = new long[count];
+        for (int i = 0; i < count; ++i) {
+            offsets[i] = i * chunkSize;
+            lengths[i] = Math.min(chunkSize, length - offsets[i]);
+            Path file = chunkFile(i);
+            if (Files.isRegularFile(file) && (!resume || Files.size(file) > lengths[i])) {
+                Files.delete(file);
+            }
+            if (Files.notExists(file)) {
+                Files.createFile(file);
+            }
+            written[i] = Files.size(file);
+        }
+        writeInfo(length, tag);
+        logger.debug("Downloading {} in {} chunks", url, count);
+
+        executor =
+                Executors.newFixedThreadPool(
+                        Math.min(threads, count),
+                        r -> {
+                            Thread thread = new Thread(r, "djl-download");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        for (int i = 0; i < count; ++i) {
+            if (written[i] < lengths[i]) {
+                int chunk = i;
+                executor.execute(() -> downloadChunk(chunk));
+            }
+        }
+        executor.shutdown();
+        return new ChunkedInputStream();
+    }
+
+    private void downloadChunk(int chunk) {
+        try {
+            for (int retry = 0; ; ++retry) {
+                try {
+                    fetchChunk(chunk);
+                    return;
+                } catch (IOException e) {
+                    if (closed || retry >= MAX_RETRIES) {
+                        throw e;
+                    }
+                    logger.debug("Retry downloading chunk {} of {}", chunk, url, e);
+                }
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                if (error == null) {
+                    error = e;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private void fetchChunk(int chunk) throws IOException {
+        long start;
+        synchronized (this) {
+            start = offsets[chunk] + written[chunk];
+        }
+        long end = offsets[chunk] + lengths[chunk] - 1;
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        try {
+            conn.setRequestProperty("Range", "bytes=" + start + '-' + end);
+            if (validator != null) {
+                conn.setRequestProperty("If-Range", validator);
+            }
+            if (conn.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+                throw new IOException("Range request is not supported or content changed: " + url);
+            }
+            long[] range = parseContentRange(conn.getHeaderField("Content-Range"));
+            long length = offsets[offsets.length - 1] + lengths[lengths.length - 1];
+            if (range == null || range[0] != start || range[1] != end || range[2] != length) {
+                throw new IOException("Unexpected content range of chunk " + chunk + ": " + url);
+            }
+            byte[] buf = new byte[65536];
+            try (InputStream is = conn.getInputStream();
+                    OutputStream os =
+                            Files.newOutputStream(chunkFile(chunk), StandardOpenOption.APPEND)) {
+                int read;
+                while (!closed && (read = is.read(buf)) != -1) {
+                    os.write(buf, 0, read);
+                    synchronized (this) {
+                        written[chunk] += read;
+                        notifyAll();
+                    }
+                }
+            }
+        } finally {
+            conn.disconnect();
+        }
+        synchronized (this) {
+            if (!closed && written[chunk] != lengths[chunk]) {
+                throw new IOException("Incomplete chunk " + chunk + " of " + url);
+            }
+        }
+    }
+
+    private Path chunkFile(int chunk) {
+        return partFile.resolveSibling(partFile.getFileName().toString() + '.' + chunk);
+    }
+
+    private Path infoFile() {
+        return partFile.resolveSibling(partFile.getFileName().toString() + ".info");
+    }
+
+    /**
+     * Returns the length and the validator the partial files were downloaded with, or {@code null}
+     * if they can't be resumed.
+     */
+    private String[] readInfo() throws IOException {
+        Path file = infoFile();
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.size() != 2 || !lines.get(0).matches("\\d+")) {
+            return null;
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    private void writeInfo(long length, String tag) throws IOException {
+        if (length < 0 || tag == null) {
+            // the partial files can't be resumed safely
+            Utils.deleteQuietly(infoFile());
+            return;
+        }
+        Files.write(infoFile(), Arrays.asList(String.valueOf(length), tag), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the strong validator of the response that can be used in an {@code If-Range} header,
+     * or {@code null} if the response has none.
+     */
+    private static String getValidator(HttpURLConnection conn) {
+        String etag = conn.getHeaderField("ETag");
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return conn.getHeaderField("Last-Modified");
+    }
+
+    /**
+     * Parses a {@code Content-Range} header into the first position, the last position and the
+     * complete length, unknown values are {@code -1}.
+     */
+    private static long[] parseContentRange(String header) {
+        if (header == null || !header.startsWith("bytes ")) {
+            return null;
+        }
+        try {
+            String value = header.substring(6).trim();
+            int slash = value.indexOf('/');
+            String total = value.substring(slash + 1);
+            long[] range = {-1, -1, "*".equals(total) ? -1 : Long.parseLong(total)};
+            String bytes = value.substring(0, slash);
+            if (!"*".equals(bytes)) {
+                int dash = bytes.indexOf('-');
+                range[0] = Long.parseLong(bytes.substring(0, dash));
+                range[1] = Long.parseLong(bytes.substring(dash + 1));
+            }
+            return range;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /** An {@code InputStream} that copies the data it reads to an {@code OutputStream}. */
+    private final class TeeInputStream extends InputStream {
+
+        private InputStream is;
+        private OutputStream os;
+        private long position;
+        private long length;
+
+        TeeInputStream(InputStream is, OutputStream os, long offset, long length) {
+            this.is = is;
+            this.os = os;
+            position = offset;
+            this.length = length;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int read() throws IOException {
+            byte[] buf = new byte[1];
+            int read = read(buf, 0, 1);
+            return read == -1 ? -1 : buf[0] & 0xFF;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = is.read(b, off, len);
+            if (read == -1) {
+                if (length >= 0 && position != length) {
+                    // the connection was closed before the end of the content
+                    throw new IOException("Premature EOF: " + url);
+                }
+                complete = true;
+            } else {
+                os.write(b, off, read);
+                position += read;
+                if (length >= 0 && position > length) {
+                    throw new IOException("Content is longer than expected: " + url);
+                }
+            }
+            return read;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() throws IOException {
+            try {
+                is.close();
+            } finally {
+                os.close();
+            }
+        }
+    }
+
+    /** An {@code InputStream} that reads the chunks in order while they are downloaded. */
+    private final class ChunkedInputStream extends InputStream {
+
+        private int chunk;
+        private long position;
+        private InputStream current;
+
+        /** {@inheritDoc} */
+        @Override
+        public int read() throws IOException {
+            byte[] buf = new byte[1];
+            int read = read(buf, 0, 1);
+            return read == -1 ? -1 : buf[0] & 0xFF;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (chunk < lengths.length) {
+                if (position == lengths[chunk]) {
+                    if (current != null) {
+                        current.close();
+                        current = null;
+                    }
+                    ++chunk;
+                    position = 0;
+                    continue;
+                }
+                long available = waitFor(chunk, position);
+                if (current == null) {
+                    current = Files.newInputStream(chunkFile(chunk));
+                }
+                int read = current.read(b, off, (int) Math.min(len, available));
+                if (read == -1) {
+                    throw new IOException("Chunk file is truncated: " + chunkFile(chunk));
+                }
+                position += read;
+                return read;
+            }
+            complete = true;
+            return -1;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            if (current != null) {
+                current.close();
+            }
+        }
+
+        private long waitFor(int index, long pos) throws IOException {
+            synchronized (RangeDownloader.this) {
+                while (written[index] == pos) {
+                    if (error != null) {
+                        throw new IOException("Failed to download: " + url, error);
+                    }
+                    try {
+                        RangeDownloader.this.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Download is interrupted: " + url);
+                    }
+                }
+                return written[index] - pos;
+            }
+        }
+    }
+}
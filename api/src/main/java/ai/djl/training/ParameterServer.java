@@ -49,6 +49,14 @@ public interface ParameterServer extends AutoCloseable {
      */
     void update(String parameterId, NDArray[] grads, NDArray[] params);
 
+    /**
+     * Applies the updates that are still pending.
+     *
+     * <p>{@link ParameterStore#updateAllParameters()} calls this after updating all parameters,
+     * which lets an implementation batch the updates of a training step.
+     */
+    default void flush() {}
+
     /** {@inheritDoc} */
     @Override
     void close();
@@ -85,6 +85,7 @@ public class ParameterStore {
                 parameterServer.update(parameterId, params);
             }
         }
+        parameterServer.flush();
     }
 
     /**
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training;
+
+import ai.djl.util.Float16Utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Connects the workers of a distributed training job in a ring over TCP sockets.
+ *
+ * <p>Each worker sends data to the next worker and receives data from the previous one. The
+ * all-reduce is the bandwidth optimal ring algorithm: a reduce-scatter pass followed by an
+ * all-gather pass, each worker sends {@code 2 * (n - 1) / n} of the data in total.
+ */
+final class RingCommunicator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RingCommunicator.class);
+
+    private static final int RETRY_INTERVAL = 100;
+
+    private int rank;
+    private int size;
+    private boolean compress;
+    private Socket nextSocket;
+    private Socket prevSocket;
+    private DataOutputStream out;
+    private DataInputStream in;
+    private ExecutorService sender;
+
+    /**
+     * Connects this worker to its neighbours in the ring.
+     *
+     * <p>The call blocks until the neighbours are connected.
+     *
+     * @param rank the rank of this worker
+     * @param workers the addresses of all workers, indexed by rank
+     * @param compress whether to send the reduced values as float16
+     * @param timeout the timeout in milliseconds to wait for the other workers
+     * @throws IOException if failed to connect to the other workers
+     */
+    RingCommunicator(int rank, List<InetSocketAddress> workers, boolean compress, int timeout)
+            throws IOException {
+        this.rank = rank;
+        this.compress = compress;
+        size = workers.size();
+        if (size == 1) {
+            return;
+        }
+
+        InetSocketAddress next = workers.get((rank + 1) % size);
+        try (ServerSocket server = new ServerSocket()) {
+            server.setReuseAddress(true);
+            server.bind(new InetSocketAddress(workers.get(rank).getPort()));
+            server.setSoTimeout(timeout);
+
+            nextSocket = connect(next, timeout);
+            out =
+                    new DataOutputStream(
+                            new BufferedOutputStream(nextSocket.getOutputStream(), 65536));
+            out.writeInt(rank);
+            out.flush();
+
+            prevSocket = server.accept();
+            prevSocket.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(prevSocket.getInputStream(), 65536));
+            int prev = in.readInt();
+            if (prev != (rank + size - 1) % size) {
+                throw new IOException("Unexpected worker " + prev + " connected to " + rank);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        sender =
+                Executors.newSingleThreadExecutor(
+                        r -> {
+                            Thread thread = new Thread(r, "djl-ring-sender-" + rank);
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        logger.debug("Worker {} of {} is connected to {}", rank, size, next);
+    }
+
+    /**
+     * Returns the number of workers in the ring.
+     *
+     * @return the number of workers in the ring
+     */
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Sums the values of all workers, every worker receives the same result.
+     *
+     * @param data the values of this worker, replaced with the sum
+     * @throws IOException if failed to communicate with the other workers
+     */
+    void allReduce(float[] data) throws IOException {
+        if (size == 1) {
+            return;
+        }
+        // reduce-scatter: after n - 1 steps, worker r holds the sum of chunk r + 1
+        for (int step = 0; step < size - 1; ++step) {
+            int sendChunk = (rank - step + size) % size;
+            int recvChunk = (rank - step - 1 + size) % size;
+            exchange(data, sendChunk, recvChunk, true);
+        }
+        if (compress) {
+            // round the owned chunk, so all workers end up with the same values
+            int chunk = (rank + 1) % size;
+            for (int i = start(data, chunk); i < start(data, chunk + 1); ++i) {
+                data[i] = Float16Utils.halfToFloat(Float16Utils.floatToHalf(data[i]));
+            }
+        }
+        // all-gather: pass the reduced chunks around the ring
+        for (int step = 0; step < size - 1; ++step) {
+            int sendChunk = (rank - step + 1 + size) % size;
+            int recvChunk = (rank - step + size) % size;
+            exchange(data, sendChunk, recvChunk, false);
+        }
+    }
+
+    /**
+     * Sends the data of worker 0 to all workers.
+     *
+     * @param data the data on worker 0, replaced with the data of worker 0 on other workers
+     * @throws IOException if failed to communicate with the other workers
+     */
+    void broadcast(byte[] data) throws IOException {
+        if (size == 1) {
+            return;
+        }
+        if (rank != 0) {
+            in.readFully(data);
+        }
+        if (rank != size - 1) {
+            out.write(data);
+            out.flush();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        if (sender != null) {
+            sender.shutdownNow();
+        }
+        closeQuietly(nextSocket);
+        closeQuietly(prevSocket);
+    }
+
+    private void exchange(float[] data, int sendChunk, int recvChunk, boolean add)
+            throws IOException {
+        Future<?> future =
+                sender.submit(
+                        () -> {
+                            write(data, start(data, sendChunk), start(data, sendChunk + 1));
+                            return null;
+                        });
+        read(data, start(data, recvChunk), start(data, recvChunk + 1), add);
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("All-reduce is interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to send data to the next worker", e.getCause());
+        }
+    }
+
+    private void write(float[] data, int from, int to) throws IOException {
+        int elementSize = compress ? 2 : 4;
+        ByteBuffer bb = ByteBuffer.allocate((to - from) * elementSize);
+        bb.order(ByteOrder.BIG_ENDIAN);
+        if (compress) {
+            for (int i = from; i < to; ++i) {
+                bb.putShort(Float16Utils.floatToHalf(data[i]));
+            }
+        } else {
+            bb.asFloatBuffer().put(data, from, to - from);
+        }
+        out.write(bb.array());
+        out.flush();
+    }
+
+    private void read(float[] data, int from, int to, boolean add) throws IOException {
+        int elementSize = compress ? 2 : 4;
+        byte[] buf = new byte[(to - from) * elementSize];
+        in.readFully(buf);
+        ByteBuffer bb = ByteBuffer.wrap(buf);
+        for (int i = from; i < to; ++i) {
+            float value = compress ? Float16Utils.halfToFloat(bb.getShort()) : bb.getFloat();
+            data[i] = add ? data[i] + value : value;
+        }
+    }
+
+    private int start(float[] data, int chunk) {
+        return (int) ((long) data.length * chunk / size);
+    }
+
+    private static Socket connect(InetSocketAddress address, int timeout) throws IOException {
+        long deadline = System.currentTimeMillis() + timeout;
+        while (true) {
+            Socket socket = new Socket();
+            try {
+                socket.connect(address, timeout);
+                socket.setTcpNoDelay(true);
+                return socket;
+            } catch (ConnectException e) {
+                socket.close();
+                // the worker may not be listening yet
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(RETRY_INTERVAL);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException(
+                            "Connecting to " + address + " is interrupted");
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+                // ignore
+            }
+        }
+    }
+}
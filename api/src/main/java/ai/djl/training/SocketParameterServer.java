@@ -0,0 +1,372 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.training.optimizer.Optimizer;
+import ai.djl.util.Utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * {@code SocketParameterServer} is a {@link ParameterServer} for data parallel training across
+ * several processes or machines.
+ *
+ * <p>Every worker holds a full copy of the parameters. The gradients are first summed across the
+ * local devices as {@link LocalParameterServer} does, then summed across the workers with a ring
+ * all-reduce over TCP sockets, and each worker applies the same update with its own optimizer.
+ *
+ * <p>The gradients of a training step are grouped into buckets of about {@link
+ * Builder#optBucketSize(long)} bytes. The buckets are reduced on a background thread, so the
+ * communication of a bucket overlaps with the optimizer updates of the previous buckets. The
+ * initial parameter values are copied from the worker of rank 0.
+ *
+ * <p>All workers must train the same model and call {@link ParameterStore#updateAllParameters()}
+ * the same number of times. The parameters are matched across workers by the order they are
+ * initialized in, which {@link Trainer#initialize(Shape...)} makes deterministic.
+ */
+public class SocketParameterServer implements ParameterServer {
+
+    private Optimizer optimizer;
+    private long bucketSize;
+    private RingCommunicator ring;
+    private ExecutorService executor;
+
+    private Map<String, Integer> indices;
+    private List<PendingUpdate> pending;
+
+    private SocketParameterServer(Builder builder) {
+        optimizer = builder.optimizer;
+        bucketSize = builder.bucketSize;
+        indices = new ConcurrentHashMap<>();
+        pending = new ArrayList<>();
+        try {
+            ring =
+                    new RingCommunicator(
+                            builder.rank, builder.workers, builder.compress, builder.timeout);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to connect to the other workers", e);
+        }
+        executor =
+                Executors.newSingleThreadExecutor(
+                        r -> {
+                            Thread thread = new Thread(r, "djl-all-reduce");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void init(String parameterId, NDArray[] value) {
+        indices.put(parameterId, indices.size());
+        NDArray array = value[0];
+        if (ring.getSize() == 1 || array.getDataType() == DataType.STRING) {
+            return;
+        }
+        byte[] data = array.toByteArray();
+        try {
+            ring.broadcast(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to broadcast parameter", e);
+        }
+        for (NDArray v : value) {
+            v.set(ByteBuffer.wrap(data));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void update(String parameterId, NDArray[] grads, NDArray[] params) {
+        Device firstDevice = params[0].getDevice();
+        // reduce gradient from all devices to first device
+        for (int i = 1; i < grads.length; i++) {
+            try (NDArray gradCopy = grads[i].toDevice(firstDevice, true)) {
+                grads[0].addi(gradCopy);
+            }
+        }
+        Integer index = indices.get(parameterId);
+        if (index == null) {
+            throw new IllegalStateException("Parameter is not initialized: " + parameterId);
+        }
+        // the gradients are only valid during this call, copy them for the all-reduce
+        float[] grad;
+        if (grads[0].getDataType() == DataType.FLOAT32) {
+            grad = grads[0].toFloatArray();
+        } else {
+            try (NDArray array = grads[0].toType(DataType.FLOAT32, true)) {
+                grad = array.toFloatArray();
+            }
+        }
+        pending.add(new PendingUpdate(parameterId, index, grads[0].getShape(), grad, params));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // all workers must reduce the parameters in the same order
+        pending.sort(Comparator.comparingInt(u -> u.index));
+        List<List<PendingUpdate>> buckets = new ArrayList<>();
+        List<PendingUpdate> bucket = new ArrayList<>();
+        long bytes = 0;
+        for (PendingUpdate update : pending) {
+            bucket.add(update);
+            bytes += update.grad.length * 4L;
+            if (bytes >= bucketSize) {
+                buckets.add(bucket);
+                bucket = new ArrayList<>();
+                bytes = 0;
+            }
+        }
+        if (!bucket.isEmpty()) {
+            buckets.add(bucket);
+        }
+        pending.clear();
+
+        List<Future<float[]>> futures = new ArrayList<>(buckets.size());
+        for (List<PendingUpdate> updates : buckets) {
+            futures.add(executor.submit(() -> allReduce(updates)));
+        }
+        for (int i = 0; i < buckets.size(); ++i) {
+            float[] reduced;
+            try {
+                reduced = futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("All-reduce is interrupted", e);
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Failed to reduce gradients", e.getCause());
+            }
+            int offset = 0;
+            for (PendingUpdate update : buckets.get(i)) {
+                apply(update, reduced, offset);
+                offset += update.grad.length;
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        ring.close();
+    }
+
+    private float[] allReduce(List<PendingUpdate> updates) throws IOException {
+        if (updates.size() == 1) {
+            float[] data = updates.get(0).grad;
+            ring.allReduce(data);
+            return data;
+        }
+        int length = 0;
+        for (PendingUpdate update : updates) {
+            length += update.grad.length;
+        }
+        float[] data = new float[length];
+        int offset = 0;
+        for (PendingUpdate update : updates) {
+            System.arraycopy(update.grad, 0, data, offset, update.grad.length);
+            offset += update.grad.length;
+        }
+        ring.allReduce(data);
+        return data;
+    }
+
+    private void apply(PendingUpdate update, float[] reduced, int offset) {
+        NDArray first = update.params[0];
+        try (NDManager manager = first.getManager().newSubManager(first.getDevice())) {
+            float[] values = reduced;
+            if (offset != 0 || update.grad.length != reduced.length) {
+                values = new float[update.grad.length];
+                System.arraycopy(reduced, offset, values, 0, values.length);
+            }
+            NDArray aggregatedGrad = manager.create(values, update.shape);
+            for (NDArray param : update.params) {
+                NDArray grad = aggregatedGrad;
+                if (!param.getDevice().equals(grad.getDevice())) {
+                    grad = grad.toDevice(param.getDevice(), true);
+                }
+                if (param.getDataType() != grad.getDataType()) {
+                    grad = grad.toType(param.getDataType(), true);
+                }
+                optimizer.update(update.parameterId, param, grad);
+            }
+        }
+    }
+
+    /**
+     * Creates a builder to build a {@code SocketParameterServer}.
+     *
+     * <p>The builder reads its default rank and workers from the {@code DJL_PS_RANK} and {@code
+     * DJL_PS_WORKERS} environment variables or system properties.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static final class PendingUpdate {
+
+        String parameterId;
+        int index;
+        Shape shape;
+        float[] grad;
+        NDArray[] params;
+
+        PendingUpdate(String parameterId, int index, Shape shape, float[] grad, NDArray[] params) {
+            this.parameterId = parameterId;
+            this.index = index;
+            this.shape = shape;
+            this.grad = grad;
+            this.params = params;
+        }
+    }
+
+    /** The Builder to construct a {@link SocketParameterServer} object. */
+    public static final class Builder {
+
+        private Optimizer optimizer;
+        private int rank;
+        private List<InetSocketAddress> workers;
+        private long bucketSize = 25L * 1024 * 1024;
+        private boolean compress;
+        private int timeout = 300_000;
+
+        private Builder() {
+            rank = Integer.parseInt(Utils.getEnvOrSystemProperty("DJL_PS_RANK", "0"));
+            String value = Utils.getEnvOrSystemProperty("DJL_PS_WORKERS");
+            if (value != null) {
+                setWorkers(value.split(","));
+            }
+        }
+
+        /**
+         * Sets the optimizer that updates the parameters.
+         *
+         * @param optimizer the optimizer
+         * @return this {@code Builder}
+         */
+        public Builder setOptimizer(Optimizer optimizer) {
+            this.optimizer = optimizer;
+            return this;
+        }
+
+        /**
+         * Sets the rank of this worker, an index into the workers.
+         *
+         * @param rank the rank of this worker
+         * @return this {@code Builder}
+         */
+        public Builder setRank(int rank) {
+            this.rank = rank;
+            return this;
+        }
+
+        /**
+         * Sets the addresses of all workers as {@code host:port}, indexed by rank.
+         *
+         * <p>Each worker listens on the port of its own address.
+         *
+         * @param workers the addresses of all workers
+         * @return this {@code Builder}
+         */
+        public Builder setWorkers(String... workers) {
+            this.workers = new ArrayList<>(workers.length);
+            for (String worker : workers) {
+                String address = worker.trim();
+                int pos = address.lastIndexOf(':');
+                if (pos <= 0) {
+                    throw new IllegalArgumentException("Invalid worker address: " + address);
+                }
+                String host = address.substring(0, pos);
+                int port = Integer.parseInt(address.substring(pos + 1));
+                this.workers.add(new InetSocketAddress(host, port));
+            }
+            return this;
+        }
+
+        /**
+         * Sets the size in bytes of the gradient buckets reduced together, default is 25 MB.
+         *
+         * @param bucketSize the size of a bucket in bytes
+         * @return this {@code Builder}
+         */
+        public Builder optBucketSize(long bucketSize) {
+            this.bucketSize = bucketSize;
+            return this;
+        }
+
+        /**
+         * Sets whether to send the gradients as float16 to reduce the network traffic.
+         *
+         * <p>The gradients are still summed in float32.
+         *
+         * @param compress {@code true} to compress the gradients
+         * @return this {@code Builder}
+         */
+        public Builder optCompression(boolean compress) {
+            this.compress = compress;
+            return this;
+        }
+
+        /**
+         * Sets the timeout in milliseconds to wait for the other workers to connect.
+         *
+         * @param timeout the timeout in milliseconds
+         * @return this {@code Builder}
+         */
+        public Builder optTimeout(int timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Builds a {@link SocketParameterServer} and connects it to the other workers.
+         *
+         * @return the {@link SocketParameterServer}
+         */
+        public SocketParameterServer build() {
+            if (optimizer == null) {
+                throw new IllegalArgumentException("Optimizer is required.");
+            }
+            if (workers == null || workers.isEmpty()) {
+                throw new IllegalArgumentException("Workers are required.");
+            }
+            if (rank < 0 || rank >= workers.size()) {
+                throw new IllegalArgumentException("Invalid rank: " + rank);
+            }
+            return new SocketParameterServer(this);
+        }
+    }
+}
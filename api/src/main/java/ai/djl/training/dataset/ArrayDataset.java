@@ -197,6 +197,7 @@ public class ArrayDataset extends RandomAccessDataset {
                 pipeline,
                 targetPipeline,
                 executorService,
+                fetchExecutor,
                 prefetchNumber,
                 device);
     }
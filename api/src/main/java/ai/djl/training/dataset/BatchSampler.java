@@ -13,8 +13,10 @@
 package ai.djl.training.dataset;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.PrimitiveIterator;
 
 /**
  * {@code BatchSampler} is a {@link Sampler} that returns a single epoch over the data.
@@ -60,6 +62,31 @@ public class BatchSampler implements Sampler {
     /** {@inheritDoc} */
     @Override
     public Iterator<List<Long>> sample(RandomAccessDataset dataset) {
+        Iterator<long[]> it = sampleIndices(dataset);
+        return new Iterator<List<Long>>() {
+
+            /** {@inheritDoc} */
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public List<Long> next() {
+                long[] indices = it.next();
+                List<Long> batchIndices = new ArrayList<>(indices.length);
+                for (long index : indices) {
+                    batchIndices.add(index);
+                }
+                return batchIndices;
+            }
+        };
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<long[]> sampleIndices(RandomAccessDataset dataset) {
         return new Iterate(dataset);
     }
 
@@ -69,11 +96,11 @@ public class BatchSampler implements Sampler {
         return batchSize;
     }
 
-    class Iterate implements Iterator<List<Long>> {
+    class Iterate implements Iterator<long[]> {
 
         private long size;
         private long current;
-        private Iterator<Long> subSample;
+        private PrimitiveIterator.OfLong subSample;
 
         Iterate(RandomAccessDataset dataset) {
             current = 0;
@@ -82,7 +109,7 @@ public class BatchSampler implements Sampler {
             } else {
                 this.size = (dataset.size() + batchSize - 1) / batchSize;
             }
-            subSample = subSampler.sample(dataset);
+            subSample = subSampler.sampleIndices(dataset);
         }
 
         /** {@inheritDoc} */
@@ -93,16 +120,14 @@ public class BatchSampler implements Sampler {
 
         /** {@inheritDoc} */
         @Override
-        public List<Long> next() {
-            List<Long> batchIndices = new ArrayList<>();
-            while (subSample.hasNext()) {
-                batchIndices.add(subSample.next());
-                if (batchIndices.size() == batchSize) {
-                    break;
-                }
+        public long[] next() {
+            long[] batchIndices = new long[batchSize];
+            int count = 0;
+            while (count < batchSize && subSample.hasNext()) {
+                batchIndices[count++] = subSample.nextLong();
             }
             current++;
-            return batchIndices;
+            return count == batchSize ? batchIndices : Arrays.copyOf(batchIndices, count);
         }
     }
 }
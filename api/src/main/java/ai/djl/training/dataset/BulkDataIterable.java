@@ -68,19 +68,18 @@ public class BulkDataIterable extends DataIterable {
     }
 
     @Override
-    protected Batch fetch(List<Long> indices, int progress) throws IOException {
+    protected Batch fetch(long[] indices, int progress) throws IOException {
         NDManager subManager = manager.newSubManager();
         subManager.setName("dataIter fetch");
-        int batchSize = indices.size();
+        int batchSize = indices.length;
 
         Batch raw;
         if (isRange(indices)) {
-            long fromIndex = indices.get(0);
-            long toIndex = fromIndex + indices.size();
+            long fromIndex = indices[0];
+            long toIndex = fromIndex + indices.length;
             raw = ((ArrayDataset) dataset).getByRange(subManager, fromIndex, toIndex);
         } else {
-            long[] indicesArr = indices.stream().mapToLong(Long::longValue).toArray();
-            raw = ((ArrayDataset) dataset).getByIndices(subManager, indicesArr);
+            raw = ((ArrayDataset) dataset).getByIndices(subManager, indices);
         }
 
         NDList batchData = raw.getData();
@@ -109,7 +108,7 @@ public class BulkDataIterable extends DataIterable {
                 labelBatchifier,
                 progress,
                 dataset.size(),
-                indices);
+                new IndexList(indices));
     }
 
     /**
@@ -131,4 +130,17 @@ public class BulkDataIterable extends DataIterable {
         }
         return true;
     }
+
+    private static boolean isRange(long[] indices) {
+        if (indices.length == 0) {
+            return false;
+        }
+        long from = indices[0];
+        for (long index : indices) {
+            if (index != from++) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
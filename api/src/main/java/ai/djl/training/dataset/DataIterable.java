@@ -22,11 +22,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.RandomAccess;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -51,13 +54,18 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
     protected Pipeline pipeline;
     protected Pipeline targetPipeline;
     private ExecutorService executor;
+    private ExecutorService fetchExecutor;
     protected Device device;
 
-    private Iterator<List<Long>> sample;
+    private Iterator<long[]> sample;
     // for multithreading
     private Queue<Future<Batch>> queue;
+    private int prefetchDepth;
+    private int minPrefetch;
+    private int maxPrefetch;
     private AtomicInteger progressCounter;
     private boolean autoClose;
+    private boolean fetchListOverridden;
 
     /**
      * Creates a new instance of {@code DataIterable} with the given parameters.
@@ -84,6 +92,58 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
             ExecutorService executor,
             int preFetchNumber,
             Device device) {
+        this(
+                dataset,
+                manager,
+                sampler,
+                dataBatchifier,
+                labelBatchifier,
+                pipeline,
+                targetPipeline,
+                executor,
+                null,
+                preFetchNumber,
+                device);
+    }
+
+    /**
+     * Creates a new instance of {@code DataIterable} with the given parameters.
+     *
+     * <p>When a {@code fetchExecutor} is provided, the records of a batch are loaded and
+     * transformed in parallel on it, so a single slow record does not serialize the whole batch. It
+     * must not be the same bounded pool as {@code executor}, since the batch tasks wait for the
+     * record tasks. Any {@link ExecutorService} works, including a virtual thread executor on newer
+     * JDKs.
+     *
+     * <p>With an {@code executor}, {@code preFetchNumber} is the initial number of batches loaded
+     * ahead. The depth grows up to four times this number while the consumer has to wait for
+     * batches, and shrinks back when the loader is ahead.
+     *
+     * @param dataset the dataset to iterate on
+     * @param manager the manager to create the arrays
+     * @param sampler a sampler to sample data with
+     * @param dataBatchifier a batchifier for data
+     * @param labelBatchifier a batchifier for labels
+     * @param pipeline the pipeline of transforms to apply on the data
+     * @param targetPipeline the pipeline of transforms to apply on the labels
+     * @param executor an {@link ExecutorService} to load batches ahead
+     * @param fetchExecutor an {@link ExecutorService} to load the records of a batch in parallel,
+     *     or {@code null} to load them sequentially
+     * @param preFetchNumber the number of samples to prefetch
+     * @param device the {@link Device}
+     */
+    public DataIterable(
+            RandomAccessDataset dataset,
+            NDManager manager,
+            Sampler sampler,
+            Batchifier dataBatchifier,
+            Batchifier labelBatchifier,
+            Pipeline pipeline,
+            Pipeline targetPipeline,
+            ExecutorService executor,
+            ExecutorService fetchExecutor,
+            int preFetchNumber,
+            Device device) {
         this.dataset = dataset;
         this.manager = manager.newSubManager();
         this.manager.setName("dataIter");
@@ -92,16 +152,21 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
         this.pipeline = pipeline;
         this.targetPipeline = targetPipeline;
         this.executor = executor;
+        this.fetchExecutor = fetchExecutor;
         this.device = device;
         progressCounter = new AtomicInteger(0);
+        fetchListOverridden = overridesFetchList(getClass());
         String close = System.getProperty("ai.djl.dataiterator.autoclose", "true");
         autoClose = Boolean.parseBoolean(close);
 
-        sample = sampler.sample(dataset);
+        sample = sampler.sampleIndices(dataset);
         if (executor != null) {
             queue = new LinkedList<>();
+            minPrefetch = Math.max(1, preFetchNumber);
+            maxPrefetch = minPrefetch * 4;
+            prefetchDepth = minPrefetch;
             // prefetch
-            for (int i = 0; i < preFetchNumber; i++) {
+            for (int i = 0; i < prefetchDepth; i++) {
                 preFetch();
             }
         }
@@ -139,18 +204,30 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
     public Batch next() {
         if (executor == null) {
             // single thread data loading with blocking fetch
-            List<Long> indices = sample.next();
+            long[] indices = sample.next();
             try {
-                int progress = progressCounter.addAndGet(indices.size());
-                return fetch(indices, progress);
+                int progress = progressCounter.addAndGet(indices.length);
+                return fetchBatch(indices, progress);
             } catch (IOException e) {
                 logger.error(e.getMessage());
                 throw new IllegalStateException("Data loading failed", e);
             }
         } else {
             // multithreading data loading with async fetch
-            preFetch();
             Future<Batch> future = queue.poll();
+            if (!future.isDone()) {
+                // the consumer is waiting for the loader, load more batches ahead
+                if (prefetchDepth < maxPrefetch) {
+                    ++prefetchDepth;
+                    preFetch();
+                }
+            } else if (prefetchDepth > minPrefetch && isLoaderAhead()) {
+                // the loader is ahead of the consumer, skip one refill to shrink the depth
+                --prefetchDepth;
+            }
+            while (queue.size() < prefetchDepth && sample.hasNext()) {
+                preFetch();
+            }
             try {
                 return future.get();
             } catch (InterruptedException | ExecutionException e) {
@@ -160,21 +237,80 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
         }
     }
 
+    /**
+     * Loads a batch.
+     *
+     * <p>This method is only called if a subclass overrides it, otherwise the batches are loaded
+     * with {@link #fetch(long[], int)}, which avoids boxing the indices.
+     *
+     * @param indices the indices of the records in the batch
+     * @param progress the progress of the iteration
+     * @return the batch
+     * @throws IOException if failed to read the records
+     */
     protected Batch fetch(List<Long> indices, int progress) throws IOException {
+        long[] array = new long[indices.size()];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = indices.get(i);
+        }
+        return fetch(array, progress);
+    }
+
+    /**
+     * Loads a batch.
+     *
+     * @param indices the indices of the records in the batch
+     * @param progress the progress of the iteration
+     * @return the batch
+     * @throws IOException if failed to read the records
+     */
+    protected Batch fetch(long[] indices, int progress) throws IOException {
         NDManager subManager = manager.newSubManager();
         subManager.setName("dataIter fetch");
-        int batchSize = indices.size();
+        int batchSize = indices.length;
         NDList[] data = new NDList[batchSize];
         NDList[] labels = new NDList[batchSize];
-        for (int i = 0; i < batchSize; i++) {
-            Record record = dataset.get(subManager, indices.get(i));
-            data[i] = record.getData();
-            // apply transform
-            if (pipeline != null) {
-                data[i] = pipeline.transform(data[i]);
+        if (fetchExecutor != null && batchSize > 1) {
+            RecordTasks tasks = new RecordTasks();
+            List<Future<Record>> futures = new ArrayList<>(batchSize);
+            for (long index : indices) {
+                futures.add(
+                        fetchExecutor.submit(
+                                () -> {
+                                    if (!tasks.start()) {
+                                        return null;
+                                    }
+                                    try {
+                                        return getRecord(subManager, index);
+                                    } finally {
+                                        tasks.finish();
+                                    }
+                                }));
+            }
+            try {
+                for (int i = 0; i < batchSize; i++) {
+                    Record record = futures.get(i).get();
+                    data[i] = record.getData();
+                    labels[i] = record.getLabels();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                for (Future<Record> future : futures) {
+                    future.cancel(true);
+                }
+                // the running tasks may still create arrays on the sub manager
+                tasks.abort();
+                subManager.close();
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IllegalStateException("Data loading failed", e);
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                Record record = getRecord(subManager, indices[i]);
+                data[i] = record.getData();
+                labels[i] = record.getLabels();
             }
-
-            labels[i] = record.getLabels();
         }
         NDList batchData = dataBatchifier.batchify(data);
         NDList batchLabels = labelBatchifier.batchify(labels);
@@ -200,14 +336,51 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
                 labelBatchifier,
                 progress,
                 dataset.size(),
-                indices);
+                new IndexList(indices));
+    }
+
+    private Record getRecord(NDManager subManager, long index) throws IOException {
+        Record record = dataset.get(subManager, index);
+        // apply transform
+        if (pipeline != null) {
+            return new Record(pipeline.transform(record.getData()), record.getLabels());
+        }
+        return record;
+    }
+
+    private Batch fetchBatch(long[] indices, int progress) throws IOException {
+        if (fetchListOverridden) {
+            return fetch(new IndexList(indices), progress);
+        }
+        return fetch(indices, progress);
+    }
+
+    private static boolean overridesFetchList(Class<?> type) {
+        for (Class<?> c = type; c != DataIterable.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("fetch", List.class, int.class);
+                return true;
+            } catch (NoSuchMethodException ignore) {
+                // not declared in this class
+            }
+        }
+        return false;
+    }
+
+    private boolean isLoaderAhead() {
+        for (Future<Batch> future : queue) {
+            if (!future.isDone()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private void preFetch() {
         if (!sample.hasNext()) {
             return;
         }
-        List<Long> indices = sample.next();
+        long[] indices = sample.next();
         Callable<Batch> task = new PreFetchCallable(indices);
         Future<Batch> result = executor.submit(task);
         queue.offer(result);
@@ -215,18 +388,76 @@ public class DataIterable implements Iterable<Batch>, Iterator<Batch> {
 
     class PreFetchCallable implements Callable<Batch> {
 
-        private List<Long> indices;
+        private long[] indices;
         private int progress;
 
-        public PreFetchCallable(List<Long> indices) {
+        public PreFetchCallable(long[] indices) {
             this.indices = indices;
-            progress = progressCounter.getAndAdd(indices.size());
+            progress = progressCounter.getAndAdd(indices.length);
         }
 
         /** {@inheritDoc} */
         @Override
         public Batch call() throws IOException {
-            return fetch(indices, progress);
+            return fetchBatch(indices, progress);
+        }
+    }
+
+    /** Tracks the running record tasks of a batch. */
+    private static final class RecordTasks {
+
+        private int running;
+        private boolean aborted;
+
+        synchronized boolean start() {
+            if (aborted) {
+                return false;
+            }
+            ++running;
+            return true;
+        }
+
+        synchronized void finish() {
+            --running;
+            notifyAll();
+        }
+
+        /** Prevents new tasks from starting and waits for the running ones to finish. */
+        synchronized void abort() {
+            aborted = true;
+            boolean interrupted = false;
+            while (running > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** A read only list view of the primitive indices of a batch. */
+    static final class IndexList extends AbstractList<Long> implements RandomAccess {
+
+        private long[] indices;
+
+        IndexList(long[] indices) {
+            this.indices = indices;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Long get(int index) {
+            return indices[index];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int size() {
+            return indices.length;
         }
     }
 }
@@ -53,6 +53,7 @@ public abstract class RandomAccessDataset implements Dataset {
     protected Pipeline pipeline;
     protected Pipeline targetPipeline;
     protected int prefetchNumber;
+    protected ExecutorService fetchExecutor;
     protected long limit;
     protected Device device;
 
@@ -71,6 +72,7 @@ public abstract class RandomAccessDataset implements Dataset {
         this.pipeline = builder.pipeline;
         this.targetPipeline = builder.targetPipeline;
         this.prefetchNumber = builder.prefetchNumber;
+        this.fetchExecutor = builder.fetchExecutor;
         this.limit = builder.limit;
         this.device = builder.device;
     }
@@ -136,6 +138,7 @@ public abstract class RandomAccessDataset implements Dataset {
                 pipeline,
                 targetPipeline,
                 executorService,
+                fetchExecutor,
                 prefetchNumber,
                 device);
     }
@@ -342,6 +345,7 @@ public abstract class RandomAccessDataset implements Dataset {
         protected Pipeline pipeline;
         protected Pipeline targetPipeline;
         protected int prefetchNumber = 2;
+        protected ExecutorService fetchExecutor;
         protected long limit = Long.MAX_VALUE;
         protected Device device;
 
@@ -481,6 +485,20 @@ public abstract class RandomAccessDataset implements Dataset {
             return self();
         }
 
+        /**
+         * Sets the {@link ExecutorService} to load the records of a batch in parallel.
+         *
+         * <p>By default, the records of a batch are loaded sequentially. The executor must not be
+         * the bounded pool used by the trainer to prefetch batches.
+         *
+         * @param fetchExecutor the {@link ExecutorService} to load records with
+         * @return this {@code BaseBuilder}
+         */
+        public T optFetchExecutor(ExecutorService fetchExecutor) {
+            this.fetchExecutor = fetchExecutor;
+            return self();
+        }
+
         /**
          * Sets the {@link Device}.
          *
@@ -532,6 +550,7 @@ public abstract class RandomAccessDataset implements Dataset {
             this.pipeline = dataset.pipeline;
             this.targetPipeline = dataset.targetPipeline;
             this.prefetchNumber = dataset.prefetchNumber;
+            this.fetchExecutor = dataset.fetchExecutor;
             this.device = dataset.device;
 
             limit = Long.MAX_VALUE;
@@ -571,6 +590,7 @@ public abstract class RandomAccessDataset implements Dataset {
             this.pipeline = dataset.pipeline;
             this.targetPipeline = dataset.targetPipeline;
             this.prefetchNumber = dataset.prefetchNumber;
+            this.fetchExecutor = dataset.fetchExecutor;
             this.device = dataset.device;
 
             limit = Long.MAX_VALUE;
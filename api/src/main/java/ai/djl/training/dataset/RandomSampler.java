@@ -16,6 +16,7 @@ import ai.djl.util.RandomUtils;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 import java.util.stream.LongStream;
 
 /**
@@ -38,7 +39,13 @@ public class RandomSampler implements Sampler.SubSampler {
         return new Iterate(dataset);
     }
 
-    static class Iterate implements Iterator<Long> {
+    /** {@inheritDoc} */
+    @Override
+    public PrimitiveIterator.OfLong sampleIndices(RandomAccessDataset dataset) {
+        return new Iterate(dataset);
+    }
+
+    static class Iterate implements PrimitiveIterator.OfLong {
 
         private long[] indices;
         private long current;
@@ -62,7 +69,7 @@ public class RandomSampler implements Sampler.SubSampler {
 
         /** {@inheritDoc} */
         @Override
-        public Long next() {
+        public long nextLong() {
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
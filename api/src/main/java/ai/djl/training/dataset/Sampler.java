@@ -14,6 +14,8 @@ package ai.djl.training.dataset;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 /**
  * An interface for sampling data items from a {@link RandomAccessDataset}.
@@ -38,6 +40,40 @@ public interface Sampler {
      */
     Iterator<List<Long>> sample(RandomAccessDataset dataset);
 
+    /**
+     * Fetches an iterator that iterates through the given {@link RandomAccessDataset} in
+     * mini-batches of primitive indices.
+     *
+     * <p>The default implementation unboxes the batches returned by {@link
+     * #sample(RandomAccessDataset)}.
+     *
+     * @param dataset the {@link RandomAccessDataset} to sample from
+     * @return an iterator that iterates through the given {@link RandomAccessDataset} in
+     *     mini-batches of indices
+     */
+    default Iterator<long[]> sampleIndices(RandomAccessDataset dataset) {
+        Iterator<List<Long>> it = sample(dataset);
+        return new Iterator<long[]>() {
+
+            /** {@inheritDoc} */
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public long[] next() {
+                List<Long> list = it.next();
+                long[] indices = new long[list.size()];
+                for (int i = 0; i < indices.length; ++i) {
+                    indices[i] = list.get(i);
+                }
+                return indices;
+            }
+        };
+    }
+
     /**
      * Returns the batch size of the {@code Sampler}.
      *
@@ -57,5 +93,34 @@ public interface Sampler {
          *     RandomAccessDataset}
          */
         Iterator<Long> sample(RandomAccessDataset dataset);
+
+        /**
+         * Fetches an iterator that iterates through the primitive indices of the given {@link
+         * RandomAccessDataset}.
+         *
+         * @param dataset the {@link RandomAccessDataset} to sample from
+         * @return an iterator that iterates through the indices of the given {@link
+         *     RandomAccessDataset}
+         */
+        default PrimitiveIterator.OfLong sampleIndices(RandomAccessDataset dataset) {
+            Iterator<Long> it = sample(dataset);
+            return new PrimitiveIterator.OfLong() {
+
+                /** {@inheritDoc} */
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                /** {@inheritDoc} */
+                @Override
+                public long nextLong() {
+                    if (!it.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return it.next();
+                }
+            };
+        }
     }
 }
@@ -14,6 +14,7 @@ package ai.djl.training.dataset;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 /**
  * {@code SequenceSampler} is an implementation of the {@link
@@ -29,7 +30,13 @@ public class SequenceSampler implements Sampler.SubSampler {
         return new Iterate(dataset);
     }
 
-    static class Iterate implements Iterator<Long> {
+    /** {@inheritDoc} */
+    @Override
+    public PrimitiveIterator.OfLong sampleIndices(RandomAccessDataset dataset) {
+        return new Iterate(dataset);
+    }
+
+    static class Iterate implements PrimitiveIterator.OfLong {
 
         private long size;
         private long current;
@@ -47,7 +54,7 @@ public class SequenceSampler implements Sampler.SubSampler {
 
         /** {@inheritDoc} */
         @Override
-        public Long next() {
+        public long nextLong() {
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
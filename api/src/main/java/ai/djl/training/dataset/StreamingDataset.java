@@ -0,0 +1,736 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.Pipeline;
+import ai.djl.translate.Transform;
+import ai.djl.util.Progress;
+import ai.djl.util.RandomUtils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code StreamingDataset} is a {@link Dataset} that streams records sequentially from sharded
+ * record files, so the dataset does not need to fit in memory.
+ *
+ * <p>A record file is a sequence of records written with {@link #writeRecord(OutputStream, NDList,
+ * NDList)}. Each record stores the number of data and label arrays followed by the encoded arrays.
+ *
+ * <p>Only a bounded number of records is held in memory: the records read ahead by the loader
+ * thread, when an {@link ExecutorService} is used, and the shuffle buffer. When shuffling is
+ * enabled, the order of the shards is shuffled for every epoch and each batch draws records at
+ * random from the shuffle buffer. When training with multiple workers, each worker only reads its
+ * own subset of the shards.
+ */
+public class StreamingDataset implements Dataset {
+
+    private static final Record END = new Record(new NDList(), new NDList());
+
+    private List<Path> shards;
+    private int batchSize;
+    private boolean shuffle;
+    private boolean dropLast;
+    private int shuffleBufferSize;
+    private long seed;
+    private Batchifier dataBatchifier;
+    private Batchifier labelBatchifier;
+    private Pipeline pipeline;
+    private Pipeline targetPipeline;
+    private int prefetchNumber;
+    private Device device;
+    private long limit;
+    private long numRecords;
+    private AtomicInteger epoch;
+
+    /**
+     * Creates a new instance of {@code StreamingDataset} with the given configurations.
+     *
+     * @param builder a builder with the necessary configurations
+     */
+    protected StreamingDataset(Builder builder) {
+        shards = new ArrayList<>();
+        for (int i = builder.workerIndex; i < builder.shards.size(); i += builder.numWorkers) {
+            shards.add(builder.shards.get(i));
+        }
+        batchSize = builder.batchSize;
+        shuffle = builder.shuffle;
+        dropLast = builder.dropLast;
+        shuffleBufferSize = shuffle ? builder.shuffleBufferSize : 1;
+        seed = builder.seed;
+        dataBatchifier = builder.dataBatchifier;
+        labelBatchifier = builder.labelBatchifier;
+        pipeline = builder.pipeline;
+        targetPipeline = builder.targetPipeline;
+        prefetchNumber = builder.prefetchNumber;
+        device = builder.device;
+        limit = builder.limit;
+        numRecords = builder.numRecords;
+        epoch = new AtomicInteger();
+    }
+
+    /**
+     * Creates a builder to build a {@link StreamingDataset}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Writes a record to a record file.
+     *
+     * @param os the {@code OutputStream} of the record file
+     * @param data the data of the record
+     * @param labels the labels of the record
+     * @throws IOException if failed to write the record
+     */
+    public static void writeRecord(OutputStream os, NDList data, NDList labels) throws IOException {
+        DataOutputStream dos = new DataOutputStream(os);
+        dos.writeInt(data.size());
+        dos.writeInt(labels.size());
+        for (NDArray array : data) {
+            dos.write(array.encode());
+        }
+        for (NDArray array : labels) {
+            dos.write(array.encode());
+        }
+        dos.flush();
+    }
+
+    /**
+     * Returns the shards read by this worker.
+     *
+     * @return the shards read by this worker
+     */
+    public List<Path> getShards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterable<Batch> getData(NDManager manager) {
+        return getData(manager, null);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterable<Batch> getData(NDManager manager, ExecutorService executorService) {
+        return () -> new StreamIterator(manager, executorService);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void prepare(Progress progress) throws IOException {
+        for (Path shard : shards) {
+            if (!Files.isRegularFile(shard)) {
+                throw new IOException("Record file not found: " + shard);
+            }
+        }
+    }
+
+    /** Reads the records of a list of shards sequentially. */
+    private static final class RecordReader implements AutoCloseable {
+
+        private Iterator<Path> shards;
+        private DataInputStream is;
+
+        RecordReader(List<Path> shards) {
+            this.shards = shards.iterator();
+        }
+
+        Record read(NDManager manager) throws IOException {
+            while (true) {
+                if (is == null) {
+                    if (!shards.hasNext()) {
+                        return null;
+                    }
+                    InputStream in = Files.newInputStream(shards.next());
+                    is = new DataInputStream(new BufferedInputStream(in, 1024 * 1024));
+                }
+                int ch = is.read();
+                if (ch < 0) {
+                    is.close();
+                    is = null;
+                    continue;
+                }
+                int numData =
+                        (ch << 24)
+                                | (is.readUnsignedByte() << 16)
+                                | (is.readUnsignedByte() << 8)
+                                | is.readUnsignedByte();
+                int numLabels = is.readInt();
+                NDList data = new NDList(numData);
+                for (int i = 0; i < numData; ++i) {
+                    data.add(manager.decode(is));
+                }
+                NDList labels = new NDList(numLabels);
+                for (int i = 0; i < numLabels; ++i) {
+                    labels.add(manager.decode(is));
+                }
+                return new Record(data, labels);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() throws IOException {
+            if (is != null) {
+                is.close();
+                is = null;
+            }
+        }
+    }
+
+    /** Iterates one epoch of the dataset. */
+    private final class StreamIterator implements Iterator<Batch> {
+
+        private NDManager manager;
+        private NDManager readerManager;
+        private RecordReader reader;
+        private RecordLoader loader;
+        private boolean closed;
+        private Record[] buffer;
+        private int buffered;
+        private boolean exhausted;
+        private long read;
+        private long progress;
+        private Random random;
+        private Batch next;
+        private boolean autoClose;
+
+        StreamIterator(NDManager parent, ExecutorService executor) {
+            manager = parent.newSubManager();
+            manager.setName("streamIter");
+            readerManager = manager.newSubManager();
+            random = new Random(seed + epoch.getAndIncrement());
+            List<Path> order = new ArrayList<>(shards);
+            if (shuffle) {
+                Collections.shuffle(order, random);
+            }
+            reader = new RecordReader(order);
+            buffer = new Record[shuffleBufferSize];
+            autoClose =
+                    Boolean.parseBoolean(
+                            System.getProperty("ai.djl.dataiterator.autoclose", "true"));
+            if (executor != null) {
+                int capacity = Math.max(1, prefetchNumber * batchSize);
+                loader = new RecordLoader(reader, readerManager, capacity, limit);
+                executor.submit(loader);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            if (next == null && !closed) {
+                next = nextBatch();
+                if (next == null) {
+                    close();
+                }
+            }
+            return next != null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Batch next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Batch batch = next;
+            next = null;
+            return batch;
+        }
+
+        private Batch nextBatch() {
+            List<Record> records = new ArrayList<>(batchSize);
+            Record record;
+            while (records.size() < batchSize && (record = nextRecord()) != null) {
+                records.add(record);
+            }
+            if (records.isEmpty() || (dropLast && records.size() < batchSize)) {
+                for (Record r : records) {
+                    r.getData().close();
+                    r.getLabels().close();
+                }
+                return null;
+            }
+
+            NDManager subManager = manager.newSubManager();
+            subManager.setName("streamIter fetch");
+            int size = records.size();
+            NDList[] data = new NDList[size];
+            NDList[] labels = new NDList[size];
+            for (int i = 0; i < size; ++i) {
+                record = records.get(i);
+                data[i] = record.getData();
+                data[i].attach(subManager);
+                if (pipeline != null) {
+                    data[i] = pipeline.transform(data[i]);
+                }
+                labels[i] = record.getLabels();
+                labels[i].attach(subManager);
+            }
+            NDList batchData = dataBatchifier.batchify(data);
+            NDList batchLabels = labelBatchifier.batchify(labels);
+            for (int i = 0; i < size; ++i) {
+                data[i].close();
+                labels[i].close();
+            }
+
+            if (targetPipeline != null) {
+                batchLabels = targetPipeline.transform(batchLabels);
+            }
+            if (device != null) {
+                batchData = batchData.toDevice(device, false);
+                batchLabels = batchLabels.toDevice(device, false);
+            }
+            progress += size;
+            return new Batch(
+                    subManager,
+                    batchData,
+                    batchLabels,
+                    size,
+                    dataBatchifier,
+                    labelBatchifier,
+                    progress,
+                    numRecords);
+        }
+
+        private Record nextRecord() {
+            while (!exhausted && buffered < buffer.length) {
+                Record record = readRecord();
+                if (record == null) {
+                    exhausted = true;
+                } else {
+                    buffer[buffered++] = record;
+                }
+            }
+            if (buffered == 0) {
+                return null;
+            }
+            int index = buffered == 1 ? 0 : random.nextInt(buffered);
+            Record record = buffer[index];
+            buffer[index] = buffer[--buffered];
+            buffer[buffered] = null;
+            return record;
+        }
+
+        private Record readRecord() {
+            if (loader != null) {
+                return loader.take();
+            }
+            if (read >= limit) {
+                return null;
+            }
+            try {
+                Record record = reader.read(readerManager);
+                ++read;
+                return record;
+            } catch (IOException e) {
+                throw new IllegalStateException("Data loading failed", e);
+            }
+        }
+
+        private void close() {
+            closed = true;
+            if (loader == null) {
+                closeQuietly(reader);
+            } else {
+                loader.close();
+            }
+            if (autoClose) {
+                manager.close();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @SuppressWarnings("deprecation")
+        @Override
+        protected void finalize() throws Throwable {
+            if (!closed) {
+                // the epoch was abandoned, stop reading but keep the batches that were returned
+                closed = true;
+                if (loader == null) {
+                    closeQuietly(reader);
+                    readerManager.close();
+                } else {
+                    loader.close();
+                }
+            }
+            super.finalize();
+        }
+    }
+
+    /**
+     * Reads the records ahead on the loader thread.
+     *
+     * <p>The loader does not reference the {@link StreamIterator}, so an abandoned iterator can be
+     * garbage collected, which stops the loader.
+     */
+    private static final class RecordLoader implements Runnable {
+
+        private RecordReader reader;
+        private NDManager manager;
+        private BlockingQueue<Record> queue;
+        private long limit;
+        private volatile boolean closed;
+        private volatile Throwable error;
+
+        RecordLoader(RecordReader reader, NDManager manager, int capacity, long limit) {
+            this.reader = reader;
+            this.manager = manager;
+            this.limit = limit;
+            queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            try {
+                Record record;
+                long read = 0;
+                while (!closed && read < limit && (record = reader.read(manager)) != null) {
+                    ++read;
+                    if (!offer(record)) {
+                        return;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                error = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = e;
+            } finally {
+                closeQuietly(reader);
+                try {
+                    offer(END);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (closed) {
+                    // frees the records that were not consumed
+                    manager.close();
+                }
+            }
+        }
+
+        Record take() {
+            try {
+                Record record = queue.take();
+                if (record == END) {
+                    if (error != null) {
+                        throw new IllegalStateException("Data loading failed", error);
+                    }
+                    return null;
+                }
+                return record;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Data loading interrupted", e);
+            }
+        }
+
+        void close() {
+            closed = true;
+        }
+
+        private boolean offer(Record record) throws InterruptedException {
+            // a full queue is only drained by the consumer, give up once it is closed
+            while (!queue.offer(record, 100, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static void closeQuietly(RecordReader reader) {
+        try {
+            reader.close();
+        } catch (IOException ignore) {
+            // ignore
+        }
+    }
+
+    /** The builder for a {@link StreamingDataset}. */
+    public static final class Builder {
+
+        List<Path> shards = new ArrayList<>();
+        int batchSize = 1;
+        boolean shuffle;
+        boolean dropLast;
+        int shuffleBufferSize = 1024;
+        long seed = RandomUtils.RANDOM.nextLong();
+        int workerIndex;
+        int numWorkers = 1;
+        Batchifier dataBatchifier = Batchifier.STACK;
+        Batchifier labelBatchifier = Batchifier.STACK;
+        Pipeline pipeline;
+        Pipeline targetPipeline;
+        int prefetchNumber = 2;
+        Device device;
+        long limit = Long.MAX_VALUE;
+        long numRecords;
+
+        Builder() {}
+
+        /**
+         * Sets the record files of the dataset.
+         *
+         * @param shards the record files
+         * @return this builder
+         */
+        public Builder setShards(List<Path> shards) {
+            this.shards = new ArrayList<>(shards);
+            return this;
+        }
+
+        /**
+         * Adds a record file to the dataset.
+         *
+         * @param shard the record file
+         * @return this builder
+         */
+        public Builder addShard(Path shard) {
+            shards.add(shard);
+            return this;
+        }
+
+        /**
+         * Sets the batch size and whether to shuffle the records.
+         *
+         * @param batchSize the batch size
+         * @param shuffle whether to shuffle the records
+         * @return this builder
+         */
+        public Builder setSampling(int batchSize, boolean shuffle) {
+            return setSampling(batchSize, shuffle, false);
+        }
+
+        /**
+         * Sets the batch size and whether to shuffle the records.
+         *
+         * @param batchSize the batch size
+         * @param shuffle whether to shuffle the records
+         * @param dropLast whether to drop the last incomplete batch
+         * @return this builder
+         */
+        public Builder setSampling(int batchSize, boolean shuffle, boolean dropLast) {
+            this.batchSize = batchSize;
+            this.shuffle = shuffle;
+            this.dropLast = dropLast;
+            return this;
+        }
+
+        /**
+         * Sets the number of records in the shuffle buffer.
+         *
+         * <p>A larger buffer gives a better approximation of a uniform shuffle at the cost of
+         * memory.
+         *
+         * @param shuffleBufferSize the number of records in the shuffle buffer
+         * @return this builder
+         */
+        public Builder optShuffleBufferSize(int shuffleBufferSize) {
+            this.shuffleBufferSize = shuffleBufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the random seed used to shuffle the shards and the records.
+         *
+         * @param seed the random seed
+         * @return this builder
+         */
+        public Builder optSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the worker that reads the dataset, shard {@code i} is assigned to worker {@code i %
+         * numWorkers}.
+         *
+         * @param workerIndex the index of this worker
+         * @param numWorkers the total number of workers
+         * @return this builder
+         */
+        public Builder optWorker(int workerIndex, int numWorkers) {
+            this.workerIndex = workerIndex;
+            this.numWorkers = numWorkers;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Batchifier} for the data.
+         *
+         * @param dataBatchifier the {@link Batchifier} to be set
+         * @return this builder
+         */
+        public Builder optDataBatchifier(Batchifier dataBatchifier) {
+            this.dataBatchifier = dataBatchifier;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Batchifier} for the labels.
+         *
+         * @param labelBatchifier the {@link Batchifier} to be set
+         * @return this builder
+         */
+        public Builder optLabelBatchifier(Batchifier labelBatchifier) {
+            this.labelBatchifier = labelBatchifier;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Pipeline} of {@link Transform} to be applied on the data.
+         *
+         * @param pipeline the {@link Pipeline} of {@link Transform} to be applied on the data
+         * @return this builder
+         */
+        public Builder optPipeline(Pipeline pipeline) {
+            this.pipeline = pipeline;
+            return this;
+        }
+
+        /**
+         * Adds the {@link Transform} to the {@link Pipeline} to be applied on the data.
+         *
+         * @param transform the {@link Transform} to be added
+         * @return this builder
+         */
+        public Builder addTransform(Transform transform) {
+            if (pipeline == null) {
+                pipeline = new Pipeline();
+            }
+            pipeline.add(transform);
+            return this;
+        }
+
+        /**
+         * Sets the {@link Pipeline} of {@link Transform} to be applied on the labels.
+         *
+         * @param targetPipeline the {@link Pipeline} of {@link Transform} to be applied on the
+         *     labels
+         * @return this builder
+         */
+        public Builder optTargetPipeline(Pipeline targetPipeline) {
+            this.targetPipeline = targetPipeline;
+            return this;
+        }
+
+        /**
+         * Adds the {@link Transform} to the target {@link Pipeline} to be applied on the labels.
+         *
+         * @param transform the {@link Transform} to be added
+         * @return this builder
+         */
+        public Builder addTargetTransform(Transform transform) {
+            if (targetPipeline == null) {
+                targetPipeline = new Pipeline();
+            }
+            targetPipeline.add(transform);
+            return this;
+        }
+
+        /**
+         * Sets the number of batches to read ahead when an {@link ExecutorService} is used.
+         *
+         * @param prefetchNumber the number of batches to read ahead
+         * @return this builder
+         */
+        public Builder optPrefetchNumber(int prefetchNumber) {
+            this.prefetchNumber = prefetchNumber;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Device}.
+         *
+         * @param device the device
+         * @return this builder
+         */
+        public Builder optDevice(Device device) {
+            this.device = device;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of records to read per epoch.
+         *
+         * @param limit the maximum number of records to read per epoch
+         * @return this builder
+         */
+        public Builder optLimit(long limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Sets the expected number of records read by this worker, only used to report the
+         * progress.
+         *
+         * @param numRecords the expected number of records
+         * @return this builder
+         */
+        public Builder optNumRecords(long numRecords) {
+            this.numRecords = numRecords;
+            return this;
+        }
+
+        /**
+         * Builds the {@link StreamingDataset}.
+         *
+         * @return the {@link StreamingDataset}
+         */
+        public StreamingDataset build() {
+            if (shards.isEmpty()) {
+                throw new IllegalArgumentException("No record file is set.");
+            }
+            if (batchSize <= 0 || shuffleBufferSize <= 0) {
+                throw new IllegalArgumentException("batchSize and shuffleBufferSize must be > 0");
+            }
+            if (numWorkers <= 0 || workerIndex < 0 || workerIndex >= numWorkers) {
+                throw new IllegalArgumentException("Invalid worker index: " + workerIndex);
+            }
+            return new StreamingDataset(this);
+        }
+    }
+}
@@ -16,9 +16,11 @@ import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -55,27 +57,113 @@ public final class PaddingStackBatchifier implements Batchifier {
     public NDList batchify(NDList[] inputs) {
         NDList validLengths = new NDList(inputs.length);
         NDManager manager = inputs[0].get(0).getManager();
+        NDArray[] paddings = new NDArray[arraysToPad.size()];
+        long[] maxSizes = new long[arraysToPad.size()];
         for (int i = 0; i < arraysToPad.size(); i++) {
             int arrayIndex = arraysToPad.get(i);
             int dimIndex = dimsToPad.get(i);
-            NDArray padding = paddingSuppliers.get(i).get(manager);
+            paddings[i] = paddingSuppliers.get(i).get(manager);
             long paddingSize = paddingSizes.get(i);
             long maxSize = findMaxSize(inputs, arrayIndex, dimIndex);
             if (paddingSize != -1 && maxSize > paddingSize) {
                 throw new IllegalArgumentException(
                         "The batchifier padding size is too small " + maxSize + " " + paddingSize);
             }
-            maxSize = Math.max(maxSize, paddingSize);
-            long[] arrayValidLengths = padArrays(inputs, arrayIndex, dimIndex, padding, maxSize);
+            maxSizes[i] = Math.max(maxSize, paddingSize);
+            long[] arrayValidLengths = new long[inputs.length];
+            for (int j = 0; j < inputs.length; j++) {
+                arrayValidLengths[j] = inputs[j].get(arrayIndex).getShape().get(dimIndex);
+            }
             validLengths.add(manager.create(arrayValidLengths));
         }
-        NDList result = Batchifier.STACK.batchify(inputs);
+        NDList result = copyBatchify(inputs, paddings, maxSizes);
+        if (result == null) {
+            for (int i = 0; i < arraysToPad.size(); i++) {
+                padArrays(inputs, arraysToPad.get(i), dimsToPad.get(i), paddings[i], maxSizes[i]);
+            }
+            result = Batchifier.STACK.batchify(inputs);
+        }
         if (includeValidLengths) {
             result.addAll(validLengths);
         }
         return result;
     }
 
+    /**
+     * Pads and stacks the inputs by copying them into preallocated buffers.
+     *
+     * @param inputs the batch of inputs
+     * @param paddings the padding for each padded dimension
+     * @param maxSizes the padded size for each padded dimension
+     * @return the batchified inputs, or {@code null} if they cannot be copied directly
+     */
+    private NDList copyBatchify(NDList[] inputs, NDArray[] paddings, long[] maxSizes) {
+        int numInputKinds = inputs[0].size();
+        for (NDList input : inputs) {
+            if (input.size() != numInputKinds) {
+                return null;
+            }
+        }
+        int[] axes = new int[numInputKinds];
+        long[] sizes = new long[numInputKinds];
+        byte[][] values = new byte[numInputKinds][];
+        Arrays.fill(axes, -1);
+        for (int i = 0; i < arraysToPad.size(); i++) {
+            int arrayIndex = arraysToPad.get(i);
+            if (arrayIndex >= numInputKinds || axes[arrayIndex] != -1) {
+                return null;
+            }
+            NDArray array = inputs[0].get(arrayIndex);
+            byte[] value = getPaddingValue(paddings[i], array);
+            if (value == null) {
+                return null;
+            }
+            axes[arrayIndex] = dimsToPad.get(i);
+            sizes[arrayIndex] = maxSizes[i];
+            values[arrayIndex] = value;
+        }
+
+        NDList result = new NDList(numInputKinds);
+        for (int i = 0; i < numInputKinds; i++) {
+            NDArray[] arrays = new NDArray[inputs.length];
+            for (int j = 0; j < inputs.length; j++) {
+                arrays[j] = inputs[j].get(i);
+            }
+            NDArray stacked = StackBatchifier.copyStack(arrays, axes[i], sizes[i], values[i]);
+            if (stacked == null) {
+                result.close();
+                return null;
+            }
+            stacked.setName(arrays[0].getName());
+            result.add(stacked);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the padding as a single value if all of its elements are the same.
+     *
+     * @param padding the padding array
+     * @param array an array to pad
+     * @return the bytes of the padding value, or {@code null} if the padding is not a single value
+     */
+    private static byte[] getPaddingValue(NDArray padding, NDArray array) {
+        DataType dataType = array.getDataType();
+        if (dataType == DataType.STRING
+                || padding.isEmpty()
+                || padding.getShape().dimension() > array.getShape().dimension()) {
+            return null;
+        }
+        byte[] bytes = padding.toType(dataType, false).toByteArray();
+        int numOfBytes = dataType.getNumOfBytes();
+        for (int i = numOfBytes; i < bytes.length; i++) {
+            if (bytes[i] != bytes[i % numOfBytes]) {
+                return null;
+            }
+        }
+        return Arrays.copyOf(bytes, numOfBytes);
+    }
+
     /** {@inheritDoc} */
     @Override
     public NDList[] unbatchify(NDList inputs) {
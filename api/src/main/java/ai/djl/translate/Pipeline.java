@@ -17,6 +17,9 @@ import ai.djl.ndarray.NDList;
 import ai.djl.util.Pair;
 import ai.djl.util.PairList;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -137,6 +140,34 @@ public class Pipeline {
         return this;
     }
 
+    /**
+     * Returns all the transforms in this pipeline.
+     *
+     * @return all the transforms in this pipeline
+     */
+    public List<Transform> getTransforms() {
+        return Collections.unmodifiableList(transforms.values());
+    }
+
+    /**
+     * Returns the transforms that are applied to the element at the given index of the input.
+     *
+     * <p>The transforms added with a name are not included.
+     *
+     * @param index the index of the input element
+     * @return the transforms that are applied to the element at the given index
+     */
+    public List<Transform> getTransforms(int index) {
+        List<Transform> list = new ArrayList<>();
+        for (Pair<IndexKey, Transform> transform : transforms) {
+            IndexKey key = transform.getKey();
+            if (key.key == null && key.index == index) {
+                list.add(transform.getValue());
+            }
+        }
+        return list;
+    }
+
     /**
      * Applies the transforms configured in this object on the input {@link NDList}.
      *
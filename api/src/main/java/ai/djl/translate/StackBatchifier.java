@@ -12,13 +12,17 @@
  */
 package ai.djl.translate;
 
+import ai.djl.Device;
 import ai.djl.engine.EngineException;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDArrays;
 import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
+import ai.djl.ndarray.types.SparseFormat;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.stream.LongStream;
 
@@ -46,12 +50,15 @@ public class StackBatchifier implements Batchifier {
             // stack all the data and labels together
             NDList result = new NDList(numInputKinds);
             for (int i = 0; i < numInputKinds; i++) {
-                NDList inputsOfKind = new NDList(batchSize);
+                NDArray[] inputsOfKind = new NDArray[batchSize];
                 String inputName = inputs[0].get(i).getName();
-                for (NDList input : inputs) {
-                    inputsOfKind.add(input.get(i));
+                for (int j = 0; j < batchSize; j++) {
+                    inputsOfKind[j] = inputs[j].get(i);
+                }
+                NDArray stacked = copyStack(inputsOfKind, -1, 0, null);
+                if (stacked == null) {
+                    stacked = NDArrays.stack(new NDList(inputsOfKind));
                 }
-                NDArray stacked = NDArrays.stack(new NDList(inputsOfKind));
                 // keep the name for stacked inputs
                 stacked.setName(inputName);
                 result.add(stacked);
@@ -115,9 +122,9 @@ public class StackBatchifier implements Batchifier {
         }
 
         for (NDArray input : inputs) {
-            NDList splitList = input.split(batchSize);
             for (int i = 0; i < batchSize; i++) {
-                NDArray array = splitList.get(i).squeeze(0);
+                // indexing returns a view of the batch if the engine supports it
+                NDArray array = input.get(i);
                 array.setName(input.getName());
                 dataList[i].add(array);
             }
@@ -188,4 +195,107 @@ public class StackBatchifier implements Batchifier {
         long[] indices = LongStream.range(1, numOfSlices).map(i -> i * step).toArray();
         return array.split(indices);
     }
+
+    /**
+     * Stacks the arrays by copying their data into one preallocated buffer.
+     *
+     * <p>This avoids an intermediate array and an engine call per item. The arrays can optionally
+     * be padded to the same size at one axis, the padded elements are filled with a single value.
+     *
+     * @param arrays the arrays to stack
+     * @param axis the axis to pad, or -1 if the arrays have the same shape
+     * @param size the size of the padded axis
+     * @param padding the bytes of the padding value in native order, or {@code null} for zero
+     * @return the stacked array, or {@code null} if the arrays cannot be copied directly
+     */
+    static NDArray copyStack(NDArray[] arrays, int axis, long size, byte[] padding) {
+        NDArray first = arrays[0];
+        NDManager manager = first.getManager();
+        DataType dataType = first.getDataType();
+        Device device = first.getDevice();
+        if (dataType == DataType.STRING || device.isGpu() || !device.equals(manager.getDevice())) {
+            return null;
+        }
+        Shape shape = first.getShape();
+        if (axis >= 0) {
+            shape = Shape.update(shape, axis, size);
+        }
+        for (NDArray array : arrays) {
+            if (array.getDataType() != dataType
+                    || !array.getDevice().equals(device)
+                    || array.getSparseFormat() != SparseFormat.DENSE
+                    || array.hasGradient()
+                    || !isPaddable(array.getShape(), shape, axis)) {
+                return null;
+            }
+        }
+        int numOfBytes = dataType.getNumOfBytes();
+        long itemSize = shape.size() * numOfBytes;
+        if (itemSize == 0 || itemSize * arrays.length > Integer.MAX_VALUE) {
+            return null;
+        }
+
+        // the items are copied as blocks of the axis, repeated for the outer dimensions
+        long outer = 1;
+        long inner = itemSize;
+        if (axis >= 0) {
+            for (int i = 0; i < axis; ++i) {
+                outer *= shape.get(i);
+            }
+            inner = shape.slice(axis + 1).size() * numOfBytes;
+        }
+        if (padding != null && isZero(padding)) {
+            // the allocated buffer is already filled with zeros
+            padding = null;
+        }
+        ByteBuffer data = manager.allocateDirect(Math.toIntExact(itemSize * arrays.length));
+        int position = 0;
+        for (NDArray array : arrays) {
+            ByteBuffer bb = array.toByteBuffer();
+            if (bb.order() != data.order()) {
+                return null;
+            }
+            int validBytes = Math.toIntExact(bb.remaining() / outer);
+            int paddingBytes = Math.toIntExact(size * inner) - validBytes;
+            int start = bb.position();
+            for (long i = 0; i < outer; ++i) {
+                bb.limit(start + validBytes);
+                data.position(position);
+                data.put(bb);
+                start += validBytes;
+                position += validBytes;
+                if (axis >= 0) {
+                    if (padding != null) {
+                        for (int j = 0; j < paddingBytes; j += numOfBytes) {
+                            data.put(padding);
+                        }
+                    }
+                    position += paddingBytes;
+                }
+            }
+        }
+        data.rewind();
+        return manager.create(data, new Shape(arrays.length).addAll(shape), dataType);
+    }
+
+    private static boolean isZero(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPaddable(Shape shape, Shape target, int axis) {
+        if (shape.dimension() != target.dimension()) {
+            return false;
+        }
+        for (int i = 0; i < shape.dimension(); ++i) {
+            if (i == axis ? shape.get(i) > target.get(i) : shape.get(i) != target.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.util;
+
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A {@link DataOutputStream} that tracks its position to align the written data.
+ *
+ * <p>{@link ai.djl.ndarray.NDArray}s written to this stream are padded so their data starts at an
+ * aligned offset, which lets the file be memory mapped with {@link MappedDataInputStream} and used
+ * by the engines without copying.
+ */
+public class AlignedDataOutputStream extends DataOutputStream {
+
+    /** The alignment of the data in bytes. */
+    public static final int ALIGNMENT = 64;
+
+    /**
+     * Creates a new {@code AlignedDataOutputStream}.
+     *
+     * @param os the underlying output stream, it should be at the start of a file
+     */
+    public AlignedDataOutputStream(OutputStream os) {
+        super(new PositionOutputStream(os));
+    }
+
+    /**
+     * Returns the number of bytes written to this stream.
+     *
+     * <p>Unlike {@link #size()}, the position does not overflow for files larger than 2 GB.
+     *
+     * @return the number of bytes written to this stream
+     */
+    public long position() {
+        return ((PositionOutputStream) out).position;
+    }
+
+    /**
+     * Writes the number of padding bytes followed by the padding, so the next byte written starts
+     * at an aligned offset.
+     *
+     * @throws IOException if failed on IO operation
+     */
+    public void writePadding() throws IOException {
+        int padding = (int) ((ALIGNMENT - (position() + 1) % ALIGNMENT) % ALIGNMENT);
+        write(padding);
+        for (int i = 0; i < padding; ++i) {
+            write(0);
+        }
+    }
+
+    private static final class PositionOutputStream extends FilterOutputStream {
+
+        long position;
+
+        PositionOutputStream(OutputStream os) {
+            super(os);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            ++position;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+    }
+}
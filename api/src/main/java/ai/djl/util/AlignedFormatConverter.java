@@ -0,0 +1,255 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Converts DJL {@code .params} and {@code NDList} files between the regular and the aligned format
+ * without loading them into an engine.
+ *
+ * <p>The aligned format is written with {@link AlignedDataOutputStream} and can be memory mapped
+ * with {@link MappedDataInputStream}, but it can not be read by older DJL versions. This class can
+ * be run from the command line:
+ *
+ * <pre>
+ * java -cp api.jar ai.djl.util.AlignedFormatConverter [--regular] &lt;source&gt; &lt;target&gt;
+ * </pre>
+ *
+ * <p>The parameters of a {@code .params} file are interleaved with the block specific metadata,
+ * which can only be parsed by the block itself. The metadata is copied as is, and each parameter is
+ * located by its complete record header, which is read the same way as {@link
+ * ai.djl.nn.Parameter#load(ai.djl.ndarray.NDManager, DataInputStream)} reads it: the parameter
+ * magic and version, the parameter name and the NDArray magic and version.
+ */
+public final class AlignedFormatConverter {
+
+    private static final byte[] MODEL_MAGIC = "DJL@".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ARRAY_MAGIC = {0, 4, 'N', 'D', 'A', 'R'};
+    private static final char PARAMETER_MAGIC = 'P';
+    private static final int PARAMETER_VERSION = 1;
+    private static final int MODEL_VERSION = 1;
+    private static final int ALIGNED_MODEL_VERSION = 2;
+    private static final int ARRAY_VERSION = 3;
+    private static final int ALIGNED_ARRAY_VERSION = 4;
+    private static final int BUFFER_SIZE = 81920;
+    // parameter magic and version, the longest parameter name, NDArray magic and version
+    private static final int MAX_HEADER_SIZE = 3 + 2 + 65535 + 6 + 4;
+
+    private AlignedFormatConverter() {}
+
+    /**
+     * Converts a file from the command line.
+     *
+     * @param args the optional {@code --regular} flag, the source and the target file
+     * @throws IOException if failed to convert the file
+     */
+    @SuppressWarnings("PMD.SystemPrintln")
+    public static void main(String[] args) throws IOException {
+        boolean aligned = args.length == 2;
+        if (!aligned && (args.length != 3 || !"--regular".equals(args[0]))) {
+            System.out.println("Usage: AlignedFormatConverter [--regular] <source> <target>");
+            return;
+        }
+        int i = args.length - 2;
+        convert(Paths.get(args[i]), Paths.get(args[i + 1]), aligned);
+    }
+
+    /**
+     * Converts a {@code .params} or {@code NDList} file.
+     *
+     * @param source the file to convert
+     * @param target the converted file
+     * @param aligned {@code true} to write the aligned format, {@code false} to write the format
+     *     that is readable by all DJL versions
+     * @throws IOException if failed to convert the file
+     */
+    public static void convert(Path source, Path target, boolean aligned) throws IOException {
+        if (source.toAbsolutePath().normalize().equals(target.toAbsolutePath().normalize())) {
+            throw new IllegalArgumentException("The target must be different from the source.");
+        }
+        OutputStream os = new BufferedOutputStream(Files.newOutputStream(target));
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(source));
+                DataInputStream dis = new DataInputStream(is);
+                DataOutputStream dos =
+                        aligned ? new AlignedDataOutputStream(os) : new DataOutputStream(os)) {
+            byte[] magic = new byte[MODEL_MAGIC.length];
+            is.mark(magic.length);
+            dis.readFully(magic);
+            if (Arrays.equals(magic, MODEL_MAGIC)) {
+                convertParameters(is, dis, dos, aligned);
+            } else {
+                is.reset();
+                convertNDList(dis, dos, aligned);
+            }
+        }
+    }
+
+    private static void convertParameters(
+            InputStream is, DataInputStream dis, DataOutputStream dos, boolean aligned)
+            throws IOException {
+        int version = dis.readInt();
+        if (version != MODEL_VERSION && version != ALIGNED_MODEL_VERSION) {
+            throw new IllegalArgumentException("Unsupported model version: " + version);
+        }
+        dos.write(MODEL_MAGIC);
+        dos.writeInt(aligned ? ALIGNED_MODEL_VERSION : MODEL_VERSION);
+        dos.writeUTF(dis.readUTF()); // model name
+        dos.writeUTF(dis.readUTF()); // data type
+        int numberOfInputs = dis.readInt();
+        dos.writeInt(numberOfInputs);
+        for (int i = 0; i < numberOfInputs; ++i) {
+            dos.writeUTF(dis.readUTF());
+            copyShape(dis, dos);
+        }
+        int numberOfProperties = dis.readInt();
+        dos.writeInt(numberOfProperties);
+        for (int i = 0; i < numberOfProperties; ++i) {
+            dos.writeUTF(dis.readUTF());
+            dos.writeUTF(dis.readUTF());
+        }
+
+        // copy the block metadata as is and convert the parameters in between
+        while (true) {
+            is.mark(MAX_HEADER_SIZE);
+            int b = is.read();
+            if (b == -1) {
+                break;
+            }
+            if (b == 0) {
+                if (convertParameter(dis, dos, aligned)) {
+                    continue;
+                }
+                is.reset();
+                is.read();
+            }
+            dos.write(b);
+        }
+    }
+
+    /** Converts a parameter record after its first byte, nothing is written if it is not one. */
+    private static boolean convertParameter(
+            DataInputStream dis, DataOutputStream dos, boolean aligned) throws IOException {
+        String name;
+        int version;
+        try {
+            if (dis.readByte() != PARAMETER_MAGIC || dis.readByte() != PARAMETER_VERSION) {
+                return false;
+            }
+            name = dis.readUTF();
+            byte[] magic = new byte[ARRAY_MAGIC.length];
+            dis.readFully(magic);
+            if (!Arrays.equals(magic, ARRAY_MAGIC)) {
+                return false;
+            }
+            version = dis.readInt();
+        } catch (EOFException | UTFDataFormatException e) {
+            return false;
+        }
+        if (version < 1 || version > ALIGNED_ARRAY_VERSION) {
+            return false;
+        }
+        dos.writeChar(PARAMETER_MAGIC);
+        dos.writeByte(PARAMETER_VERSION);
+        dos.writeUTF(name);
+        convertArray(dis, dos, version, aligned);
+        return true;
+    }
+
+    private static void convertNDList(DataInputStream dis, DataOutputStream dos, boolean aligned)
+            throws IOException {
+        int size = dis.readInt();
+        if (size < 0) {
+            throw new IllegalArgumentException("Invalid NDList size: " + size);
+        }
+        dos.writeInt(size);
+        for (int i = 0; i < size; ++i) {
+            if (!"NDAR".equals(dis.readUTF())) {
+                throw new IllegalArgumentException("Malformed NDArray data");
+            }
+            int version = dis.readInt();
+            if (version < 1 || version > ALIGNED_ARRAY_VERSION) {
+                throw new IllegalArgumentException("Unexpected NDArray encode version " + version);
+            }
+            convertArray(dis, dos, version, aligned);
+        }
+    }
+
+    private static void convertArray(
+            DataInputStream dis, DataOutputStream dos, int version, boolean aligned)
+            throws IOException {
+        dos.write(ARRAY_MAGIC);
+        dos.writeInt(aligned ? ALIGNED_ARRAY_VERSION : ARRAY_VERSION);
+        if (version > 1) {
+            byte flag = dis.readByte();
+            dos.writeByte(flag);
+            if (flag == 1) {
+                dos.writeUTF(dis.readUTF());
+            }
+        } else {
+            dos.writeByte(0);
+        }
+        dos.writeUTF(dis.readUTF()); // sparse format
+        dos.writeUTF(dis.readUTF()); // data type
+        copyShape(dis, dos);
+        if (version > 2) {
+            dos.writeByte(dis.readByte());
+        } else {
+            dos.writeByte(ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? '>' : '<');
+        }
+        int length = dis.readInt();
+        dos.writeInt(length);
+        if (version > ARRAY_VERSION) {
+            int padding = dis.readUnsignedByte();
+            dis.readFully(new byte[padding]);
+        }
+        if (aligned) {
+            ((AlignedDataOutputStream) dos).writePadding();
+        }
+
+        byte[] buf = new byte[BUFFER_SIZE];
+        while (length > 0) {
+            int read = Math.min(length, buf.length);
+            dis.readFully(buf, 0, read);
+            dos.write(buf, 0, read);
+            length -= read;
+        }
+    }
+
+    private static void copyShape(DataInputStream dis, DataOutputStream dos) throws IOException {
+        int length = dis.readInt();
+        dos.writeInt(length);
+        for (int i = 0; i < length; ++i) {
+            dos.writeLong(dis.readLong());
+        }
+        length = dis.readInt();
+        dos.writeInt(length);
+        for (int i = 0; i < length; ++i) {
+            dos.writeChar(dis.readChar());
+        }
+    }
+}
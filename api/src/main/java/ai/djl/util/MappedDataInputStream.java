@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.util;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link DataInputStream} that reads a file through memory mapping.
+ *
+ * <p>Besides the regular {@code DataInputStream} methods, it can return a region of the file as a
+ * {@link ByteBuffer} without copying it. The file is mapped in private (copy-on-write) mode, so the
+ * returned buffers can be modified in memory while the file stays unchanged. The pages are read
+ * from disk on first access.
+ */
+public class MappedDataInputStream extends DataInputStream {
+
+    /**
+     * Opens a file for memory mapped reading.
+     *
+     * @param file the file to read
+     * @throws IOException if failed to open the file for reading and writing, which is required by
+     *     private mapping
+     */
+    public MappedDataInputStream(Path file) throws IOException {
+        super(
+                new MappedInput(
+                        FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)));
+    }
+
+    /**
+     * Returns the current position in the file.
+     *
+     * @return the current position in the file
+     */
+    public long position() {
+        return ((MappedInput) in).position;
+    }
+
+    /**
+     * Sets the current position in the file.
+     *
+     * @param position the new position
+     */
+    public void seek(long position) {
+        ((MappedInput) in).position = position;
+    }
+
+    /**
+     * Returns the next bytes of the file as a direct {@code ByteBuffer} backed by the mapped file,
+     * and advances the position.
+     *
+     * @param length the number of bytes
+     * @return the mapped bytes
+     * @throws IOException if the file is shorter than the requested length
+     */
+    public ByteBuffer map(int length) throws IOException {
+        return ((MappedInput) in).slice(length);
+    }
+
+    private static final class MappedInput extends InputStream {
+
+        private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+
+        FileChannel channel;
+        long size;
+        long position;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        MappedInput(FileChannel channel) throws IOException {
+            this.channel = channel;
+            size = channel.size();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int read() throws IOException {
+            if (position >= size) {
+                return -1;
+            }
+            ensureMapped(1);
+            return window.get((int) (position++ - windowStart)) & 0xFF;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= size) {
+                return -1;
+            }
+            int n = (int) Math.min(len, size - position);
+            ensureMapped(n);
+            ByteBuffer bb = window.duplicate();
+            bb.position((int) (position - windowStart));
+            bb.get(b, off, n);
+            position += n;
+            return n;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, size - position));
+            position += skipped;
+            return skipped;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int available() {
+            return (int) Math.min(Math.max(0, size - position), Integer.MAX_VALUE);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+
+        ByteBuffer slice(int length) throws IOException {
+            if (position + length > size) {
+                throw new EOFException("Unexpected end of file at " + position);
+            }
+            ensureMapped(length);
+            ByteBuffer bb = window.duplicate();
+            int offset = (int) (position - windowStart);
+            bb.position(offset);
+            bb.limit(offset + length);
+            position += length;
+            return bb.slice();
+        }
+
+        private void ensureMapped(int length) throws IOException {
+            if (window != null
+                    && position >= windowStart
+                    && position + length <= windowStart + window.capacity()) {
+                return;
+            }
+            long mapSize = Math.min(Math.max(length, WINDOW_SIZE), size - position);
+            window = channel.map(FileChannel.MapMode.PRIVATE, position, mapSize);
+            windowStart = position;
+        }
+    }
+}
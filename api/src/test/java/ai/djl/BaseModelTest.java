@@ -0,0 +1,244 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.AbstractBlock;
+import ai.djl.nn.Parameter;
+import ai.djl.nn.core.Linear;
+import ai.djl.training.ParameterStore;
+import ai.djl.training.initializer.Initializer;
+import ai.djl.util.AlignedFormatConverter;
+import ai.djl.util.PairList;
+import ai.djl.util.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+public class BaseModelTest {
+
+    @Test
+    public void testSaveAndLoad() throws IOException, MalformedModelException {
+        Path dir = Paths.get("build/tmp/base_model");
+        Utils.deleteQuietly(dir);
+        float[] expected = save(dir);
+
+        Path file = dir.resolve("linear-0001.params");
+        Assert.assertTrue(Files.isRegularFile(file));
+        // the regular format is saved by default
+        Assert.assertEquals(readModelVersion(file), 1);
+        checkLoad(dir, expected);
+
+        // convert to the aligned format that is loaded with memory mapping
+        Path regular = dir.resolve("regular.params");
+        Files.move(file, regular);
+        AlignedFormatConverter.convert(regular, file, true);
+        Assert.assertEquals(readModelVersion(file), 2);
+        checkLoad(dir, expected);
+
+        // and back to the regular format
+        Path converted = dir.resolve("converted.params");
+        AlignedFormatConverter.convert(file, converted, false);
+        Assert.assertEquals(Files.readAllBytes(converted), Files.readAllBytes(regular));
+    }
+
+    @Test
+    public void testSaveAligned() throws IOException, MalformedModelException {
+        Path dir = Paths.get("build/tmp/base_model_aligned");
+        Utils.deleteQuietly(dir);
+        float[] expected;
+        System.setProperty("ai.djl.save_aligned", "true");
+        try {
+            expected = save(dir);
+        } finally {
+            System.clearProperty("ai.djl.save_aligned");
+        }
+
+        Path file = dir.resolve("linear-0001.params");
+        Assert.assertEquals(readModelVersion(file), 2);
+        checkLoad(dir, expected);
+    }
+
+    @Test
+    public void testConvertParameterNames() throws IOException, MalformedModelException {
+        Path dir = Paths.get("build/tmp/base_model_names");
+        Utils.deleteQuietly(dir);
+        try (TestModel model = new TestModel()) {
+            NamedBlock block = new NamedBlock();
+            block.setInitializer(Initializer.ONES, Parameter.Type.WEIGHT);
+            block.freezeParameters(true);
+            model.setBlock(block);
+            block.initialize(model.getNDManager(), DataType.FLOAT32, new Shape(2));
+            block.getParameters().get("NDAR").getArray().set(new float[] {1f, 2f});
+            model.save(dir, "named");
+        }
+
+        // the parameter names and the block metadata contain the NDArray magic
+        Path file = dir.resolve("named-0000.params");
+        Path regular = dir.resolve("regular.params");
+        Files.move(file, regular);
+        AlignedFormatConverter.convert(regular, file, true);
+        Assert.assertEquals(readModelVersion(file), 2);
+        try (TestModel model = new TestModel()) {
+            NamedBlock block = new NamedBlock();
+            model.setBlock(block);
+            model.load(dir, "named", null);
+            Assert.assertEquals(
+                    block.getParameters().get("NDAR").getArray().toFloatArray(),
+                    new float[] {1f, 2f});
+            Assert.assertEquals(
+                    block.getParameters().get("weight_NDAR").getArray().toFloatArray(),
+                    new float[] {1f, 1f});
+        }
+
+        Path converted = dir.resolve("converted.params");
+        AlignedFormatConverter.convert(file, converted, false);
+        Assert.assertEquals(Files.readAllBytes(converted), Files.readAllBytes(regular));
+    }
+
+    private static float[] save(Path dir) throws IOException {
+        try (TestModel model = new TestModel()) {
+            Linear block = Linear.builder().setUnits(3).build();
+            block.setInitializer(Initializer.ONES, Parameter.Type.WEIGHT);
+            block.setInitializer(Initializer.ZEROS, Parameter.Type.BIAS);
+            block.freezeParameters(true);
+            model.setBlock(block);
+            block.initialize(model.getNDManager(), DataType.FLOAT32, new Shape(1, 2));
+            NDArray weight = block.getParameters().valueAt(0).getArray();
+            weight.set(model.getNDManager().arange(6f).reshape(3, 2).toFloatArray());
+            model.setProperty("Epoch", "1");
+            model.save(dir, "linear");
+            return weight.toFloatArray();
+        }
+    }
+
+    private static int readModelVersion(Path file) throws IOException {
+        try (DataInputStream dis = new DataInputStream(Files.newInputStream(file))) {
+            dis.readInt(); // magic number
+            return dis.readInt();
+        }
+    }
+
+    private static void checkLoad(Path dir, float[] expected)
+            throws IOException, MalformedModelException {
+        Path file = dir.resolve("linear-0001.params");
+        try (TestModel model = new TestModel()) {
+            Linear block = Linear.builder().setUnits(3).build();
+            model.setBlock(block);
+            model.load(dir, "linear", null);
+            Assert.assertEquals(model.getProperty("Epoch"), "1");
+            NDArray weight = block.getParameters().valueAt(0).getArray();
+            Assert.assertEquals(weight.getShape(), new Shape(3, 2));
+            Assert.assertEquals(weight.toFloatArray(), expected);
+        }
+
+        // streams are loaded without memory mapping
+        try (TestModel model = new TestModel()) {
+            Linear block = Linear.builder().setUnits(3).build();
+            model.setBlock(block);
+            model.load(Files.newInputStream(file), null);
+            Assert.assertEquals(
+                    block.getParameters().valueAt(0).getArray().toFloatArray(), expected);
+        }
+    }
+
+    private static final class NamedBlock extends AbstractBlock {
+
+        NamedBlock() {
+            addParameter(
+                    Parameter.builder()
+                            .setName("NDAR")
+                            .setType(Parameter.Type.WEIGHT)
+                            .optShape(new Shape(2))
+                            .build());
+            addParameter(
+                    Parameter.builder()
+                            .setName("weight_NDAR")
+                            .setType(Parameter.Type.WEIGHT)
+                            .optShape(new Shape(2))
+                            .build());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected NDList forwardInternal(
+                ParameterStore parameterStore,
+                NDList inputs,
+                boolean training,
+                PairList<String, Object> params) {
+            return inputs;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Shape[] getOutputShapes(Shape[] inputs) {
+            return inputs;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void saveMetadata(DataOutputStream os) throws IOException {
+            saveInputShapes(os);
+            // block metadata that looks like the start of an NDArray
+            os.writeUTF("NDAR");
+            os.writeInt(3);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void loadMetadata(byte loadVersion, DataInputStream is)
+                throws IOException, MalformedModelException {
+            super.loadMetadata(loadVersion, is);
+            if (!"NDAR".equals(is.readUTF()) || is.readInt() != 3) {
+                throw new MalformedModelException("Invalid metadata");
+            }
+        }
+    }
+
+    private static final class TestModel extends BaseModel {
+
+        TestModel() {
+            super("linear");
+            manager = NDManager.newBaseManager();
+            dataType = DataType.FLOAT32;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void load(Path modelPath, String prefix, Map<String, ?> options)
+                throws IOException, MalformedModelException {
+            setModelDir(modelPath);
+            loadBlock(prefix, options);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void load(InputStream is, Map<String, ?> options)
+                throws IOException, MalformedModelException {
+            readParameters(is, options);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.metric;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class HistogramTest {
+
+    @Test
+    public void testHistogram() {
+        Histogram histogram = new Histogram();
+        Assert.assertTrue(Double.isNaN(histogram.percentile(50)));
+        Assert.assertTrue(Double.isNaN(histogram.getMean()));
+
+        for (int i = 1; i <= 100; ++i) {
+            histogram.record(i);
+        }
+        histogram.record(Double.NaN);
+        Assert.assertEquals(histogram.getCount(), 100);
+        Assert.assertEquals(histogram.getMin(), 1d);
+        Assert.assertEquals(histogram.getMax(), 100d);
+        Assert.assertEquals(histogram.getMean(), 50.5d);
+        Assert.assertEquals(histogram.percentile(0), 1d);
+        Assert.assertEquals(histogram.percentile(50), 51d);
+        Assert.assertEquals(histogram.percentile(90), 91d);
+        Assert.assertEquals(histogram.percentile(100), 100d);
+
+        histogram.reset();
+        histogram.record(-2);
+        histogram.record(0);
+        histogram.record(3);
+        Assert.assertEquals(histogram.percentile(0), -2d);
+        Assert.assertEquals(histogram.percentile(50), 0d);
+        Assert.assertEquals(histogram.percentile(99), 3d);
+    }
+
+    @Test
+    public void testRelativeError() {
+        Random random = new Random(1234);
+        double[] values = new double[10000];
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = Math.exp(random.nextGaussian() * 3);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (int p : new int[] {1, 10, 50, 90, 99}) {
+            double expected = values[values.length * p / 100];
+            double actual = histogram.percentile(p);
+            Assert.assertEquals(actual, expected, expected * 0.01);
+        }
+    }
+
+    @Test
+    public void testConcurrentRecord() {
+        Histogram histogram = new Histogram();
+        IntStream.range(0, 100_000).parallel().forEach(i -> histogram.record(i % 100));
+        Assert.assertEquals(histogram.getCount(), 100_000);
+        Assert.assertEquals(histogram.getSum(), 4_950_000d);
+        Assert.assertEquals(histogram.percentile(50), 50d);
+    }
+}
@@ -66,6 +66,30 @@ public class MetricsTest {
         Assert.assertEquals(metrics.getMetric("m1").size(), 1);
     }
 
+    @Test
+    public void testMetricsWithoutSamples() {
+        Metrics metrics = new Metrics();
+        metrics.setRetainSamples(false);
+        Dimension dimension = new Dimension("Model", "mlp");
+        for (int i = 1; i <= 10; ++i) {
+            metrics.addMetric("m1", i, Unit.MICROSECONDS, dimension);
+        }
+        Assert.assertEquals(metrics.getMetric("m1").size(), 1);
+        Assert.assertEquals(metrics.latestMetric("m1").getValue().intValue(), 10);
+        Assert.assertEquals(metrics.getHistogram("m1").getCount(), 10);
+
+        Metric p90 = metrics.percentile("m1", 90);
+        Assert.assertEquals(p90.getMetricName(), "m1_p90");
+        Assert.assertEquals(p90.getValue().intValue(), 10);
+        Assert.assertEquals(p90.getUnit(), Unit.MICROSECONDS);
+        Assert.assertEquals(p90.getDimensions()[0].getValue(), "mlp");
+        Assert.assertEquals(metrics.mean("m1"), 5.5d);
+
+        metrics.setLimit(10);
+        metrics.addMetric("m1", 1, Unit.MICROSECONDS, dimension);
+        Assert.assertEquals(metrics.getHistogram("m1").getCount(), 1);
+    }
+
     @Test
     public void testParseMetrics() {
         String line = "Disk.Gigabytes:311|#Host:localhost,Model:resnet|1650953744320|g";
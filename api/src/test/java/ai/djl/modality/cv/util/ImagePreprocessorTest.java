@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.util;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.transform.CenterCrop;
+import ai.djl.modality.cv.transform.Normalize;
+import ai.djl.modality.cv.transform.RandomFlipLeftRight;
+import ai.djl.modality.cv.transform.Resize;
+import ai.djl.modality.cv.transform.ToTensor;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.Pipeline;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+public class ImagePreprocessorTest {
+
+    @Test
+    public void testFromPipeline() {
+        Pipeline pipeline = new Pipeline(new Resize(4, 4), new CenterCrop(), new ToTensor());
+        Assert.assertNotNull(ImagePreprocessor.fromPipeline(pipeline, Image.Flag.COLOR));
+
+        pipeline = new Pipeline(new Resize(4, 4), new ToTensor()).add(new RandomFlipLeftRight());
+        Assert.assertNull(ImagePreprocessor.fromPipeline(pipeline, Image.Flag.COLOR));
+
+        pipeline = new Pipeline(new Resize(4, 4, Image.Interpolation.BICUBIC), new ToTensor());
+        Assert.assertNull(ImagePreprocessor.fromPipeline(pipeline, Image.Flag.COLOR));
+
+        pipeline = new Pipeline(new Resize(4, 4));
+        Assert.assertNull(ImagePreprocessor.fromPipeline(pipeline, Image.Flag.COLOR));
+
+        pipeline = new Pipeline(new ToTensor(), new Normalize(new float[3], new float[3]));
+        Assert.assertNull(ImagePreprocessor.fromPipeline(pipeline, Image.Flag.GRAYSCALE));
+    }
+
+    @Test
+    public void testMatchPipeline() {
+        float[] mean = {0.485f, 0.456f, 0.406f};
+        float[] std = {0.229f, 0.224f, 0.225f};
+        Pipeline[] pipelines = {
+            new Pipeline(new CenterCrop(6, 4), new ToTensor(), new Normalize(mean, std)),
+            new Pipeline(new Resize(9, 7), new CenterCrop(), new ToTensor()),
+        };
+        int[] types = {
+            BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_INT_RGB,
+            BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_BYTE_GRAY
+        };
+        try (NDManager manager = NDManager.newBaseManager()) {
+            for (int type : types) {
+                Image image = newImage(9, 7, type);
+                for (Pipeline pipeline : pipelines) {
+                    for (Image.Flag flag : Image.Flag.values()) {
+                        if (flag == Image.Flag.GRAYSCALE && pipeline == pipelines[0]) {
+                            continue;
+                        }
+                        ImagePreprocessor preprocessor =
+                                ImagePreprocessor.fromPipeline(pipeline, flag);
+                        Assert.assertTrue(preprocessor.isSupported(image));
+                        NDArray actual = preprocessor.process(manager, image);
+                        NDArray expected =
+                                pipeline.transform(new NDList(image.toNDArray(manager, flag)))
+                                        .head();
+                        Assert.assertEquals(actual.getShape(), expected.getShape());
+                        Assert.assertTrue(actual.allClose(expected, 1e-5, 1e-5, false));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testResize() {
+        BufferedImage img = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        img.setRGB(0, 0, 0x000000);
+        img.setRGB(1, 0, 0x4080C0);
+        Image image = ImageFactory.getInstance().fromImage(img);
+        try (NDManager manager = NDManager.newBaseManager()) {
+            Pipeline pipeline = new Pipeline(new Resize(4, 1), new ToTensor());
+            NDArray array =
+                    ImagePreprocessor.fromPipeline(pipeline, Image.Flag.COLOR)
+                            .process(manager, image);
+            Assert.assertEquals(array.getShape(), new Shape(3, 1, 4));
+            float[] expected = new float[12];
+            int[] values = {0x40, 0x80, 0xC0};
+            float[] weights = {0, 0.25f, 0.75f, 1};
+            for (int c = 0; c < 3; ++c) {
+                for (int x = 0; x < 4; ++x) {
+                    expected[c * 4 + x] = values[c] * weights[x] / 255;
+                }
+            }
+            Assert.assertTrue(array.allClose(manager.create(expected, new Shape(3, 1, 4))));
+
+            pipeline = new Pipeline(new Resize(4, 1, Image.Interpolation.NEAREST), new ToTensor());
+            array =
+                    ImagePreprocessor.fromPipeline(pipeline, Image.Flag.GRAYSCALE)
+                            .process(manager, image);
+            float gray = Math.round(0.299f * 0x40 + 0.587f * 0x80 + 0.114f * 0xC0) / 255f;
+            Assert.assertEquals(array.toFloatArray(), new float[] {0, 0, gray, gray}, 1e-6f);
+        }
+    }
+
+    private static Image newImage(int width, int height, int type) {
+        Random random = new Random(42);
+        BufferedImage img = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                img.setRGB(x, y, random.nextInt());
+            }
+        }
+        return ImageFactory.getInstance().fromImage(img);
+    }
+}
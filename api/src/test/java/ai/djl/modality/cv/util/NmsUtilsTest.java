@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.util;
+
+import ai.djl.modality.cv.output.Rectangle;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class NmsUtilsTest {
+
+    @Test
+    public void testNms() {
+        float[] boxes = {
+            0, 0, 10, 10, // 0
+            1, 1, 11, 11, // 1, overlaps 0
+            20, 20, 30, 30, // 2
+            0, 0, 10, 9 // 3, overlaps 0
+        };
+        float[] scores = {0.8f, 0.9f, 0.5f, 0.7f};
+        int[] keep = NmsUtils.nms(boxes, scores, 4, 0.5f);
+        Assert.assertEquals(keep, new int[] {1, 2});
+
+        keep = NmsUtils.nms(boxes, scores, 3, 0.7f);
+        Assert.assertEquals(keep, new int[] {1, 0, 2});
+
+        int[] classIds = {1, 0, 1, 1};
+        keep = NmsUtils.batchedNms(boxes, scores, classIds, 4, 0.5f);
+        Assert.assertEquals(keep, new int[] {1, 0, 2});
+
+        Assert.assertEquals(NmsUtils.iou(boxes, 0, 2), 0f);
+        Assert.assertEquals(NmsUtils.iou(boxes, 0, 3), 0.9f, 1e-6);
+    }
+
+    @Test
+    public void testSoftNms() {
+        float[] boxes = {0, 0, 10, 10, 0, 0, 10, 9, 20, 20, 30, 30};
+        float[] scores = {0.9f, 0.8f, 0.6f};
+        int[] keep = NmsUtils.softNms(boxes, scores, 3, 0.5f, 0.1f);
+        Assert.assertEquals(keep, new int[] {0, 2, 1});
+        Assert.assertEquals(scores[0], 0.9f);
+        Assert.assertEquals(scores[2], 0.6f);
+        Assert.assertEquals(scores[1], 0.8f * (float) Math.exp(-0.81 / 0.5), 1e-6);
+
+        scores = new float[] {0.9f, 0.8f, 0.6f};
+        keep = NmsUtils.softNms(boxes, scores, 3, 0.5f, 0.5f);
+        Assert.assertEquals(keep, new int[] {0, 2});
+    }
+
+    @Test
+    public void testLargeInput() {
+        int count = 8000;
+        Random random = new Random(42);
+        float[] boxes = new float[count * 4];
+        float[] scores = new float[count];
+        List<Rectangle> rects = new ArrayList<>(count);
+        List<Double> values = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            float x = random.nextInt(600);
+            float y = random.nextInt(600);
+            float w = 10 + random.nextInt(30);
+            float h = 10 + random.nextInt(30);
+            boxes[i * 4] = x;
+            boxes[i * 4 + 1] = y;
+            boxes[i * 4 + 2] = x + w;
+            boxes[i * 4 + 3] = y + h;
+            scores[i] = random.nextFloat();
+            rects.add(new Rectangle(x, y, w, h));
+            values.add((double) scores[i]);
+        }
+
+        int[] keep = NmsUtils.nms(boxes, scores, count, 0.45f);
+        int[] expected = referenceNms(boxes, scores, count, 0.45f);
+        Assert.assertEquals(keep, expected);
+
+        List<Integer> list = Rectangle.nms(rects, values, 0.45f);
+        Assert.assertEquals(list.stream().mapToInt(Integer::intValue).toArray(), expected);
+    }
+
+    private static int[] referenceNms(float[] boxes, float[] scores, int count, float threshold) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(scores[b], scores[a]));
+        List<Integer> remaining = new ArrayList<>(Arrays.asList(order));
+        List<Integer> keep = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            int best = remaining.remove(0);
+            keep.add(best);
+            remaining.removeIf(j -> NmsUtils.iou(boxes, best, j) >= threshold);
+        }
+        return keep.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.bert;
+
+import ai.djl.modality.nlp.DefaultVocabulary;
+import ai.djl.modality.nlp.Vocabulary;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class WordpieceTokenizerTest {
+
+    private static final List<String> TOKENS =
+            Arrays.asList(
+                    "[UNK]", "[CLS]", "[SEP]", "un", "##aff", "##able", "a", "##a", "ab", "##b",
+                    "##ab", "b", "ba", "##ba", "abc", "##c", "hello", "world", "!", "##!");
+
+    @Test
+    public void testTokenize() {
+        Vocabulary vocabulary = newVocabulary();
+        WordpieceTokenizer tokenizer = new WordpieceTokenizer(vocabulary, "[UNK]", 10);
+        Assert.assertEquals(
+                tokenizer.tokenize("unaffable ab xyz"),
+                Arrays.asList("un", "##aff", "##able", "ab", "[UNK]"));
+        Assert.assertEquals(
+                tokenizer.tokenizeToIndices("unaffable ab xyz"), new long[] {3, 4, 5, 8, 0});
+        Assert.assertEquals(tokenizer.tokenize("aaaaaaaaaaa"), Arrays.asList("[UNK]"));
+
+        // compare with the reference greedy longest-match-first algorithm
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; ++i) {
+            StringBuilder sb = new StringBuilder();
+            int words = random.nextInt(4) + 1;
+            for (int j = 0; j < words; ++j) {
+                int length = random.nextInt(8) + 1;
+                for (int k = 0; k < length; ++k) {
+                    sb.append("abc!".charAt(random.nextInt(4)));
+                }
+                sb.append(' ');
+            }
+            String sentence = sb.toString();
+            Assert.assertEquals(
+                    tokenizer.tokenize(sentence), reference(vocabulary, sentence), sentence);
+        }
+    }
+
+    @Test
+    public void testBertFullTokenizer() {
+        BertFullTokenizer tokenizer = new BertFullTokenizer(newVocabulary(), true);
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            inputs.add(i % 2 == 0 ? "Hello, World!" : "Unaffable abc");
+        }
+        List<List<String>> tokens = tokenizer.batchTokenize(inputs);
+        List<long[]> indices = tokenizer.batchTokenizeToIndices(inputs);
+        Assert.assertEquals(tokens.size(), inputs.size());
+        Assert.assertEquals(tokens.get(0), Arrays.asList("hello", "[UNK]", "world", "!"));
+        Assert.assertEquals(tokens.get(1), Arrays.asList("un", "##aff", "##able", "abc"));
+        Assert.assertEquals(indices.get(0), new long[] {16, 0, 17, 18});
+        Assert.assertEquals(indices.get(99), tokenizer.tokenizeToIndices("Unaffable abc"));
+    }
+
+    private static Vocabulary newVocabulary() {
+        return DefaultVocabulary.builder()
+                .add(TOKENS)
+                .optUnknownToken("[UNK]")
+                .optMinFrequency(1)
+                .build();
+    }
+
+    private static List<String> reference(Vocabulary vocabulary, String sentence) {
+        List<String> output = new ArrayList<>();
+        for (String token : sentence.trim().split(" ")) {
+            List<String> subTokens = new ArrayList<>();
+            int start = 0;
+            boolean isBad = false;
+            while (start < token.length()) {
+                int end = token.length();
+                String current = null;
+                while (start < end) {
+                    String sub = (start > 0 ? "##" : "") + token.substring(start, end);
+                    if (vocabulary.contains(sub)) {
+                        current = sub;
+                        break;
+                    }
+                    end--;
+                }
+                if (current == null) {
+                    isBad = true;
+                    break;
+                }
+                subTokens.add(current);
+                start = end;
+            }
+            if (isBad) {
+                output.add("[UNK]");
+            } else {
+                output.addAll(subTokens);
+            }
+        }
+        return output;
+    }
+}
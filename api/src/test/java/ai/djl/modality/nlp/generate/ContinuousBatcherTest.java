@@ -0,0 +1,240 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.generate;
+
+import ai.djl.Device;
+import ai.djl.inference.streaming.ChunkedBytesSupplier;
+import ai.djl.ndarray.BytesSupplier;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.translate.TranslateException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+public class ContinuousBatcherTest {
+
+    private static final long EOS = new SearchConfig().getEosTokenId();
+
+    @Test
+    public void testTokenBudget() throws Exception {
+        try (NDManager manager = NDManager.newBaseManager(Device.cpu());
+                CountingScheduler scheduler = new CountingScheduler(manager);
+                ContinuousBatcher batcher = newBatcher(scheduler, manager, 12)) {
+            // prompt of 1 token plus 5 new tokens, two of them fit into the budget
+            ContinuousBatcher.Generation first = batcher.submit(new long[] {1}, 5);
+            waitFor(() -> batcher.getActiveCount() == 1);
+            ContinuousBatcher.Generation second = batcher.submit(new long[] {1}, 5);
+            ContinuousBatcher.Generation third = batcher.submit(new long[] {1}, 5);
+            scheduler.steps.release();
+            waitFor(() -> batcher.getActiveCount() == 2 && batcher.getPendingCount() == 1);
+
+            scheduler.steps.release(100);
+            long[] expected = {1, 2, 3, 4, 5, 6};
+            Assert.assertEquals(first.getResult().get(10, TimeUnit.SECONDS), expected);
+            Assert.assertEquals(second.getResult().get(10, TimeUnit.SECONDS), expected);
+            Assert.assertEquals(third.getResult().get(10, TimeUnit.SECONDS), expected);
+            Assert.assertEquals(scheduler.maxBatchSize, 2);
+
+            // the generation budget is capped by maxSeqLength
+            Assert.assertThrows(
+                    IllegalArgumentException.class, () -> batcher.submit(new long[13]));
+            Assert.assertEquals(batcher.submit(new long[] {7, 8}).cost, 12);
+        }
+    }
+
+    @Test
+    public void testStreamingAndEviction() throws Exception {
+        try (NDManager manager = NDManager.newBaseManager(Device.cpu());
+                CountingScheduler scheduler = new CountingScheduler(manager);
+                ContinuousBatcher batcher = newBatcher(scheduler, manager, 100)) {
+            // stops with the EOS token after three steps
+            ContinuousBatcher.Generation eos = batcher.submit(new long[] {EOS - 3});
+            ContinuousBatcher.Generation longer = batcher.submit(new long[] {1, 2}, 6);
+            scheduler.steps.release(3);
+
+            long[] result = eos.getResult().get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(result, new long[] {EOS - 3, EOS - 2, EOS - 1, EOS});
+            ChunkedBytesSupplier output = eos.getOutput();
+            for (long token = EOS - 2; token <= EOS; ++token) {
+                byte[] chunk = output.nextChunk(10, TimeUnit.SECONDS);
+                Assert.assertEquals(new String(chunk, StandardCharsets.UTF_8), String.valueOf(token));
+            }
+            Assert.assertFalse(output.hasNext());
+            // the finished sequence is evicted while the other one keeps running
+            Assert.assertEquals(batcher.getActiveCount(), 1);
+            Assert.assertFalse(longer.getResult().isDone());
+
+            scheduler.steps.release(100);
+            Assert.assertEquals(
+                    longer.getResult().get(10, TimeUnit.SECONDS),
+                    new long[] {1, 2, 3, 4, 5, 6, 7, 8});
+            StringBuilder sb = new StringBuilder();
+            output = longer.getOutput();
+            while (output.hasNext()) {
+                byte[] chunk = output.nextChunk(10, TimeUnit.SECONDS);
+                sb.append(new String(chunk, StandardCharsets.UTF_8));
+            }
+            Assert.assertEquals(sb.toString(), "345678");
+            Assert.assertEquals(batcher.getActiveCount(), 0);
+        }
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        try (NDManager manager = NDManager.newBaseManager(Device.cpu());
+                CountingScheduler scheduler = new CountingScheduler(manager);
+                ContinuousBatcher batcher = newBatcher(scheduler, manager, 100)) {
+            scheduler.fail = true;
+            ContinuousBatcher.Generation failed = batcher.submit(new long[] {1, 2});
+            scheduler.steps.release();
+
+            ExecutionException e =
+                    Assert.expectThrows(
+                            ExecutionException.class,
+                            () -> failed.getResult().get(10, TimeUnit.SECONDS));
+            Assert.assertTrue(e.getCause() instanceof TranslateException);
+            Assert.assertEquals(failed.getOutput().nextChunk(10, TimeUnit.SECONDS).length, 0);
+            Assert.assertFalse(failed.getOutput().hasNext());
+            // the arrays of the dropped batch are released
+            Assert.assertTrue(scheduler.lastOutputIds.isReleased());
+            Assert.assertNull(scheduler.seqBatcher);
+
+            // the batcher keeps serving new requests
+            scheduler.fail = false;
+            ContinuousBatcher.Generation next = batcher.submit(new long[] {3}, 2);
+            scheduler.steps.release(2);
+            Assert.assertEquals(next.getResult().get(10, TimeUnit.SECONDS), new long[] {3, 4, 5});
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        try (NDManager manager = NDManager.newBaseManager(Device.cpu());
+                CountingScheduler scheduler = new CountingScheduler(manager)) {
+            ContinuousBatcher batcher = newBatcher(scheduler, manager, 100);
+            ContinuousBatcher.Generation running = batcher.submit(new long[] {1, 2});
+            waitFor(() -> batcher.getActiveCount() == 1);
+            batcher.close();
+
+            Assert.assertThrows(
+                    ExecutionException.class, () -> running.getResult().get(10, TimeUnit.SECONDS));
+            Assert.assertEquals(running.getOutput().nextChunk(10, TimeUnit.SECONDS).length, 0);
+            Assert.assertEquals(batcher.getActiveCount(), 0);
+            Assert.assertEquals(batcher.getPendingCount(), 0);
+            Assert.assertThrows(IllegalStateException.class, () -> batcher.submit(new long[] {3}));
+        }
+    }
+
+    private static ContinuousBatcher newBatcher(
+            SeqBatchScheduler scheduler, NDManager manager, int maxTokens) {
+        return new ContinuousBatcher(
+                scheduler, manager, 4, maxTokens, t -> BytesSupplier.wrap(String.valueOf(t)));
+    }
+
+    private static void waitFor(BooleanSupplier condition)
+            throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Condition not met.");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /** A scheduler whose next token is the last token plus one, each step waits for a permit. */
+    private static final class CountingScheduler extends SeqBatchScheduler
+            implements AutoCloseable {
+
+        Semaphore steps = new Semaphore(0);
+        volatile boolean fail;
+        volatile NDArray lastOutputIds;
+        int maxBatchSize;
+
+        CountingScheduler(NDManager manager) {
+            super(null, newConfig());
+            this.manager = manager.newSubManager();
+        }
+
+        private static SearchConfig newConfig() {
+            SearchConfig config = new SearchConfig();
+            config.setMaxSeqLength(12);
+            config.setPadTokenId(0);
+            return config;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public SeqBatcher initForward(NDArray inputIds, NDArray batchUids) {
+            NDArray offSets = computeOffSets(inputIds, config);
+            return new SeqBatcher(new OutputIds(inputIds), batchUids, offSets, manager);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected NDArray inferenceCall() throws TranslateException {
+            try {
+                steps.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TranslateException(e);
+            }
+            NDArray pastOutputIds = seqBatcher.getData().getPastOutputIds();
+            lastOutputIds = pastOutputIds;
+            if (fail) {
+                throw new TranslateException("Forward failed.");
+            }
+            maxBatchSize = Math.max(maxBatchSize, Math.toIntExact(seqBatcher.batchSize));
+            NDArray outputIds = pastOutputIds.get(":, -1:").add(1);
+            seqBatcher.data = new OutputIds(pastOutputIds.concat(outputIds, 1));
+            seqBatcher.seqLength++;
+            seqBatcher.exitCriteria(outputIds, config.getMaxSeqLength(), config.getEosTokenId());
+            return outputIds;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            steps.release(100);
+            manager.close();
+        }
+    }
+
+    private static final class OutputIds extends BatchTensorList {
+
+        OutputIds(NDArray pastOutputIds) {
+            super(pastOutputIds, null, null, new long[] {1});
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public BatchTensorList fromList(NDList inputList, long[] seqDimOrder) {
+            return new OutputIds(inputList.get(0));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDList getList() {
+            return new NDList(getPastOutputIds());
+        }
+    }
+}
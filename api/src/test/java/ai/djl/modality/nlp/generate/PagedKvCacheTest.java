@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.generate;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PagedKvCacheTest {
+
+    @Test
+    public void testPagedKvCache() {
+        try (NDManager manager = NDManager.newBaseManager(Device.cpu());
+                PagedKvCache cache = new PagedKvCache(manager, 2, 2, 3, DataType.FLOAT32, 2, 8)) {
+            // two sequences, the first one has one left padding position
+            NDArray prompt = manager.arange(36f).reshape(2, 2, 3, 3);
+            long[] uids = {1, 2};
+            cache.append(uids, new long[] {1, 0}, new NDList(prompt, prompt.neg()));
+            Assert.assertEquals(cache.getLength(1), 2);
+            Assert.assertEquals(cache.getLength(2), 3);
+            Assert.assertEquals(cache.getFreeBlocks(), 4);
+
+            NDList kv = cache.gather(uids);
+            Assert.assertEquals(kv.size(), 2);
+            Assert.assertEquals(kv.get(0).getShape(), new Shape(2, 2, 3, 3));
+            assertEquals(kv.get(0), prompt.mul(mask(manager, 1)));
+            assertEquals(kv.get(1), prompt.neg().mul(mask(manager, 1)));
+
+            // decoding step
+            NDArray step = manager.arange(100f, 112f).reshape(2, 2, 1, 3);
+            cache.append(uids, null, new NDList(step, step.neg()));
+            Assert.assertEquals(cache.getFreeBlocks(), 3);
+            kv = cache.gather(uids);
+            NDArray expected = prompt.mul(mask(manager, 1)).concat(step, 2);
+            assertEquals(kv.get(0), expected);
+
+            // evict the first sequence, the second one is gathered without padding
+            cache.free(1);
+            Assert.assertEquals(cache.getFreeBlocks(), 5);
+            kv = cache.gather(new long[] {2});
+            assertEquals(kv.get(0), expected.get("1:"));
+
+            // keep only the last token
+            cache.truncate(2, 1);
+            Assert.assertEquals(cache.getFreeBlocks(), 6);
+            kv = cache.gather(new long[] {2});
+            assertEquals(kv.get(1), step.neg().get("1:"));
+
+            // new sequences reuse the released blocks
+            NDArray large = manager.ones(new Shape(1, 2, 14, 3));
+            Assert.assertThrows(
+                    IllegalStateException.class,
+                    () -> cache.append(new long[] {3}, null, new NDList(large, large)));
+            Assert.assertEquals(cache.getLength(3), 0);
+            NDArray fit = manager.ones(new Shape(1, 2, 12, 3));
+            cache.append(new long[] {3}, null, new NDList(fit, fit));
+            Assert.assertEquals(cache.getFreeBlocks(), 0);
+            assertEquals(cache.gather(new long[] {3}).get(0), fit);
+        }
+    }
+
+    @Test
+    public void testIncrementalGather() {
+        try (NDManager manager = NDManager.newBaseManager(Device.cpu());
+                PagedKvCache cache = new PagedKvCache(manager, 1, 1, 2, DataType.FLOAT32, 2, 16)) {
+            long[] uids = {1, 2};
+            NDArray expected = manager.arange(12f).reshape(2, 1, 3, 2);
+            cache.append(uids, null, new NDList(expected));
+            assertEquals(cache.gather(uids, 3).get(0), expected);
+
+            // every step writes the new token only, the dense view grows when it is full
+            for (int i = 0; i < 4; ++i) {
+                NDArray step = manager.arange(100f + i * 4, 104f + i * 4).reshape(2, 1, 1, 2);
+                cache.append(uids, null, new NDList(step));
+                expected = expected.concat(step, 2);
+                assertEquals(cache.gather(uids, 4 + i).get(0), expected);
+            }
+
+            // a different batch is gathered from the block tables
+            NDArray padded = manager.zeros(new Shape(1, 1, 1, 2)).concat(expected.get("1:"), 2);
+            assertEquals(cache.gather(new long[] {2}, 8).get(0), padded);
+            Assert.assertThrows(
+                    IllegalArgumentException.class, () -> cache.gather(new long[] {2}, 6));
+        }
+    }
+
+    @Test
+    public void testGatherWithoutDenseViews() {
+        try (NDManager manager = NDManager.newBaseManager(Device.cpu());
+                PagedKvCache cache = new PagedKvCache(manager, 1, 1, 2, DataType.FLOAT32, 2, 16)) {
+            cache.setKeepDenseViews(false);
+            long[] uids = {1, 2};
+            NDArray expected = manager.arange(12f).reshape(2, 1, 3, 2);
+            cache.append(uids, null, new NDList(expected));
+            NDArray first = cache.gather(uids, 3).get(0);
+            assertEquals(first, expected);
+
+            // every step is gathered from the block tables, the previous result is not modified
+            for (int i = 0; i < 4; ++i) {
+                NDArray step = manager.arange(100f + i * 4, 104f + i * 4).reshape(2, 1, 1, 2);
+                cache.append(uids, null, new NDList(step));
+                expected = expected.concat(step, 2);
+                assertEquals(cache.gather(uids, 4 + i).get(0), expected);
+            }
+            assertEquals(first, manager.arange(12f).reshape(2, 1, 3, 2));
+
+            NDArray padded = manager.zeros(new Shape(1, 1, 1, 2)).concat(expected.get("1:"), 2);
+            assertEquals(cache.gather(new long[] {2}, 8).get(0), padded);
+        }
+    }
+
+    private static NDArray mask(NDManager manager, int padding) {
+        NDArray mask = manager.ones(new Shape(2, 1, 3, 1));
+        mask.set(new NDIndex("0, :, :{}", padding), 0f);
+        return mask;
+    }
+
+    private static void assertEquals(NDArray actual, NDArray expected) {
+        Assert.assertEquals(actual.getShape(), expected.getShape());
+        // the padding is 0.0 while a negated expectation holds -0.0
+        Assert.assertEquals(actual.toFloatArray(), expected.toFloatArray(), 0f);
+    }
+}
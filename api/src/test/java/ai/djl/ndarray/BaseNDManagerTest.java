@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import ai.djl.Device;
+import ai.djl.engine.Engine;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class BaseNDManagerTest {
+
+    private static final TestNDManager SYSTEM = new TestNDManager(null);
+
+    @Test
+    public void testSubManagerChurn() {
+        try (NDManager root = SYSTEM.newSubManager()) {
+            Set<String> uids = new HashSet<>();
+            for (int i = 0; i < 10_000; ++i) {
+                try (NDManager sub = root.newSubManager()) {
+                    Assert.assertTrue(uids.add(sub.getName()));
+                }
+            }
+            Assert.assertTrue(root.getManagedArrays().isEmpty());
+            Assert.assertTrue(root.toString().endsWith("Resource size: 0"));
+        }
+    }
+
+    @Test
+    public void testConcurrentAttach() {
+        NDManager root = SYSTEM.newSubManager();
+        AtomicInteger closed = new AtomicInteger();
+        IntStream.range(0, 1000)
+                .parallel()
+                .forEach(
+                        i -> {
+                            NDManager sub = root.newSubManager();
+                            sub.attachInternal("r" + i, closed::incrementAndGet);
+                            if (i % 2 == 0) {
+                                sub.close();
+                            }
+                        });
+        Assert.assertEquals(closed.get(), 500);
+        root.close();
+        Assert.assertEquals(closed.get(), 1000);
+        Assert.assertThrows(IllegalStateException.class, () -> root.attachInternal("x", () -> {}));
+    }
+
+    @Test
+    public void testArena() {
+        BufferPool pool = new BufferPool();
+        try (NDManager root = SYSTEM.newSubManager()) {
+            ByteBuffer plain = root.allocateDirect(100);
+            Assert.assertEquals(plain.capacity(), 100);
+
+            for (int i = 0; i < 10; ++i) {
+                try (NDManager arena = root.newArena(pool)) {
+                    ByteBuffer bb = arena.allocateDirect(1000);
+                    Assert.assertTrue(bb.isDirect());
+                    Assert.assertEquals(bb.capacity(), 1000);
+                    Assert.assertEquals(bb.order(), ByteOrder.nativeOrder());
+                    try (NDManager sub = arena.newSubManager()) {
+                        Assert.assertEquals(sub.allocateDirect(3000).remaining(), 3000);
+                    }
+                    arena.allocateDirect(1000);
+                }
+            }
+        }
+        Assert.assertEquals(pool.getMisses(), 3);
+        Assert.assertEquals(pool.getHits(), 27);
+        Assert.assertEquals(pool.getPooledBytes(), 1024 * 2 + 4096);
+        pool.clear();
+        Assert.assertEquals(pool.getPooledBytes(), 0);
+    }
+
+    @Test
+    public void testArenaKeepsEscapedArrays() {
+        BufferPool pool = new BufferPool();
+        try (NDManager root = SYSTEM.newSubManager()) {
+            NDArray detached;
+            NDArray attached;
+            try (NDManager arena = root.newArena(pool)) {
+                detached = arena.create(new float[] {1f, 2f, 3f});
+                detached.detach();
+                attached = arena.create(new float[] {4f, 5f, 6f});
+                attached.attach(root);
+                arena.create(new float[] {7f, 8f, 9f});
+            }
+            // only the buffer of the array closed with the arena is recycled
+            Assert.assertEquals(pool.getPooledBytes(), 64);
+
+            try (NDManager arena = root.newArena(pool)) {
+                for (int i = 0; i < 3; ++i) {
+                    arena.allocateDirect(12).putFloat(0, -1f);
+                }
+            }
+            Assert.assertEquals(pool.getHits(), 1);
+            Assert.assertEquals(detached.toFloatArray(), new float[] {1f, 2f, 3f});
+            Assert.assertEquals(attached.toFloatArray(), new float[] {4f, 5f, 6f});
+        }
+    }
+
+    private static final class TestNDManager extends BaseNDManager {
+
+        TestNDManager(NDManager parent) {
+            super(parent, Device.cpu());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDArray from(NDArray array) {
+            return array;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDManager newSubManager(Device device) {
+            TestNDManager manager = new TestNDManager(this);
+            attachUncappedInternal(manager.uid, manager);
+            return manager;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Engine getEngine() {
+            return null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public NDArray create(Buffer data, Shape shape, DataType dataType) {
+            ByteBuffer bb = allocateDirect(Math.toIntExact(shape.size()) * 4);
+            copyBuffer(data, bb);
+            return new TestNDArray(this, bb, shape);
+        }
+    }
+
+    private static final class TestNDArray extends NDArrayAdapter {
+
+        private ByteBuffer data;
+
+        TestNDArray(NDManager manager, ByteBuffer data, Shape shape) {
+            super(manager, shape, DataType.FLOAT32, UUID.randomUUID().toString());
+            this.data = data;
+            manager.attachInternal(uid, this);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ByteBuffer toByteBuffer(boolean tryDirect) {
+            ByteBuffer bb = data.duplicate().order(ByteOrder.nativeOrder());
+            bb.rewind();
+            return bb;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void intern(NDArray replaced) {
+            throw new UnsupportedOperationException();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void attach(NDManager manager) {
+            detach();
+            this.manager = manager;
+            manager.attachInternal(getUid(), this);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void detach() {
+            manager.detachInternal(getUid());
+            manager = SYSTEM;
+        }
+    }
+}
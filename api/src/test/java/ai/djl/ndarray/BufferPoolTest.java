@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testBufferPool() {
+        BufferPool pool = new BufferPool(4096, 8192);
+        ByteBuffer small = pool.acquire(1);
+        Assert.assertEquals(small.capacity(), 64);
+        ByteBuffer buf = pool.acquire(1025);
+        Assert.assertEquals(buf.capacity(), 2048);
+        Assert.assertEquals(pool.getMisses(), 2);
+
+        buf.putLong(0, -1L);
+        buf.put(1999, (byte) 1);
+        pool.release(buf);
+        Assert.assertEquals(pool.getPooledBytes(), 2048);
+        buf.position(10);
+        ByteBuffer reused = pool.acquire(2000);
+        Assert.assertSame(reused, buf);
+        Assert.assertEquals(reused.position(), 0);
+        Assert.assertEquals(reused.getLong(0), 0L);
+        Assert.assertEquals(reused.get(1999), 0);
+        Assert.assertEquals(pool.getHits(), 1);
+        Assert.assertEquals(pool.getPooledBytes(), 0);
+
+        // larger than max buffer size, not pooled
+        ByteBuffer large = pool.acquire(5000);
+        Assert.assertEquals(large.capacity(), 5000);
+        pool.release(large);
+        Assert.assertEquals(pool.getPooledBytes(), 0);
+
+        // exceeds max pooled bytes
+        ByteBuffer[] buffers = {pool.acquire(4096), pool.acquire(4096), pool.acquire(4000)};
+        for (ByteBuffer bb : buffers) {
+            pool.release(bb);
+        }
+        Assert.assertEquals(pool.getPooledBytes(), 8192);
+    }
+}
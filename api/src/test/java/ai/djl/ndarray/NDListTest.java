@@ -13,12 +13,20 @@
 package ai.djl.ndarray;
 
 import ai.djl.Device;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.util.AlignedDataOutputStream;
+import ai.djl.util.AlignedFormatConverter;
+import ai.djl.util.MappedDataInputStream;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 public class NDListTest {
 
@@ -50,4 +58,52 @@ public class NDListTest {
             Assert.assertEquals(list.get(0).toByteArray(), new byte[] {0, 1, 2, 3, 4, 5});
         }
     }
+
+    @Test
+    public void testAlignedEncoding() throws IOException {
+        Path file = Paths.get("build/tmp/aligned.ndlist");
+        Files.createDirectories(file.getParent());
+        try (NDManager manager = NDManager.newBaseManager(Device.cpu())) {
+            NDArray array = manager.arange(1f, 17f).reshape(4, 4);
+            array.setName("weight");
+            NDList list = new NDList(manager.create(new int[] {1, 2, 3}), array);
+            try (AlignedDataOutputStream os =
+                    new AlignedDataOutputStream(Files.newOutputStream(file))) {
+                list.encode(os);
+            }
+
+            byte[] data = Files.readAllBytes(file);
+            byte[] expected = array.toByteArray();
+            int offset = indexOf(data, expected);
+            Assert.assertEquals(offset % 64, 0);
+
+            NDList decoded = NDList.decode(manager, data);
+            Assert.assertTrue(decoded.get(1).contentEquals(array));
+            Assert.assertEquals(decoded.get(1).getName(), "weight");
+
+            try (MappedDataInputStream is = new MappedDataInputStream(file)) {
+                decoded = NDList.decode(manager, is);
+            }
+            Assert.assertEquals(decoded.size(), 2);
+            Assert.assertEquals(decoded.get(1).getShape(), new Shape(4, 4));
+            Assert.assertEquals(decoded.get(0).toIntArray(), new int[] {1, 2, 3});
+            Assert.assertEquals(decoded.get(1).toFloatArray(), array.toFloatArray());
+
+            // the regular format is readable by all versions
+            Path regular = Paths.get("build/tmp/regular.ndlist");
+            AlignedFormatConverter.convert(file, regular, false);
+            Assert.assertEquals(Files.readAllBytes(regular), list.encode());
+            AlignedFormatConverter.convert(regular, file, true);
+            Assert.assertEquals(Files.readAllBytes(file), data);
+        }
+    }
+
+    private static int indexOf(byte[] data, byte[] target) {
+        for (int i = 0; i <= data.length - target.length; ++i) {
+            if (Arrays.equals(Arrays.copyOfRange(data, i, i + target.length), target)) {
+                return i;
+            }
+        }
+        return -1;
+    }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn.tree;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.training.ParameterStore;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TreeEnsembleTest {
+
+    private static final double NAN = Double.NaN;
+
+    @Test
+    public void testPredict() {
+        TreeEnsemble ensemble = newBuilder(1).build();
+        Assert.assertEquals(ensemble.getNumTrees(), 2);
+        double[] data = {0, 0, 1, 1, 1, 3, 1, NAN, NAN, 5, 0.5, 2};
+        double[] expected = {1.5, 2.5, 3.5, 2.5, 1.5, 1.5};
+        Assert.assertEquals(ensemble.predict(data, 6, false), expected);
+
+        // zero goes to the default child
+        TreeEnsemble zero =
+                TreeEnsemble.builder()
+                        .setNumFeatures(1)
+                        .addTree(
+                                0,
+                                new int[] {0},
+                                new double[] {-1},
+                                new int[] {~0},
+                                new int[] {~1},
+                                new byte[] {TreeEnsemble.MISSING_ZERO},
+                                new boolean[] {true},
+                                new double[] {1, 2})
+                        .build();
+        Assert.assertEquals(
+                zero.predict(new double[] {0, NAN, 1, -2}, 4, false), new double[] {1, 1, 2, 1});
+
+        Assert.assertThrows(
+                IllegalArgumentException.class, () -> ensemble.predict(new double[3], 2, false));
+    }
+
+    @Test
+    public void testTransform() {
+        double[] data = {0, 0, 1, 3};
+        TreeEnsemble sigmoid = newBuilder(1).optTransform(TreeEnsemble.Transform.SIGMOID).build();
+        double[] out = sigmoid.predict(data, 2, false);
+        Assert.assertEquals(out[0], 1 / (1 + Math.exp(-1.5)), 1e-12);
+        Assert.assertEquals(sigmoid.predict(data, 2, true), new double[] {1.5, 3.5});
+
+        TreeEnsemble softmax =
+                newBuilder(2)
+                        .optBaseScore(0.5)
+                        .optTransform(TreeEnsemble.Transform.SOFTMAX)
+                        .build();
+        out = softmax.predict(data, 2, false);
+        Assert.assertEquals(out.length, 4);
+        double sum = Math.exp(1.5) + Math.exp(1);
+        Assert.assertEquals(out[0], Math.exp(1.5) / sum, 1e-12);
+        Assert.assertEquals(out[1], Math.exp(1) / sum, 1e-12);
+        Assert.assertEquals(softmax.predict(data, 2, true), new double[] {1.5, 1, 3.5, 1});
+
+        TreeEnsemble argmax =
+                newBuilder(2)
+                        .optBaseScore(1)
+                        .optTransform(TreeEnsemble.Transform.ARGMAX)
+                        .addTree(
+                                1,
+                                new int[0],
+                                new double[0],
+                                new int[0],
+                                new int[0],
+                                new byte[0],
+                                new boolean[0],
+                                new double[] {1.2})
+                        .build();
+        Assert.assertEquals(argmax.getOutputSize(false), 1);
+        Assert.assertEquals(argmax.predict(data, 2, false), new double[] {1, 0});
+
+        TreeEnsemble average = newBuilder(1).optAverageOutput(true).build();
+        Assert.assertEquals(average.predict(data, 2, false), new double[] {0.75, 1.75});
+        Assert.assertEquals(average.predict(data, 2, true), new double[] {1.5, 3.5});
+    }
+
+    @Test
+    public void testParallel() {
+        TreeEnsemble ensemble = newBuilder(1).build();
+        Random random = new Random(0);
+        int rows = 5000;
+        double[] data = new double[rows * 2];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = random.nextInt(5) == 0 ? NAN : random.nextDouble() * 4;
+        }
+        double[] batch = ensemble.predict(data, rows, false);
+        for (int i = 0; i < rows; ++i) {
+            double[] row = Arrays.copyOfRange(data, i * 2, i * 2 + 2);
+            Assert.assertEquals(batch[i], ensemble.predict(row, 1, false)[0]);
+        }
+    }
+
+    @Test
+    public void testBlock() {
+        TreeEnsembleBlock block = new TreeEnsembleBlock(newBuilder(1).build());
+        try (NDManager manager = NDManager.newBaseManager()) {
+            ParameterStore ps = new ParameterStore(manager, false);
+            NDArray array = manager.create(new float[] {0, 0, 1, 3}, new Shape(2, 2));
+            NDArray output = block.forward(ps, new NDList(array), false).singletonOrThrow();
+            Assert.assertEquals(output.getDataType(), DataType.FLOAT32);
+            Assert.assertEquals(output.toFloatArray(), new float[] {1.5f, 3.5f});
+
+            array = manager.create(new double[] {1, 1}, new Shape(1, 2));
+            output = block.forward(ps, new NDList(array), false).singletonOrThrow();
+            Assert.assertEquals(output.getDataType(), DataType.FLOAT64);
+            Assert.assertEquals(output.toDoubleArray(), new double[] {2.5});
+        }
+    }
+
+    /**
+     * Builds f0 <= 0.5 ? 1 : (f1 <= 2 ? 2 : 3) for the first output and a constant 0.5 tree for the
+     * last output.
+     */
+    private static TreeEnsemble.Builder newBuilder(int numOutputs) {
+        return TreeEnsemble.builder()
+                .setNumFeatures(2)
+                .optNumOutputs(numOutputs)
+                .addTree(
+                        0,
+                        new int[] {0, 1},
+                        new double[] {0.5, 2},
+                        new int[] {~0, ~1},
+                        new int[] {1, ~2},
+                        new byte[] {TreeEnsemble.MISSING_NONE, TreeEnsemble.MISSING_NAN},
+                        new boolean[] {false, true},
+                        new double[] {1, 2, 3})
+                .addTree(
+                        numOutputs - 1,
+                        new int[0],
+                        new double[0],
+                        new int[0],
+                        new int[0],
+                        new byte[0],
+                        new boolean[0],
+                        new double[] {0.5});
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.repository;
+
+import ai.djl.util.Progress;
+import ai.djl.util.Utils;
+import ai.djl.util.ZipUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SimpleUrlRepositoryTest {
+
+    private HttpServer server;
+    private volatile byte[] content;
+    private volatile String etag;
+    private byte[] data;
+    private byte[] content1;
+    private byte[] data2;
+    private byte[] content2;
+    private List<String> ranges = new CopyOnWriteArrayList<>();
+    private volatile int failAfter = -1;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        Path dir = Paths.get("build/tmp/download/model");
+        Utils.deleteQuietly(dir.getParent());
+        Files.createDirectories(dir);
+        data = new byte[300_000];
+        new Random(42).nextBytes(data);
+        Files.write(dir.resolve("model.bin"), data);
+        Path zipFile = dir.resolveSibling("model.zip");
+        ZipUtils.zip(dir, zipFile, false);
+        content1 = Files.readAllBytes(zipFile);
+
+        data2 = new byte[300_000];
+        new Random(7).nextBytes(data2);
+        Files.write(dir.resolve("model.bin"), data2);
+        ZipUtils.zip(dir, zipFile, false);
+        content2 = Files.readAllBytes(zipFile);
+        setContent(content1, "\"v1\"");
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        server.stop(0);
+        System.clearProperty("DJL_DOWNLOAD_THREADS");
+        System.clearProperty("DJL_DOWNLOAD_CHUNK_SIZE");
+    }
+
+    @Test
+    public void testResumeDownload() throws IOException {
+        System.setProperty("DJL_DOWNLOAD_THREADS", "1");
+        Repository repo = newRepository("resume.zip");
+        Artifact artifact = repo.resolve(repo.getResources().get(0), null);
+        Path dir = repo.getResourceDirectory(artifact);
+        Utils.deleteQuietly(dir);
+
+        ranges.clear();
+        failAfter = content.length / 2;
+        Assert.assertThrows(IOException.class, () -> repo.prepare(artifact));
+        Assert.assertFalse(Files.exists(dir));
+
+        failAfter = -1;
+        CountingProgress progress = new CountingProgress();
+        repo.prepare(artifact, progress);
+        Assert.assertEquals(Files.readAllBytes(dir.resolve("model.bin")), data);
+        Assert.assertEquals(progress.count.get(), content.length);
+        // the second request only downloads the missing bytes
+        Assert.assertEquals(ranges.size(), 2);
+        Assert.assertNull(ranges.get(0));
+        Assert.assertNotNull(ranges.get(1));
+        Assert.assertTrue(ranges.get(1).startsWith("bytes="));
+        Assert.assertNotEquals(ranges.get(1), "bytes=0-");
+    }
+
+    @Test
+    public void testResumeChangedContent() throws IOException {
+        System.setProperty("DJL_DOWNLOAD_THREADS", "1");
+        Repository repo = newRepository("changed.zip");
+        Artifact artifact = repo.resolve(repo.getResources().get(0), null);
+        Path dir = repo.getResourceDirectory(artifact);
+        Utils.deleteQuietly(dir);
+
+        try {
+            failAfter = content.length / 2;
+            Assert.assertThrows(IOException.class, () -> repo.prepare(artifact));
+
+            // the partial file of the old content must not be resumed
+            failAfter = -1;
+            setContent(content2, "\"v2\"");
+            repo.prepare(artifact);
+            Assert.assertEquals(Files.readAllBytes(dir.resolve("model.bin")), data2);
+        } finally {
+            setContent(content1, "\"v1\"");
+        }
+    }
+
+    @Test
+    public void testLockedPartFile() throws IOException {
+        System.setProperty("DJL_DOWNLOAD_THREADS", "1");
+        Repository repo = newRepository("locked.zip");
+        Artifact artifact = repo.resolve(repo.getResources().get(0), null);
+        Path dir = repo.getResourceDirectory(artifact);
+        Utils.deleteQuietly(dir);
+
+        // another process is downloading the same file
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/locked.zip";
+        Path partFile = dir.toAbsolutePath().resolveSibling('.' + Utils.hash(url) + ".part");
+        Files.createDirectories(partFile.getParent());
+        byte[] partial = Arrays.copyOf(content, 1000);
+        Files.write(partFile, partial);
+        Path lockFile = partFile.resolveSibling(partFile.getFileName() + ".lock");
+        try (FileChannel channel =
+                        FileChannel.open(
+                                lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock ignore = channel.lock()) {
+            ranges.clear();
+            repo.prepare(artifact);
+            Assert.assertEquals(Files.readAllBytes(dir.resolve("model.bin")), data);
+            Assert.assertEquals(Files.readAllBytes(partFile), partial);
+            Assert.assertEquals(ranges.size(), 1);
+            Assert.assertNull(ranges.get(0));
+        } finally {
+            Utils.deleteQuietly(partFile);
+        }
+    }
+
+    @Test
+    public void testChunkedDownload() throws IOException {
+        System.setProperty("DJL_DOWNLOAD_THREADS", "4");
+        System.setProperty("DJL_DOWNLOAD_CHUNK_SIZE", "32768");
+        Repository repo = newRepository("chunked.zip");
+        Artifact artifact = repo.resolve(repo.getResources().get(0), null);
+        Path dir = repo.getResourceDirectory(artifact);
+        Utils.deleteQuietly(dir);
+
+        ranges.clear();
+        CountingProgress progress = new CountingProgress();
+        repo.prepare(artifact, progress);
+        Assert.assertEquals(Files.readAllBytes(dir.resolve("model.bin")), data);
+        Assert.assertEquals(progress.count.get(), content.length);
+        long chunks = (content.length + 32767) / 32768;
+        Assert.assertEquals(ranges.stream().filter(r -> r != null).count(), chunks);
+    }
+
+    private Repository newRepository(String file) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + '/' + file;
+        return Repository.newInstance("test", url);
+    }
+
+    private void setContent(byte[] content, String etag) {
+        this.content = content;
+        this.etag = etag;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = content;
+        exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+        exchange.getResponseHeaders().add("ETag", etag);
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(body.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        ranges.add(range);
+        String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+        if (ifRange != null && !ifRange.equals(etag)) {
+            // the content has changed, send all of it
+            range = null;
+        }
+        int start = 0;
+        int end = body.length - 1;
+        int code = 200;
+        if (range != null) {
+            String[] tokens = range.substring("bytes=".length()).split("-", -1);
+            start = Integer.parseInt(tokens[0]);
+            if (!tokens[1].isEmpty()) {
+                end = Integer.parseInt(tokens[1]);
+            }
+            if (start >= body.length) {
+                exchange.getResponseHeaders().add("Content-Range", "bytes */" + body.length);
+                exchange.sendResponseHeaders(416, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders()
+                    .add("Content-Range", "bytes " + start + '-' + end + '/' + body.length);
+            code = 206;
+        }
+        int length = end - start + 1;
+        exchange.sendResponseHeaders(code, length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            if (failAfter > 0) {
+                os.write(body, start, failAfter);
+                os.flush();
+                // drop the connection before the response is complete
+                throw new IOException("Connection closed");
+            }
+            os.write(body, start, length);
+        }
+    }
+
+    private static final class CountingProgress implements Progress {
+
+        AtomicLong count = new AtomicLong();
+
+        /** {@inheritDoc} */
+        @Override
+        public void reset(String message, long max, String trailingMessage) {}
+
+        /** {@inheritDoc} */
+        @Override
+        public void start(long initialProgress) {}
+
+        /** {@inheritDoc} */
+        @Override
+        public void end() {}
+
+        /** {@inheritDoc} */
+        @Override
+        public void increment(long increment) {
+            if (increment > 0) {
+                count.addAndGet(increment);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void update(long progress, String message) {}
+    }
+}
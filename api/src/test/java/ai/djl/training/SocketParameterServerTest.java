@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.training.optimizer.Optimizer;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SocketParameterServerTest {
+
+    @Test
+    public void testAllReduce() throws Exception {
+        int size = 3;
+        List<InetSocketAddress> workers = getWorkers(size);
+        for (boolean compress : new boolean[] {false, true}) {
+            List<float[]> results =
+                    runWorkers(
+                            size,
+                            rank -> {
+                                float[] data = new float[11];
+                                for (int i = 0; i < data.length; ++i) {
+                                    data[i] = rank * 100 + i + 0.5f;
+                                }
+                                try (RingCommunicator ring =
+                                        new RingCommunicator(rank, workers, compress, 10000)) {
+                                    ring.allReduce(data);
+                                }
+                                return data;
+                            });
+            for (int i = 0; i < 11; ++i) {
+                float expected = 300 + 3 * (i + 0.5f);
+                Assert.assertEquals(results.get(0)[i], expected, compress ? 0.5f : 0);
+            }
+            // all workers have exactly the same values
+            Assert.assertEquals(results.get(1), results.get(0));
+            Assert.assertEquals(results.get(2), results.get(0));
+        }
+    }
+
+    @Test
+    public void testParameterServer() throws Exception {
+        int size = 2;
+        String[] workers =
+                getWorkers(size).stream()
+                        .map(a -> "127.0.0.1:" + a.getPort())
+                        .toArray(String[]::new);
+        List<float[]> results =
+                runWorkers(
+                        size,
+                        rank -> {
+                            RecordingOptimizer optimizer = new RecordingOptimizer();
+                            try (NDManager manager = NDManager.newBaseManager();
+                                    ParameterServer ps =
+                                            SocketParameterServer.builder()
+                                                    .setOptimizer(optimizer)
+                                                    .setRank(rank)
+                                                    .setWorkers(workers)
+                                                    .optBucketSize(8)
+                                                    .optTimeout(10000)
+                                                    .build()) {
+                                NDArray weight = manager.create(new float[] {rank, rank});
+                                NDArray bias = manager.create(new float[] {rank});
+                                ps.init("weight-" + rank, new NDArray[] {weight});
+                                ps.init("bias-" + rank, new NDArray[] {bias});
+                                // rank 0 initializes the parameters
+                                Assert.assertEquals(weight.toFloatArray(), new float[] {0, 0});
+
+                                NDArray biasGrad = manager.create(new float[] {rank + 1});
+                                NDArray weightGrad = manager.create(new float[] {rank, 2});
+                                ps.update(
+                                        "bias-" + rank,
+                                        new NDArray[] {biasGrad},
+                                        new NDArray[] {bias});
+                                ps.update(
+                                        "weight-" + rank,
+                                        new NDArray[] {weightGrad},
+                                        new NDArray[] {weight});
+                                ps.flush();
+                                float[] weightSum = optimizer.grads.get("weight-" + rank);
+                                float[] biasSum = optimizer.grads.get("bias-" + rank);
+                                return new float[] {weightSum[0], weightSum[1], biasSum[0]};
+                            }
+                        });
+        Assert.assertEquals(results.get(0), new float[] {1, 4, 3});
+        Assert.assertEquals(results.get(1), new float[] {1, 4, 3});
+    }
+
+    private static List<InetSocketAddress> getWorkers(int size) throws IOException {
+        List<InetSocketAddress> workers = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                workers.add(new InetSocketAddress("127.0.0.1", socket.getLocalPort()));
+            }
+        }
+        return workers;
+    }
+
+    private static List<float[]> runWorkers(int size, Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(size);
+        try {
+            List<Future<float[]>> futures = new ArrayList<>();
+            for (int i = 0; i < size; ++i) {
+                int rank = i;
+                futures.add(executor.submit(() -> worker.run(rank)));
+            }
+            List<float[]> results = new ArrayList<>();
+            for (Future<float[]> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Worker {
+
+        float[] run(int rank) throws Exception;
+    }
+
+    private static final class RecordingOptimizer extends Optimizer {
+
+        Map<String, float[]> grads = new ConcurrentHashMap<>();
+
+        RecordingOptimizer() {
+            super(new Builder());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void update(String parameterId, NDArray weight, NDArray grad) {
+            Assert.assertEquals(grad.getShape(), weight.getShape());
+            grads.put(parameterId, grad.toFloatArray());
+        }
+
+        private static final class Builder extends OptimizerBuilder<Builder> {
+
+            /** {@inheritDoc} */
+            @Override
+            protected Builder self() {
+                return this;
+            }
+        }
+    }
+}
@@ -12,6 +12,11 @@
  */
 package ai.djl.translate;
 
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -24,4 +29,51 @@ public class BatchifierTest {
 
         Assert.assertThrows(() -> Batchifier.fromString("invalid"));
     }
+
+    @Test
+    public void testStackBatchifier() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDList[] inputs = new NDList[3];
+            for (int i = 0; i < inputs.length; i++) {
+                NDArray data = manager.arange(i * 6f, i * 6f + 6).reshape(2, 3);
+                data.setName("data");
+                inputs[i] = new NDList(data, manager.create(i));
+            }
+            NDList batch = Batchifier.STACK.batchify(inputs);
+            Assert.assertEquals(batch.size(), 2);
+            Assert.assertEquals(batch.get(0).getName(), "data");
+            Assert.assertEquals(batch.get(0).getShape(), new Shape(3, 2, 3));
+            Assert.assertEquals(batch.get(0).toFloatArray(), manager.arange(18f).toFloatArray());
+            Assert.assertEquals(batch.get(1).toIntArray(), new int[] {0, 1, 2});
+
+            NDList[] items = Batchifier.STACK.unbatchify(batch);
+            Assert.assertEquals(items.length, 3);
+            Assert.assertEquals(items[1].get(0).getName(), "data");
+            Assert.assertEquals(items[1].get(0).getShape(), new Shape(2, 3));
+            Assert.assertEquals(items[1].get(0).toFloatArray(), inputs[1].get(0).toFloatArray());
+            Assert.assertEquals(items[2].get(1).getShape(), new Shape());
+            Assert.assertEquals(items[2].get(1).getInt(), 2);
+        }
+    }
+
+    @Test
+    public void testPaddingStackBatchifier() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            Batchifier batchifier =
+                    PaddingStackBatchifier.builder()
+                            .optIncludeValidLengths(true)
+                            .addPad(0, 1, m -> m.create(new float[] {-1, -1}, new Shape(2, 1)))
+                            .build();
+            NDList[] inputs = {
+                new NDList(manager.create(new float[] {1, 2, 3, 4}, new Shape(2, 2))),
+                new NDList(manager.create(new float[] {5, 6, 7, 8, 9, 10}, new Shape(2, 3)))
+            };
+            NDList batch = batchifier.batchify(inputs);
+            Assert.assertEquals(batch.size(), 2);
+            Assert.assertEquals(batch.get(0).getShape(), new Shape(2, 2, 3));
+            float[] expected = {1, 2, -1, 3, 4, -1, 5, 6, 7, 8, 9, 10};
+            Assert.assertEquals(batch.get(0).toFloatArray(), expected);
+            Assert.assertEquals(batch.get(1).toLongArray(), new long[] {2, 3});
+        }
+    }
 }
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset.cv;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A disk cache of decoded and resized images.
+ *
+ * <p>All the images in the cache have the same shape, they are stored as raw HWC uint8 pixels in
+ * fixed size slots of a memory mapped file. The cache is bounded by a disk budget, the least
+ * recently used image is evicted when a new image does not fit. The keys and their slots are
+ * appended to an index file, so the cache is reused by later runs.
+ *
+ * <p>The keys should identify the image content, for example the image path and its last modified
+ * time.
+ */
+public class ImageCache implements AutoCloseable {
+
+    private Shape shape;
+    private int slotSize;
+    private int capacity;
+    private int slotsPerChunk;
+    private FileChannel channel;
+    private MappedByteBuffer[] chunks;
+    private Path indexFile;
+    private Writer index;
+    private int indexLines;
+
+    private LinkedHashMap<String, Integer> entries;
+    private Deque<Integer> freeSlots;
+    private int nextSlot;
+
+    /**
+     * Opens or creates an image cache in the given directory.
+     *
+     * @param dir the directory of the cache
+     * @param width the width of the images
+     * @param height the height of the images
+     * @param channels the number of channels of the images
+     * @param maxBytes the disk budget of the cache in bytes
+     * @throws IOException if failed to open the cache files
+     */
+    public ImageCache(Path dir, int width, int height, int channels, long maxBytes)
+            throws IOException {
+        shape = new Shape(height, width, channels);
+        slotSize = Math.toIntExact(shape.size());
+        capacity = (int) Math.min(maxBytes / slotSize, Integer.MAX_VALUE);
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The cache size is smaller than one image.");
+        }
+        slotsPerChunk = Integer.MAX_VALUE / slotSize;
+        chunks = new MappedByteBuffer[(capacity - 1) / slotsPerChunk + 1];
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+        freeSlots = new ArrayDeque<>();
+
+        Files.createDirectories(dir);
+        String name = "images_" + width + 'x' + height + 'x' + channels;
+        channel =
+                FileChannel.open(
+                        dir.resolve(name + ".bin"),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+        indexFile = dir.resolve(name + ".idx");
+        loadIndex();
+        index =
+                Files.newBufferedWriter(
+                        indexFile,
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Returns the shape of the cached images.
+     *
+     * @return the shape of the cached images in HWC layout
+     */
+    public Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * Returns the number of cached images.
+     *
+     * @return the number of cached images
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns a cached image.
+     *
+     * @param manager the manager to create the array
+     * @param key the key of the image
+     * @return the uint8 HWC image, or {@code null} if the image is not cached
+     * @throws IOException if failed to read the cache
+     */
+    public NDArray get(NDManager manager, String key) throws IOException {
+        byte[] buf = new byte[slotSize];
+        synchronized (this) {
+            Integer slot = entries.get(key);
+            if (slot == null) {
+                return null;
+            }
+            ByteBuffer bb = slice(slot);
+            bb.get(buf);
+        }
+        return manager.create(ByteBuffer.wrap(buf), shape, DataType.UINT8);
+    }
+
+    /**
+     * Adds an image to the cache.
+     *
+     * <p>Images with a different shape than the cache are ignored.
+     *
+     * @param key the key of the image
+     * @param image the HWC image, it is converted to uint8
+     * @throws IOException if failed to write the cache
+     */
+    public void put(String key, NDArray image) throws IOException {
+        if (!shape.equals(image.getShape())) {
+            return;
+        }
+        byte[] pixels = image.toType(DataType.UINT8, false).toByteArray();
+        synchronized (this) {
+            Integer slot = entries.get(key);
+            if (slot == null) {
+                slot = allocate();
+                entries.put(key, slot);
+            }
+            slice(slot).put(pixels);
+            index.write(slot + "\t" + key + '\n');
+            index.flush();
+            if (++indexLines > capacity * 2) {
+                compactIndex();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void close() throws IOException {
+        index.close();
+        channel.close();
+    }
+
+    private int allocate() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.poll();
+        }
+        if (nextSlot < capacity) {
+            return nextSlot++;
+        }
+        // evict the least recently used image
+        Iterator<Map.Entry<String, Integer>> it = entries.entrySet().iterator();
+        int slot = it.next().getValue();
+        it.remove();
+        return slot;
+    }
+
+    private ByteBuffer slice(int slot) throws IOException {
+        int chunk = slot / slotsPerChunk;
+        if (chunks[chunk] == null) {
+            long start = (long) chunk * slotsPerChunk * slotSize;
+            long length =
+                    (long) Math.min(slotsPerChunk, capacity - chunk * slotsPerChunk) * slotSize;
+            chunks[chunk] = channel.map(FileChannel.MapMode.READ_WRITE, start, length);
+        }
+        ByteBuffer bb = chunks[chunk].duplicate();
+        int offset = (slot % slotsPerChunk) * slotSize;
+        bb.position(offset);
+        bb.limit(offset + slotSize);
+        return bb;
+    }
+
+    private void loadIndex() throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return;
+        }
+        Map<Integer, String> keys = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                ++indexLines;
+                int pos = line.indexOf('\t');
+                if (pos <= 0) {
+                    // ignore a partially written line
+                    continue;
+                }
+                int slot;
+                try {
+                    slot = Integer.parseInt(line.substring(0, pos));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (slot >= capacity) {
+                    continue;
+                }
+                String key = line.substring(pos + 1);
+                String previous = keys.put(slot, key);
+                if (previous != null && !previous.equals(key)) {
+                    // the slot was reused by another image
+                    entries.remove(previous, slot);
+                }
+                Integer oldSlot = entries.remove(key);
+                if (oldSlot != null && oldSlot != slot) {
+                    keys.remove(oldSlot, key);
+                }
+                entries.put(key, slot);
+                nextSlot = Math.max(nextSlot, slot + 1);
+            }
+        }
+        for (int i = 0; i < nextSlot; ++i) {
+            if (!keys.containsKey(i)) {
+                freeSlots.add(i);
+            }
+        }
+        if (indexLines > entries.size() * 2) {
+            compactIndex();
+        }
+    }
+
+    private void compactIndex() throws IOException {
+        Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+                writer.write(entry.getValue() + "\t" + entry.getKey() + '\n');
+            }
+        }
+        if (index != null) {
+            index.close();
+        }
+        Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        indexLines = entries.size();
+        if (index != null) {
+            index =
+                    Files.newBufferedWriter(
+                            indexFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+    }
+}
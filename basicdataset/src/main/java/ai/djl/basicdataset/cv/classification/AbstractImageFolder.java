@@ -12,8 +12,12 @@
  */
 package ai.djl.basicdataset.cv.classification;
 
+import ai.djl.basicdataset.cv.ImageCache;
 import ai.djl.modality.cv.Image;
 import ai.djl.modality.cv.ImageFactory;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
 import ai.djl.repository.MRL;
 import ai.djl.repository.Repository;
 import ai.djl.repository.zoo.DefaultModelZoo;
@@ -56,12 +60,20 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
     private int maxDepth;
     private Integer imageWidth;
     private Integer imageHeight;
+    private Path cacheDir;
+    private long cacheSize;
+    private ImageCache imageCache;
 
     protected AbstractImageFolder(ImageFolderBuilder<?> builder) {
         super(builder);
         this.maxDepth = builder.maxDepth;
         this.imageWidth = builder.imageWidth;
         this.imageHeight = builder.imageHeight;
+        this.cacheDir = builder.cacheDir;
+        this.cacheSize = builder.cacheSize;
+        if (cacheDir != null && (imageWidth == null || imageHeight == null)) {
+            throw new IllegalArgumentException("The image cache requires a fixed image size.");
+        }
         this.synset = new ArrayList<>();
         this.items = new PairList<>();
         String path = builder.repository.getBaseUri().toString();
@@ -77,6 +89,24 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
         return imageFactory.fromFile(imagePath);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected NDArray getRecordImage(NDManager manager, long index) throws IOException {
+        if (cacheDir == null) {
+            return super.getRecordImage(manager, index);
+        }
+        Path imagePath = getImagePath(items.get(Math.toIntExact(index)).getKey());
+        String key =
+                imagePath.toAbsolutePath() + "\t" + Files.getLastModifiedTime(imagePath).toMillis();
+        ImageCache cache = getImageCache();
+        NDArray image = cache.get(manager, key);
+        if (image == null) {
+            image = super.getRecordImage(manager, index).toType(DataType.UINT8, false);
+            cache.put(key, image);
+        }
+        return image;
+    }
+
     /** {@inheritDoc} */
     @Override
     protected long getClassNumber(long index) {
@@ -128,6 +158,15 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
 
     protected abstract Path getImagePath(String key);
 
+    private synchronized ImageCache getImageCache() throws IOException {
+        if (imageCache == null) {
+            imageCache =
+                    new ImageCache(
+                            cacheDir, imageWidth, imageHeight, flag.numChannels(), cacheSize);
+        }
+        return imageCache;
+    }
+
     protected boolean isImage(File file) {
         String path = file.getName();
         if (!file.isFile() || file.isHidden() || path.startsWith(".")) {
@@ -150,7 +189,7 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
     /** {@inheritDoc} */
     @Override
     public Optional<Integer> getImageHeight() {
-        return Optional.ofNullable(imageWidth);
+        return Optional.ofNullable(imageHeight);
     }
 
     /** {@inheritDoc} */
@@ -171,6 +210,8 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
         int maxDepth;
         Integer imageWidth;
         Integer imageHeight;
+        Path cacheDir;
+        long cacheSize;
 
         protected ImageFolderBuilder() {
             maxDepth = 1;
@@ -253,5 +294,23 @@ public abstract class AbstractImageFolder extends ImageClassificationDataset {
             this.imageHeight = height;
             return self();
         }
+
+        /**
+         * Sets the directory to cache the decoded and resized images.
+         *
+         * <p>The images are decoded and resized once, then later epochs and runs read the raw uint8
+         * pixels from a memory mapped file. The image size must be set to use the cache.
+         *
+         * @param cacheDir the directory of the cache
+         * @param maxBytes the disk budget of the cache in bytes, the least recently used images are
+         *     evicted when it is exceeded
+         * @return this builder
+         * @see ImageCache
+         */
+        public T optImageCache(Path cacheDir, long maxBytes) {
+            this.cacheDir = cacheDir;
+            this.cacheSize = maxBytes;
+            return self();
+        }
     }
 }
@@ -24,9 +24,12 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
@@ -47,6 +50,9 @@ public class CsvDataset extends TabularDataset {
     /** {@inheritDoc} */
     @Override
     public String getCell(long rowIndex, String featureName) {
+        if (csvRecords == null) {
+            return cache.getCell(rowIndex, featureName);
+        }
         CSVRecord record = csvRecords.get(Math.toIntExact(rowIndex));
         return record.get(featureName);
     }
@@ -54,17 +60,44 @@ public class CsvDataset extends TabularDataset {
     /** {@inheritDoc} */
     @Override
     protected long availableSize() {
+        if (csvRecords == null) {
+            return cache.size();
+        }
         return csvRecords.size();
     }
 
     /** {@inheritDoc} */
     @Override
     public void prepare(Progress progress) throws IOException {
+        String sourceKey = null;
+        if (cacheFile != null) {
+            sourceKey = getSourceKey();
+            if (loadCache(sourceKey)) {
+                return;
+            }
+        }
         try (Reader reader = new InputStreamReader(getCsvStream(), StandardCharsets.UTF_8)) {
             CSVParser csvParser = new CSVParser(reader, csvFormat);
             csvRecords = csvParser.getRecords();
         }
         prepareFeaturizers();
+        if (sourceKey != null && saveCache(sourceKey, getColumnNames())) {
+            // rows are served from the cache
+            csvRecords = null;
+        }
+    }
+
+    private String getSourceKey() throws IOException {
+        String key = csvUrl + "\n" + csvFormat;
+        if ("file".equals(csvUrl.getProtocol())) {
+            try {
+                Path path = Paths.get(csvUrl.toURI());
+                key += "\n" + Files.size(path) + '\n' + Files.getLastModifiedTime(path).toMillis();
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid csv url: " + csvUrl, e);
+            }
+        }
+        return key;
     }
 
     private InputStream getCsvStream() throws IOException {
@@ -89,6 +122,9 @@ public class CsvDataset extends TabularDataset {
      * @return a list of column name
      */
     public List<String> getColumnNames() {
+        if (csvRecords == null) {
+            return cache.getColumnNames();
+        }
         if (csvRecords.isEmpty()) {
             return Collections.emptyList();
         }
@@ -94,6 +94,9 @@ public final class MovieLens100k extends CsvDataset {
     /** {@inheritDoc} */
     @Override
     public String getCell(long rowIndex, String featureName) {
+        if (csvRecords == null) {
+            return cache.getCell(rowIndex, featureName);
+        }
         CSVRecord record = csvRecords.get(Math.toIntExact(rowIndex));
         if (HeaderEnum.rating.toString().equals(featureName)) {
             return record.get(HeaderEnum.rating);
@@ -0,0 +1,608 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset.tabular;
+
+import ai.djl.basicdataset.tabular.utils.DynamicBuffer;
+import ai.djl.basicdataset.tabular.utils.Feature;
+import ai.djl.basicdataset.tabular.utils.Featurizer;
+import ai.djl.basicdataset.tabular.utils.PreparedFeaturizer;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A binary, columnar and memory mapped cache of the features of a {@link TabularDataset}.
+ *
+ * <p>Each feature and label is stored as one column. High cardinality numeric columns are stored as
+ * floats, with the featurized values next to the raw values if the featurizer changes them. The
+ * original text of the cells is kept as well if the floats do not format back to it, like {@code
+ * 1.10} or integers, so {@link #getCell(long, String)} returns the exact cell. Other columns are
+ * dictionary encoded: an int code per row, and the featurized vector of each distinct value.
+ * Reading rows from the cache does not parse any cell.
+ *
+ * <p>When the cache is opened in a new process, the {@link PreparedFeaturizer}s are prepared from
+ * the cached values and the dictionaries are featurized again, so the featurizers end up in the
+ * same state as when the cache was compiled.
+ */
+final class TabularCache {
+
+    private static final int MAGIC = 0x444A4C54;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int DICTIONARY_LIMIT = 1 << 16;
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private static final byte NUMERIC = 0;
+    private static final byte FEATURIZED = 1;
+    private static final byte DICTIONARY = 2;
+
+    private int size;
+    private List<String> columnNames;
+    private Column[] features;
+    private Column[] labels;
+    private int featureWidth;
+    private int labelWidth;
+
+    private TabularCache(int size, List<String> columnNames, Column[] features, Column[] labels) {
+        this.size = size;
+        this.columnNames = columnNames;
+        this.features = features;
+        this.labels = labels;
+        featureWidth = width(features);
+        labelWidth = width(labels);
+    }
+
+    /**
+     * Compiles the features and labels of a dataset into a cache file.
+     *
+     * <p>The {@link PreparedFeaturizer}s of the dataset must already be prepared.
+     *
+     * @param file the cache file to write
+     * @param sourceKey a key that identifies the version of the source data
+     * @param columnNames the column names of the source data
+     * @param dataset the dataset to compile
+     * @param rows the number of rows in the dataset
+     * @throws IOException if failed to write the cache file
+     */
+    static void compile(
+            Path file,
+            String sourceKey,
+            List<String> columnNames,
+            TabularDataset dataset,
+            long rows)
+            throws IOException {
+        int size = Math.toIntExact(rows);
+        if (size > Integer.MAX_VALUE / Float.BYTES) {
+            throw new IllegalArgumentException("Too many rows to cache: " + rows);
+        }
+        List<Feature> all = new ArrayList<>(dataset.getFeatures());
+        all.addAll(dataset.getLabels());
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = Files.createTempFile(parent, "tabular", ".tmp");
+        try (FileChannel fc =
+                FileChannel.open(
+                        tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            fc.position(HEADER_SIZE);
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream dos = new DataOutputStream(bos);
+            dos.writeUTF(sourceKey);
+            dos.writeInt(size);
+            dos.writeInt(columnNames.size());
+            for (String name : columnNames) {
+                dos.writeUTF(name);
+            }
+            dos.writeInt(all.size());
+            for (Feature feature : all) {
+                long offset = fc.position();
+                ColumnData data = encode(dataset, feature, size);
+                dos.writeUTF(feature.getName());
+                dos.writeUTF(feature.getFeaturizer().getClass().getName());
+                dos.writeByte(data.type);
+                dos.writeLong(offset);
+                if (data.type == DICTIONARY) {
+                    writeInts(fc, data.codes);
+                    dos.writeInt(data.dictionary.size());
+                    for (String value : data.dictionary) {
+                        dos.writeUTF(value);
+                    }
+                } else {
+                    writeFloats(fc, data.values);
+                    if (data.type == FEATURIZED) {
+                        writeFloats(fc, data.featurized);
+                    }
+                    if (data.text == null) {
+                        dos.writeInt(-1);
+                    } else {
+                        writeInts(fc, data.textOffsets);
+                        write(fc, ByteBuffer.wrap(data.text));
+                        dos.writeInt(data.text.length);
+                    }
+                }
+            }
+            dos.flush();
+
+            long footerOffset = fc.position();
+            write(fc, ByteBuffer.wrap(bos.toByteArray()));
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(footerOffset);
+            header.flip();
+            fc.position(0);
+            write(fc, header);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Opens a cache file.
+     *
+     * @param file the cache file
+     * @param sourceKey the key that identifies the version of the source data
+     * @param features the features of the dataset
+     * @param labels the labels of the dataset
+     * @param prepare true to prepare the {@link PreparedFeaturizer}s from the cached values
+     * @return the cache, or {@code null} if the file does not exist or does not match the source
+     *     data and features
+     * @throws IOException if failed to read the cache file
+     */
+    static TabularCache open(
+            Path file,
+            String sourceKey,
+            List<Feature> features,
+            List<Feature> labels,
+            boolean prepare)
+            throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (fc.size() < HEADER_SIZE) {
+                return null;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            read(fc, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return null;
+            }
+            long footerOffset = header.getLong();
+            ByteBuffer footer = ByteBuffer.allocate(Math.toIntExact(fc.size() - footerOffset));
+            read(fc, footer, footerOffset);
+            DataInputStream dis = new DataInputStream(new ByteArrayInputStream(footer.array()));
+            if (!sourceKey.equals(dis.readUTF())) {
+                return null;
+            }
+            int size = dis.readInt();
+            int numNames = dis.readInt();
+            List<String> columnNames = new ArrayList<>(numNames);
+            for (int i = 0; i < numNames; ++i) {
+                columnNames.add(dis.readUTF());
+            }
+            if (dis.readInt() != features.size() + labels.size()) {
+                return null;
+            }
+            Column[] featureColumns = new Column[features.size()];
+            for (int i = 0; i < featureColumns.length; ++i) {
+                featureColumns[i] = readColumn(fc, dis, features.get(i), size);
+                if (featureColumns[i] == null) {
+                    return null;
+                }
+            }
+            Column[] labelColumns = new Column[labels.size()];
+            for (int i = 0; i < labelColumns.length; ++i) {
+                labelColumns[i] = readColumn(fc, dis, labels.get(i), size);
+                if (labelColumns[i] == null) {
+                    return null;
+                }
+            }
+            for (Column column : featureColumns) {
+                column.restore(prepare);
+            }
+            for (Column column : labelColumns) {
+                column.restore(prepare);
+            }
+            return new TabularCache(size, columnNames, featureColumns, labelColumns);
+        }
+    }
+
+    /**
+     * Returns the number of rows in the cache.
+     *
+     * @return the number of rows in the cache
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the column names of the source data.
+     *
+     * @return the column names of the source data
+     */
+    List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Returns the raw value of a cached cell.
+     *
+     * @param rowIndex the row index
+     * @param featureName the feature name
+     * @return the raw value of the cell
+     */
+    String getCell(long rowIndex, String featureName) {
+        int row = Math.toIntExact(rowIndex);
+        for (Column column : features) {
+            if (column.name.equals(featureName)) {
+                return column.getCell(row);
+            }
+        }
+        for (Column column : labels) {
+            if (column.name.equals(featureName)) {
+                return column.getCell(row);
+            }
+        }
+        throw new IllegalArgumentException("Column is not cached: " + featureName);
+    }
+
+    /**
+     * Returns the features or labels of a row.
+     *
+     * @param manager the manager to create the array
+     * @param index the row index
+     * @param label true to return the labels, false to return the features
+     * @return an array of shape (width)
+     */
+    NDArray get(NDManager manager, long index, boolean label) {
+        Column[] columns = label ? labels : features;
+        float[] buf = new float[label ? labelWidth : featureWidth];
+        put(columns, buf, 0, Math.toIntExact(index));
+        return manager.create(FloatBuffer.wrap(buf), new Shape(buf.length));
+    }
+
+    /**
+     * Returns the features or labels of a batch of rows.
+     *
+     * @param manager the manager to create the array
+     * @param indices the row indices
+     * @param label true to return the labels, false to return the features
+     * @return an array of shape (batch, width)
+     */
+    NDArray get(NDManager manager, long[] indices, boolean label) {
+        Column[] columns = label ? labels : features;
+        int width = label ? labelWidth : featureWidth;
+        float[] buf = new float[indices.length * width];
+        for (int i = 0; i < indices.length; ++i) {
+            put(columns, buf, i * width, Math.toIntExact(indices[i]));
+        }
+        return manager.create(FloatBuffer.wrap(buf), new Shape(indices.length, width));
+    }
+
+    private static void put(Column[] columns, float[] buf, int offset, int row) {
+        for (Column column : columns) {
+            offset = column.put(buf, offset, row);
+        }
+    }
+
+    private static int width(Column[] columns) {
+        int width = 0;
+        for (Column column : columns) {
+            width += column.width;
+        }
+        return width;
+    }
+
+    private static ColumnData encode(TabularDataset dataset, Feature feature, int size) {
+        String name = feature.getName();
+        Featurizer featurizer = feature.getFeaturizer();
+        ColumnData data = encodeDictionary(dataset, name, size, DICTIONARY_LIMIT);
+        if (data != null) {
+            return data;
+        }
+
+        // High cardinality column, try to store it as floats
+        float[] values = new float[size];
+        float[] featurized = null;
+        boolean exact = true;
+        for (int i = 0; i < size; ++i) {
+            String cell = dataset.getCell(i, name);
+            float value;
+            try {
+                value = Float.parseFloat(cell);
+            } catch (NumberFormatException e) {
+                return encodeDictionary(dataset, name, size, Integer.MAX_VALUE);
+            }
+            DynamicBuffer buf = new DynamicBuffer();
+            featurizer.featurize(buf, cell);
+            if (buf.getLength() != 1) {
+                return encodeDictionary(dataset, name, size, Integer.MAX_VALUE);
+            }
+            float f = buf.getBuffer().get(0);
+            values[i] = value;
+            exact = exact && Float.toString(value).equals(cell);
+            if (featurized != null) {
+                featurized[i] = f;
+            } else if (Float.floatToIntBits(f) != Float.floatToIntBits(value)) {
+                if (!(featurizer instanceof PreparedFeaturizer)) {
+                    // the featurizer state could not be restored from the values
+                    return encodeDictionary(dataset, name, size, Integer.MAX_VALUE);
+                }
+                featurized = values.clone();
+                featurized[i] = f;
+            }
+        }
+        data = new ColumnData(featurized == null ? NUMERIC : FEATURIZED, values, featurized);
+        if (!exact) {
+            // keep the original text, the floats lose the format and the precision of the cells
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            data.textOffsets = new int[size + 1];
+            for (int i = 0; i < size; ++i) {
+                byte[] bytes = dataset.getCell(i, name).getBytes(StandardCharsets.UTF_8);
+                bos.write(bytes, 0, bytes.length);
+                data.textOffsets[i + 1] = bos.size();
+            }
+            data.text = bos.toByteArray();
+        }
+        return data;
+    }
+
+    private static ColumnData encodeDictionary(
+            TabularDataset dataset, String name, int size, int limit) {
+        Map<String, Integer> map = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] codes = new int[size];
+        for (int i = 0; i < size; ++i) {
+            String cell = dataset.getCell(i, name);
+            Integer code = map.get(cell);
+            if (code == null) {
+                if (dictionary.size() == limit) {
+                    return null;
+                }
+                code = dictionary.size();
+                map.put(cell, code);
+                dictionary.add(cell);
+            }
+            codes[i] = code;
+        }
+        return new ColumnData(codes, dictionary);
+    }
+
+    private static Column readColumn(FileChannel fc, DataInputStream dis, Feature feature, int size)
+            throws IOException {
+        String name = dis.readUTF();
+        String featurizer = dis.readUTF();
+        byte type = dis.readByte();
+        long offset = dis.readLong();
+        if (!name.equals(feature.getName())
+                || !featurizer.equals(feature.getFeaturizer().getClass().getName())) {
+            return null;
+        }
+        long length = (long) size * Float.BYTES;
+        Column column = new Column(name, feature.getFeaturizer(), type);
+        if (type == DICTIONARY) {
+            column.codes = map(fc, offset, length).asIntBuffer();
+            int dictionarySize = dis.readInt();
+            column.dictionary = new String[dictionarySize];
+            for (int i = 0; i < dictionarySize; ++i) {
+                column.dictionary[i] = dis.readUTF();
+            }
+        } else {
+            column.values = map(fc, offset, length).asFloatBuffer();
+            offset += length;
+            if (type == FEATURIZED) {
+                column.featurized = map(fc, offset, length).asFloatBuffer();
+                offset += length;
+            }
+            int textLength = dis.readInt();
+            if (textLength >= 0) {
+                long offsetsLength = (size + 1L) * Integer.BYTES;
+                column.textOffsets = map(fc, offset, offsetsLength).asIntBuffer();
+                column.text = map(fc, offset + offsetsLength, textLength);
+            }
+        }
+        return column;
+    }
+
+    private static ByteBuffer map(FileChannel fc, long offset, long length) throws IOException {
+        return fc.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void read(FileChannel fc, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int read = fc.read(buf, position + buf.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of cache file.");
+            }
+        }
+    }
+
+    private static void write(FileChannel fc, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            fc.write(buf);
+        }
+    }
+
+    private static void writeFloats(FileChannel fc, float[] values) throws IOException {
+        ByteBuffer buf =
+                ByteBuffer.allocate(CHUNK_SIZE * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < values.length; i += CHUNK_SIZE) {
+            int len = Math.min(CHUNK_SIZE, values.length - i);
+            buf.clear();
+            buf.asFloatBuffer().put(values, i, len);
+            buf.limit(len * Float.BYTES);
+            write(fc, buf);
+        }
+    }
+
+    private static void writeInts(FileChannel fc, int[] values) throws IOException {
+        ByteBuffer buf =
+                ByteBuffer.allocate(CHUNK_SIZE * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < values.length; i += CHUNK_SIZE) {
+            int len = Math.min(CHUNK_SIZE, values.length - i);
+            buf.clear();
+            buf.asIntBuffer().put(values, i, len);
+            buf.limit(len * Integer.BYTES);
+            write(fc, buf);
+        }
+    }
+
+    private static final class ColumnData {
+
+        byte type;
+        float[] values;
+        float[] featurized;
+        int[] textOffsets;
+        byte[] text;
+        int[] codes;
+        List<String> dictionary;
+
+        ColumnData(byte type, float[] values, float[] featurized) {
+            this.type = type;
+            this.values = values;
+            this.featurized = featurized;
+        }
+
+        ColumnData(int[] codes, List<String> dictionary) {
+            type = DICTIONARY;
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+    }
+
+    private static final class Column {
+
+        String name;
+        Featurizer featurizer;
+        byte type;
+        int width;
+        FloatBuffer values;
+        FloatBuffer featurized;
+        IntBuffer textOffsets;
+        ByteBuffer text;
+        IntBuffer codes;
+        String[] dictionary;
+        float[][] table;
+
+        Column(String name, Featurizer featurizer, byte type) {
+            this.name = name;
+            this.featurizer = featurizer;
+            this.type = type;
+        }
+
+        void restore(boolean prepare) {
+            if (prepare && featurizer instanceof PreparedFeaturizer) {
+                ((PreparedFeaturizer) featurizer).prepare(new CellList(this));
+            }
+            if (type != DICTIONARY) {
+                width = 1;
+                return;
+            }
+            // featurize in the order of the first occurrences to rebuild stateful featurizers
+            table = new float[dictionary.length][];
+            for (int i = 0; i < dictionary.length; ++i) {
+                DynamicBuffer buf = new DynamicBuffer();
+                featurizer.featurize(buf, dictionary[i]);
+                table[i] = new float[buf.getLength()];
+                buf.getBuffer().get(table[i]);
+                if (i == 0) {
+                    width = table[i].length;
+                } else if (table[i].length != width) {
+                    throw new IllegalArgumentException(
+                            "The feature " + name + " has variable length, can not be cached.");
+                }
+            }
+        }
+
+        String getCell(int row) {
+            if (type == DICTIONARY) {
+                return dictionary[codes.get(row)];
+            }
+            if (text != null) {
+                int start = textOffsets.get(row);
+                byte[] bytes = new byte[textOffsets.get(row + 1) - start];
+                ByteBuffer bb = text.duplicate();
+                bb.position(start);
+                bb.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            return Float.toString(values.get(row));
+        }
+
+        int put(float[] buf, int offset, int row) {
+            switch (type) {
+                case NUMERIC:
+                    buf[offset] = values.get(row);
+                    return offset + 1;
+                case FEATURIZED:
+                    buf[offset] = featurized.get(row);
+                    return offset + 1;
+                default:
+                    float[] vector = table[codes.get(row)];
+                    System.arraycopy(vector, 0, buf, offset, vector.length);
+                    return offset + vector.length;
+            }
+        }
+    }
+
+    private static final class CellList extends AbstractList<String> {
+
+        private Column column;
+        private int size;
+
+        CellList(Column column) {
+            this.column = column;
+            size = column.type == DICTIONARY ? column.codes.limit() : column.values.limit();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String get(int index) {
+            return column.getCell(index);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
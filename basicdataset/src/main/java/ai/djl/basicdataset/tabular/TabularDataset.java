@@ -12,6 +12,7 @@
  */
 package ai.djl.basicdataset.tabular;
 
+import ai.djl.Device;
 import ai.djl.basicdataset.tabular.utils.DynamicBuffer;
 import ai.djl.basicdataset.tabular.utils.Feature;
 import ai.djl.basicdataset.tabular.utils.Featurizers;
@@ -19,21 +20,32 @@ import ai.djl.basicdataset.tabular.utils.PreparedFeaturizer;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.Shape;
+import ai.djl.training.dataset.Batch;
+import ai.djl.training.dataset.DataIterable;
 import ai.djl.training.dataset.RandomAccessDataset;
 import ai.djl.training.dataset.Record;
+import ai.djl.training.dataset.Sampler;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.Pipeline;
+import ai.djl.translate.TranslateException;
 import ai.djl.translate.TranslatorOptions;
 
+import java.io.IOException;
 import java.nio.FloatBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /** A abstract class for creating tabular datasets. */
 public abstract class TabularDataset extends RandomAccessDataset {
 
     protected List<Feature> features;
     protected List<Feature> labels;
+    protected Path cacheFile;
+    protected TabularCache cache;
 
     /**
      * Creates a new instance of {@link RandomAccessDataset} with the given necessary
@@ -45,6 +57,7 @@ public abstract class TabularDataset extends RandomAccessDataset {
         super(builder);
         features = builder.features;
         labels = builder.labels;
+        cacheFile = builder.cacheFile;
 
         if (features.isEmpty()) {
             throw new IllegalArgumentException("Missing features.");
@@ -93,6 +106,17 @@ public abstract class TabularDataset extends RandomAccessDataset {
     /** {@inheritDoc} */
     @Override
     public Record get(NDManager manager, long index) {
+        if (cache != null) {
+            NDList data = new NDList(cache.get(manager, index, false));
+            NDList label;
+            if (labels.isEmpty()) {
+                label = new NDList();
+            } else {
+                label = new NDList(cache.get(manager, index, true));
+            }
+            return new Record(data, label);
+        }
+
         NDList data = getRowFeatures(manager, index, features);
 
         NDList label;
@@ -129,6 +153,9 @@ public abstract class TabularDataset extends RandomAccessDataset {
      * @return the features formatted as an {@link NDList}
      */
     public NDList getRowFeatures(NDManager manager, long index, List<Feature> selected) {
+        if (cache != null && (selected == features || selected == labels)) {
+            return new NDList(cache.get(manager, index, selected == labels));
+        }
         DynamicBuffer bb = new DynamicBuffer();
         for (Feature feature : selected) {
             String name = feature.getName();
@@ -166,6 +193,60 @@ public abstract class TabularDataset extends RandomAccessDataset {
      */
     public abstract String getCell(long rowIndex, String featureName);
 
+    /** {@inheritDoc} */
+    @Override
+    public Iterable<Batch> getData(
+            NDManager manager, Sampler sampler, ExecutorService executorService)
+            throws IOException, TranslateException {
+        prepare();
+        return new CachedDataIterable(
+                this,
+                manager,
+                sampler,
+                dataBatchifier,
+                labelBatchifier,
+                pipeline,
+                targetPipeline,
+                executorService,
+                fetchExecutor,
+                prefetchNumber,
+                device);
+    }
+
+    /**
+     * Loads the columnar cache if it is enabled and matches the source data.
+     *
+     * @param sourceKey a key that identifies the version of the source data
+     * @return true if the dataset is served from the cache
+     * @throws IOException if failed to read the cache file
+     */
+    protected boolean loadCache(String sourceKey) throws IOException {
+        if (cache == null && cacheFile != null) {
+            cache = TabularCache.open(cacheFile, sourceKey, features, labels, true);
+        }
+        return cache != null;
+    }
+
+    /**
+     * Compiles the dataset into the columnar cache if it is enabled.
+     *
+     * <p>The featurizers must be prepared before calling this method. Once it returns, the rows are
+     * served from the cache, so the source data can be released.
+     *
+     * @param sourceKey a key that identifies the version of the source data
+     * @param columnNames the column names of the source data
+     * @return true if the dataset is served from the cache
+     * @throws IOException if failed to write the cache file
+     */
+    protected boolean saveCache(String sourceKey, List<String> columnNames) throws IOException {
+        if (cacheFile == null) {
+            return false;
+        }
+        TabularCache.compile(cacheFile, sourceKey, columnNames, this, availableSize());
+        cache = TabularCache.open(cacheFile, sourceKey, features, labels, false);
+        return cache != null;
+    }
+
     /** {@inheritDoc} */
     @Override
     public TranslatorOptions matchingTranslatorOptions() {
@@ -183,6 +264,7 @@ public abstract class TabularDataset extends RandomAccessDataset {
         protected List<Feature> features;
         protected List<Feature> labels;
         protected boolean allowNoLabels;
+        protected Path cacheFile;
 
         protected BaseBuilder() {
             features = new ArrayList<>();
@@ -339,5 +421,92 @@ public abstract class TabularDataset extends RandomAccessDataset {
             allowNoLabels = true;
             return self();
         }
+
+        /**
+         * Sets the file to cache the features and labels in a binary columnar format.
+         *
+         * <p>The cache is compiled by {@link TabularDataset#prepare()} when the file does not exist
+         * or does not match the source data. Later runs memory map the cache instead of parsing the
+         * source data, and batches are read without parsing any cell.
+         *
+         * @param cacheFile the cache file
+         * @return this builder
+         */
+        public T optCacheFile(Path cacheFile) {
+            this.cacheFile = cacheFile;
+            return self();
+        }
+    }
+
+    private static final class CachedDataIterable extends DataIterable {
+
+        CachedDataIterable(
+                TabularDataset dataset,
+                NDManager manager,
+                Sampler sampler,
+                Batchifier dataBatchifier,
+                Batchifier labelBatchifier,
+                Pipeline pipeline,
+                Pipeline targetPipeline,
+                ExecutorService executor,
+                ExecutorService fetchExecutor,
+                int preFetchNumber,
+                Device device) {
+            super(
+                    dataset,
+                    manager,
+                    sampler,
+                    dataBatchifier,
+                    labelBatchifier,
+                    pipeline,
+                    targetPipeline,
+                    executor,
+                    fetchExecutor,
+                    preFetchNumber,
+                    device);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Batch fetch(long[] indices, int progress) throws IOException {
+            TabularDataset tabular = (TabularDataset) dataset;
+            TabularCache cache = tabular.cache;
+            if (cache == null
+                    || pipeline != null
+                    || targetPipeline != null
+                    || dataBatchifier != Batchifier.STACK
+                    || labelBatchifier != Batchifier.STACK) {
+                return super.fetch(indices, progress);
+            }
+
+            NDManager subManager = manager.newSubManager();
+            subManager.setName("dataIter fetch");
+            NDList batchData = new NDList(cache.get(subManager, indices, false));
+            NDList batchLabels;
+            if (tabular.labels.isEmpty()) {
+                batchLabels = new NDList();
+            } else {
+                batchLabels = new NDList(cache.get(subManager, indices, true));
+            }
+            // pin to a specific device
+            if (device != null) {
+                batchData = batchData.toDevice(device, false);
+                batchLabels = batchLabels.toDevice(device, false);
+            }
+            List<Long> list = new ArrayList<>(indices.length);
+            for (long index : indices) {
+                list.add(index);
+            }
+            return new Batch(
+                    subManager,
+                    batchData,
+                    batchLabels,
+                    indices.length,
+                    dataBatchifier,
+                    labelBatchifier,
+                    progress,
+                    dataset.size(),
+                    list);
+        }
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.basicdataset;
+
+import ai.djl.basicdataset.tabular.CsvDataset;
+import ai.djl.modality.Classifications;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.training.dataset.Batch;
+import ai.djl.training.dataset.Record;
+import ai.djl.translate.TranslateException;
+import ai.djl.util.Utils;
+
+import org.apache.commons.csv.CSVFormat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+public class CsvDatasetTest {
+
+    @Test
+    public void testCacheFile() throws IOException, TranslateException {
+        Path dir = Paths.get("build/tmp/test/csv");
+        Utils.deleteQuietly(dir);
+        Files.createDirectories(dir);
+        Path csvFile = dir.resolve("data.csv");
+        Path cacheFile = dir.resolve("data.cache");
+
+        // more distinct values than the dictionary limit to cover the numeric columns
+        int rows = 70000;
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+            writer.write("id,x,y,color,kind\n");
+            for (int i = 0; i < rows; ++i) {
+                // ids above 2^24 are not exact as floats, x has a trailing zero
+                String x = String.format(Locale.ROOT, "%.2f", i * 0.5f);
+                writer.write((1 << 24) + i + "," + x + "," + (i % 7));
+                writer.write(",c" + (i % 3) + ",k" + (4 - i % 5));
+                writer.write('\n');
+            }
+        }
+
+        try (NDManager manager = NDManager.newBaseManager()) {
+            CsvDataset expected = newDataset(csvFile, null);
+            expected.prepare();
+            CsvDataset compiled = newDataset(csvFile, cacheFile);
+            compiled.prepare();
+            Assert.assertTrue(Files.isRegularFile(cacheFile));
+            CsvDataset cached = newDataset(csvFile, cacheFile);
+            cached.prepare();
+
+            Assert.assertEquals(cached.size(), rows);
+            Assert.assertEquals(
+                    cached.getColumnNames(), Arrays.asList("id", "x", "y", "color", "kind"));
+            Assert.assertEquals(cached.getCell(3, "color"), "c0");
+            Assert.assertEquals(cached.getCell(3, "x"), "1.50");
+            Assert.assertEquals(cached.getCell(3, "id"), "16777219");
+
+            for (int i : new int[] {0, 1, 2, 4242, rows - 1}) {
+                Record record = expected.get(manager, i);
+                for (CsvDataset dataset : new CsvDataset[] {compiled, cached}) {
+                    Record actual = dataset.get(manager, i);
+                    Assert.assertEquals(
+                            actual.getData().head().toFloatArray(),
+                            record.getData().head().toFloatArray());
+                    Assert.assertEquals(
+                            actual.getLabels().head().toFloatArray(),
+                            record.getLabels().head().toFloatArray());
+                }
+            }
+
+            for (Batch batch : cached.getData(manager)) {
+                NDArray data = batch.getData().head();
+                Assert.assertEquals(data.getShape().get(1), 6);
+                long index = (Long) batch.getIndices().get(1);
+                Assert.assertEquals(
+                        data.get(1).toFloatArray(),
+                        expected.get(manager, index).getData().head().toFloatArray());
+                batch.close();
+                break;
+            }
+
+            // the featurizers are restored when the cache is loaded
+            Classifications classifications =
+                    (Classifications)
+                            cached.getLabels()
+                                    .get(0)
+                                    .getFeaturizer()
+                                    .deFeaturize(new float[] {0, 1, 0, 0, 0});
+            Assert.assertEquals(classifications.best().getClassName(), "k1");
+        }
+    }
+
+    private static CsvDataset newDataset(Path csvFile, Path cacheFile) {
+        return CsvDataset.builder()
+                .optCsvFile(csvFile)
+                .setCsvFormat(
+                        CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())
+                .addNumericFeature("id")
+                .addNumericFeature("x", true)
+                .addNumericFeature("y", true)
+                .addCategoricalFeature("color", true)
+                .addCategoricalLabel("kind", true)
+                .optCacheFile(cacheFile)
+                .setSampling(32, true)
+                .build();
+    }
+}
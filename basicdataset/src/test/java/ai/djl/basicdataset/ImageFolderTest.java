@@ -13,6 +13,7 @@
 package ai.djl.basicdataset;
 
 import ai.djl.Model;
+import ai.djl.basicdataset.cv.ImageCache;
 import ai.djl.basicdataset.cv.classification.ImageFolder;
 import ai.djl.modality.cv.ImageFactory;
 import ai.djl.modality.cv.transform.Resize;
@@ -20,6 +21,8 @@ import ai.djl.modality.cv.transform.ToTensor;
 import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Blocks;
 import ai.djl.repository.Repository;
 import ai.djl.testing.Assertions;
@@ -30,16 +33,22 @@ import ai.djl.training.dataset.Batch;
 import ai.djl.training.dataset.RandomAccessDataset;
 import ai.djl.training.loss.Loss;
 import ai.djl.translate.TranslateException;
+import ai.djl.util.Utils;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
+import javax.imageio.ImageIO;
+
 public class ImageFolderTest {
 
     @Test
@@ -120,4 +129,58 @@ public class ImageFolderTest {
         RandomAccessDataset[] sets = dataset.randomSplit(75, 25);
         Assert.assertEquals(sets[0].size(), 2);
     }
+
+    @Test
+    public void testImageCache() throws IOException, TranslateException {
+        Path dir = Paths.get("build/tmp/test/imagecache");
+        Utils.deleteQuietly(dir);
+        Path root = dir.resolve("images");
+        for (int i = 0; i < 3; ++i) {
+            Path classFolder = root.resolve("class" + i);
+            Files.createDirectories(classFolder);
+            BufferedImage img = new BufferedImage(8, 6, BufferedImage.TYPE_INT_RGB);
+            for (int x = 0; x < 8; ++x) {
+                img.setRGB(x, i, 0x102030 * (x + i));
+            }
+            ImageIO.write(img, "png", classFolder.resolve("img.png").toFile());
+        }
+        Path cacheDir = dir.resolve("cache");
+        // room for two images only
+        long cacheSize = 2 * 8 * 6 * 3;
+
+        try (NDManager manager = NDManager.newBaseManager()) {
+            ImageFolder expected =
+                    ImageFolder.builder()
+                            .setRepositoryPath(root)
+                            .optImageWidth(8)
+                            .optImageHeight(6)
+                            .setSampling(1, false)
+                            .build();
+            expected.prepare();
+            for (int epoch = 0; epoch < 2; ++epoch) {
+                ImageFolder dataset =
+                        ImageFolder.builder()
+                                .setRepositoryPath(root)
+                                .optImageWidth(8)
+                                .optImageHeight(6)
+                                .optImageCache(cacheDir, cacheSize)
+                                .setSampling(1, false)
+                                .build();
+                dataset.prepare();
+                for (int i = 0; i < 3; ++i) {
+                    NDArray image = dataset.get(manager, i).getData().head();
+                    NDArray raw = expected.get(manager, i).getData().head();
+                    Assert.assertEquals(image.getShape(), new Shape(6, 8, 3));
+                    Assert.assertEquals(image, raw.toType(DataType.UINT8, false));
+                    // served from the cache
+                    image = dataset.get(manager, i).getData().head();
+                    Assert.assertEquals(image, raw.toType(DataType.UINT8, false));
+                }
+            }
+
+            try (ImageCache cache = new ImageCache(cacheDir, 8, 6, 3, cacheSize)) {
+                Assert.assertEquals(cache.size(), 2);
+            }
+        }
+    }
 }
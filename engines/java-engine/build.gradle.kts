@@ -0,0 +1,27 @@
+plugins {
+    ai.djl.javaProject
+    ai.djl.publish
+}
+
+group = "ai.djl.java"
+
+dependencies {
+    api(project(":api"))
+
+    testImplementation(project(":testing"))
+    testRuntimeOnly(libs.slf4j.simple)
+}
+
+tasks {
+    publishing {
+        publications {
+            named<MavenPublication>("maven") {
+                pom {
+                    name = "DJL pure Java engine"
+                    description = "Deep Java Library (DJL) pure Java NDArray engine"
+                    url = "https://djl.ai/engines/${project.name}"
+                }
+            }
+        }
+    }
+}
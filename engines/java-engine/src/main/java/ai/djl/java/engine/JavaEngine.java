@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.java.engine;
+
+import ai.djl.Device;
+import ai.djl.Model;
+import ai.djl.engine.Engine;
+import ai.djl.ndarray.NDManager;
+
+/**
+ * The {@code JavaEngine} is a pure Java implementation of the {@link Engine} that supports the
+ * common {@link ai.djl.ndarray.NDArray} operations on CPU.
+ *
+ * <p>The engine does not require any native library. It is intended to be used as the alternative
+ * engine of the engines that only support running models (like OnnxRuntime, XGBoost, LightGBM and
+ * TensorRT), so that the pre-processing and post-processing can run without loading a full deep
+ * learning engine. It has the lowest rank, and will not be picked as default engine if any other
+ * engine is available.
+ *
+ * <p>To get an instance of the {@code JavaEngine} when it is not the default Engine, call {@link
+ * Engine#getEngine(String)} with the Engine name "Java".
+ */
+public final class JavaEngine extends Engine {
+
+    public static final String ENGINE_NAME = "Java";
+    static final int RANK = 20;
+
+    private JavaEngine() {}
+
+    static Engine newInstance() {
+        return new JavaEngine();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Engine getAlternativeEngine() {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getEngineName() {
+        return ENGINE_NAME;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRank() {
+        return RANK;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getVersion() {
+        return Engine.getDjlVersion();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasCapability(String capability) {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Model newModel(String name, Device device) {
+        throw new UnsupportedOperationException("Java engine does not support loading models.");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDManager newBaseManager() {
+        return newBaseManager(null);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDManager newBaseManager(Device device) {
+        return JavaNDManager.getSystemManager().newSubManager(device);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return getEngineName() + ':' + getVersion() + ", capabilities: []";
+    }
+}
@@ -0,0 +1,965 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.java.engine;
+
+import ai.djl.ndarray.types.DataType;
+import ai.djl.util.Float16Utils;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * The typed loops behind the {@link JavaNDArray} operations.
+ *
+ * <p>The kernels stream the native order buffers in chunks of primitive values, called lanes.
+ * {@code FLOAT32} and {@code FLOAT16} are computed in {@code float} lanes, {@code FLOAT64} in
+ * {@code double} lanes and all the integer and boolean types in {@code long} lanes, so that 64-bit
+ * integers stay exact. The inputs are converted to the lane of the operation while they are read,
+ * which also takes care of the type promotion without an intermediate copy.
+ *
+ * <p>All the buffers passed to the kernels must have native byte order and start at position 0.
+ */
+final class JavaKernels {
+
+    private static final int CHUNK = 4096;
+
+    private JavaKernels() {}
+
+    /** The element-wise binary operations. */
+    enum BinaryOp {
+        ADD,
+        SUB,
+        MUL,
+        DIV,
+        MOD,
+        POW,
+        MAX,
+        MIN,
+        ATAN2
+    }
+
+    /** The element-wise comparisons and logical operations. */
+    enum CompareOp {
+        EQ,
+        NEQ,
+        GT,
+        GTE,
+        LT,
+        LTE,
+        AND,
+        OR,
+        XOR
+    }
+
+    /** The reductions. */
+    enum ReduceOp {
+        SUM,
+        PROD,
+        MAX,
+        MIN,
+        MEAN
+    }
+
+    /** The primitive type the values of a data type are computed with. */
+    enum Lane {
+        FLOAT,
+        DOUBLE,
+        LONG
+    }
+
+    static Lane lane(DataType dataType) {
+        switch (dataType) {
+            case FLOAT32:
+            case FLOAT16:
+                return Lane.FLOAT;
+            case FLOAT64:
+                return Lane.DOUBLE;
+            default:
+                return Lane.LONG;
+        }
+    }
+
+    /**
+     * Applies a binary operation element-wise, {@code out = x op y}.
+     *
+     * @param op the operation
+     * @param type the data type to compute in
+     * @param x the left operand with {@code size} elements
+     * @param xType the data type of {@code x}
+     * @param y the right operand with {@code size} elements, or {@code null} to use {@code scalar}
+     * @param yType the data type of {@code y}
+     * @param scalar the right operand when {@code y} is {@code null}
+     * @param out the output buffer, may be {@code x}
+     * @param outType the data type of {@code out}
+     * @param size the number of elements
+     */
+    static void binary(
+            BinaryOp op,
+            DataType type,
+            ByteBuffer x,
+            DataType xType,
+            ByteBuffer y,
+            DataType yType,
+            Number scalar,
+            ByteBuffer out,
+            DataType outType,
+            int size) {
+        int chunk = Math.max(1, Math.min(size, CHUNK));
+        switch (lane(type)) {
+            case FLOAT:
+                {
+                    float[] a = new float[chunk];
+                    float[] b = new float[chunk];
+                    if (y == null) {
+                        Arrays.fill(b, scalar.floatValue());
+                    }
+                    for (int off = 0; off < size; off += chunk) {
+                        int len = Math.min(chunk, size - off);
+                        getFloat(x, xType, off, a, len);
+                        if (y != null) {
+                            getFloat(y, yType, off, b, len);
+                        }
+                        apply(op, a, b, len);
+                        putFloat(out, outType, off, a, len);
+                    }
+                    break;
+                }
+            case DOUBLE:
+                {
+                    double[] a = new double[chunk];
+                    double[] b = new double[chunk];
+                    if (y == null) {
+                        Arrays.fill(b, scalar.doubleValue());
+                    }
+                    for (int off = 0; off < size; off += chunk) {
+                        int len = Math.min(chunk, size - off);
+                        getDouble(x, xType, off, a, len);
+                        if (y != null) {
+                            getDouble(y, yType, off, b, len);
+                        }
+                        apply(op, a, b, len);
+                        putDouble(out, outType, off, a, len);
+                    }
+                    break;
+                }
+            default:
+                {
+                    long[] a = new long[chunk];
+                    long[] b = new long[chunk];
+                    if (y == null) {
+                        Arrays.fill(b, scalar.longValue());
+                    }
+                    for (int off = 0; off < size; off += chunk) {
+                        int len = Math.min(chunk, size - off);
+                        getLong(x, xType, off, a, len);
+                        if (y != null) {
+                            getLong(y, yType, off, b, len);
+                        }
+                        apply(op, a, b, len);
+                        putLong(out, outType, off, a, len);
+                    }
+                    break;
+                }
+        }
+    }
+
+    /**
+     * Compares two operands element-wise into a boolean buffer.
+     *
+     * @param op the comparison
+     * @param type the data type to compare in
+     * @param x the left operand with {@code size} elements
+     * @param xType the data type of {@code x}
+     * @param y the right operand with {@code size} elements, or {@code null} to use {@code scalar}
+     * @param yType the data type of {@code y}
+     * @param scalar the right operand when {@code y} is {@code null}
+     * @param out the boolean output buffer
+     * @param size the number of elements
+     */
+    static void compare(
+            CompareOp op,
+            DataType type,
+            ByteBuffer x,
+            DataType xType,
+            ByteBuffer y,
+            DataType yType,
+            Number scalar,
+            ByteBuffer out,
+            int size) {
+        int chunk = Math.max(1, Math.min(size, CHUNK));
+        byte[] result = new byte[chunk];
+        ByteBuffer dst = out.duplicate();
+        switch (lane(type)) {
+            case FLOAT:
+                {
+                    float[] a = new float[chunk];
+                    float[] b = new float[chunk];
+                    if (y == null) {
+                        Arrays.fill(b, scalar.floatValue());
+                    }
+                    for (int off = 0; off < size; off += chunk) {
+                        int len = Math.min(chunk, size - off);
+                        getFloat(x, xType, off, a, len);
+                        if (y != null) {
+                            getFloat(y, yType, off, b, len);
+                        }
+                        for (int i = 0; i < len; ++i) {
+                            result[i] = test(op, a[i], b[i]) ? (byte) 1 : (byte) 0;
+                        }
+                        dst.put(result, 0, len);
+                    }
+                    break;
+                }
+            case DOUBLE:
+                {
+                    double[] a = new double[chunk];
+                    double[] b = new double[chunk];
+                    if (y == null) {
+                        Arrays.fill(b, scalar.doubleValue());
+                    }
+                    for (int off = 0; off < size; off += chunk) {
+                        int len = Math.min(chunk, size - off);
+                        getDouble(x, xType, off, a, len);
+                        if (y != null) {
+                            getDouble(y, yType, off, b, len);
+                        }
+                        for (int i = 0; i < len; ++i) {
+                            result[i] = test(op, a[i], b[i]) ? (byte) 1 : (byte) 0;
+                        }
+                        dst.put(result, 0, len);
+                    }
+                    break;
+                }
+            default:
+                {
+                    long[] a = new long[chunk];
+                    long[] b = new long[chunk];
+                    if (y == null) {
+                        Arrays.fill(b, scalar.longValue());
+                    }
+                    for (int off = 0; off < size; off += chunk) {
+                        int len = Math.min(chunk, size - off);
+                        getLong(x, xType, off, a, len);
+                        if (y != null) {
+                            getLong(y, yType, off, b, len);
+                        }
+                        for (int i = 0; i < len; ++i) {
+                            result[i] = test(op, a[i], b[i]) ? (byte) 1 : (byte) 0;
+                        }
+                        dst.put(result, 0, len);
+                    }
+                    break;
+                }
+        }
+    }
+
+    /**
+     * Applies a unary operation element-wise.
+     *
+     * @param op the operation on double values
+     * @param exact the operation on integer values, or {@code null} if the operation must be
+     *     computed in double precision
+     * @param x the input
+     * @param xType the data type of {@code x}
+     * @param out the output buffer, may be {@code x}
+     * @param outType the data type of {@code out}
+     * @param size the number of elements
+     */
+    static void unary(
+            DoubleUnaryOperator op,
+            LongUnaryOperator exact,
+            ByteBuffer x,
+            DataType xType,
+            ByteBuffer out,
+            DataType outType,
+            int size) {
+        int chunk = Math.max(1, Math.min(size, CHUNK));
+        if (exact != null && lane(xType) == Lane.LONG && lane(outType) == Lane.LONG) {
+            long[] a = new long[chunk];
+            for (int off = 0; off < size; off += chunk) {
+                int len = Math.min(chunk, size - off);
+                getLong(x, xType, off, a, len);
+                for (int i = 0; i < len; ++i) {
+                    a[i] = exact.applyAsLong(a[i]);
+                }
+                putLong(out, outType, off, a, len);
+            }
+            return;
+        }
+        double[] a = new double[chunk];
+        for (int off = 0; off < size; off += chunk) {
+            int len = Math.min(chunk, size - off);
+            getDouble(x, xType, off, a, len);
+            for (int i = 0; i < len; ++i) {
+                a[i] = op.applyAsDouble(a[i]);
+            }
+            putDouble(out, outType, off, a, len);
+        }
+    }
+
+    /**
+     * Reduces the input into the output.
+     *
+     * @param op the reduction
+     * @param x the input
+     * @param xType the data type of {@code x}
+     * @param size the number of input elements
+     * @param map the output index of each input element, or {@code null} if all the elements are
+     *     reduced into a single value
+     * @param out the output buffer
+     * @param outType the data type of {@code out}
+     * @param outSize the number of output elements
+     */
+    static void reduce(
+            ReduceOp op,
+            ByteBuffer x,
+            DataType xType,
+            int size,
+            int[] map,
+            ByteBuffer out,
+            DataType outType,
+            int outSize) {
+        int chunk = Math.max(1, Math.min(size, CHUNK));
+        if (outType.isFloating()) {
+            double[] acc = new double[outSize];
+            switch (op) {
+                case PROD:
+                    Arrays.fill(acc, 1);
+                    break;
+                case MAX:
+                    Arrays.fill(acc, Double.NEGATIVE_INFINITY);
+                    break;
+                case MIN:
+                    Arrays.fill(acc, Double.POSITIVE_INFINITY);
+                    break;
+                default:
+                    break;
+            }
+            double[] a = new double[chunk];
+            for (int off = 0; off < size; off += chunk) {
+                int len = Math.min(chunk, size - off);
+                getDouble(x, xType, off, a, len);
+                if (map == null) {
+                    acc[0] = reduce(op, acc[0], a, len);
+                } else {
+                    for (int i = 0; i < len; ++i) {
+                        int o = map[off + i];
+                        acc[o] = reduce(op, acc[o], a[i]);
+                    }
+                }
+            }
+            if (op == ReduceOp.MEAN) {
+                long count = outSize == 0 ? 0 : size / outSize;
+                for (int i = 0; i < outSize; ++i) {
+                    acc[i] /= count;
+                }
+            }
+            putDouble(out, outType, 0, acc, outSize);
+        } else {
+            long[] acc = new long[outSize];
+            switch (op) {
+                case PROD:
+                    Arrays.fill(acc, 1);
+                    break;
+                case MAX:
+                    Arrays.fill(acc, Long.MIN_VALUE);
+                    break;
+                case MIN:
+                    Arrays.fill(acc, Long.MAX_VALUE);
+                    break;
+                default:
+                    break;
+            }
+            long[] a = new long[chunk];
+            for (int off = 0; off < size; off += chunk) {
+                int len = Math.min(chunk, size - off);
+                getLong(x, xType, off, a, len);
+                if (map == null) {
+                    acc[0] = reduce(op, acc[0], a, len);
+                } else {
+                    for (int i = 0; i < len; ++i) {
+                        int o = map[off + i];
+                        acc[o] = reduce(op, acc[o], a[i]);
+                    }
+                }
+            }
+            if (op == ReduceOp.MEAN && outSize > 0) {
+                long count = size / outSize;
+                for (int i = 0; i < outSize; ++i) {
+                    acc[i] /= count;
+                }
+            }
+            putLong(out, outType, 0, acc, outSize);
+        }
+    }
+
+    /**
+     * Converts the values of a buffer to another data type.
+     *
+     * @param x the input
+     * @param xType the data type of {@code x}
+     * @param out the output buffer
+     * @param outType the data type of {@code out}
+     * @param size the number of elements
+     */
+    static void cast(ByteBuffer x, DataType xType, ByteBuffer out, DataType outType, int size) {
+        int chunk = Math.max(1, Math.min(size, CHUNK));
+        switch (lane(outType)) {
+            case FLOAT:
+                {
+                    float[] a = new float[chunk];
+                    for (int off = 0; off < size; off += chunk) {
+                        int len = Math.min(chunk, size - off);
+                        getFloat(x, xType, off, a, len);
+                        putFloat(out, outType, off, a, len);
+                    }
+                    break;
+                }
+            case DOUBLE:
+                {
+                    double[] a = new double[chunk];
+                    for (int off = 0; off < size; off += chunk) {
+                        int len = Math.min(chunk, size - off);
+                        getDouble(x, xType, off, a, len);
+                        putDouble(out, outType, off, a, len);
+                    }
+                    break;
+                }
+            default:
+                {
+                    long[] a = new long[chunk];
+                    for (int off = 0; off < size; off += chunk) {
+                        int len = Math.min(chunk, size - off);
+                        getLong(x, xType, off, a, len);
+                        putLong(out, outType, off, a, len);
+                    }
+                    break;
+                }
+        }
+    }
+
+    /**
+     * Returns the element at the index as a {@code Long} for the integer types and as a {@code
+     * Double} for the floating point types.
+     *
+     * @param bb the buffer
+     * @param dataType the data type of the buffer
+     * @param index the element index
+     * @return the element
+     */
+    static Number getNumber(ByteBuffer bb, DataType dataType, int index) {
+        if (lane(dataType) == Lane.LONG) {
+            return getLong(bb, dataType, index);
+        }
+        return getDouble(bb, dataType, index);
+    }
+
+    static double getDouble(ByteBuffer bb, DataType dataType, int index) {
+        switch (dataType) {
+            case FLOAT32:
+                return bb.getFloat(index * 4);
+            case FLOAT64:
+                return bb.getDouble(index * 8);
+            case FLOAT16:
+                return Float16Utils.halfToFloat(bb.getShort(index * 2));
+            case INT32:
+                return bb.getInt(index * 4);
+            case UINT32:
+                return bb.getInt(index * 4) & 0xFFFFFFFFL;
+            case INT64:
+                return bb.getLong(index * 8);
+            case INT16:
+                return bb.getShort(index * 2);
+            case UINT16:
+                return bb.getShort(index * 2) & 0xFFFF;
+            case INT8:
+                return bb.get(index);
+            case UINT8:
+            case BOOLEAN:
+                return bb.get(index) & 0xFF;
+            default:
+                throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+        }
+    }
+
+    static long getLong(ByteBuffer bb, DataType dataType, int index) {
+        switch (dataType) {
+            case INT64:
+                return bb.getLong(index * 8);
+            case INT32:
+                return bb.getInt(index * 4);
+            case UINT32:
+                return bb.getInt(index * 4) & 0xFFFFFFFFL;
+            case INT16:
+                return bb.getShort(index * 2);
+            case UINT16:
+                return bb.getShort(index * 2) & 0xFFFF;
+            case INT8:
+                return bb.get(index);
+            case UINT8:
+            case BOOLEAN:
+                return bb.get(index) & 0xFF;
+            default:
+                return (long) getDouble(bb, dataType, index);
+        }
+    }
+
+    static void putDouble(ByteBuffer bb, DataType dataType, int index, double value) {
+        switch (dataType) {
+            case FLOAT32:
+                bb.putFloat(index * 4, (float) value);
+                break;
+            case FLOAT64:
+                bb.putDouble(index * 8, value);
+                break;
+            case FLOAT16:
+                bb.putShort(index * 2, Float16Utils.floatToHalf((float) value));
+                break;
+            case BOOLEAN:
+                bb.put(index, value != 0 ? (byte) 1 : (byte) 0);
+                break;
+            default:
+                putLong(bb, dataType, index, (long) value);
+                break;
+        }
+    }
+
+    static void putLong(ByteBuffer bb, DataType dataType, int index, long value) {
+        switch (dataType) {
+            case INT64:
+                bb.putLong(index * 8, value);
+                break;
+            case INT32:
+            case UINT32:
+                bb.putInt(index * 4, (int) value);
+                break;
+            case INT16:
+            case UINT16:
+                bb.putShort(index * 2, (short) value);
+                break;
+            case INT8:
+            case UINT8:
+                bb.put(index, (byte) value);
+                break;
+            case BOOLEAN:
+                bb.put(index, value != 0 ? (byte) 1 : (byte) 0);
+                break;
+            case FLOAT32:
+            case FLOAT64:
+            case FLOAT16:
+                putDouble(bb, dataType, index, value);
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+        }
+    }
+
+    static void getFloat(ByteBuffer bb, DataType dataType, int off, float[] dst, int len) {
+        if (dataType == DataType.FLOAT32) {
+            FloatBuffer fb = bb.asFloatBuffer();
+            fb.position(off);
+            fb.get(dst, 0, len);
+            return;
+        }
+        for (int i = 0; i < len; ++i) {
+            dst[i] = (float) getDouble(bb, dataType, off + i);
+        }
+    }
+
+    static void getDouble(ByteBuffer bb, DataType dataType, int off, double[] dst, int len) {
+        switch (dataType) {
+            case FLOAT64:
+                DoubleBuffer db = bb.asDoubleBuffer();
+                db.position(off);
+                db.get(dst, 0, len);
+                break;
+            case FLOAT32:
+                FloatBuffer fb = bb.asFloatBuffer();
+                for (int i = 0; i < len; ++i) {
+                    dst[i] = fb.get(off + i);
+                }
+                break;
+            default:
+                for (int i = 0; i < len; ++i) {
+                    dst[i] = getDouble(bb, dataType, off + i);
+                }
+                break;
+        }
+    }
+
+    static void getLong(ByteBuffer bb, DataType dataType, int off, long[] dst, int len) {
+        switch (dataType) {
+            case INT64:
+                LongBuffer lb = bb.asLongBuffer();
+                lb.position(off);
+                lb.get(dst, 0, len);
+                break;
+            case INT32:
+                IntBuffer ib = bb.asIntBuffer();
+                for (int i = 0; i < len; ++i) {
+                    dst[i] = ib.get(off + i);
+                }
+                break;
+            case UINT8:
+            case BOOLEAN:
+                for (int i = 0; i < len; ++i) {
+                    dst[i] = bb.get(off + i) & 0xFF;
+                }
+                break;
+            default:
+                for (int i = 0; i < len; ++i) {
+                    dst[i] = getLong(bb, dataType, off + i);
+                }
+                break;
+        }
+    }
+
+    static void putFloat(ByteBuffer bb, DataType dataType, int off, float[] src, int len) {
+        if (dataType == DataType.FLOAT32) {
+            FloatBuffer fb = bb.asFloatBuffer();
+            fb.position(off);
+            fb.put(src, 0, len);
+            return;
+        }
+        for (int i = 0; i < len; ++i) {
+            putDouble(bb, dataType, off + i, src[i]);
+        }
+    }
+
+    static void putDouble(ByteBuffer bb, DataType dataType, int off, double[] src, int len) {
+        switch (dataType) {
+            case FLOAT64:
+                DoubleBuffer db = bb.asDoubleBuffer();
+                db.position(off);
+                db.put(src, 0, len);
+                break;
+            case FLOAT32:
+                FloatBuffer fb = bb.asFloatBuffer();
+                for (int i = 0; i < len; ++i) {
+                    fb.put(off + i, (float) src[i]);
+                }
+                break;
+            default:
+                for (int i = 0; i < len; ++i) {
+                    putDouble(bb, dataType, off + i, src[i]);
+                }
+                break;
+        }
+    }
+
+    static void putLong(ByteBuffer bb, DataType dataType, int off, long[] src, int len) {
+        switch (dataType) {
+            case INT64:
+                LongBuffer lb = bb.asLongBuffer();
+                lb.position(off);
+                lb.put(src, 0, len);
+                break;
+            case INT32:
+                IntBuffer ib = bb.asIntBuffer();
+                for (int i = 0; i < len; ++i) {
+                    ib.put(off + i, (int) src[i]);
+                }
+                break;
+            default:
+                for (int i = 0; i < len; ++i) {
+                    putLong(bb, dataType, off + i, src[i]);
+                }
+                break;
+        }
+    }
+
+    private static void apply(BinaryOp op, float[] a, float[] b, int len) {
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < len; ++i) {
+                    a[i] += b[i];
+                }
+                break;
+            case SUB:
+                for (int i = 0; i < len; ++i) {
+                    a[i] -= b[i];
+                }
+                break;
+            case MUL:
+                for (int i = 0; i < len; ++i) {
+                    a[i] *= b[i];
+                }
+                break;
+            case DIV:
+                for (int i = 0; i < len; ++i) {
+                    a[i] /= b[i];
+                }
+                break;
+            case MAX:
+                for (int i = 0; i < len; ++i) {
+                    a[i] = Math.max(a[i], b[i]);
+                }
+                break;
+            case MIN:
+                for (int i = 0; i < len; ++i) {
+                    a[i] = Math.min(a[i], b[i]);
+                }
+                break;
+            default:
+                for (int i = 0; i < len; ++i) {
+                    a[i] = (float) apply(op, a[i], b[i]);
+                }
+                break;
+        }
+    }
+
+    private static void apply(BinaryOp op, double[] a, double[] b, int len) {
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < len; ++i) {
+                    a[i] += b[i];
+                }
+                break;
+            case SUB:
+                for (int i = 0; i < len; ++i) {
+                    a[i] -= b[i];
+                }
+                break;
+            case MUL:
+                for (int i = 0; i < len; ++i) {
+                    a[i] *= b[i];
+                }
+                break;
+            case DIV:
+                for (int i = 0; i < len; ++i) {
+                    a[i] /= b[i];
+                }
+                break;
+            case MAX:
+                for (int i = 0; i < len; ++i) {
+                    a[i] = Math.max(a[i], b[i]);
+                }
+                break;
+            case MIN:
+                for (int i = 0; i < len; ++i) {
+                    a[i] = Math.min(a[i], b[i]);
+                }
+                break;
+            default:
+                for (int i = 0; i < len; ++i) {
+                    a[i] = apply(op, a[i], b[i]);
+                }
+                break;
+        }
+    }
+
+    private static void apply(BinaryOp op, long[] a, long[] b, int len) {
+        switch (op) {
+            case ADD:
+                for (int i = 0; i < len; ++i) {
+                    a[i] += b[i];
+                }
+                break;
+            case SUB:
+                for (int i = 0; i < len; ++i) {
+                    a[i] -= b[i];
+                }
+                break;
+            case MUL:
+                for (int i = 0; i < len; ++i) {
+                    a[i] *= b[i];
+                }
+                break;
+            case DIV:
+                for (int i = 0; i < len; ++i) {
+                    a[i] /= b[i];
+                }
+                break;
+            case MOD:
+                for (int i = 0; i < len; ++i) {
+                    a[i] = Math.floorMod(a[i], b[i]);
+                }
+                break;
+            case POW:
+                for (int i = 0; i < len; ++i) {
+                    a[i] = pow(a[i], b[i]);
+                }
+                break;
+            case MAX:
+                for (int i = 0; i < len; ++i) {
+                    a[i] = Math.max(a[i], b[i]);
+                }
+                break;
+            case MIN:
+                for (int i = 0; i < len; ++i) {
+                    a[i] = Math.min(a[i], b[i]);
+                }
+                break;
+            case ATAN2:
+                for (int i = 0; i < len; ++i) {
+                    a[i] = (long) Math.atan2(a[i], b[i]);
+                }
+                break;
+            default:
+                throw new AssertionError("Unsupported operation: " + op);
+        }
+    }
+
+    private static double apply(BinaryOp op, double a, double b) {
+        switch (op) {
+            case MOD:
+                double r = a % b;
+                return r != 0 && (r < 0) != (b < 0) ? r + b : r;
+            case POW:
+                return Math.pow(a, b);
+            case ATAN2:
+                return Math.atan2(a, b);
+            default:
+                throw new AssertionError("Unsupported operation: " + op);
+        }
+    }
+
+    private static long pow(long base, long exponent) {
+        if (exponent < 0) {
+            return (long) Math.pow(base, exponent);
+        }
+        long result = 1;
+        long b = base;
+        long e = exponent;
+        while (e != 0) {
+            if ((e & 1) != 0) {
+                result *= b;
+            }
+            b *= b;
+            e >>= 1;
+        }
+        return result;
+    }
+
+    private static boolean test(CompareOp op, double a, double b) {
+        switch (op) {
+            case EQ:
+                return a == b;
+            case NEQ:
+                return a != b;
+            case GT:
+                return a > b;
+            case GTE:
+                return a >= b;
+            case LT:
+                return a < b;
+            case LTE:
+                return a <= b;
+            case AND:
+                return a != 0 && b != 0;
+            case OR:
+                return a != 0 || b != 0;
+            case XOR:
+                return (a != 0) ^ (b != 0);
+            default:
+                throw new AssertionError("Unsupported operation: " + op);
+        }
+    }
+
+    private static boolean test(CompareOp op, long a, long b) {
+        switch (op) {
+            case EQ:
+                return a == b;
+            case NEQ:
+                return a != b;
+            case GT:
+                return a > b;
+            case GTE:
+                return a >= b;
+            case LT:
+                return a < b;
+            case LTE:
+                return a <= b;
+            case AND:
+                return a != 0 && b != 0;
+            case OR:
+                return a != 0 || b != 0;
+            case XOR:
+                return (a != 0) ^ (b != 0);
+            default:
+                throw new AssertionError("Unsupported operation: " + op);
+        }
+    }
+
+    private static double reduce(ReduceOp op, double acc, double[] a, int len) {
+        double r = acc;
+        switch (op) {
+            case SUM:
+            case MEAN:
+                for (int i = 0; i < len; ++i) {
+                    r += a[i];
+                }
+                return r;
+            default:
+                for (int i = 0; i < len; ++i) {
+                    r = reduce(op, r, a[i]);
+                }
+                return r;
+        }
+    }
+
+    private static long reduce(ReduceOp op, long acc, long[] a, int len) {
+        long r = acc;
+        switch (op) {
+            case SUM:
+            case MEAN:
+                for (int i = 0; i < len; ++i) {
+                    r += a[i];
+                }
+                return r;
+            default:
+                for (int i = 0; i < len; ++i) {
+                    r = reduce(op, r, a[i]);
+                }
+                return r;
+        }
+    }
+
+    private static double reduce(ReduceOp op, double acc, double v) {
+        switch (op) {
+            case SUM:
+            case MEAN:
+                return acc + v;
+            case PROD:
+                return acc * v;
+            case MAX:
+                return Math.max(acc, v);
+            case MIN:
+                return Math.min(acc, v);
+            default:
+                throw new AssertionError("Unsupported operation: " + op);
+        }
+    }
+
+    private static long reduce(ReduceOp op, long acc, long v) {
+        switch (op) {
+            case SUM:
+            case MEAN:
+                return acc + v;
+            case PROD:
+                return acc * v;
+            case MAX:
+                return Math.max(acc, v);
+            case MIN:
+                return Math.min(acc, v);
+            default:
+                throw new AssertionError("Unsupported operation: " + op);
+        }
+    }
+}
@@ -0,0 +1,1806 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.java.engine;
+
+import ai.djl.java.engine.JavaKernels.BinaryOp;
+import ai.djl.java.engine.JavaKernels.CompareOp;
+import ai.djl.java.engine.JavaKernels.ReduceOp;
+import ai.djl.ndarray.BaseNDManager;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDArrayAdapter;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * {@code JavaNDArray} is the pure Java implementation of {@link NDArray}.
+ *
+ * <p>The data is stored in a native order direct {@code ByteBuffer}. The element-wise operations,
+ * comparisons and reductions stream the buffers through the typed loops of {@link JavaKernels}, so
+ * integers are computed exactly and the in-place operations write directly into the buffer. Sorting
+ * and indexing gather the elements from the source buffer. The remaining operations, such as the
+ * matrix products, decode the values in double precision.
+ */
+public class JavaNDArray extends NDArrayAdapter {
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    private ByteBuffer data;
+    private JavaNDArrayEx arrayEx;
+
+    JavaNDArray(JavaNDManager manager, ByteBuffer data, Shape shape, DataType dataType) {
+        super(manager, null, shape, dataType, "jv-" + Long.toHexString(COUNTER.incrementAndGet()));
+        this.data = data;
+        arrayEx = new JavaNDArrayEx(this);
+        manager.attachInternal(uid, this);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void attach(NDManager manager) {
+        super.attach(manager);
+        // there is no alternative engine to delegate the unsupported operations to
+        alternativeManager = null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void returnResource(NDManager manager) {
+        detach();
+        this.manager = manager;
+        manager.attachUncappedInternal(getUid(), this);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void detach() {
+        manager.detachInternal(getUid());
+        manager = JavaNDManager.getSystemManager();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ByteBuffer toByteBuffer(boolean tryDirect) {
+        return buffer();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void intern(NDArray replaced) {
+        JavaNDArray array = manager().from(replaced);
+        data = array.data;
+        shape = array.shape;
+        dataType = array.dataType;
+        replaced.close();
+        array.close();
+        markDirty();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public JavaNDArray duplicate() {
+        JavaNDArray array = manager().create(buffer(), shape, dataType);
+        array.setName(getName());
+        return array;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray toType(DataType dataType, boolean copy) {
+        if (dataType == this.dataType) {
+            return copy ? duplicate() : this;
+        }
+        JavaNDManager.checkDataType(dataType);
+        JavaNDArray array = manager().create(shape, dataType);
+        JavaKernels.cast(buffer(), this.dataType, array.buffer(), dataType, intSize());
+        array.setName(getName());
+        return array;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray get(NDIndex index) {
+        return get(manager, index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray get(NDManager manager, NDIndex index) {
+        NDArray result = arrayEx.getIndexer(manager).get(this, index);
+        if (result.getManager() != manager) {
+            result.attach(manager);
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void set(Buffer buffer) {
+        int size = Math.toIntExact(shape.size());
+        BaseNDManager.validateBuffer(buffer, dataType, size);
+        BaseNDManager.copyBuffer(buffer, buffer());
+        markDirty();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void set(NDIndex index, NDArray value) {
+        arrayEx.getIndexer(manager()).set(this, index, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void set(NDIndex index, Number value) {
+        arrayEx.getIndexer(manager()).set(this, index, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setScalar(NDIndex index, Number value) {
+        arrayEx.getIndexer(manager()).setScalar(this, index, value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray gather(NDArray index, int axis) {
+        int dims = shape.dimension();
+        int ax = normalizeAxis(axis, dims);
+        Shape indexShape = index.getShape();
+        if (indexShape.dimension() != dims) {
+            throw new IllegalArgumentException(
+                    "index must have the same number of dimensions as the array");
+        }
+        double[] idx = valuesOf(index);
+        long[] st = strides(shape.getShape());
+        long[] is = indexShape.getShape();
+        long[] pos = new long[dims];
+        long len = shape.get(ax);
+        int[] map = new int[idx.length];
+        for (int i = 0; i < idx.length; ++i) {
+            long j = (long) idx[i];
+            if (j < 0) {
+                j += len;
+            }
+            if (j < 0 || j >= len) {
+                throw new IndexOutOfBoundsException("index " + (long) idx[i] + " out of bounds");
+            }
+            long offset = 0;
+            for (int d = 0; d < dims; ++d) {
+                offset += (d == ax ? j : pos[d]) * st[d];
+            }
+            map[i] = (int) offset;
+            for (int d = dims - 1; d >= 0; --d) {
+                if (++pos[d] < is[d]) {
+                    break;
+                }
+                pos[d] = 0;
+            }
+        }
+        return select(map, indexShape);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray take(NDManager manager, NDArray index) {
+        double[] idx = valuesOf(index);
+        long size = shape.size();
+        int[] map = new int[idx.length];
+        for (int i = 0; i < idx.length; ++i) {
+            long j = (long) idx[i];
+            if (j < 0) {
+                j += size;
+            }
+            if (j < 0 || j >= size) {
+                throw new IndexOutOfBoundsException("index " + (long) idx[i] + " out of bounds");
+            }
+            map[i] = (int) j;
+        }
+        return select(map, index.getShape());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray booleanMask(NDArray index, int axis) {
+        int dims = shape.dimension();
+        int ax = normalizeAxis(axis, dims);
+        Shape maskShape = index.getShape();
+        int maskDims = maskShape.dimension();
+        if (!shape.slice(ax, ax + maskDims).equals(maskShape)) {
+            throw new IllegalArgumentException(
+                    "mask shape " + maskShape + " does not match array shape " + shape);
+        }
+        double[] mask = valuesOf(index);
+        int outer = Math.toIntExact(shape.slice(0, ax).size());
+        int inner = Math.toIntExact(shape.slice(ax + maskDims).size());
+        int selected = 0;
+        for (double m : mask) {
+            if (m != 0) {
+                ++selected;
+            }
+        }
+        int[] map = new int[outer * selected * inner];
+        int k = 0;
+        for (int o = 0; o < outer; ++o) {
+            for (int j = 0; j < mask.length; ++j) {
+                if (mask[j] != 0) {
+                    int base = (o * mask.length + j) * inner;
+                    for (int i = 0; i < inner; ++i) {
+                        map[k++] = base + i;
+                    }
+                }
+            }
+        }
+        long[] out = new long[dims - maskDims + 1];
+        for (int d = 0; d < ax; ++d) {
+            out[d] = shape.get(d);
+        }
+        out[ax] = selected;
+        for (int d = ax + maskDims; d < dims; ++d) {
+            out[d - maskDims + 1] = shape.get(d);
+        }
+        return select(map, new Shape(out));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray eq(Number n) {
+        return compare(n, CompareOp.EQ);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray eq(NDArray other) {
+        return compare(other, CompareOp.EQ);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray neq(Number n) {
+        return compare(n, CompareOp.NEQ);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray neq(NDArray other) {
+        return compare(other, CompareOp.NEQ);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray gt(Number n) {
+        return compare(n, CompareOp.GT);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray gt(NDArray other) {
+        return compare(other, CompareOp.GT);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray gte(Number n) {
+        return compare(n, CompareOp.GTE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray gte(NDArray other) {
+        return compare(other, CompareOp.GTE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray lt(Number n) {
+        return compare(n, CompareOp.LT);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray lt(NDArray other) {
+        return compare(other, CompareOp.LT);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray lte(Number n) {
+        return compare(n, CompareOp.LTE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray lte(NDArray other) {
+        return compare(other, CompareOp.LTE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray add(Number n) {
+        return binary(n, BinaryOp.ADD);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray add(NDArray other) {
+        return binary(other, BinaryOp.ADD);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray sub(Number n) {
+        return binary(n, BinaryOp.SUB);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray sub(NDArray other) {
+        return binary(other, BinaryOp.SUB);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray mul(Number n) {
+        return binary(n, BinaryOp.MUL);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray mul(NDArray other) {
+        return binary(other, BinaryOp.MUL);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray div(Number n) {
+        return binary(n, BinaryOp.DIV);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray div(NDArray other) {
+        return binary(other, BinaryOp.DIV);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray mod(Number n) {
+        return binary(n, BinaryOp.MOD);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray mod(NDArray other) {
+        return binary(other, BinaryOp.MOD);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray pow(Number n) {
+        return binary(n, BinaryOp.POW);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray pow(NDArray other) {
+        return binary(other, BinaryOp.POW);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray addi(Number n) {
+        return binaryInplace(n, BinaryOp.ADD);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray addi(NDArray other) {
+        return binaryInplace(other, BinaryOp.ADD);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray subi(Number n) {
+        return binaryInplace(n, BinaryOp.SUB);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray subi(NDArray other) {
+        return binaryInplace(other, BinaryOp.SUB);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray muli(Number n) {
+        return binaryInplace(n, BinaryOp.MUL);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray muli(NDArray other) {
+        return binaryInplace(other, BinaryOp.MUL);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray divi(Number n) {
+        return binaryInplace(n, BinaryOp.DIV);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray divi(NDArray other) {
+        return binaryInplace(other, BinaryOp.DIV);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray modi(Number n) {
+        return binaryInplace(n, BinaryOp.MOD);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray modi(NDArray other) {
+        return binaryInplace(other, BinaryOp.MOD);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray powi(Number n) {
+        return binaryInplace(n, BinaryOp.POW);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray powi(NDArray other) {
+        return binaryInplace(other, BinaryOp.POW);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray sign() {
+        return unary(Math::signum, Long::signum, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray signi() {
+        return unaryInplace(Math::signum, Long::signum);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray maximum(Number n) {
+        return binary(n, BinaryOp.MAX);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray maximum(NDArray other) {
+        return binary(other, BinaryOp.MAX);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray minimum(Number n) {
+        return binary(n, BinaryOp.MIN);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray minimum(NDArray other) {
+        return binary(other, BinaryOp.MIN);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray neg() {
+        return unary(a -> -a, a -> -a, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray negi() {
+        return unaryInplace(a -> -a, a -> -a);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray abs() {
+        return unary(Math::abs, Math::abs, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray square() {
+        return unary(a -> a * a, a -> a * a, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray sqrt() {
+        return unary(Math::sqrt, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray cbrt() {
+        return unary(Math::cbrt, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray floor() {
+        return unary(Math::floor, a -> a, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray ceil() {
+        return unary(Math::ceil, a -> a, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray round() {
+        return unary(Math::rint, a -> a, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray trunc() {
+        return unary(a -> a < 0 ? Math.ceil(a) : Math.floor(a), a -> a, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray exp() {
+        return unary(Math::exp, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray log() {
+        return unary(Math::log, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray log10() {
+        return unary(Math::log10, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray log2() {
+        return unary(a -> Math.log(a) / Math.log(2), null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray sin() {
+        return unary(Math::sin, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray cos() {
+        return unary(Math::cos, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray tan() {
+        return unary(Math::tan, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray asin() {
+        return unary(Math::asin, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray acos() {
+        return unary(Math::acos, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray atan() {
+        return unary(Math::atan, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray atan2(NDArray other) {
+        return binary(other, BinaryOp.ATAN2, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray sinh() {
+        return unary(Math::sinh, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray cosh() {
+        return unary(Math::cosh, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray tanh() {
+        return unary(Math::tanh, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray asinh() {
+        return unary(a -> Math.log(a + Math.sqrt(a * a + 1)), null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray acosh() {
+        return unary(a -> Math.log(a + Math.sqrt(a * a - 1)), null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray atanh() {
+        return unary(a -> 0.5 * Math.log((1 + a) / (1 - a)), null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray toDegrees() {
+        return unary(Math::toDegrees, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray toRadians() {
+        return unary(Math::toRadians, null, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray clip(Number min, Number max) {
+        double low = min.doubleValue();
+        double high = max.doubleValue();
+        long lowLong = (long) low;
+        long highLong = (long) high;
+        return unary(
+                a -> Math.min(Math.max(a, low), high),
+                a -> Math.min(Math.max(a, lowLong), highLong),
+                dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray isInfinite() {
+        return unary(a -> Double.isInfinite(a) ? 1 : 0, null, DataType.BOOLEAN);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray isNaN() {
+        return unary(a -> Double.isNaN(a) ? 1 : 0, null, DataType.BOOLEAN);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray logicalAnd(NDArray other) {
+        return compare(other, CompareOp.AND);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray logicalOr(NDArray other) {
+        return compare(other, CompareOp.OR);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray logicalXor(NDArray other) {
+        return compare(other, CompareOp.XOR);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray logicalNot() {
+        return unary(a -> a == 0 ? 1 : 0, null, DataType.BOOLEAN);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray max() {
+        checkNotEmpty("max");
+        return reduce(allAxes(), false, ReduceOp.MAX, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray max(int[] axes, boolean keepDims) {
+        checkNotEmpty("max");
+        return reduce(axes, keepDims, ReduceOp.MAX, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray min() {
+        checkNotEmpty("min");
+        return reduce(allAxes(), false, ReduceOp.MIN, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray min(int[] axes, boolean keepDims) {
+        checkNotEmpty("min");
+        return reduce(axes, keepDims, ReduceOp.MIN, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray sum() {
+        return reduce(allAxes(), false, ReduceOp.SUM, accumulateType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray sum(int[] axes, boolean keepDims) {
+        return reduce(axes, keepDims, ReduceOp.SUM, accumulateType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray prod() {
+        return reduce(allAxes(), false, ReduceOp.PROD, accumulateType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray prod(int[] axes, boolean keepDims) {
+        return reduce(axes, keepDims, ReduceOp.PROD, accumulateType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray mean() {
+        return mean(allAxes(), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray mean(int[] axes, boolean keepDims) {
+        return reduce(axes, keepDims, ReduceOp.MEAN, floatType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray cumSum() {
+        return reshape(-1).cumSum(0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray cumSum(int axis) {
+        return cumulate(axis, BinaryOp.ADD, accumulateType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray cumProd(int axis) {
+        return cumulate(axis, BinaryOp.MUL, accumulateType());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray cumProd(int axis, DataType dataType) {
+        return cumulate(axis, BinaryOp.MUL, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray softmax(int axis) {
+        return softmaxAlong(axis, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray logSoftmax(int axis) {
+        return softmaxAlong(axis, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray argMax() {
+        checkNotEmpty("argMax");
+        return reshape(-1).argMax(0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray argMax(int axis) {
+        checkNotEmpty("argMax");
+        return argBest(axis, true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray argMin() {
+        checkNotEmpty("argMin");
+        return reshape(-1).argMin(0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray argMin(int axis) {
+        checkNotEmpty("argMin");
+        return argBest(axis, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList topK(int k, int axis, boolean largest, boolean sorted) {
+        int ax = normalizeAxis(axis, shape.dimension());
+        if (k < 0 || k > shape.get(ax)) {
+            throw new IllegalArgumentException("k is out of range: " + k);
+        }
+        return sortAlong(ax, k, !largest);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray sort() {
+        return sort(-1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray sort(int axis) {
+        int ax = normalizeAxis(axis, shape.dimension());
+        NDList list = sortAlong(ax, (int) shape.get(ax), true);
+        list.get(1).close();
+        return list.get(0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray argSort(int axis, boolean ascending) {
+        int ax = normalizeAxis(axis, shape.dimension());
+        NDList list = sortAlong(ax, (int) shape.get(ax), ascending);
+        list.get(0).close();
+        return list.get(1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray reshape(Shape shape) {
+        long[] dims = shape.getShape().clone();
+        long size = this.shape.size();
+        int unknown = -1;
+        long known = 1;
+        for (int i = 0; i < dims.length; ++i) {
+            if (dims[i] == -1) {
+                if (unknown != -1) {
+                    throw new IllegalArgumentException("Only one dimension can be inferred");
+                }
+                unknown = i;
+            } else {
+                known *= dims[i];
+            }
+        }
+        if (unknown != -1 && known != 0) {
+            dims[unknown] = size / known;
+            known *= dims[unknown];
+        }
+        if (known != size) {
+            throw new IllegalArgumentException(
+                    "Cannot reshape array of shape " + this.shape + " into " + shape);
+        }
+        JavaNDArray array = duplicate();
+        array.shape = new Shape(dims);
+        return array;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray expandDims(int axis) {
+        int dims = shape.dimension();
+        int ax = normalizeAxis(axis, dims + 1);
+        long[] s = shape.getShape();
+        long[] out = new long[dims + 1];
+        System.arraycopy(s, 0, out, 0, ax);
+        out[ax] = 1;
+        System.arraycopy(s, ax, out, ax + 1, dims - ax);
+        return reshape(new Shape(out));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray squeeze(int[] axes) {
+        int dims = shape.dimension();
+        boolean[] removed = new boolean[dims];
+        for (int axis : axes) {
+            int ax = normalizeAxis(axis, dims);
+            if (shape.get(ax) != 1) {
+                throw new IllegalArgumentException(
+                        "Cannot squeeze axis " + axis + " of shape " + shape);
+            }
+            removed[ax] = true;
+        }
+        List<Long> out = new ArrayList<>(dims);
+        for (int d = 0; d < dims; ++d) {
+            if (!removed[d]) {
+                out.add(shape.get(d));
+            }
+        }
+        return reshape(new Shape(out));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray flatten() {
+        return reshape(-1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray flatten(int startDim, int endDim) {
+        int dims = shape.dimension();
+        int start = normalizeAxis(startDim, dims);
+        int end = normalizeAxis(endDim, dims);
+        List<Long> out = new ArrayList<>(dims);
+        for (int d = 0; d < start; ++d) {
+            out.add(shape.get(d));
+        }
+        out.add(shape.slice(start, end + 1).size());
+        for (int d = end + 1; d < dims; ++d) {
+            out.add(shape.get(d));
+        }
+        return reshape(new Shape(out));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList split(long sections, int axis) {
+        int ax = normalizeAxis(axis, shape.dimension());
+        long len = shape.get(ax);
+        if (sections <= 0 || len % sections != 0) {
+            throw new IllegalArgumentException(
+                    "array split does not result in an equal division: " + sections);
+        }
+        long step = len / sections;
+        long[] indices = new long[(int) sections - 1];
+        for (int i = 0; i < indices.length; ++i) {
+            indices[i] = (i + 1) * step;
+        }
+        return split(indices, ax);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList split(long[] indices, int axis) {
+        int ax = normalizeAxis(axis, shape.dimension());
+        long len = shape.get(ax);
+        NDList list = new NDList(indices.length + 1);
+        long start = 0;
+        for (int i = 0; i <= indices.length; ++i) {
+            long end = i < indices.length ? Math.min(indices[i], len) : len;
+            list.add(sliceAxis(ax, start, Math.max(start, end)));
+            start = Math.max(start, end);
+        }
+        return list;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray transpose() {
+        int dims = shape.dimension();
+        int[] axes = new int[dims];
+        for (int i = 0; i < dims; ++i) {
+            axes[i] = dims - 1 - i;
+        }
+        return transpose(axes);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray transpose(int... axes) {
+        int dims = shape.dimension();
+        if (axes.length != dims) {
+            throw new IllegalArgumentException("axes don't match array dimensions: " + dims);
+        }
+        long[] s = shape.getShape();
+        long[] st = strides(s);
+        long[] out = new long[dims];
+        long[] outStrides = new long[dims];
+        boolean[] seen = new boolean[dims];
+        for (int i = 0; i < dims; ++i) {
+            int ax = normalizeAxis(axes[i], dims);
+            if (seen[ax]) {
+                throw new IllegalArgumentException("repeated axis in transpose: " + axes[i]);
+            }
+            seen[ax] = true;
+            out[i] = s[ax];
+            outStrides[i] = st[ax];
+        }
+        return select(indexMap(out, outStrides, 0), new Shape(out));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray flip(int... axes) {
+        int dims = shape.dimension();
+        long[] s = shape.getShape();
+        long[] st = strides(s);
+        long base = 0;
+        for (int axis : axes) {
+            int ax = normalizeAxis(axis, dims);
+            base += (s[ax] - 1) * st[ax];
+            st[ax] = -st[ax];
+        }
+        return select(indexMap(s, st, base), shape);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray broadcast(Shape shape) {
+        Shape target = broadcastShape(this.shape, shape);
+        if (!target.equals(shape)) {
+            throw new IllegalArgumentException("Cannot broadcast " + this.shape + " to " + shape);
+        }
+        return select(broadcastMap(this.shape, shape), shape);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray dot(NDArray other) {
+        Shape os = other.getShape();
+        if (shape.dimension() == 1 && os.dimension() == 1) {
+            if (shape.get(0) != os.get(0)) {
+                throw new IllegalArgumentException("shapes " + shape + " and " + os);
+            }
+            double[] x = values();
+            double[] y = valuesOf(other);
+            double sum = 0;
+            for (int i = 0; i < x.length; ++i) {
+                sum += x[i] * y[i];
+            }
+            return create(new double[] {sum}, new Shape(), promote(dataType, other.getDataType()));
+        }
+        if (shape.isScalar() || os.isScalar()) {
+            return mul(other);
+        }
+        return matMul(other);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray matMul(NDArray other) {
+        Shape os = other.getShape();
+        int dims = shape.dimension();
+        int otherDims = os.dimension();
+        if (dims < 1 || otherDims < 1) {
+            throw new IllegalArgumentException("matMul does not support scalar");
+        }
+        boolean vecA = dims == 1;
+        boolean vecB = otherDims == 1;
+        Shape a = vecA ? new Shape(1, shape.get(0)) : shape;
+        Shape b = vecB ? new Shape(os.get(0), 1) : os;
+        int m = (int) a.get(a.dimension() - 2);
+        int k = (int) a.get(a.dimension() - 1);
+        int n = (int) b.get(b.dimension() - 1);
+        if (b.get(b.dimension() - 2) != k) {
+            throw new IllegalArgumentException("shapes " + shape + " and " + os + " mismatch");
+        }
+        Shape batchA = a.slice(0, a.dimension() - 2);
+        Shape batchB = b.slice(0, b.dimension() - 2);
+        Shape batch = broadcastShape(batchA, batchB);
+        int[] mapA = broadcastMap(batchA, batch);
+        int[] mapB = broadcastMap(batchB, batch);
+        double[] x = values();
+        double[] y = valuesOf(other);
+        double[] out = new double[mapA.length * m * n];
+        for (int bi = 0; bi < mapA.length; ++bi) {
+            int offA = mapA[bi] * m * k;
+            int offB = mapB[bi] * k * n;
+            int offC = bi * m * n;
+            for (int i = 0; i < m; ++i) {
+                for (int p = 0; p < k; ++p) {
+                    double v = x[offA + i * k + p];
+                    int rowB = offB + p * n;
+                    int rowC = offC + i * n;
+                    for (int j = 0; j < n; ++j) {
+                        out[rowC + j] += v * y[rowB + j];
+                    }
+                }
+            }
+        }
+        List<Long> outShape = new ArrayList<>();
+        for (long d : batch.getShape()) {
+            outShape.add(d);
+        }
+        if (!vecA) {
+            outShape.add((long) m);
+        }
+        if (!vecB) {
+            outShape.add((long) n);
+        }
+        return create(out, new Shape(outShape), promote(dataType, other.getDataType()));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray nonzero() {
+        ByteBuffer x = buffer();
+        int size = intSize();
+        int dims = shape.dimension();
+        long[] s = shape.getShape();
+        long[] pos = new long[dims];
+        List<long[]> found = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            if (JavaKernels.getDouble(x, dataType, i) != 0) {
+                found.add(pos.clone());
+            }
+            for (int d = dims - 1; d >= 0; --d) {
+                if (++pos[d] < s[d]) {
+                    break;
+                }
+                pos[d] = 0;
+            }
+        }
+        long[] out = new long[found.size() * dims];
+        for (int i = 0; i < found.size(); ++i) {
+            System.arraycopy(found.get(i), 0, out, i * dims, dims);
+        }
+        return manager().create(
+                LongBuffer.wrap(out), new Shape(found.size(), dims), DataType.INT64);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public JavaNDArrayEx getNDArrayInternal() {
+        return arrayEx;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        super.close();
+        data = null;
+    }
+
+    /**
+     * Returns the values of the array in row-major order.
+     *
+     * @return the values of the array
+     */
+    double[] values() {
+        return JavaNDManager.decode(data, dataType, Math.toIntExact(shape.size()));
+    }
+
+    /**
+     * Returns a view of the data buffer with native byte order.
+     *
+     * @return a view of the data buffer
+     */
+    ByteBuffer buffer() {
+        ByteBuffer bb = data.duplicate().order(ByteOrder.nativeOrder());
+        bb.rewind();
+        return bb;
+    }
+
+    JavaNDManager manager() {
+        if (manager instanceof JavaNDManager) {
+            return (JavaNDManager) manager;
+        }
+        return JavaNDManager.getSystemManager();
+    }
+
+    JavaNDArray create(double[] values, Shape shape, DataType dataType) {
+        return manager().fromValues(values, shape, dataType);
+    }
+
+    /**
+     * Returns a new array of the given shape, whose i-th element is the element {@code map[i]} of
+     * this array.
+     *
+     * @param map the element index for each element of the new array
+     * @param shape the shape of the new array
+     * @return a new array
+     */
+    JavaNDArray select(int[] map, Shape shape) {
+        JavaNDArray array = manager().create(shape, dataType);
+        ByteBuffer src = buffer();
+        ByteBuffer dst = array.buffer();
+        switch (dataType.getNumOfBytes()) {
+            case 1:
+                for (int i = 0; i < map.length; ++i) {
+                    dst.put(i, src.get(map[i]));
+                }
+                break;
+            case 2:
+                for (int i = 0; i < map.length; ++i) {
+                    dst.putShort(i * 2, src.getShort(map[i] * 2));
+                }
+                break;
+            case 4:
+                for (int i = 0; i < map.length; ++i) {
+                    dst.putInt(i * 4, src.getInt(map[i] * 4));
+                }
+                break;
+            case 8:
+                for (int i = 0; i < map.length; ++i) {
+                    dst.putLong(i * 8, src.getLong(map[i] * 8));
+                }
+                break;
+            default:
+                throw new AssertionError("Unsupported data type: " + dataType);
+        }
+        return array;
+    }
+
+    /**
+     * Returns a new array with the elements from {@code start} to {@code end} along the axis.
+     *
+     * @param axis the axis to slice
+     * @param start the start index, inclusive
+     * @param end the end index, exclusive
+     * @return a new array
+     */
+    JavaNDArray sliceAxis(int axis, long start, long end) {
+        long[] s = shape.getShape();
+        long[] out = s.clone();
+        out[axis] = end - start;
+        long[] st = strides(s);
+        return select(indexMap(out, st, start * st[axis]), new Shape(out));
+    }
+
+    static ByteBuffer bufferOf(NDArray array) {
+        if (array instanceof JavaNDArray) {
+            return ((JavaNDArray) array).buffer();
+        }
+        ByteBuffer bb = array.toByteBuffer().duplicate().order(ByteOrder.nativeOrder());
+        bb.rewind();
+        return bb;
+    }
+
+    static double[] valuesOf(NDArray array) {
+        if (array instanceof JavaNDArray) {
+            return ((JavaNDArray) array).values();
+        }
+        return JavaNDManager.decode(
+                array.toByteBuffer(),
+                array.getDataType(),
+                Math.toIntExact(array.getShape().size()));
+    }
+
+    static int normalizeAxis(int axis, int dims) {
+        if (axis < -dims || axis >= dims) {
+            throw new IllegalArgumentException(
+                    "axis " + axis + " is out of bounds for array of dimension " + dims);
+        }
+        return axis < 0 ? axis + dims : axis;
+    }
+
+    static long[] strides(long[] shape) {
+        long[] strides = new long[shape.length];
+        long stride = 1;
+        for (int i = shape.length - 1; i >= 0; --i) {
+            strides[i] = stride;
+            stride *= shape[i];
+        }
+        return strides;
+    }
+
+    /**
+     * Returns the flat source index for each element of an array of the given shape in row-major
+     * order, walking the source with the given strides from the base offset.
+     *
+     * @param shape the shape to iterate
+     * @param strides the source stride of each dimension
+     * @param base the source offset of the first element
+     * @return the source index of each element
+     */
+    static int[] indexMap(long[] shape, long[] strides, long base) {
+        long total = 1;
+        for (long d : shape) {
+            total *= d;
+        }
+        int size = Math.toIntExact(total);
+        int[] map = new int[size];
+        int dims = shape.length;
+        long[] pos = new long[dims];
+        long offset = base;
+        for (int i = 0; i < size; ++i) {
+            map[i] = (int) offset;
+            for (int d = dims - 1; d >= 0; --d) {
+                offset += strides[d];
+                if (++pos[d] < shape[d]) {
+                    break;
+                }
+                offset -= strides[d] * shape[d];
+                pos[d] = 0;
+            }
+        }
+        return map;
+    }
+
+    static Shape broadcastShape(Shape a, Shape b) {
+        int dims = Math.max(a.dimension(), b.dimension());
+        long[] out = new long[dims];
+        for (int i = 0; i < dims; ++i) {
+            int ia = a.dimension() - dims + i;
+            int ib = b.dimension() - dims + i;
+            long da = ia < 0 ? 1 : a.get(ia);
+            long db = ib < 0 ? 1 : b.get(ib);
+            if (da != db && da != 1 && db != 1) {
+                throw new IllegalArgumentException(
+                        "operands could not be broadcast together with shapes " + a + " " + b);
+            }
+            out[i] = da == 1 ? db : da;
+        }
+        return new Shape(out);
+    }
+
+    static int[] broadcastMap(Shape source, Shape target) {
+        int dims = target.dimension();
+        long[] st = strides(source.getShape());
+        long[] bst = new long[dims];
+        int offset = dims - source.dimension();
+        for (int i = 0; i < source.dimension(); ++i) {
+            bst[i + offset] = source.get(i) == 1 ? 0 : st[i];
+        }
+        return indexMap(target.getShape(), bst, 0);
+    }
+
+    static DataType promote(DataType a, DataType b) {
+        if (a == b) {
+            return a;
+        }
+        if (a.isFloating() || b.isFloating()) {
+            if (!b.isFloating()) {
+                return a;
+            }
+            if (!a.isFloating()) {
+                return b;
+            }
+        } else if (a.isBoolean()) {
+            return b;
+        } else if (b.isBoolean()) {
+            return a;
+        }
+        return a.getNumOfBytes() >= b.getNumOfBytes() ? a : b;
+    }
+
+    private DataType floatType() {
+        return dataType.isFloating() ? dataType : DataType.FLOAT32;
+    }
+
+    private DataType accumulateType() {
+        return dataType.isBoolean() ? DataType.INT64 : dataType;
+    }
+
+    private DataType scalarType(Number n) {
+        if (dataType.isFloating()) {
+            return dataType;
+        }
+        if (n instanceof Float || n instanceof Double) {
+            return DataType.FLOAT32;
+        }
+        if (dataType.isBoolean()) {
+            return n instanceof Long ? DataType.INT64 : DataType.INT32;
+        }
+        return dataType;
+    }
+
+    private int[] allAxes() {
+        int[] axes = new int[shape.dimension()];
+        for (int i = 0; i < axes.length; ++i) {
+            axes[i] = i;
+        }
+        return axes;
+    }
+
+    private void checkNotEmpty(String op) {
+        if (shape.size() == 0) {
+            throw new IllegalArgumentException("attempt to get " + op + " of an empty NDArray");
+        }
+    }
+
+    private int intSize() {
+        return Math.toIntExact(shape.size());
+    }
+
+    private JavaNDArray unary(DoubleUnaryOperator op, LongUnaryOperator exact, DataType type) {
+        JavaNDArray array = manager().create(shape, type);
+        JavaKernels.unary(op, exact, buffer(), dataType, array.buffer(), type, intSize());
+        return array;
+    }
+
+    private NDArray unaryInplace(DoubleUnaryOperator op, LongUnaryOperator exact) {
+        ByteBuffer bb = buffer();
+        JavaKernels.unary(op, exact, bb, dataType, bb, dataType, intSize());
+        markDirty();
+        return this;
+    }
+
+    private JavaNDArray binary(Number n, BinaryOp op) {
+        DataType type = scalarType(n);
+        JavaNDArray array = manager().create(shape, type);
+        ByteBuffer out = array.buffer();
+        JavaKernels.binary(op, type, buffer(), dataType, null, null, n, out, type, intSize());
+        return array;
+    }
+
+    private NDArray binaryInplace(Number n, BinaryOp op) {
+        ByteBuffer bb = buffer();
+        JavaKernels.binary(op, scalarType(n), bb, dataType, null, null, n, bb, dataType, intSize());
+        markDirty();
+        return this;
+    }
+
+    private JavaNDArray binary(NDArray other, BinaryOp op) {
+        return binary(other, op, promote(dataType, other.getDataType()));
+    }
+
+    private JavaNDArray binary(NDArray other, BinaryOp op, DataType type) {
+        Shape outShape = broadcastShape(shape, other.getShape());
+        JavaNDArray array = manager().create(outShape, type);
+        try (Operands o = new Operands(this, other, outShape)) {
+            JavaKernels.binary(
+                    op, type, o.x, dataType, o.y, o.yType, o.scalar, array.buffer(), type, o.size);
+        }
+        return array;
+    }
+
+    private NDArray binaryInplace(NDArray other, BinaryOp op) {
+        Shape outShape = broadcastShape(shape, other.getShape());
+        if (!outShape.equals(shape)) {
+            throw new IllegalArgumentException(
+                    "Cannot update array of shape " + shape + " with " + outShape);
+        }
+        DataType type = promote(dataType, other.getDataType());
+        try (Operands o = new Operands(this, other, shape)) {
+            JavaKernels.binary(
+                    op, type, o.x, dataType, o.y, o.yType, o.scalar, o.x, dataType, o.size);
+        }
+        markDirty();
+        return this;
+    }
+
+    private JavaNDArray compare(Number n, CompareOp op) {
+        DataType type = scalarType(n);
+        if (!dataType.isFloating() && type.isFloating()) {
+            // compare the integers with the fractional scalar without rounding either of them
+            type = DataType.FLOAT64;
+        }
+        JavaNDArray array = manager().create(shape, DataType.BOOLEAN);
+        JavaKernels.compare(op, type, buffer(), dataType, null, null, n, array.buffer(), intSize());
+        return array;
+    }
+
+    private JavaNDArray compare(NDArray other, CompareOp op) {
+        Shape outShape = broadcastShape(shape, other.getShape());
+        DataType type = promote(dataType, other.getDataType());
+        JavaNDArray array = manager().create(outShape, DataType.BOOLEAN);
+        try (Operands o = new Operands(this, other, outShape)) {
+            JavaKernels.compare(
+                    op, type, o.x, dataType, o.y, o.yType, o.scalar, array.buffer(), o.size);
+        }
+        return array;
+    }
+
+    private JavaNDArray reduce(int[] axes, boolean keepDims, ReduceOp op, DataType type) {
+        int dims = shape.dimension();
+        boolean[] reduced = new boolean[dims];
+        for (int axis : axes) {
+            reduced[normalizeAxis(axis, dims)] = true;
+        }
+        long[] s = shape.getShape();
+        long[] full = new long[dims];
+        List<Long> squeezed = new ArrayList<>(dims);
+        for (int d = 0; d < dims; ++d) {
+            full[d] = reduced[d] ? 1 : s[d];
+            if (!reduced[d]) {
+                squeezed.add(s[d]);
+            }
+        }
+        Shape outShape = keepDims ? new Shape(full) : new Shape(squeezed);
+        int outSize = Math.toIntExact(outShape.size());
+        int[] map = null;
+        if (outSize != 1) {
+            long[] st = strides(full);
+            for (int d = 0; d < dims; ++d) {
+                if (reduced[d]) {
+                    st[d] = 0;
+                }
+            }
+            map = indexMap(s, st, 0);
+        }
+        JavaNDArray array = manager().create(outShape, type);
+        JavaKernels.reduce(op, buffer(), dataType, intSize(), map, array.buffer(), type, outSize);
+        return array;
+    }
+
+    /**
+     * Returns the flat index for each element of an array of the given shape, iterated with the
+     * axis moved to the last dimension.
+     */
+    private static int[] axisLastMap(Shape shape, int axis) {
+        long[] s = shape.getShape();
+        long[] st = strides(s);
+        int dims = s.length;
+        long[] moved = new long[dims];
+        long[] movedStrides = new long[dims];
+        int j = 0;
+        for (int d = 0; d < dims; ++d) {
+            if (d != axis) {
+                moved[j] = s[d];
+                movedStrides[j++] = st[d];
+            }
+        }
+        moved[dims - 1] = s[axis];
+        movedStrides[dims - 1] = st[axis];
+        return indexMap(moved, movedStrides, 0);
+    }
+
+    private JavaNDArray cumulate(int axis, BinaryOp op, DataType type) {
+        int ax = normalizeAxis(axis, shape.dimension());
+        int len = (int) shape.get(ax);
+        JavaNDArray array = manager().create(shape, type);
+        if (len > 0) {
+            ByteBuffer x = buffer();
+            ByteBuffer out = array.buffer();
+            boolean exact = JavaKernels.lane(type) == JavaKernels.Lane.LONG;
+            int[] map = axisLastMap(shape, ax);
+            for (int r = 0; r < map.length; r += len) {
+                if (exact) {
+                    long acc = JavaKernels.getLong(x, dataType, map[r]);
+                    JavaKernels.putLong(out, type, map[r], acc);
+                    for (int j = 1; j < len; ++j) {
+                        long v = JavaKernels.getLong(x, dataType, map[r + j]);
+                        acc = op == BinaryOp.ADD ? acc + v : acc * v;
+                        JavaKernels.putLong(out, type, map[r + j], acc);
+                    }
+                } else {
+                    double acc = JavaKernels.getDouble(x, dataType, map[r]);
+                    JavaKernels.putDouble(out, type, map[r], acc);
+                    for (int j = 1; j < len; ++j) {
+                        double v = JavaKernels.getDouble(x, dataType, map[r + j]);
+                        acc = op == BinaryOp.ADD ? acc + v : acc * v;
+                        JavaKernels.putDouble(out, type, map[r + j], acc);
+                    }
+                }
+            }
+        }
+        return array;
+    }
+
+    private JavaNDArray softmaxAlong(int axis, boolean log) {
+        int ax = normalizeAxis(axis, shape.dimension());
+        int len = (int) shape.get(ax);
+        double[] x = values();
+        double[] out = new double[x.length];
+        if (len > 0) {
+            int[] map = axisLastMap(shape, ax);
+            for (int r = 0; r < map.length; r += len) {
+                double max = Double.NEGATIVE_INFINITY;
+                for (int j = 0; j < len; ++j) {
+                    max = Math.max(max, x[map[r + j]]);
+                }
+                double sum = 0;
+                for (int j = 0; j < len; ++j) {
+                    int idx = map[r + j];
+                    out[idx] = x[idx] - max;
+                    sum += Math.exp(out[idx]);
+                }
+                if (log) {
+                    double logSum = Math.log(sum);
+                    for (int j = 0; j < len; ++j) {
+                        out[map[r + j]] -= logSum;
+                    }
+                } else {
+                    for (int j = 0; j < len; ++j) {
+                        int idx = map[r + j];
+                        out[idx] = Math.exp(out[idx]) / sum;
+                    }
+                }
+            }
+        }
+        return create(out, shape, floatType());
+    }
+
+    private JavaNDArray argBest(int axis, boolean largest) {
+        int dims = shape.dimension();
+        int ax = normalizeAxis(axis, dims);
+        int len = (int) shape.get(ax);
+        ByteBuffer x = buffer();
+        boolean exact = JavaKernels.lane(dataType) == JavaKernels.Lane.LONG;
+        int[] map = axisLastMap(shape, ax);
+        long[] out = new long[map.length / len];
+        for (int r = 0; r < out.length; ++r) {
+            int base = r * len;
+            int best = 0;
+            if (exact) {
+                long bestValue = JavaKernels.getLong(x, dataType, map[base]);
+                for (int j = 1; j < len; ++j) {
+                    long v = JavaKernels.getLong(x, dataType, map[base + j]);
+                    if (largest ? v > bestValue : v < bestValue) {
+                        best = j;
+                        bestValue = v;
+                    }
+                }
+            } else {
+                double bestValue = JavaKernels.getDouble(x, dataType, map[base]);
+                for (int j = 1; j < len; ++j) {
+                    double v = JavaKernels.getDouble(x, dataType, map[base + j]);
+                    if (largest ? v > bestValue : v < bestValue) {
+                        best = j;
+                        bestValue = v;
+                    }
+                }
+            }
+            out[r] = best;
+        }
+        long[] outShape = new long[dims - 1];
+        for (int d = 0, j = 0; d < dims; ++d) {
+            if (d != ax) {
+                outShape[j++] = shape.get(d);
+            }
+        }
+        return manager().create(LongBuffer.wrap(out), new Shape(outShape), DataType.INT64);
+    }
+
+    private NDList sortAlong(int axis, int k, boolean ascending) {
+        int len = (int) shape.get(axis);
+        long[] outDims = shape.getShape().clone();
+        outDims[axis] = k;
+        Shape outShape = new Shape(outDims);
+        int outSize = Math.toIntExact(outShape.size());
+        int[] valueMap = new int[outSize];
+        long[] indices = new long[outSize];
+        if (len > 0 && k > 0) {
+            ByteBuffer x = buffer();
+            boolean exact = JavaKernels.lane(dataType) == JavaKernels.Lane.LONG;
+            int[] map = axisLastMap(shape, axis);
+            int[] outMap = axisLastMap(outShape, axis);
+            double[] row = exact ? null : new double[len];
+            long[] exactRow = exact ? new long[len] : null;
+            int[] order = new int[len];
+            int[] tmp = new int[len];
+            for (int r = 0, o = 0; r < map.length; r += len, o += k) {
+                for (int j = 0; j < len; ++j) {
+                    if (exact) {
+                        exactRow[j] = JavaKernels.getLong(x, dataType, map[r + j]);
+                    } else {
+                        row[j] = JavaKernels.getDouble(x, dataType, map[r + j]);
+                    }
+                    order[j] = j;
+                }
+                mergeSort(order, tmp, 0, len, row, exactRow, ascending);
+                for (int j = 0; j < k; ++j) {
+                    valueMap[outMap[o + j]] = map[r + order[j]];
+                    indices[outMap[o + j]] = order[j];
+                }
+            }
+        }
+        // gather the sorted elements from the source, which keeps the values bit exact
+        return new NDList(
+                select(valueMap, outShape),
+                manager().create(LongBuffer.wrap(indices), outShape, DataType.INT64));
+    }
+
+    private static void mergeSort(
+            int[] order,
+            int[] tmp,
+            int low,
+            int high,
+            double[] keys,
+            long[] exactKeys,
+            boolean ascending) {
+        if (high - low < 2) {
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSort(order, tmp, low, mid, keys, exactKeys, ascending);
+        mergeSort(order, tmp, mid, high, keys, exactKeys, ascending);
+        int i = low;
+        int j = mid;
+        int k = low;
+        while (i < mid && j < high) {
+            boolean right;
+            if (exactKeys != null) {
+                long a = exactKeys[order[i]];
+                long b = exactKeys[order[j]];
+                right = ascending ? b < a : b > a;
+            } else {
+                double a = keys[order[i]];
+                double b = keys[order[j]];
+                right = ascending ? b < a : b > a;
+            }
+            tmp[k++] = right ? order[j++] : order[i++];
+        }
+        while (i < mid) {
+            tmp[k++] = order[i++];
+        }
+        while (j < high) {
+            tmp[k++] = order[j++];
+        }
+        System.arraycopy(tmp, low, order, low, high - low);
+    }
+
+    /** The buffers of the operands of a binary operation, broadcast to the output shape. */
+    private static final class Operands implements AutoCloseable {
+
+        ByteBuffer x;
+        ByteBuffer y;
+        DataType yType;
+        Number scalar;
+        int size;
+        private JavaNDManager manager;
+        private NDList temporaries;
+
+        Operands(JavaNDArray array, NDArray other, Shape outShape) {
+            manager = array.manager();
+            temporaries = new NDList();
+            size = Math.toIntExact(outShape.size());
+            x = broadcastTo(array, outShape);
+            yType = other.getDataType();
+            if (other.getShape().size() == 1) {
+                // a single element is passed to the kernels as a scalar
+                scalar = JavaKernels.getNumber(bufferOf(other), yType, 0);
+            } else {
+                y = broadcastTo(other, outShape);
+            }
+        }
+
+        private ByteBuffer broadcastTo(NDArray array, Shape target) {
+            if (array.getShape().equals(target)) {
+                return bufferOf(array);
+            }
+            JavaNDArray source = manager.from(array);
+            if (source != array) {
+                temporaries.add(source);
+            }
+            JavaNDArray broadcast = source.select(broadcastMap(source.shape, target), target);
+            temporaries.add(broadcast);
+            return broadcast.buffer();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            temporaries.close();
+        }
+    }
+}
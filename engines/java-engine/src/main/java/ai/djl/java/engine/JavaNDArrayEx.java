@@ -0,0 +1,649 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.java.engine;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.NDUtils;
+import ai.djl.ndarray.index.NDArrayIndexer;
+import ai.djl.ndarray.internal.NDArrayEx;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.ndarray.types.SparseFormat;
+import ai.djl.nn.recurrent.RNN;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+/** {@code JavaNDArrayEx} is the pure Java implementation of the {@link NDArrayEx}. */
+public class JavaNDArrayEx implements NDArrayEx {
+
+    private static final double SELU_ALPHA = 1.6732632423543772;
+    private static final double SELU_SCALE = 1.0507009873554805;
+
+    private JavaNDArray array;
+
+    /**
+     * Constructs an {@code JavaNDArrayEx} given a {@link NDArray}.
+     *
+     * @param parent the {@link NDArray} to extend
+     */
+    JavaNDArrayEx(JavaNDArray parent) {
+        this.array = parent;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rdiv(Number n) {
+        return array.getManager().create(n).div(array);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rdiv(NDArray b) {
+        return array.manager().from(b).div(array);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rdivi(Number n) {
+        return inplace(rdiv(n));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rdivi(NDArray b) {
+        return inplace(rdiv(b));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rsub(Number n) {
+        return array.neg().add(n);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rsub(NDArray b) {
+        return array.manager().from(b).sub(array);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rsubi(Number n) {
+        return inplace(rsub(n));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rsubi(NDArray b) {
+        return inplace(rsub(b));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rmod(Number n) {
+        return array.getManager().create(n).mod(array);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rmod(NDArray b) {
+        return array.manager().from(b).mod(array);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rmodi(Number n) {
+        return inplace(rmod(n));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rmodi(NDArray b) {
+        return inplace(rmod(b));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rpow(Number n) {
+        return array.getManager().create(n).pow(array);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray rpowi(Number n) {
+        return inplace(rpow(n));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray relu() {
+        return activation(a -> a > 0 ? a : 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray sigmoid() {
+        return activation(a -> 1 / (1 + Math.exp(-a)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray tanh() {
+        return array.tanh();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray softPlus() {
+        return activation(a -> Math.max(a, 0) + Math.log1p(Math.exp(-Math.abs(a))));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray softSign() {
+        return activation(a -> a / (1 + Math.abs(a)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray leakyRelu(float alpha) {
+        return activation(a -> a > 0 ? a : alpha * a);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray elu(float alpha) {
+        return activation(a -> a > 0 ? a : alpha * Math.expm1(a));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray selu() {
+        return activation(a -> SELU_SCALE * (a > 0 ? a : SELU_ALPHA * Math.expm1(a)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray gelu() {
+        double c = Math.sqrt(2 / Math.PI);
+        return activation(a -> 0.5 * a * (1 + Math.tanh(c * (a + 0.044715 * a * a * a))));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray maxPool(Shape kernelShape, Shape stride, Shape padding, boolean ceilMode) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray globalMaxPool() {
+        return array.max(poolAxes(), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray avgPool(
+            Shape kernelShape,
+            Shape stride,
+            Shape padding,
+            boolean ceilMode,
+            boolean countIncludePad) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray globalAvgPool() {
+        return array.mean(poolAxes(), false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray lpPool(
+            float normType, Shape kernelShape, Shape stride, Shape padding, boolean ceilMode) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray globalLpPool(float normType) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void adadeltaUpdate(
+            NDList inputs,
+            NDList weights,
+            float weightDecay,
+            float rescaleGrad,
+            float clipGrad,
+            float rho,
+            float epsilon) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void adagradUpdate(
+            NDList inputs,
+            NDList weights,
+            float learningRate,
+            float weightDecay,
+            float rescaleGrad,
+            float clipGrad,
+            float epsilon) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void adamUpdate(
+            NDList inputs,
+            NDList weights,
+            float learningRate,
+            float learningRateBiasCorrection,
+            float weightDecay,
+            float rescaleGrad,
+            float clipGrad,
+            float beta1,
+            float beta2,
+            float epsilon,
+            boolean lazyUpdate,
+            boolean adamw) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void nagUpdate(
+            NDList inputs,
+            NDList weights,
+            float learningRate,
+            float weightDecay,
+            float rescaleGrad,
+            float clipGrad,
+            float momentum) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void rmspropUpdate(
+            NDList inputs,
+            NDList weights,
+            float learningRate,
+            float weightDecay,
+            float rescaleGrad,
+            float clipGrad,
+            float rho,
+            float momentum,
+            float epsilon,
+            boolean centered) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sgdUpdate(
+            NDList inputs,
+            NDList weights,
+            float learningRate,
+            float weightDecay,
+            float rescaleGrad,
+            float clipGrad,
+            float momentum,
+            boolean lazyUpdate) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList convolution(
+            NDArray input,
+            NDArray weight,
+            NDArray bias,
+            Shape stride,
+            Shape padding,
+            Shape dilation,
+            int groups) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList deconvolution(
+            NDArray input,
+            NDArray weight,
+            NDArray bias,
+            Shape stride,
+            Shape padding,
+            Shape outPadding,
+            Shape dilation,
+            int groups) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList linear(NDArray input, NDArray weight, NDArray bias) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList embedding(NDArray input, NDArray weight, SparseFormat sparseFormat) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList prelu(NDArray input, NDArray alpha) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList dropout(NDArray input, float rate, boolean training) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList layerNorm(
+            NDArray input, Shape normalizedShape, NDArray gamma, NDArray beta, float eps) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList batchNorm(
+            NDArray input,
+            NDArray runningMean,
+            NDArray runningVar,
+            NDArray gamma,
+            NDArray beta,
+            int axis,
+            float momentum,
+            float eps,
+            boolean training) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList rnn(
+            NDArray input,
+            NDArray state,
+            NDList params,
+            boolean hasBiases,
+            int numLayers,
+            RNN.Activation activation,
+            double dropRate,
+            boolean training,
+            boolean bidirectional,
+            boolean batchFirst) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList gru(
+            NDArray input,
+            NDArray state,
+            NDList params,
+            boolean hasBiases,
+            int numLayers,
+            double dropRate,
+            boolean training,
+            boolean bidirectional,
+            boolean batchFirst) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList lstm(
+            NDArray input,
+            NDList states,
+            NDList params,
+            boolean hasBiases,
+            int numLayers,
+            double dropRate,
+            boolean training,
+            boolean bidirectional,
+            boolean batchFirst) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray interpolation(long[] size, int mode, boolean alignCorners) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray resize(int width, int height, int interpolation) {
+        long[] shape = array.getShape().getShape();
+        if (shape[0] == height && shape[1] == width) {
+            return array.toType(DataType.FLOAT32, false);
+        }
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray randomFlipLeftRight() {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray randomFlipTopBottom() {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray randomBrightness(float brightness) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray randomHue(float hue) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray randomColorJitter(
+            float brightness, float contrast, float saturation, float hue) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArrayIndexer getIndexer(NDManager manager) {
+        if (manager instanceof JavaNDManager) {
+            return new JavaNDArrayIndexer((JavaNDManager) manager);
+        }
+        return new JavaNDArrayIndexer(array.manager());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray where(NDArray condition, NDArray other) {
+        Shape shape = JavaNDArray.broadcastShape(array.getShape(), condition.getShape());
+        shape = JavaNDArray.broadcastShape(shape, other.getShape());
+        int[] condMap = JavaNDArray.broadcastMap(condition.getShape(), shape);
+        int[] xMap = JavaNDArray.broadcastMap(array.getShape(), shape);
+        int[] yMap = JavaNDArray.broadcastMap(other.getShape(), shape);
+        double[] cond = JavaNDArray.valuesOf(condition);
+        double[] x = array.values();
+        double[] y = JavaNDArray.valuesOf(other);
+        double[] out = new double[condMap.length];
+        for (int i = 0; i < out.length; ++i) {
+            out[i] = cond[condMap[i]] != 0 ? x[xMap[i]] : y[yMap[i]];
+        }
+        DataType dataType = JavaNDArray.promote(array.getDataType(), other.getDataType());
+        return array.create(out, shape, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray stack(NDList arrays, int axis) {
+        int ax = JavaNDArray.normalizeAxis(axis, array.getShape().dimension() + 1);
+        if (arrays.isEmpty()) {
+            return array.expandDims(ax);
+        }
+        NDList list = new NDList(arrays.size());
+        for (NDArray arr : arrays) {
+            list.add(arr.expandDims(ax));
+        }
+        NDArray head = array.expandDims(ax);
+        NDArray ret = head.getNDArrayInternal().concat(list, ax);
+        head.close();
+        list.close();
+        return ret;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray concat(NDList list, int axis) {
+        if (list.isEmpty()) {
+            return array.duplicate();
+        }
+        NDUtils.checkConcatInput(list);
+
+        Shape shape = array.getShape();
+        int ax = JavaNDArray.normalizeAxis(axis, shape.dimension());
+        DataType dataType = array.getDataType();
+        long[] dims = shape.getShape().clone();
+        for (NDArray arr : list) {
+            Shape s = arr.getShape();
+            if (s.dimension() != dims.length) {
+                throw new IllegalArgumentException(
+                        "all the input arrays must have same number of dimensions");
+            }
+            for (int d = 0; d < dims.length; ++d) {
+                if (d != ax && s.get(d) != dims[d]) {
+                    throw new IllegalArgumentException(
+                            "all the input array dimensions except for the concatenation axis"
+                                    + " must match exactly");
+                }
+            }
+            dims[ax] += s.get(ax);
+        }
+        JavaNDManager manager = array.manager();
+        JavaNDArray ret = manager.create(new Shape(dims), dataType);
+        ByteBuffer dst = ret.buffer();
+        int outer = Math.toIntExact(shape.slice(0, ax).size());
+        int itemSize = Math.toIntExact(shape.slice(ax + 1).size()) * dataType.getNumOfBytes();
+        int rowSize = Math.toIntExact(dims[ax]) * itemSize;
+        int offset = 0;
+        for (int i = 0; i <= list.size(); ++i) {
+            NDArray arr = i == 0 ? array : list.get(i - 1);
+            JavaNDArray src = manager.from(arr.toType(dataType, false));
+            int size = Math.toIntExact(src.getShape().get(ax)) * itemSize;
+            ByteBuffer bb = src.buffer();
+            for (int o = 0; o < outer; ++o) {
+                bb.limit((o + 1) * size).position(o * size);
+                dst.position(o * rowSize + offset);
+                dst.put(bb);
+                bb.limit(bb.capacity());
+            }
+            offset += size;
+            if (src != arr) {
+                src.close();
+            }
+        }
+        return ret;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList multiBoxTarget(
+            NDList inputs,
+            float iouThreshold,
+            float ignoreLabel,
+            float negativeMiningRatio,
+            float negativeMiningThreshold,
+            int minNegativeSamples) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList multiBoxPrior(
+            List<Float> sizes,
+            List<Float> ratios,
+            List<Float> steps,
+            List<Float> offsets,
+            boolean clip) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDList multiBoxDetection(
+            NDList inputs,
+            boolean clip,
+            float threshold,
+            int backgroundId,
+            float nmsThreshold,
+            boolean forceSuppress,
+            int nmsTopK) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public JavaNDArray getArray() {
+        return array;
+    }
+
+    private NDArray activation(DoubleUnaryOperator op) {
+        double[] values = array.values();
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = op.applyAsDouble(values[i]);
+        }
+        DataType dataType = array.getDataType();
+        return array.create(
+                values, array.getShape(), dataType.isFloating() ? dataType : DataType.FLOAT32);
+    }
+
+    private NDArray inplace(NDArray result) {
+        array.set(result.toType(array.getDataType(), false).toByteBuffer());
+        result.close();
+        return array;
+    }
+
+    private int[] poolAxes() {
+        int dims = array.getShape().dimension();
+        if (dims < 3 || dims > 5) {
+            throw new IllegalArgumentException("the input dimension should be in [3, 5]");
+        }
+        int[] axes = new int[dims - 2];
+        for (int i = 0; i < axes.length; ++i) {
+            axes[i] = i + 2;
+        }
+        return axes;
+    }
+}
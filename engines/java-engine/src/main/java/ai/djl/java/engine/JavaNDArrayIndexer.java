@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.java.engine;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.index.NDArrayIndexer;
+import ai.djl.ndarray.index.full.NDIndexFullPick;
+import ai.djl.ndarray.index.full.NDIndexFullSlice;
+import ai.djl.ndarray.index.full.NDIndexFullTake;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import java.nio.ByteBuffer;
+
+/** The {@link NDArrayIndexer} used by the {@link JavaNDArray}. */
+public class JavaNDArrayIndexer extends NDArrayIndexer {
+
+    private JavaNDManager manager;
+
+    JavaNDArrayIndexer(JavaNDManager manager) {
+        this.manager = manager;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray get(NDArray array, NDIndexFullPick fullPick) {
+        NDArray indices = fullPick.getIndices();
+        if (indices.getShape().dimension() != array.getShape().dimension()) {
+            throw new UnsupportedOperationException(
+                    "pick indices must have the same number of dimensions as the array");
+        }
+        return manager.from(array).gather(indices, fullPick.getAxis());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray get(NDArray array, NDIndexFullTake fullTake) {
+        JavaNDArray src = manager.from(array);
+        Shape shape = src.getShape();
+        int axis = fullTake.getAxis();
+        long len = shape.get(axis);
+        double[] indices = JavaNDArray.valuesOf(fullTake.getIndices());
+        int outer = Math.toIntExact(shape.slice(0, axis).size());
+        int inner = Math.toIntExact(shape.slice(axis + 1).size());
+        int[] map = new int[outer * indices.length * inner];
+        int k = 0;
+        for (int o = 0; o < outer; ++o) {
+            for (double index : indices) {
+                long j = (long) index;
+                if (j < 0) {
+                    j += len;
+                }
+                if (j < 0 || j >= len) {
+                    throw new IndexOutOfBoundsException("index " + (long) index + " out of bounds");
+                }
+                int base = Math.toIntExact((o * len + j) * inner);
+                for (int i = 0; i < inner; ++i) {
+                    map[k++] = base + i;
+                }
+            }
+        }
+        long[] out = shape.getShape().clone();
+        out[axis] = indices.length;
+        return src.select(map, new Shape(out));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray get(NDArray array, NDIndexFullSlice fullSlice) {
+        JavaNDArray src = manager.from(array);
+        long[] out = new long[src.getShape().dimension()];
+        int[] map = sliceMap(src.getShape(), fullSlice, out);
+        return src.select(map, squeeze(out, fullSlice.getToSqueeze()));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void set(NDArray array, NDIndexFullSlice fullSlice, NDArray value) {
+        JavaNDArray target = (JavaNDArray) array;
+        long[] out = new long[target.getShape().dimension()];
+        int[] map = sliceMap(target.getShape(), fullSlice, out);
+        int[] valueMap;
+        if (value.getShape().size() == map.length) {
+            valueMap = null;
+        } else {
+            Shape shape = squeeze(out, fullSlice.getToSqueeze());
+            valueMap = JavaNDArray.broadcastMap(value.getShape(), shape);
+        }
+        ByteBuffer dst = target.buffer();
+        DataType dstType = target.getDataType();
+        ByteBuffer src = JavaNDArray.bufferOf(value);
+        DataType srcType = value.getDataType();
+        // copy the elements in place, integers are copied without a round trip through double
+        boolean exact =
+                JavaKernels.lane(dstType) == JavaKernels.Lane.LONG
+                        && JavaKernels.lane(srcType) == JavaKernels.Lane.LONG;
+        for (int i = 0; i < map.length; ++i) {
+            int j = valueMap == null ? i : valueMap[i];
+            if (exact) {
+                JavaKernels.putLong(dst, dstType, map[i], JavaKernels.getLong(src, srcType, j));
+            } else {
+                JavaKernels.putDouble(dst, dstType, map[i], JavaKernels.getDouble(src, srcType, j));
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void set(NDArray array, NDIndexFullSlice fullSlice, Number value) {
+        JavaNDArray target = (JavaNDArray) array;
+        long[] out = new long[target.getShape().dimension()];
+        int[] map = sliceMap(target.getShape(), fullSlice, out);
+        ByteBuffer dst = target.buffer();
+        DataType dataType = target.getDataType();
+        boolean exact =
+                JavaKernels.lane(dataType) == JavaKernels.Lane.LONG
+                        && !(value instanceof Float || value instanceof Double);
+        for (int index : map) {
+            if (exact) {
+                JavaKernels.putLong(dst, dataType, index, value.longValue());
+            } else {
+                JavaKernels.putDouble(dst, dataType, index, value.doubleValue());
+            }
+        }
+    }
+
+    private static Shape squeeze(long[] shape, int[] toSqueeze) {
+        boolean[] removed = new boolean[shape.length];
+        for (int axis : toSqueeze) {
+            removed[axis] = true;
+        }
+        long[] squeezed = new long[shape.length - toSqueeze.length];
+        for (int i = 0, j = 0; i < shape.length; ++i) {
+            if (!removed[i]) {
+                squeezed[j++] = shape[i];
+            }
+        }
+        return new Shape(squeezed);
+    }
+
+    private static int[] sliceMap(Shape shape, NDIndexFullSlice fullSlice, long[] out) {
+        long[] min = fullSlice.getMin();
+        long[] max = fullSlice.getMax();
+        long[] step = fullSlice.getStep();
+        long[] strides = JavaNDArray.strides(shape.getShape());
+        long[] outStrides = new long[min.length];
+        long base = 0;
+        for (int i = 0; i < min.length; ++i) {
+            if (step[i] <= 0) {
+                throw new UnsupportedOperationException("only positive step is supported");
+            }
+            long end = Math.min(max[i], shape.get(i));
+            out[i] = end > min[i] ? (end - min[i] + step[i] - 1) / step[i] : 0;
+            outStrides[i] = strides[i] * step[i];
+            base += min[i] * strides[i];
+        }
+        return JavaNDArray.indexMap(out, outStrides, base);
+    }
+}
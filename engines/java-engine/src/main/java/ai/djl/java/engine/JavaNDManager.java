@@ -0,0 +1,270 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.java.engine;
+
+import ai.djl.Device;
+import ai.djl.engine.Engine;
+import ai.djl.ndarray.BaseNDManager;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.util.RandomUtils;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+/** {@code JavaNDManager} is the pure Java implementation of {@link NDManager}. */
+public class JavaNDManager extends BaseNDManager {
+
+    private static final JavaNDManager SYSTEM_MANAGER = new SystemManager();
+
+    private JavaNDManager(NDManager parent, Device device) {
+        super(parent, device);
+    }
+
+    static JavaNDManager getSystemManager() {
+        return SYSTEM_MANAGER;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public JavaNDArray from(NDArray array) {
+        if (array == null || array instanceof JavaNDArray) {
+            return (JavaNDArray) array;
+        }
+        JavaNDArray result = create(array.toByteBuffer(), array.getShape(), array.getDataType());
+        result.setName(array.getName());
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public JavaNDArray create(Shape shape, DataType dataType) {
+        int size = Math.toIntExact(shape.size());
+        checkDataType(dataType);
+        return new JavaNDArray(
+                this, allocateDirect(size * dataType.getNumOfBytes()), shape, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public JavaNDArray create(Buffer data, Shape shape, DataType dataType) {
+        int size = Math.toIntExact(shape.size());
+        checkDataType(dataType);
+        BaseNDManager.validateBuffer(data, dataType, size);
+        ByteBuffer buf = allocateDirect(size * dataType.getNumOfBytes());
+        copyBuffer(data, buf);
+        return new JavaNDArray(this, buf, shape, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray zeros(Shape shape, DataType dataType) {
+        return create(shape, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray full(Shape shape, float value, DataType dataType) {
+        double[] values = new double[Math.toIntExact(shape.size())];
+        Arrays.fill(values, value);
+        return fromValues(values, shape, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray arange(float start, float stop, float step, DataType dataType) {
+        if (step == 0) {
+            throw new IllegalArgumentException("step can not be 0");
+        }
+        int size = Math.max(0, (int) Math.ceil((stop - start) / step));
+        double[] values = new double[size];
+        for (int i = 0; i < size; ++i) {
+            values[i] = start + (double) i * step;
+        }
+        return fromValues(values, new Shape(size), dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray eye(int rows, int cols, int k, DataType dataType) {
+        double[] values = new double[rows * cols];
+        for (int i = 0; i < rows; ++i) {
+            int j = i + k;
+            if (j >= 0 && j < cols) {
+                values[i * cols + j] = 1;
+            }
+        }
+        return fromValues(values, new Shape(rows, cols), dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray linspace(float start, float stop, int num, boolean endpoint) {
+        if (num < 0) {
+            throw new IllegalArgumentException("Num argument must be non-negative");
+        }
+        double[] values = new double[num];
+        int div = endpoint ? num - 1 : num;
+        double step = div > 0 ? (stop - start) / (double) div : 0;
+        for (int i = 0; i < num; ++i) {
+            values[i] = start + i * step;
+        }
+        if (endpoint && num > 1) {
+            values[num - 1] = stop;
+        }
+        return fromValues(values, new Shape(num), DataType.FLOAT32);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray randomInteger(long low, long high, Shape shape, DataType dataType) {
+        Random random = RandomUtils.RANDOM;
+        double[] values = new double[Math.toIntExact(shape.size())];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = low + (long) (random.nextDouble() * (high - low));
+        }
+        return fromValues(values, shape, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray randomPermutation(long n) {
+        int size = Math.toIntExact(n);
+        double[] values = new double[size];
+        for (int i = 0; i < size; ++i) {
+            values[i] = i;
+        }
+        Random random = RandomUtils.RANDOM;
+        for (int i = size - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            double tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+        return fromValues(values, new Shape(size), DataType.INT64);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray randomUniform(float low, float high, Shape shape, DataType dataType) {
+        Random random = RandomUtils.RANDOM;
+        double[] values = new double[Math.toIntExact(shape.size())];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = low + random.nextDouble() * (high - low);
+        }
+        return fromValues(values, shape, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public NDArray randomNormal(float loc, float scale, Shape shape, DataType dataType) {
+        Random random = RandomUtils.RANDOM;
+        double[] values = new double[Math.toIntExact(shape.size())];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = loc + random.nextGaussian() * scale;
+        }
+        return fromValues(values, shape, dataType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public JavaNDManager newSubManager(Device device) {
+        JavaNDManager manager = new JavaNDManager(this, device);
+        attachUncappedInternal(manager.uid, manager);
+        return manager;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final Engine getEngine() {
+        return Engine.getEngine(JavaEngine.ENGINE_NAME);
+    }
+
+    /**
+     * Creates a {@link JavaNDArray} from the values, casting them to the data type.
+     *
+     * @param values the values in row-major order
+     * @param shape the shape of the array
+     * @param dataType the data type of the array
+     * @return a new {@code JavaNDArray}
+     */
+    JavaNDArray fromValues(double[] values, Shape shape, DataType dataType) {
+        checkDataType(dataType);
+        ByteBuffer bb = allocateDirect(values.length * dataType.getNumOfBytes());
+        encode(values, bb, dataType);
+        return new JavaNDArray(this, bb, shape, dataType);
+    }
+
+    /**
+     * Decodes the values of a buffer as doubles.
+     *
+     * @param data the native order buffer to decode
+     * @param dataType the data type of the buffer
+     * @param size the number of values
+     * @return the decoded values
+     */
+    static double[] decode(ByteBuffer data, DataType dataType, int size) {
+        checkDataType(dataType);
+        ByteBuffer bb = data.duplicate().order(ByteOrder.nativeOrder());
+        bb.rewind();
+        double[] values = new double[size];
+        JavaKernels.getDouble(bb, dataType, 0, values, size);
+        return values;
+    }
+
+    /**
+     * Encodes the values into a buffer, casting them to the data type.
+     *
+     * @param values the values to encode
+     * @param data the native order buffer to write to
+     * @param dataType the data type of the buffer
+     */
+    static void encode(double[] values, ByteBuffer data, DataType dataType) {
+        checkDataType(dataType);
+        ByteBuffer bb = data.duplicate().order(ByteOrder.nativeOrder());
+        bb.rewind();
+        JavaKernels.putDouble(bb, dataType, 0, values, values.length);
+    }
+
+    static void checkDataType(DataType dataType) {
+        switch (dataType) {
+            case FLOAT16:
+            case FLOAT32:
+            case FLOAT64:
+            case INT8:
+            case UINT8:
+            case INT16:
+            case UINT16:
+            case INT32:
+            case UINT32:
+            case INT64:
+            case BOOLEAN:
+                return;
+            default:
+                throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+        }
+    }
+
+    /** The SystemManager is the root {@link JavaNDManager} of which all others are children. */
+    private static final class SystemManager extends JavaNDManager implements SystemNDManager {
+
+        SystemManager() {
+            super(null, null);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.java.engine;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDArrayAdapter;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class AlternativeArrayTest {
+
+    @Test
+    public void testAlternativeArrayReuse() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            LimitedNDArray array = new LimitedNDArray(manager, new Shape(100));
+            long copies = NDArrayAdapter.getAlternativeCopyCount();
+            long bytes = NDArrayAdapter.getAlternativeCopiedBytes();
+            for (int i = 0; i < 10; ++i) {
+                array.set(new NDIndex(i), i);
+            }
+            // one copy to create the alternative array, the sets only modify the alternative array
+            Assert.assertEquals(NDArrayAdapter.getAlternativeCopyCount() - copies, 1);
+            Assert.assertEquals(NDArrayAdapter.getAlternativeCopiedBytes() - bytes, 400);
+            Assert.assertEquals(array.sum().getFloat(), 45f);
+            Assert.assertEquals(NDArrayAdapter.getAlternativeCopyCount() - copies, 1);
+
+            // the changes are written back before the data of the array is read
+            Assert.assertEquals(array.toFloatArray()[9], 9f);
+            Assert.assertEquals(NDArrayAdapter.getAlternativeCopyCount() - copies, 2);
+            Assert.assertEquals(array.toFloatArray()[9], 9f);
+            Assert.assertEquals(array.sum().getFloat(), 45f);
+            Assert.assertEquals(NDArrayAdapter.getAlternativeCopyCount() - copies, 2);
+
+            array.set(new float[100]);
+            Assert.assertEquals(array.sum().getFloat(), 0f);
+            Assert.assertEquals(NDArrayAdapter.getAlternativeCopyCount() - copies, 3);
+
+            // get and reshape reuse the cached alternative array
+            Assert.assertEquals(array.reshape(10, 10).getShape(), new Shape(10, 10));
+            array.setScalar(new NDIndex(3), 5);
+            Assert.assertEquals(array.get(new NDIndex("2:4")).toFloatArray(), new float[] {0, 5});
+            Assert.assertEquals(array.flatten().getFloat(3), 5f);
+            Assert.assertEquals(NDArrayAdapter.getAlternativeCopyCount() - copies, 3);
+            Assert.assertEquals(array.toFloatArray()[3], 5f);
+            Assert.assertEquals(NDArrayAdapter.getAlternativeCopyCount() - copies, 4);
+        }
+    }
+
+    @Test
+    public void testViewsAreCopies() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            LimitedNDArray array = new LimitedNDArray(manager, new Shape(4));
+            array.set(new float[] {1f, 2f, 3f, 4f});
+            NDArray view = array.reshape(2, 2);
+            NDArray row = array.get(new NDIndex("0:2"));
+
+            // a write through a view does not reach the array
+            view.set(new NDIndex("0, 0"), 10);
+            row.set(new NDIndex("1"), 20);
+            Assert.assertEquals(array.toFloatArray(), new float[] {1f, 2f, 3f, 4f});
+
+            // refreshing the cached alternative array does not change the views
+            array.set(new float[] {5f, 6f, 7f, 8f});
+            Assert.assertEquals(array.sum().getFloat(), 26f);
+            Assert.assertEquals(view.toFloatArray(), new float[] {10f, 2f, 3f, 4f});
+            Assert.assertEquals(row.toFloatArray(), new float[] {1f, 20f});
+        }
+    }
+
+    @Test
+    public void testReleasedAlternativeArray() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            NDManager alternative = manager.newSubManager();
+            LimitedNDArray array = new LimitedNDArray(manager, alternative, new Shape(4));
+            array.set(new NDIndex("0"), 1);
+            alternative.close();
+            Assert.assertThrows(IllegalStateException.class, array::toFloatArray);
+        }
+    }
+
+    private static final class LimitedNDArray extends NDArrayAdapter {
+
+        private ByteBuffer data;
+
+        LimitedNDArray(NDManager manager, Shape shape) {
+            this(manager, manager.newSubManager(), shape);
+        }
+
+        LimitedNDArray(NDManager manager, NDManager alternativeManager, Shape shape) {
+            super(
+                    manager,
+                    alternativeManager,
+                    shape,
+                    DataType.FLOAT32,
+                    "limited-" + System.nanoTime());
+            data = manager.allocateDirect(Math.toIntExact(shape.size()) * 4);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ByteBuffer toByteBuffer(boolean tryDirect) {
+            syncAlternativeArray();
+            ByteBuffer bb = data.duplicate().order(ByteOrder.nativeOrder());
+            bb.rewind();
+            return bb;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void intern(NDArray replaced) {
+            data = replaced.toByteBuffer();
+            replaced.close();
+            markDirty();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void detach() {}
+    }
+}
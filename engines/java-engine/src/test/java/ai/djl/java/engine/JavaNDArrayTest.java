@@ -0,0 +1,206 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.java.engine;
+
+import ai.djl.engine.Engine;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDArrays;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class JavaNDArrayTest {
+
+    @Test
+    public void testEngine() {
+        Engine engine = Engine.getEngine("Java");
+        Assert.assertEquals(engine.getEngineName(), "Java");
+        Assert.assertNull(engine.getAlternativeEngine());
+        Assert.assertThrows(
+                UnsupportedOperationException.class, () -> engine.newModel("model", null));
+    }
+
+    @Test
+    public void testCreation() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            NDArray array = manager.create(new float[] {1f, 2f, 3f, 4f}, new Shape(2, 2));
+            Assert.assertEquals(array.toFloatArray(), new float[] {1f, 2f, 3f, 4f});
+            Assert.assertEquals(manager.zeros(new Shape(3)).toFloatArray().length, 3);
+            Assert.assertEquals(manager.arange(3).toIntArray(), new int[] {0, 1, 2});
+            Assert.assertEquals(manager.eye(2).toFloatArray(), new float[] {1f, 0f, 0f, 1f});
+            NDArray longs = manager.create(new long[] {Long.MAX_VALUE, -1L});
+            Assert.assertEquals(longs.duplicate().toLongArray(), longs.toLongArray());
+            Assert.assertEquals(longs.get(0).getLong(), Long.MAX_VALUE);
+            NDArray half = array.toType(DataType.FLOAT16, false);
+            Assert.assertEquals(
+                    half.toType(DataType.INT32, false).toIntArray(), new int[] {1, 2, 3, 4});
+        }
+    }
+
+    @Test
+    public void testArithmetic() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            NDArray a = manager.create(new float[] {1f, 2f, 3f, 4f, 5f, 6f}, new Shape(2, 3));
+            NDArray b = manager.create(new float[] {10f, 20f, 30f});
+            Assert.assertEquals(
+                    a.add(b).toFloatArray(), new float[] {11f, 22f, 33f, 14f, 25f, 36f});
+            Assert.assertEquals(a.mul(2).toFloatArray(), new float[] {2f, 4f, 6f, 8f, 10f, 12f});
+            Assert.assertEquals(a.getNDArrayInternal().rsub(1).toFloatArray()[0], 0f);
+            Assert.assertEquals(manager.create(-7).mod(3).getInt(), 2);
+            Assert.assertEquals(
+                    manager.create(new int[] {1, 2}).div(2f).getDataType(), DataType.FLOAT32);
+            a.addi(1);
+            Assert.assertEquals(a.toFloatArray()[0], 2f);
+            Assert.assertEquals(
+                    a.gt(4).toBooleanArray(),
+                    new boolean[] {false, false, false, true, true, true});
+            Assert.assertEquals(a.clip(3, 5).toFloatArray(), new float[] {3f, 3f, 4f, 5f, 5f, 5f});
+        }
+    }
+
+    @Test
+    public void testInt64Precision() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            long big = (1L << 53) + 1;
+            NDArray a = manager.create(new long[] {big, big + 2, big - 2});
+            Assert.assertEquals(a.add(1).toLongArray(), new long[] {big + 1, big + 3, big - 1});
+            Assert.assertEquals(a.sub(a.get(0)).toLongArray(), new long[] {0, 2, -2});
+            Assert.assertEquals(
+                    a.eq(big + 1).toBooleanArray(), new boolean[] {false, false, false});
+            Assert.assertEquals(a.sum().getLong(), 3 * big);
+            Assert.assertEquals(a.max().getLong(), big + 2);
+            Assert.assertEquals(a.argSort().toLongArray(), new long[] {2, 0, 1});
+            Assert.assertEquals(a.sort().toLongArray(), new long[] {big - 2, big, big + 2});
+            Assert.assertEquals(a.argMax().getLong(), 1L);
+            a.addi(manager.create(1L));
+            Assert.assertEquals(a.toLongArray(), new long[] {big + 1, big + 3, big - 1});
+            Assert.assertEquals(a.neg().neg().toLongArray(), a.toLongArray());
+            Assert.assertEquals(
+                    a.toType(DataType.INT32, false).toType(DataType.INT64, false).getLong(0),
+                    (long) (int) (big + 1));
+            a.set(new NDIndex("0"), big + 4);
+            a.set(new NDIndex("1:"), manager.create(new long[] {big + 5, big + 6}));
+            Assert.assertEquals(a.toLongArray(), new long[] {big + 4, big + 5, big + 6});
+        }
+    }
+
+    @Test
+    public void testReduction() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            NDArray a = manager.arange(6f).reshape(2, 3);
+            Assert.assertEquals(a.sum().getFloat(), 15f);
+            Assert.assertEquals(a.sum(new int[] {0}).toFloatArray(), new float[] {3f, 5f, 7f});
+            Assert.assertEquals(a.max(new int[] {1}, true).getShape(), new Shape(2, 1));
+            Assert.assertEquals(a.mean(new int[] {1}).toFloatArray(), new float[] {1f, 4f});
+            Assert.assertEquals(a.argMax(1).toLongArray(), new long[] {2, 2});
+            Assert.assertEquals(a.argMin().getLong(), 0L);
+            Assert.assertEquals(a.cumSum(1).toFloatArray(), new float[] {0f, 1f, 3f, 3f, 7f, 12f});
+            NDArray softmax = a.softmax(1);
+            Assert.assertEquals(
+                    softmax.sum(new int[] {1}).toFloatArray(), new float[] {1f, 1f}, 1e-6f);
+            Assert.assertThrows(
+                    IllegalArgumentException.class, () -> manager.create(new Shape(0)).max());
+        }
+    }
+
+    @Test
+    public void testShapeOps() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            NDArray a = manager.arange(6).reshape(2, -1);
+            Assert.assertEquals(a.getShape(), new Shape(2, 3));
+            Assert.assertEquals(a.transpose().toIntArray(), new int[] {0, 3, 1, 4, 2, 5});
+            Assert.assertEquals(a.flip(1).toIntArray(), new int[] {2, 1, 0, 5, 4, 3});
+            Assert.assertEquals(a.expandDims(0).squeeze().getShape(), new Shape(2, 3));
+            NDList split = a.split(3, 1);
+            Assert.assertEquals(split.get(2).toIntArray(), new int[] {2, 5});
+            NDArray stacked = NDArrays.stack(new NDList(a, a));
+            Assert.assertEquals(stacked.getShape(), new Shape(2, 2, 3));
+            Assert.assertEquals(NDArrays.stack(new NDList(a)).getShape(), new Shape(1, 2, 3));
+            NDArray concat = NDArrays.concat(new NDList(a, a), 1);
+            Assert.assertEquals(
+                    concat.toIntArray(), new int[] {0, 1, 2, 0, 1, 2, 3, 4, 5, 3, 4, 5});
+            NDArray b = manager.arange(3).broadcast(new Shape(2, 3));
+            Assert.assertEquals(b.toIntArray(), new int[] {0, 1, 2, 0, 1, 2});
+        }
+    }
+
+    @Test
+    public void testMatMul() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            NDArray a = manager.create(new float[] {1f, 2f, 3f, 4f}, new Shape(2, 2));
+            NDArray b = manager.create(new float[] {5f, 6f, 7f, 8f}, new Shape(2, 2));
+            Assert.assertEquals(a.matMul(b).toFloatArray(), new float[] {19f, 22f, 43f, 50f});
+            NDArray v = manager.create(new float[] {1f, 1f});
+            Assert.assertEquals(a.matMul(v).toFloatArray(), new float[] {3f, 7f});
+            Assert.assertEquals(v.dot(v).getFloat(), 2f);
+        }
+    }
+
+    @Test
+    public void testSort() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            NDArray a = manager.create(new float[] {3f, 1f, 2f, 5f, 4f, 6f}, new Shape(2, 3));
+            Assert.assertEquals(a.sort().toFloatArray(), new float[] {1f, 2f, 3f, 4f, 5f, 6f});
+            Assert.assertEquals(a.argSort().toLongArray(), new long[] {1, 2, 0, 1, 0, 2});
+            NDList topK = a.topK(2, 1);
+            Assert.assertEquals(topK.get(0).toFloatArray(), new float[] {3f, 2f, 6f, 5f});
+            Assert.assertEquals(topK.get(1).toLongArray(), new long[] {0, 2, 2, 0});
+        }
+    }
+
+    @Test
+    public void testIndexing() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            NDArray a = manager.arange(12f).reshape(3, 4);
+            Assert.assertEquals(a.get("1, 1:3").toFloatArray(), new float[] {5f, 6f});
+            Assert.assertEquals(
+                    a.get(":, ::2").toFloatArray(), new float[] {0f, 2f, 4f, 6f, 8f, 10f});
+            Assert.assertEquals(a.get("-1").toFloatArray(), new float[] {8f, 9f, 10f, 11f});
+            Assert.assertEquals(a.get(":, 2:10").getShape(), new Shape(3, 2));
+            NDArray index = manager.create(new long[] {2, 0});
+            Assert.assertEquals(
+                    a.get(new NDIndex("{}", index)).toFloatArray(),
+                    new float[] {8f, 9f, 10f, 11f, 0f, 1f, 2f, 3f});
+            Assert.assertEquals(a.booleanMask(a.get(":, 0").gt(3)).getShape(), new Shape(2, 4));
+            a.set(new NDIndex("0, :"), 1);
+            Assert.assertEquals(a.get(0).toFloatArray(), new float[] {1f, 1f, 1f, 1f});
+            a.set(new NDIndex(":, 0"), manager.create(new float[] {7f, 8f, 9f}));
+            Assert.assertEquals(a.get(":, 0").toFloatArray(), new float[] {7f, 8f, 9f});
+            a.setScalar(new NDIndex("2, 3"), 42);
+            Assert.assertEquals(a.getFloat(2, 3), 42f);
+            NDArray where = NDArrays.where(a.gt(8), a, manager.zeros(new Shape(1)));
+            Assert.assertEquals(where.get(2).toFloatArray(), new float[] {9f, 9f, 10f, 42f});
+            try (NDManager sub = manager.newSubManager()) {
+                NDArray row = a.get(sub, new NDIndex("1"));
+                Assert.assertEquals(row.getManager(), sub);
+                Assert.assertEquals(row.toFloatArray(), new float[] {8f, 5f, 6f, 7f});
+            }
+        }
+    }
+
+    @Test
+    public void testActivation() {
+        try (NDManager manager = NDManager.newBaseManager("Java")) {
+            NDArray a = manager.create(new float[] {-1f, 0f, 2f});
+            NDArray relu = a.getNDArrayInternal().relu();
+            Assert.assertEquals(relu.toFloatArray(), new float[] {0f, 0f, 2f});
+            NDArray sigmoid = a.getNDArrayInternal().sigmoid();
+            Assert.assertEquals(sigmoid.getFloat(1), 0.5f);
+        }
+    }
+}
@@ -128,8 +128,7 @@ public class LgbmDataset extends NDArrayAdapter {
         if (a instanceof LgbmNDArray) {
             return (LgbmNDArray) a;
         } else {
-            return new LgbmNDArray(
-                    manager, alternativeManager, a.toByteBuffer(), a.getShape(), a.getDataType());
+            return new LgbmNDArray(manager, a.toByteBuffer(), a.getShape(), a.getDataType());
         }
     }
 
@@ -13,10 +13,12 @@
 package ai.djl.ml.lightgbm;
 
 import ai.djl.BaseModel;
+import ai.djl.MalformedModelException;
 import ai.djl.Model;
 import ai.djl.ml.lightgbm.jni.JniUtils;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
+import ai.djl.nn.tree.TreeEnsembleBlock;
 import ai.djl.translate.ArgumentsUtil;
 
 import java.io.FileNotFoundException;
@@ -41,9 +43,17 @@ public class LgbmModel extends BaseModel {
         manager.setName("LgbmModel");
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Set the {@code evaluator} option to {@code java} to predict with a {@link
+     * TreeEnsembleBlock} in pure Java instead of the LightGBM native library. The pure Java
+     * evaluator avoids copying the input to native memory, which is faster for small batches. It
+     * supports the NORMAL and RAW_SCORE inference types and numerical splits.
+     */
     @Override
-    public void load(Path modelPath, String prefix, Map<String, ?> options) throws IOException {
+    public void load(Path modelPath, String prefix, Map<String, ?> options)
+            throws IOException, MalformedModelException {
         setModelDir(modelPath);
         wasLoaded = true;
         if (block != null) {
@@ -56,7 +66,12 @@ public class LgbmModel extends BaseModel {
                 throw new FileNotFoundException(".json file not found in: " + modelPath);
             }
         }
-        block = JniUtils.loadModel((LgbmNDManager) manager, modelFile.toAbsolutePath().toString());
+        if (options != null && "java".equals(ArgumentsUtil.stringValue(options, "evaluator"))) {
+            block = new TreeEnsembleBlock(LgbmModelParser.parse(modelFile));
+        } else {
+            String path = modelFile.toAbsolutePath().toString();
+            block = JniUtils.loadModel((LgbmNDManager) manager, path);
+        }
         if (options != null) {
             String inferenceType = ArgumentsUtil.stringValue(options, "inference_type");
             if (inferenceType != null) {
@@ -96,10 +111,10 @@ public class LgbmModel extends BaseModel {
     /** {@inheritDoc} */
     @Override
     public void close() {
-        if (block != null) {
+        if (block instanceof LgbmSymbolBlock) {
             ((LgbmSymbolBlock) block).close();
-            block = null;
         }
+        block = null;
         super.close();
     }
 
@@ -112,6 +127,16 @@ public class LgbmModel extends BaseModel {
      * @throws IllegalArgumentException if the given inference type is not supported
      */
     public void setInferenceType(String inferenceType) {
+        if (block instanceof TreeEnsembleBlock) {
+            if (!"NORMAL".equals(inferenceType) && !"RAW_SCORE".equals(inferenceType)) {
+                throw new IllegalArgumentException(
+                        "Unsupported inference type for the Java evaluator: "
+                                + inferenceType
+                                + ". Supported types include: NORMAL, RAW_SCORE.");
+            }
+            ((TreeEnsembleBlock) block).setRawOutput("RAW_SCORE".equals(inferenceType));
+            return;
+        }
         ((LgbmSymbolBlock) block).setInferenceType(inferenceType);
     }
 
@@ -122,6 +147,9 @@ public class LgbmModel extends BaseModel {
      * @throws IllegalStateException if the current inference type is unknown
      */
     public String getInferenceType() {
+        if (block instanceof TreeEnsembleBlock) {
+            return ((TreeEnsembleBlock) block).isRawOutput() ? "RAW_SCORE" : "NORMAL";
+        }
         return ((LgbmSymbolBlock) block).getInferenceType();
     }
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ml.lightgbm;
+
+import ai.djl.MalformedModelException;
+import ai.djl.nn.tree.TreeEnsemble;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Parses a LightGBM text model into a {@link TreeEnsemble}. */
+final class LgbmModelParser {
+
+    private LgbmModelParser() {}
+
+    /**
+     * Parses a LightGBM model saved in the text format.
+     *
+     * @param file the model file
+     * @return the {@link TreeEnsemble}
+     * @throws IOException if failed to read the model file
+     * @throws MalformedModelException if the model is invalid or not supported
+     */
+    static TreeEnsemble parse(Path file) throws IOException, MalformedModelException {
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            Map<String, String> header = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null && !line.startsWith("Tree=")) {
+                putValue(header, line);
+            }
+            if (line == null) {
+                throw new MalformedModelException("No trees found in LightGBM model: " + file);
+            }
+            int numClass = getInt(header, "num_class", 1);
+            int treesPerIteration = getInt(header, "num_tree_per_iteration", numClass);
+            int numFeatures = getInt(header, "max_feature_idx", -1) + 1;
+            TreeEnsemble.Builder builder =
+                    TreeEnsemble.builder()
+                            .setNumFeatures(numFeatures)
+                            .optNumOutputs(treesPerIteration)
+                            .optAverageOutput(header.containsKey("average_output"));
+            setObjective(builder, header.get("objective"));
+
+            int index = 0;
+            Map<String, String> tree = new HashMap<>();
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("Tree=") || line.startsWith("end of trees")) {
+                    addTree(builder, index++ % treesPerIteration, tree);
+                    tree.clear();
+                    if (!line.startsWith("Tree=")) {
+                        break;
+                    }
+                } else {
+                    putValue(tree, line);
+                }
+            }
+            return builder.build();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new MalformedModelException("Invalid LightGBM model: " + file, e);
+        }
+    }
+
+    private static void setObjective(TreeEnsemble.Builder builder, String objective)
+            throws MalformedModelException {
+        if (objective == null) {
+            return;
+        }
+        String[] tokens = objective.split(" ");
+        double sigmoid = 1;
+        for (String token : tokens) {
+            if (token.startsWith("sigmoid:")) {
+                sigmoid = Double.parseDouble(token.substring(8));
+            } else if ("sqrt".equals(token)) {
+                throw new MalformedModelException(
+                        "The Java evaluator does not support the sqrt regression objective");
+            }
+        }
+        switch (tokens[0]) {
+            case "binary":
+            case "multiclassova":
+                builder.optTransform(TreeEnsemble.Transform.SIGMOID).optSigmoidScale(sigmoid);
+                break;
+            case "cross_entropy":
+                builder.optTransform(TreeEnsemble.Transform.SIGMOID);
+                break;
+            case "cross_entropy_lambda":
+                builder.optTransform(TreeEnsemble.Transform.LOG1P_EXP);
+                break;
+            case "multiclass":
+                builder.optTransform(TreeEnsemble.Transform.SOFTMAX);
+                break;
+            case "poisson":
+            case "gamma":
+            case "tweedie":
+                builder.optTransform(TreeEnsemble.Transform.EXP);
+                break;
+            case "regression":
+            case "regression_l1":
+            case "huber":
+            case "fair":
+            case "quantile":
+            case "mape":
+            case "lambdarank":
+            case "rank_xendcg":
+            case "custom":
+                break;
+            default:
+                throw new MalformedModelException(
+                        "The Java evaluator does not support LightGBM objective: " + objective);
+        }
+    }
+
+    private static void addTree(TreeEnsemble.Builder builder, int output, Map<String, String> tree)
+            throws MalformedModelException {
+        if (getInt(tree, "is_linear", 0) != 0) {
+            throw new MalformedModelException("The Java evaluator does not support linear trees");
+        }
+        int numLeaves = getInt(tree, "num_leaves", 1);
+        double[] leafValues = getDoubles(tree, "leaf_value");
+        if (numLeaves == 1) {
+            builder.addTree(
+                    output,
+                    new int[0],
+                    new double[0],
+                    new int[0],
+                    new int[0],
+                    new byte[0],
+                    new boolean[0],
+                    leafValues);
+            return;
+        }
+        int[] decisionTypes = getInts(tree, "decision_type");
+        int splits = numLeaves - 1;
+        byte[] missingTypes = new byte[splits];
+        boolean[] defaultLeft = new boolean[splits];
+        for (int i = 0; i < splits; ++i) {
+            int decisionType = decisionTypes[i];
+            if ((decisionType & 1) != 0) {
+                throw new MalformedModelException(
+                        "The Java evaluator does not support categorical splits");
+            }
+            defaultLeft[i] = (decisionType & 2) != 0;
+            missingTypes[i] = (byte) ((decisionType >> 2) & 3);
+        }
+        builder.addTree(
+                output,
+                getInts(tree, "split_feature"),
+                getDoubles(tree, "threshold"),
+                getInts(tree, "left_child"),
+                getInts(tree, "right_child"),
+                missingTypes,
+                defaultLeft,
+                leafValues);
+    }
+
+    private static void putValue(Map<String, String> map, String line) {
+        int pos = line.indexOf('=');
+        if (pos > 0) {
+            map.put(line.substring(0, pos), line.substring(pos + 1));
+        } else if (!line.isEmpty()) {
+            map.put(line, "");
+        }
+    }
+
+    private static int getInt(Map<String, String> map, String key, int defaultValue) {
+        String value = map.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static int[] getInts(Map<String, String> map, String key)
+            throws MalformedModelException {
+        return Arrays.stream(getValues(map, key)).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static double[] getDoubles(Map<String, String> map, String key)
+            throws MalformedModelException {
+        return Arrays.stream(getValues(map, key))
+                .mapToDouble(LgbmModelParser::parseDouble)
+                .toArray();
+    }
+
+    private static double parseDouble(String value) {
+        switch (value) {
+            case "inf":
+                return Double.POSITIVE_INFINITY;
+            case "-inf":
+                return Double.NEGATIVE_INFINITY;
+            case "nan":
+                return Double.NaN;
+            default:
+                return Double.parseDouble(value);
+        }
+    }
+
+    private static String[] getValues(Map<String, String> map, String key)
+            throws MalformedModelException {
+        String value = map.get(key);
+        if (value == null) {
+            throw new MalformedModelException("Missing " + key + " in LightGBM tree");
+        }
+        return value.trim().split(" ");
+    }
+}
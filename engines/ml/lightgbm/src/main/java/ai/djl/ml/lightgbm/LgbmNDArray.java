@@ -42,13 +42,8 @@ public class LgbmNDArray extends NDArrayAdapter {
     private AtomicReference<SWIGTYPE_p_float> floatDataRef;
     private AtomicReference<SWIGTYPE_p_double> doubleDataRef;
 
-    LgbmNDArray(
-            NDManager manager,
-            NDManager alternativeManager,
-            ByteBuffer data,
-            Shape shape,
-            DataType dataType) {
-        super(manager, alternativeManager, shape, dataType, UUID.randomUUID().toString());
+    LgbmNDArray(NDManager manager, ByteBuffer data, Shape shape, DataType dataType) {
+        super(manager, shape, dataType, UUID.randomUUID().toString());
         this.data = data;
         this.format = SparseFormat.DENSE;
         manager.attachInternal(uid, this);
@@ -71,6 +66,7 @@ public class LgbmNDArray extends NDArrayAdapter {
      * @return the native LightGBM handle to the array
      */
     public SWIGTYPE_p_void getHandle() {
+        syncAlternativeArray();
         if (handle.get() == null) {
             if (shape.dimension() != 2) {
                 throw new IllegalArgumentException(
@@ -143,6 +139,7 @@ public class LgbmNDArray extends NDArrayAdapter {
     /** {@inheritDoc} */
     @Override
     public ByteBuffer toByteBuffer(boolean tryDirect) {
+        syncAlternativeArray();
         if (data == null) {
             throw new UnsupportedOperationException("Cannot obtain value from DMatrix");
         }
@@ -170,6 +167,7 @@ public class LgbmNDArray extends NDArrayAdapter {
         shape = array.shape;
         dataType = array.dataType;
         replaced.close();
+        markDirty();
     }
 
     /** {@inheritDoc} */
@@ -23,7 +23,6 @@ import ai.djl.ndarray.types.Shape;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.file.Path;
@@ -41,12 +40,6 @@ public class LgbmNDManager extends BaseNDManager {
         return SYSTEM_MANAGER;
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public ByteBuffer allocateDirect(int capacity) {
-        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
-    }
-
     /** {@inheritDoc} */
     @Override
     public LgbmNDArray from(NDArray array) {
@@ -78,20 +71,21 @@ public class LgbmNDManager extends BaseNDManager {
     public NDArray create(Buffer data, Shape shape, DataType dataType) {
         if (data instanceof ByteBuffer) {
             // output only NDArray
-            return new LgbmNDArray(this, alternativeManager, (ByteBuffer) data, shape, dataType);
+            return new LgbmNDArray(this, (ByteBuffer) data, shape, dataType);
         } else if (data instanceof FloatBuffer && dataType == DataType.FLOAT32) {
             ByteBuffer bb = allocateDirect(data.capacity() * 4);
             bb.asFloatBuffer().put((FloatBuffer) data);
             bb.rewind();
-            return new LgbmNDArray(this, alternativeManager, bb, shape, dataType);
+            return new LgbmNDArray(this, bb, shape, dataType);
         } else if (data instanceof DoubleBuffer && dataType == DataType.FLOAT64) {
             ByteBuffer bb = allocateDirect(data.capacity() * 8);
             bb.asDoubleBuffer().put((DoubleBuffer) data);
             bb.rewind();
-            return new LgbmNDArray(this, alternativeManager, bb, shape, dataType);
+            return new LgbmNDArray(this, bb, shape, dataType);
         }
-        if (alternativeManager != null) {
-            return alternativeManager.create(data, shape, dataType);
+        NDManager alternative = getAlternativeManager();
+        if (alternative != null) {
+            return alternative.create(data, shape, dataType);
         }
         throw new UnsupportedOperationException(
                 "LgbmNDArray only supports float32 and float64. Please pass either a ByteBuffer, a"
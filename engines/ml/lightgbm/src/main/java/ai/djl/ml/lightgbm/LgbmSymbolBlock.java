@@ -37,6 +37,7 @@ public class LgbmSymbolBlock extends AbstractSymbolBlock implements AutoCloseabl
     private String uid;
     private LgbmNDManager manager;
     private int inferenceType;
+    private AtomicReference<FastConfig> fastConfig;
 
     /**
      * Constructs a {@code LgbmSymbolBlock}.
@@ -56,6 +57,7 @@ public class LgbmSymbolBlock extends AbstractSymbolBlock implements AutoCloseabl
         uid = String.valueOf(handle);
         manager.attachInternal(uid, this);
         this.inferenceType = lightgbmlibConstants.C_API_PREDICT_NORMAL;
+        fastConfig = new AtomicReference<>();
     }
 
     /** {@inheritDoc} */
@@ -68,8 +70,12 @@ public class LgbmSymbolBlock extends AbstractSymbolBlock implements AutoCloseabl
         NDArray array = inputs.singletonOrThrow();
         try (LgbmNDManager sub = (LgbmNDManager) manager.newSubManager()) {
             LgbmNDArray lgbmNDArray = sub.from(array);
-            Pair<Integer, ByteBuffer> result =
-                    JniUtils.inference(getHandle(), iterations, lgbmNDArray, inferenceType);
+            Pair<Integer, ByteBuffer> result;
+            if (isSingleRow(lgbmNDArray)) {
+                result = inferenceSingleRow(lgbmNDArray);
+            } else {
+                result = JniUtils.inference(getHandle(), iterations, lgbmNDArray, inferenceType);
+            }
 
             NDArray ret =
                     manager.create(
@@ -81,11 +87,55 @@ public class LgbmSymbolBlock extends AbstractSymbolBlock implements AutoCloseabl
         }
     }
 
+    private static boolean isSingleRow(LgbmNDArray array) {
+        Shape shape = array.getShape();
+        return shape.dimension() == 2 && shape.get(0) == 1;
+    }
+
+    /**
+     * Predicts a single row with a LightGBM {@code FastConfig}.
+     *
+     * <p>The config caches the prediction setup of the booster, which dominates the latency of
+     * predicting one row. It is reused across calls as long as the inference type and the input
+     * layout do not change. Each call takes the config for exclusive use, concurrent calls create
+     * their own config.
+     */
+    private Pair<Integer, ByteBuffer> inferenceSingleRow(LgbmNDArray array) {
+        // creates the native data first, it determines the LightGBM data type
+        array.getHandle();
+        FastConfig config = fastConfig.getAndSet(null);
+        if (config == null || !config.matches(inferenceType, array)) {
+            if (config != null) {
+                config.close();
+            }
+            config = new FastConfig(getHandle(), iterations, inferenceType, array);
+        }
+        try {
+            return JniUtils.inferenceSingleRow(config.handle, array, config.bufferLength);
+        } finally {
+            FastConfig previous = fastConfig.getAndSet(config);
+            if (previous != null) {
+                previous.close();
+            }
+            if (handle.get() == null) {
+                // the block was closed during the prediction
+                config = fastConfig.getAndSet(null);
+                if (config != null) {
+                    config.close();
+                }
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void close() {
         SWIGTYPE_p_p_void pointer = handle.getAndSet(null);
         if (pointer != null) {
+            FastConfig config = fastConfig.getAndSet(null);
+            if (config != null) {
+                config.close();
+            }
             JniUtils.freeModel(pointer);
             manager.detachInternal(uid);
             manager = null;
@@ -147,4 +197,31 @@ public class LgbmSymbolBlock extends AbstractSymbolBlock implements AutoCloseabl
             throw new AssertionError("Unexpected inference type: " + inferenceType);
         }
     }
+
+    private static final class FastConfig {
+
+        SWIGTYPE_p_p_void handle;
+        int inferenceType;
+        int typeConstant;
+        int cols;
+        int bufferLength;
+
+        FastConfig(SWIGTYPE_p_p_void model, int iterations, int inferenceType, LgbmNDArray array) {
+            this.inferenceType = inferenceType;
+            typeConstant = array.getTypeConstant();
+            cols = array.getCols();
+            bufferLength = JniUtils.calculateBufferLength(model, inferenceType, 1, iterations);
+            handle = JniUtils.createFastConfig(model, iterations, array, inferenceType);
+        }
+
+        boolean matches(int inferenceType, LgbmNDArray array) {
+            return this.inferenceType == inferenceType
+                    && typeConstant == array.getTypeConstant()
+                    && cols == array.getCols();
+        }
+
+        void close() {
+            JniUtils.freeFastConfig(handle);
+        }
+    }
 }
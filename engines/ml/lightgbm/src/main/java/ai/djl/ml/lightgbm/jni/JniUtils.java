@@ -27,6 +27,8 @@ import com.microsoft.ml.lightgbm.SWIGTYPE_p_long_long;
 import com.microsoft.ml.lightgbm.SWIGTYPE_p_p_void;
 import com.microsoft.ml.lightgbm.lightgbmlib;
 import com.microsoft.ml.lightgbm.lightgbmlibConstants;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -84,10 +86,9 @@ public final class JniUtils {
     public static Pair<Integer, ByteBuffer> inferenceMat(
             SWIGTYPE_p_p_void model, int iterations, LgbmNDArray a, int inferenceType) {
         SWIGTYPE_p_long_long outLength = lightgbmlib.new_int64_tp();
-        SWIGTYPE_p_double outBuffer = null;
         try {
             int bufferLength = calculateBufferLength(model, inferenceType, a.getRows(), iterations);
-            outBuffer = lightgbmlib.new_doubleArray(bufferLength);
+            ByteBuffer bb = allocateOutput(bufferLength);
             int result =
                     lightgbmlib.LGBM_BoosterPredictForMat(
                             lightgbmlib.voidpp_value(model),
@@ -101,44 +102,65 @@ public final class JniUtils {
                             iterations,
                             "",
                             outLength,
-                            outBuffer);
+                            new DirectDoublePointer(bb));
             checkCall(result);
             int length = Math.toIntExact(lightgbmlib.int64_tp_value(outLength));
-            if (a.getDataType() == DataType.FLOAT32) {
-                ByteBuffer bb =
-                        ByteBuffer.allocateDirect(length * 4).order(ByteOrder.nativeOrder());
-                FloatBuffer wrapped = bb.asFloatBuffer();
-                for (int i = 0; i < length; i++) {
-                    wrapped.put((float) lightgbmlib.doubleArray_getitem(outBuffer, i));
-                }
-                bb.rewind();
-                return new Pair<>(length, bb);
-            } else if (a.getDataType() == DataType.FLOAT64) {
-                ByteBuffer bb =
-                        ByteBuffer.allocateDirect(length * 8).order(ByteOrder.nativeOrder());
-                DoubleBuffer wrapped = bb.asDoubleBuffer();
-                for (int i = 0; i < length; i++) {
-                    wrapped.put(lightgbmlib.doubleArray_getitem(outBuffer, i));
-                }
-                bb.rewind();
-                return new Pair<>(length, bb);
-            } else {
-                throw new IllegalArgumentException(
-                        "Unexpected data type for LightGBM inference. Expected Float32 or Float64,"
-                                + " but found "
-                                + a.getDataType());
-            }
+            return new Pair<>(length, toOutput(bb, length, a.getDataType()));
         } catch (EngineException e) {
             throw new EngineException("Failed to run inference using LightGBM native engine", e);
         } finally {
             lightgbmlib.delete_int64_tp(outLength);
-            if (outBuffer != null) {
-                lightgbmlib.delete_doubleArray(outBuffer);
-            }
         }
     }
 
-    private static int calculateBufferLength(
+    public static SWIGTYPE_p_p_void createFastConfig(
+            SWIGTYPE_p_p_void model, int iterations, LgbmNDArray a, int inferenceType) {
+        SWIGTYPE_p_p_void handle = lightgbmlib.new_voidpp();
+        int result =
+                lightgbmlib.LGBM_BoosterPredictForMatSingleRowFastInit(
+                        lightgbmlib.voidpp_value(model),
+                        inferenceType,
+                        0,
+                        iterations,
+                        a.getTypeConstant(),
+                        a.getCols(),
+                        "",
+                        handle);
+        if (result != 0) {
+            lightgbmlib.delete_voidpp(handle);
+        }
+        checkCall(result);
+        return handle;
+    }
+
+    public static void freeFastConfig(SWIGTYPE_p_p_void handle) {
+        int result = lightgbmlib.LGBM_FastConfigFree(lightgbmlib.voidpp_value(handle));
+        lightgbmlib.delete_voidpp(handle);
+        checkCall(result);
+    }
+
+    public static Pair<Integer, ByteBuffer> inferenceSingleRow(
+            SWIGTYPE_p_p_void fastConfig, LgbmNDArray a, int bufferLength) {
+        SWIGTYPE_p_long_long outLength = lightgbmlib.new_int64_tp();
+        try {
+            ByteBuffer bb = allocateOutput(bufferLength);
+            int result =
+                    lightgbmlib.LGBM_BoosterPredictForMatSingleRowFast(
+                            lightgbmlib.voidpp_value(fastConfig),
+                            a.getHandle(),
+                            outLength,
+                            new DirectDoublePointer(bb));
+            checkCall(result);
+            int length = Math.toIntExact(lightgbmlib.int64_tp_value(outLength));
+            return new Pair<>(length, toOutput(bb, length, a.getDataType()));
+        } catch (EngineException e) {
+            throw new EngineException("Failed to run inference using LightGBM native engine", e);
+        } finally {
+            lightgbmlib.delete_int64_tp(outLength);
+        }
+    }
+
+    public static int calculateBufferLength(
             SWIGTYPE_p_p_void model, int inferenceType, int rows, int iterations) {
         SWIGTYPE_p_int numClasses = lightgbmlib.new_intp();
         SWIGTYPE_p_int numFeatures = lightgbmlib.new_intp();
@@ -220,4 +242,38 @@ public final class JniUtils {
         int result = lightgbmlib.LGBM_DatasetFree(lightgbmlib.voidpp_value(handle));
         checkCall(result);
     }
+
+    private static ByteBuffer allocateOutput(int length) {
+        return ByteBuffer.allocateDirect(length * 8).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer toOutput(ByteBuffer bb, int length, DataType dataType) {
+        if (dataType == DataType.FLOAT64) {
+            bb.limit(length * 8);
+            return bb;
+        } else if (dataType == DataType.FLOAT32) {
+            DoubleBuffer src = bb.asDoubleBuffer();
+            ByteBuffer out = ByteBuffer.allocateDirect(length * 4).order(ByteOrder.nativeOrder());
+            FloatBuffer dst = out.asFloatBuffer();
+            for (int i = 0; i < length; i++) {
+                dst.put(i, (float) src.get(i));
+            }
+            return out;
+        }
+        throw new IllegalArgumentException(
+                "Unexpected data type for LightGBM inference. Expected Float32 or Float64, but"
+                        + " found "
+                        + dataType);
+    }
+
+    /**
+     * A {@code double*} that points to a direct buffer, LightGBM writes the predictions into the
+     * buffer without an extra copy through the SWIG array accessors.
+     */
+    private static final class DirectDoublePointer extends SWIGTYPE_p_double {
+
+        DirectDoublePointer(ByteBuffer bb) {
+            super(Pointer.nativeValue(Native.getDirectBufferPointer(bb)), false);
+        }
+    }
 }
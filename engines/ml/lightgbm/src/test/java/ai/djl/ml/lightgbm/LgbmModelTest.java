@@ -60,6 +60,13 @@ public class LgbmModelTest {
                 NDList output = predictor.predict(new NDList(array));
                 Assert.assertEquals(output.singletonOrThrow().getDataType(), DataType.FLOAT32);
                 Assert.assertEquals(output.singletonOrThrow().getShape().size(), 10);
+
+                // single row uses the fast prediction path
+                NDArray row = manager.ones(new Shape(1, 4));
+                NDArray single = predictor.predict(new NDList(row)).singletonOrThrow();
+                Assert.assertEquals(single.getShape().size(), 1);
+                Assert.assertEquals(
+                        single.toFloatArray()[0], output.singletonOrThrow().toFloatArray()[0]);
             }
 
             lgbm.setInferenceType("RAW_SCORE");
@@ -74,4 +81,39 @@ public class LgbmModelTest {
             Assert.assertThrows(() -> lgbm.setInferenceType("invalid"));
         }
     }
+
+    @Test
+    public void testJavaEvaluator() throws ModelException, IOException, TranslateException {
+        TestRequirements.notArm();
+        Path modelDir = Paths.get("build/model");
+        DownloadUtils.download(
+                "https://resources.djl.ai/test-models/lightgbm/quadratic.txt",
+                modelDir.resolve("quadratic.txt").toString());
+
+        Criteria<NDList, NDList> criteria =
+                Criteria.builder()
+                        .setTypes(NDList.class, NDList.class)
+                        .optModelPath(modelDir)
+                        .optModelName("quadratic")
+                        .build();
+        Criteria<NDList, NDList> javaCriteria =
+                criteria.toBuilder().optOption("evaluator", "java").build();
+
+        try (ZooModel<NDList, NDList> model = criteria.loadModel();
+                ZooModel<NDList, NDList> javaModel = javaCriteria.loadModel();
+                Predictor<NDList, NDList> predictor = model.newPredictor();
+                Predictor<NDList, NDList> javaPredictor = javaModel.newPredictor();
+                NDManager manager = NDManager.newBaseManager()) {
+            NDArray array = manager.randomUniform(-1, 1, new Shape(10, 4));
+            NDArray expected = predictor.predict(new NDList(array)).singletonOrThrow();
+            NDArray actual = javaPredictor.predict(new NDList(array)).singletonOrThrow();
+            Assert.assertEquals(actual.getDataType(), DataType.FLOAT32);
+            Assert.assertEquals(actual.toFloatArray(), expected.toFloatArray(), 1e-5f);
+
+            LgbmModel lgbm = (LgbmModel) javaModel.getWrappedModel();
+            lgbm.setInferenceType("RAW_SCORE");
+            Assert.assertEquals(lgbm.getInferenceType(), "RAW_SCORE");
+            Assert.assertThrows(() -> lgbm.setInferenceType("LEAF_INDEX"));
+        }
+    }
 }
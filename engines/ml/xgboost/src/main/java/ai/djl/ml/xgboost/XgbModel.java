@@ -13,9 +13,12 @@
 package ai.djl.ml.xgboost;
 
 import ai.djl.BaseModel;
+import ai.djl.MalformedModelException;
 import ai.djl.Model;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
+import ai.djl.nn.tree.TreeEnsembleBlock;
+import ai.djl.translate.ArgumentsUtil;
 
 import ml.dmlc.xgboost4j.java.JniUtils;
 
@@ -42,9 +45,23 @@ public class XgbModel extends BaseModel {
         manager.setName("XgbModel");
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Set the {@code evaluator} option to {@code java} to predict with a pure Java evaluator
+     * instead of the XGBoost native library. The pure Java evaluator reads the features directly
+     * and never creates a DMatrix, which is faster for small batches. It supports JSON and UBJSON
+     * models with numerical splits, the DEFAULT and OUTPUT_MARGIN modes, and NaN as the missing
+     * value.
+     *
+     * <p>Set the {@code nthread} option to use multiple threads to build the DMatrix of a batch and
+     * to predict with the XGBoost native library. A CSR {@link ai.djl.ndarray.NDArray} created by
+     * the {@link XgbNDManager} in a {@link ai.djl.translate.Translator} is predicted as is, without
+     * densifying the sparse rows.
+     */
     @Override
-    public void load(Path modelPath, String prefix, Map<String, ?> options) throws IOException {
+    public void load(Path modelPath, String prefix, Map<String, ?> options)
+            throws IOException, MalformedModelException {
         setModelDir(modelPath);
         wasLoaded = true;
         if (block != null) {
@@ -57,20 +74,44 @@ public class XgbModel extends BaseModel {
                 throw new FileNotFoundException(".json file not found in: " + modelPath);
             }
         }
-        block = JniUtils.loadModel((XgbNDManager) manager, modelFile.toAbsolutePath().toString());
+        XgbSymbolBlock.Mode mode = XgbSymbolBlock.Mode.DEFAULT;
+        int treeLimit = 0;
+        int nthread = 0;
         // set extra options
         if (options != null) {
             if (options.containsKey("Mode")) {
-                ((XgbSymbolBlock) block)
-                        .setMode(
-                                XgbSymbolBlock.Mode.valueOf(
-                                        ((String) options.get("Mode")).toUpperCase(Locale.ROOT)));
+                mode =
+                        XgbSymbolBlock.Mode.valueOf(
+                                ((String) options.get("Mode")).toUpperCase(Locale.ROOT));
             }
             if (options.containsKey("TreeLimit")) {
-                ((XgbSymbolBlock) block)
-                        .setTreeLimit(Integer.parseInt((String) options.get("TreeLimit")));
+                treeLimit = Integer.parseInt((String) options.get("TreeLimit"));
+            }
+            if (options.containsKey("nthread")) {
+                nthread = Integer.parseInt((String) options.get("nthread"));
+                ((XgbNDManager) manager).setNthread(nthread);
+            }
+            if ("java".equals(ArgumentsUtil.stringValue(options, "evaluator"))) {
+                if (mode != XgbSymbolBlock.Mode.DEFAULT
+                        && mode != XgbSymbolBlock.Mode.OUTPUT_MARGIN) {
+                    throw new IllegalArgumentException(
+                            "Unsupported mode for the Java evaluator: " + mode);
+                }
+                TreeEnsembleBlock treeBlock =
+                        new XgbTreeEnsembleBlock(XgbModelParser.parse(modelFile, treeLimit));
+                treeBlock.setRawOutput(mode == XgbSymbolBlock.Mode.OUTPUT_MARGIN);
+                block = treeBlock;
+                return;
             }
         }
+        XgbSymbolBlock symbolBlock =
+                JniUtils.loadModel((XgbNDManager) manager, modelFile.toAbsolutePath().toString());
+        symbolBlock.setMode(mode);
+        symbolBlock.setTreeLimit(treeLimit);
+        if (nthread > 0) {
+            symbolBlock.setNthread(nthread);
+        }
+        block = symbolBlock;
     }
 
     private Path findModelFile(String prefix) {
@@ -115,10 +156,10 @@ public class XgbModel extends BaseModel {
     /** {@inheritDoc} */
     @Override
     public void close() {
-        if (block != null) {
+        if (block instanceof XgbSymbolBlock) {
             ((XgbSymbolBlock) block).close();
-            block = null;
         }
+        block = null;
         super.close();
     }
 }
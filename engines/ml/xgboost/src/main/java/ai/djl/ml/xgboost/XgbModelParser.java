@@ -0,0 +1,351 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ml.xgboost;
+
+import ai.djl.MalformedModelException;
+import ai.djl.nn.tree.TreeEnsemble;
+import ai.djl.util.JsonUtils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Parses an XGBoost JSON or UBJSON model into a {@link TreeEnsemble}. */
+final class XgbModelParser {
+
+    private XgbModelParser() {}
+
+    /**
+     * Parses an XGBoost model saved in the JSON or UBJSON format.
+     *
+     * @param file the model file
+     * @param treeLimit the number of trees to use, 0 to use all trees
+     * @return the {@link TreeEnsemble}
+     * @throws IOException if failed to read the model file
+     * @throws MalformedModelException if the model is invalid or not supported
+     */
+    static TreeEnsemble parse(Path file, int treeLimit)
+            throws IOException, MalformedModelException {
+        JsonObject root;
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+            is.mark(2);
+            int first = is.read();
+            int second = is.read();
+            is.reset();
+            if (first != '{') {
+                throw new MalformedModelException(
+                        "The Java evaluator only supports XGBoost models saved in JSON or UBJSON"
+                                + " format: "
+                                + file);
+            }
+            if (second == '"' || Character.isWhitespace(second)) {
+                Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8);
+                root = JsonUtils.GSON.fromJson(reader, JsonObject.class);
+            } else {
+                DataInputStream dis = new DataInputStream(is);
+                root = readUbj(dis, readMarker(dis)).getAsJsonObject();
+            }
+        }
+        try {
+            return parse(root, treeLimit);
+        } catch (JsonParseException | IllegalStateException | ClassCastException e) {
+            throw new MalformedModelException("Invalid XGBoost model: " + file, e);
+        }
+    }
+
+    private static TreeEnsemble parse(JsonObject root, int treeLimit)
+            throws MalformedModelException {
+        JsonObject learner = getObject(root, "learner");
+        JsonObject param = getObject(learner, "learner_model_param");
+        JsonElement numTarget = param.get("num_target");
+        if (numTarget != null && numTarget.getAsInt() > 1) {
+            throw new MalformedModelException(
+                    "The Java evaluator does not support multi-target models");
+        }
+        int numGroups = Math.max(get(param, "num_class").getAsInt(), 1);
+        TreeEnsemble.Builder builder =
+                TreeEnsemble.builder()
+                        .setNumFeatures(get(param, "num_feature").getAsInt())
+                        .optNumOutputs(numGroups);
+        String objective = get(getObject(learner, "objective"), "name").getAsString();
+        setObjective(builder, objective, get(param, "base_score").getAsDouble());
+
+        JsonObject booster = getObject(learner, "gradient_booster");
+        String name = get(booster, "name").getAsString();
+        JsonArray weights = null;
+        if ("dart".equals(name)) {
+            weights = get(booster, "weight_drop").getAsJsonArray();
+            booster = getObject(booster, "gbtree");
+        } else if (!"gbtree".equals(name)) {
+            throw new MalformedModelException(
+                    "The Java evaluator does not support XGBoost booster: " + name);
+        }
+        JsonObject model = getObject(booster, "model");
+        JsonArray trees = get(model, "trees").getAsJsonArray();
+        JsonArray treeInfo = get(model, "tree_info").getAsJsonArray();
+        int numTrees = trees.size();
+        if (treeLimit > 0) {
+            // the same as XGBoost, the limit is converted to boosting rounds
+            JsonObject treeParam = getObject(model, "gbtree_model_param");
+            int parallelTrees = Math.max(get(treeParam, "num_parallel_tree").getAsInt(), 1);
+            int rounds = treeLimit / parallelTrees;
+            numTrees = Math.min(numTrees, rounds * parallelTrees * numGroups);
+        }
+        for (int i = 0; i < numTrees; ++i) {
+            double weight = weights == null ? 1 : weights.get(i).getAsDouble();
+            addTree(builder, treeInfo.get(i).getAsInt(), trees.get(i).getAsJsonObject(), weight);
+        }
+        return builder.build();
+    }
+
+    private static void setObjective(TreeEnsemble.Builder builder, String objective, double base)
+            throws MalformedModelException {
+        // XGBoost saves the base score as a prediction, converts it into a raw score
+        switch (objective) {
+            case "binary:logistic":
+            case "reg:logistic":
+                builder.optBaseScore(Math.log(base / (1 - base)));
+                builder.optTransform(TreeEnsemble.Transform.SIGMOID);
+                break;
+            case "binary:logitraw":
+                builder.optBaseScore(Math.log(base / (1 - base)));
+                break;
+            case "count:poisson":
+            case "reg:gamma":
+            case "reg:tweedie":
+            case "survival:cox":
+                builder.optBaseScore(Math.log(base));
+                builder.optTransform(TreeEnsemble.Transform.EXP);
+                break;
+            case "multi:softprob":
+                builder.optBaseScore(base);
+                builder.optTransform(TreeEnsemble.Transform.SOFTMAX);
+                break;
+            case "multi:softmax":
+                builder.optBaseScore(base);
+                builder.optTransform(TreeEnsemble.Transform.ARGMAX);
+                break;
+            case "reg:squarederror":
+            case "reg:squaredlogerror":
+            case "reg:pseudohubererror":
+            case "reg:absoluteerror":
+            case "reg:quantileerror":
+            case "reg:linear":
+            case "rank:pairwise":
+            case "rank:ndcg":
+            case "rank:map":
+                builder.optBaseScore(base);
+                break;
+            default:
+                throw new MalformedModelException(
+                        "The Java evaluator does not support XGBoost objective: " + objective);
+        }
+    }
+
+    private static void addTree(
+            TreeEnsemble.Builder builder, int output, JsonObject tree, double weight)
+            throws MalformedModelException {
+        JsonArray left = get(tree, "left_children").getAsJsonArray();
+        JsonArray right = get(tree, "right_children").getAsJsonArray();
+        JsonArray splitIndices = get(tree, "split_indices").getAsJsonArray();
+        JsonArray conditions = get(tree, "split_conditions").getAsJsonArray();
+        JsonArray defaults = get(tree, "default_left").getAsJsonArray();
+        JsonArray splitTypes = tree.getAsJsonArray("split_type");
+        int numNodes = left.size();
+
+        // XGBoost mixes splits and leaves in the node ids, number them separately
+        int[] ids = new int[numNodes];
+        int splits = 0;
+        int leaves = 0;
+        for (int i = 0; i < numNodes; ++i) {
+            ids[i] = left.get(i).getAsInt() == -1 ? ~leaves++ : splits++;
+        }
+        int[] features = new int[splits];
+        double[] thresholds = new double[splits];
+        int[] leftChildren = new int[splits];
+        int[] rightChildren = new int[splits];
+        byte[] missingTypes = new byte[splits];
+        boolean[] defaultLeft = new boolean[splits];
+        double[] leafValues = new double[leaves];
+        for (int i = 0; i < numNodes; ++i) {
+            float condition = conditions.get(i).getAsFloat();
+            int id = ids[i];
+            if (id < 0) {
+                leafValues[~id] = condition * weight;
+                continue;
+            }
+            if (splitTypes != null && splitTypes.get(i).getAsInt() != 0) {
+                throw new MalformedModelException(
+                        "The Java evaluator does not support categorical splits");
+            }
+            features[id] = splitIndices.get(i).getAsInt();
+            // XGBoost goes left if the value is less than the condition
+            thresholds[id] = Math.nextDown((double) condition);
+            leftChildren[id] = ids[left.get(i).getAsInt()];
+            rightChildren[id] = ids[right.get(i).getAsInt()];
+            missingTypes[id] = TreeEnsemble.MISSING_NAN;
+            JsonPrimitive value = defaults.get(i).getAsJsonPrimitive();
+            defaultLeft[id] = value.isBoolean() ? value.getAsBoolean() : value.getAsInt() != 0;
+        }
+        builder.addTree(
+                output,
+                features,
+                thresholds,
+                leftChildren,
+                rightChildren,
+                missingTypes,
+                defaultLeft,
+                leafValues);
+    }
+
+    private static JsonObject getObject(JsonObject json, String key)
+            throws MalformedModelException {
+        return get(json, key).getAsJsonObject();
+    }
+
+    private static JsonElement get(JsonObject json, String key) throws MalformedModelException {
+        JsonElement element = json.get(key);
+        if (element == null) {
+            throw new MalformedModelException("Missing " + key + " in XGBoost model");
+        }
+        return element;
+    }
+
+    private static int readMarker(DataInputStream dis) throws IOException {
+        int marker;
+        do {
+            marker = dis.readUnsignedByte();
+        } while (marker == 'N');
+        return marker;
+    }
+
+    private static JsonElement readUbj(DataInputStream dis, int marker) throws IOException {
+        switch (marker) {
+            case 'Z':
+                return JsonNull.INSTANCE;
+            case 'T':
+                return new JsonPrimitive(true);
+            case 'F':
+                return new JsonPrimitive(false);
+            case 'i':
+                return new JsonPrimitive(dis.readByte());
+            case 'U':
+                return new JsonPrimitive(dis.readUnsignedByte());
+            case 'I':
+                return new JsonPrimitive(dis.readShort());
+            case 'l':
+                return new JsonPrimitive(dis.readInt());
+            case 'L':
+                return new JsonPrimitive(dis.readLong());
+            case 'd':
+                return new JsonPrimitive(dis.readFloat());
+            case 'D':
+                return new JsonPrimitive(dis.readDouble());
+            case 'H':
+                return new JsonPrimitive(new BigDecimal(readString(dis)));
+            case 'C':
+                return new JsonPrimitive((char) dis.readUnsignedByte());
+            case 'S':
+                return new JsonPrimitive(readString(dis));
+            case '[':
+                return readArray(dis);
+            case '{':
+                return readObject(dis);
+            default:
+                throw new IOException("Invalid UBJSON marker: " + marker);
+        }
+    }
+
+    private static JsonArray readArray(DataInputStream dis) throws IOException {
+        int type = 0;
+        int marker = readMarker(dis);
+        if (marker == '$') {
+            type = dis.readUnsignedByte();
+            marker = readMarker(dis);
+        }
+        if (marker == '#') {
+            int count = readLength(dis);
+            JsonArray array = new JsonArray(count);
+            for (int i = 0; i < count; ++i) {
+                array.add(readUbj(dis, type == 0 ? readMarker(dis) : type));
+            }
+            return array;
+        }
+        JsonArray array = new JsonArray();
+        while (marker != ']') {
+            array.add(readUbj(dis, marker));
+            marker = readMarker(dis);
+        }
+        return array;
+    }
+
+    private static JsonObject readObject(DataInputStream dis) throws IOException {
+        JsonObject object = new JsonObject();
+        int type = 0;
+        int marker = readMarker(dis);
+        if (marker == '$') {
+            type = dis.readUnsignedByte();
+            marker = readMarker(dis);
+        }
+        if (marker == '#') {
+            int count = readLength(dis);
+            for (int i = 0; i < count; ++i) {
+                String key = readString(dis);
+                object.add(key, readUbj(dis, type == 0 ? readMarker(dis) : type));
+            }
+            return object;
+        }
+        while (marker != '}') {
+            String key = readString(dis, marker);
+            object.add(key, readUbj(dis, readMarker(dis)));
+            marker = readMarker(dis);
+        }
+        return object;
+    }
+
+    private static String readString(DataInputStream dis) throws IOException {
+        return readString(dis, readMarker(dis));
+    }
+
+    private static String readString(DataInputStream dis, int lengthMarker) throws IOException {
+        byte[] buf = new byte[toLength(dis, lengthMarker)];
+        dis.readFully(buf);
+        return new String(buf, StandardCharsets.UTF_8);
+    }
+
+    private static int readLength(DataInputStream dis) throws IOException {
+        return toLength(dis, readMarker(dis));
+    }
+
+    private static int toLength(DataInputStream dis, int marker) throws IOException {
+        JsonElement length = readUbj(dis, marker);
+        if (!length.isJsonPrimitive() || !length.getAsJsonPrimitive().isNumber()) {
+            throw new IOException("Invalid UBJSON length type: " + marker);
+        }
+        return Math.toIntExact(length.getAsLong());
+    }
+}
@@ -30,45 +30,68 @@ public class XgbNDArray extends NDArrayAdapter {
 
     private AtomicLong handle;
     private ByteBuffer data;
+    private ByteBuffer denseData;
     private SparseFormat format;
+    private float missingValue;
 
-    XgbNDArray(
-            NDManager manager,
-            NDManager alternativeManager,
-            long handle,
-            Shape shape,
-            SparseFormat format) {
-        super(manager, alternativeManager, shape, DataType.FLOAT32, String.valueOf(handle));
+    XgbNDArray(NDManager manager, long handle, Shape shape, SparseFormat format) {
+        super(manager, shape, DataType.FLOAT32, String.valueOf(handle));
         this.handle = new AtomicLong(handle);
         this.format = format;
         manager.attachInternal(uid, this);
     }
 
-    XgbNDArray(
-            NDManager manager,
-            NDManager alternativeManager,
-            ByteBuffer data,
-            Shape shape,
-            DataType dataType) {
-        super(manager, alternativeManager, shape, dataType, UUID.randomUUID().toString());
+    XgbNDArray(NDManager manager, ByteBuffer denseData, Shape shape, float missingValue) {
+        super(manager, shape, DataType.FLOAT32, UUID.randomUUID().toString());
+        this.handle = new AtomicLong();
+        this.denseData = denseData;
+        this.missingValue = missingValue;
+        this.format = SparseFormat.DENSE;
+        manager.attachInternal(uid, this);
+    }
+
+    XgbNDArray(NDManager manager, ByteBuffer data, Shape shape, DataType dataType) {
+        super(manager, shape, dataType, UUID.randomUUID().toString());
         this.data = data;
         this.format = SparseFormat.DENSE;
         manager.attachInternal(uid, this);
     }
 
     /**
-     * Returns the native XGBoost Booster pointer.
+     * Returns the native XGBoost DMatrix pointer.
+     *
+     * <p>The DMatrix of a dense array is created on first use, so an array that is only predicted
+     * with the Java evaluator never crosses JNI.
      *
      * @return the pointer
      */
     public long getHandle() {
+        syncAlternativeArray();
         if (handle == null) {
             throw new UnsupportedOperationException(
                     "XgbNDArray only support float32 and shape must be in two dimension.");
         }
+        if (handle.get() == 0L) {
+            if (denseData == null) {
+                throw new IllegalStateException("XgbNDArray has been closed.");
+            }
+            long pointer = JniUtils.createDMatrix(denseData, shape, missingValue);
+            if (!handle.compareAndSet(0L, pointer)) {
+                JniUtils.deleteDMatrix(pointer);
+            }
+        }
         return handle.get();
     }
 
+    /**
+     * Returns the float32 data the DMatrix was created from, or {@code null} if not available.
+     *
+     * @return the float32 data the DMatrix was created from
+     */
+    ByteBuffer getDenseData() {
+        return denseData;
+    }
+
     /** {@inheritDoc} */
     @Override
     public SparseFormat getSparseFormat() {
@@ -78,6 +101,7 @@ public class XgbNDArray extends NDArrayAdapter {
     /** {@inheritDoc} */
     @Override
     public ByteBuffer toByteBuffer(boolean tryDirect) {
+        syncAlternativeArray();
         if (data == null) {
             throw new UnsupportedOperationException("Cannot obtain value from DMatrix");
         }
@@ -94,8 +118,11 @@ public class XgbNDArray extends NDArrayAdapter {
         }
         XgbNDArray array = (XgbNDArray) replaced;
         data = array.data;
+        denseData = array.denseData;
+        missingValue = array.missingValue;
         handle = array.handle;
         format = array.format;
+        markDirty();
     }
 
     /** {@inheritDoc} */
@@ -121,5 +148,6 @@ public class XgbNDArray extends NDArrayAdapter {
             long pointer = handle.getAndSet(0L);
             JniUtils.deleteDMatrix(pointer);
         }
+        denseData = null;
     }
 }
@@ -29,9 +29,7 @@ import ml.dmlc.xgboost4j.java.JniUtils;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
-import java.util.Arrays;
 
 /** {@code XgbNDManager} is the XGBoost implementation of {@link NDManager}. */
 public class XgbNDManager extends BaseNDManager {
@@ -67,10 +65,13 @@ public class XgbNDManager extends BaseNDManager {
         this.nthread = nthread;
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public ByteBuffer allocateDirect(int capacity) {
-        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    /**
+     * Returns the default number of threads.
+     *
+     * @return the default number of threads
+     */
+    public int getNthread() {
+        return nthread;
     }
 
     /** {@inheritDoc} */
@@ -89,6 +90,8 @@ public class XgbNDManager extends BaseNDManager {
     @Override
     public NDManager newSubManager(Device device) {
         XgbNDManager manager = new XgbNDManager(this, device);
+        manager.missingValue = missingValue;
+        manager.nthread = nthread;
         attachInternal(manager.uid, manager);
         return manager;
     }
@@ -120,7 +123,7 @@ public class XgbNDManager extends BaseNDManager {
 
         Shape shape = new Shape(shapes);
         long handle = JniUtils.createDMatrix(columnBatch, missing, nthread);
-        return new XgbNDArray(this, alternativeManager, handle, shape, SparseFormat.DENSE);
+        return new XgbNDArray(this, handle, shape, SparseFormat.DENSE);
     }
 
     /** {@inheritDoc} */
@@ -129,29 +132,29 @@ public class XgbNDManager extends BaseNDManager {
         if (shape.dimension() != 2) {
             if (data instanceof ByteBuffer) {
                 // output only NDArray
-                return new XgbNDArray(this, alternativeManager, (ByteBuffer) data, shape, dataType);
+                return new XgbNDArray(this, (ByteBuffer) data, shape, dataType);
             }
-            if (alternativeManager != null) {
-                return alternativeManager.create(data, shape, dataType);
+            NDManager alternative = getAlternativeManager();
+            if (alternative != null) {
+                return alternative.create(data, shape, dataType);
             }
             throw new UnsupportedOperationException("XgbNDArray shape must be in two dimension.");
         }
         if (dataType != DataType.FLOAT32) {
             if (data instanceof ByteBuffer) {
                 // output only NDArray
-                return new XgbNDArray(this, alternativeManager, (ByteBuffer) data, shape, dataType);
+                return new XgbNDArray(this, (ByteBuffer) data, shape, dataType);
             }
-            if (alternativeManager != null) {
-                return alternativeManager.create(data, shape, dataType);
+            NDManager alternative = getAlternativeManager();
+            if (alternative != null) {
+                return alternative.create(data, shape, dataType);
             }
             throw new UnsupportedOperationException("XgbNDArray only supports float32.");
         }
 
         if (data instanceof ByteBuffer) {
             if (data.isDirect()) {
-                // TODO: allow user to set missing value
-                long handle = JniUtils.createDMatrix(data, shape, missingValue);
-                return new XgbNDArray(this, alternativeManager, handle, shape, SparseFormat.DENSE);
+                return new XgbNDArray(this, (ByteBuffer) data, shape, missingValue);
             }
             data = ((ByteBuffer) data).asFloatBuffer();
         }
@@ -166,21 +169,54 @@ public class XgbNDManager extends BaseNDManager {
         ByteBuffer buf = allocateDirect(size);
         buf.asFloatBuffer().put((FloatBuffer) data);
         buf.rewind();
-        long handle = JniUtils.createDMatrix(buf, shape, missingValue);
-        return new XgbNDArray(this, alternativeManager, handle, shape, SparseFormat.DENSE);
+        return new XgbNDArray(this, buf, shape, missingValue);
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The DMatrix is created with the default number of threads of this manager, it can be
+     * passed to a {@link XgbSymbolBlock} to predict a batch of sparse rows without densifying them.
+     */
     @Override
     public NDArray createCSR(Buffer buffer, long[] indptr, long[] indices, Shape shape) {
         if (shape.dimension() != 2) {
             throw new UnsupportedOperationException("Shape must be in two dimension");
         }
-        int[] intIndices = Arrays.stream(indices).mapToInt(Math::toIntExact).toArray();
-        float[] data = new float[buffer.remaining()];
-        ((FloatBuffer) buffer).get(data);
-        long handle = JniUtils.createDMatrixCSR(indptr, intIndices, data, missingValue, nthread);
-        return new XgbNDArray(this, alternativeManager, handle, shape, SparseFormat.CSR);
+        if (indptr.length != shape.get(0) + 1) {
+            throw new IllegalArgumentException(
+                    "Expected " + (shape.get(0) + 1) + " indptr, but got: " + indptr.length);
+        }
+        if (buffer instanceof ByteBuffer) {
+            buffer = ((ByteBuffer) buffer).asFloatBuffer();
+        }
+        DataType inputType = DataType.fromBuffer(buffer);
+        if (inputType != DataType.FLOAT32) {
+            throw new UnsupportedOperationException(
+                    "Only Float32 data type supported, actual " + inputType);
+        }
+        int[] intIndices = new int[indices.length];
+        for (int i = 0; i < indices.length; ++i) {
+            intIndices[i] = Math.toIntExact(indices[i]);
+        }
+        float[] data = toFloatArray((FloatBuffer) buffer);
+        int ncol = Math.toIntExact(shape.get(1));
+        long handle =
+                JniUtils.createDMatrixCSR(indptr, intIndices, data, ncol, missingValue, nthread);
+        return new XgbNDArray(this, handle, shape, SparseFormat.CSR);
+    }
+
+    private static float[] toFloatArray(FloatBuffer fb) {
+        if (fb.hasArray()
+                && fb.arrayOffset() == 0
+                && fb.position() == 0
+                && fb.remaining() == fb.array().length) {
+            // avoid copying a wrapped array, JNI copies the data into the DMatrix anyway
+            return fb.array();
+        }
+        float[] data = new float[fb.remaining()];
+        fb.duplicate().get(data);
+        return data;
     }
 
     /** {@inheritDoc} */
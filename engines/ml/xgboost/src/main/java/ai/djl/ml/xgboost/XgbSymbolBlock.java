@@ -14,6 +14,7 @@ package ai.djl.ml.xgboost;
 
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.AbstractSymbolBlock;
@@ -63,20 +64,26 @@ public class XgbSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
             boolean training,
             PairList<String, Object> params) {
         NDArray array = inputs.singletonOrThrow();
+        if (array instanceof XgbNDArray) {
+            // the DMatrix is already built, e.g. a CSR batch created by the Translator
+            return new NDList(predict((XgbNDArray) array, array.getManager()));
+        }
         try (XgbNDManager sub = (XgbNDManager) manager.newSubManager()) {
-            XgbNDArray xgbNDArray = sub.from(array);
-            // TODO: return DirectBuffer from JNI to avoid copy
-            float[] result = JniUtils.inference(this, xgbNDArray, treeLimit, mode);
-            ByteBuffer buf = manager.allocateDirect(result.length * 4);
-            buf.asFloatBuffer().put(result);
-            buf.rewind();
-
-            NDArray ret = manager.create(buf, new Shape(result.length), DataType.FLOAT32);
-            ret.attach(array.getManager());
-            return new NDList(ret);
+            return new NDList(predict(sub.from(array), array.getManager()));
         }
     }
 
+    private NDArray predict(XgbNDArray array, NDManager target) {
+        // TODO: return DirectBuffer from JNI to avoid copy
+        float[] result = JniUtils.inference(this, array, treeLimit, mode);
+        ByteBuffer buf = manager.allocateDirect(result.length * 4);
+        buf.asFloatBuffer().put(result);
+
+        NDArray ret = manager.create(buf, new Shape(result.length), DataType.FLOAT32);
+        ret.attach(target);
+        return ret;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void close() {
@@ -109,6 +116,10 @@ public class XgbSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
         this.treeLimit = treeLimit;
     }
 
+    void setNthread(int nthread) {
+        JniUtils.setParam(this, "nthread", String.valueOf(nthread));
+    }
+
     /** {@inheritDoc} */
     @Override
     public ParameterList getDirectParameters() {
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ml.xgboost;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.nn.tree.TreeEnsemble;
+import ai.djl.nn.tree.TreeEnsembleBlock;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@code XgbTreeEnsembleBlock} is a {@link TreeEnsembleBlock} that can read the features of a dense
+ * {@link XgbNDArray}.
+ */
+class XgbTreeEnsembleBlock extends TreeEnsembleBlock {
+
+    XgbTreeEnsembleBlock(TreeEnsemble ensemble) {
+        super(ensemble);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected double[] getFeatures(NDArray array) {
+        if (array instanceof XgbNDArray) {
+            ByteBuffer data = ((XgbNDArray) array).getDenseData();
+            if (data != null) {
+                ByteBuffer bb = data.duplicate().order(ByteOrder.nativeOrder());
+                bb.clear();
+                bb.limit(Math.toIntExact(array.size() * 4));
+                return toDoubleArray(bb.asFloatBuffer());
+            }
+        }
+        return super.getFeatures(array);
+    }
+}
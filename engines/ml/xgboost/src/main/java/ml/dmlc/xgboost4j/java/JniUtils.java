@@ -45,6 +45,10 @@ public final class JniUtils {
         return new XgbSymbolBlock(manager, handle);
     }
 
+    public static void setParam(XgbSymbolBlock block, String key, String value) {
+        checkCall(XGBoostJNI.XGBoosterSetParam(block.getHandle(), key, value));
+    }
+
     public static long createDMatrix(Buffer buf, Shape shape, float missing) {
         long[] handles = new long[1];
         int rol = (int) shape.get(0);
@@ -68,11 +72,11 @@ public final class JniUtils {
     }
 
     public static long createDMatrixCSR(
-            long[] indptr, int[] indices, float[] array, float missing, int nthread) {
+            long[] indptr, int[] indices, float[] array, int ncol, float missing, int nthread) {
         long[] handles = new long[1];
         checkCall(
                 XGBoostJNI.XGDMatrixCreateFromCSR(
-                        indptr, indices, array, 0, missing, nthread, handles));
+                        indptr, indices, array, ncol, missing, nthread, handles));
         return handles[0];
     }
 
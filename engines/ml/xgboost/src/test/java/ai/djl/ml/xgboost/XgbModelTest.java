@@ -37,6 +37,8 @@ import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
 
 public class XgbModelTest {
 
@@ -84,6 +86,48 @@ public class XgbModelTest {
                 NDList output = predictor.predict(new NDList(array));
                 Assert.assertEquals(output.singletonOrThrow().getDataType(), DataType.FLOAT32);
                 Assert.assertEquals(output.singletonOrThrow().toFloatArray().length, 10);
+
+                // CSR rows are predicted without densifying
+                long[] indptr = {0, 13, 26};
+                long[] indices = new long[26];
+                float[] data = new float[26];
+                for (int i = 0; i < indices.length; ++i) {
+                    indices[i] = i % 13;
+                    data[i] = 1f;
+                }
+                NDArray csr =
+                        model.getNDManager()
+                                .createCSR(
+                                        FloatBuffer.wrap(data), indptr, indices, new Shape(2, 13));
+                float[] sparse = predictor.predict(new NDList(csr)).head().toFloatArray();
+                float[] dense = output.singletonOrThrow().toFloatArray();
+                Assert.assertEquals(sparse, Arrays.copyOf(dense, 2));
+            }
+        }
+    }
+
+    @Test
+    public void testJavaEvaluator()
+            throws MalformedModelException, IOException, TranslateException {
+        try (Model model = Model.newInstance("XGBoost");
+                Model javaModel = Model.newInstance("XGBoost")) {
+            model.load(Paths.get("build/model"), "regression");
+            javaModel.load(
+                    Paths.get("build/model"),
+                    "regression",
+                    Collections.singletonMap("evaluator", "java"));
+            Predictor<NDList, NDList> predictor = model.newPredictor(new NoopTranslator());
+            Predictor<NDList, NDList> javaPredictor = javaModel.newPredictor(new NoopTranslator());
+            try (NDManager manager = NDManager.newBaseManager()) {
+                float[] data = new float[10 * 13];
+                for (int i = 0; i < data.length; ++i) {
+                    data[i] = i % 7 == 0 ? Float.NaN : i % 13;
+                }
+                NDArray array = manager.create(data, new Shape(10, 13));
+                float[] expected = predictor.predict(new NDList(array)).head().toFloatArray();
+                NDArray actual = javaPredictor.predict(new NDList(array)).singletonOrThrow();
+                Assert.assertEquals(actual.getDataType(), DataType.FLOAT32);
+                Assert.assertEquals(actual.toFloatArray(), expected, 1e-5f);
             }
         }
     }
@@ -93,7 +137,10 @@ public class XgbModelTest {
         try (XgbNDManager manager =
                 (XgbNDManager) XgbNDManager.getSystemManager().newSubManager()) {
             manager.setMissingValue(Float.NaN);
-            manager.setNthread(1);
+            manager.setNthread(2);
+            try (XgbNDManager sub = (XgbNDManager) manager.newSubManager()) {
+                Assert.assertEquals(sub.getNthread(), 2);
+            }
             NDArray zeros = manager.zeros(new Shape(1, 2));
             Assert.expectThrows(UnsupportedOperationException.class, zeros::toFloatArray);
 
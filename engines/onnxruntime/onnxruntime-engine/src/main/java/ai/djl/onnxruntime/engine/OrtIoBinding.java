@@ -0,0 +1,187 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.onnxruntime.engine;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OnnxValue;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.TensorInfo;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The preallocated input and output tensors of an {@link OrtSymbolBlock} in I/O binding mode.
+ *
+ * <p>The tensors are created over direct buffers once and reused by every run. The outputs are
+ * returned as {@link OrtNDArray}s that share the output buffers, the binding is recycled after all
+ * of them are closed.
+ */
+final class OrtIoBinding implements AutoCloseable {
+
+    private Map<String, OnnxTensor> inputs;
+    private Map<String, ByteBuffer> inputBuffers;
+    private Map<String, OnnxTensor> outputs;
+    private Map<String, ByteBuffer> outputBuffers;
+    private AtomicInteger pending;
+    private Consumer<OrtIoBinding> recycler;
+
+    /**
+     * Constructs a {@code OrtIoBinding}.
+     *
+     * @param env the {@link OrtEnvironment}
+     * @param inputInfo the fixed shape inputs to bind
+     * @param outputInfo the outputs to bind, all of them must have a fixed shape
+     * @param recycler the function to call once all outputs are closed
+     */
+    OrtIoBinding(
+            OrtEnvironment env,
+            Map<String, TensorInfo> inputInfo,
+            Map<String, TensorInfo> outputInfo,
+            Consumer<OrtIoBinding> recycler) {
+        this.recycler = recycler;
+        inputs = new LinkedHashMap<>();
+        inputBuffers = new LinkedHashMap<>();
+        outputs = new LinkedHashMap<>();
+        outputBuffers = new LinkedHashMap<>();
+        pending = new AtomicInteger();
+        try {
+            allocate(env, inputInfo, inputs, inputBuffers);
+            allocate(env, outputInfo, outputs, outputBuffers);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns whether a tensor can be preallocated for the input or output.
+     *
+     * @param info the {@link TensorInfo} of the input or output
+     * @return {@code true} if a tensor can be preallocated
+     */
+    static boolean isBindable(TensorInfo info) {
+        for (long dim : info.getShape()) {
+            if (dim <= 0) {
+                return false;
+            }
+        }
+        switch (info.type) {
+            case FLOAT:
+            case DOUBLE:
+            case FLOAT16:
+            case BFLOAT16:
+            case INT8:
+            case UINT8:
+            case INT32:
+            case INT64:
+            case BOOL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Copies the input into the bound tensor.
+     *
+     * @param name the name of the input
+     * @param array the input
+     * @return the bound tensor, or {@code null} if the input is not bound or doesn't match
+     */
+    OnnxTensor bindInput(String name, NDArray array) {
+        OnnxTensor tensor = inputs.get(name);
+        if (tensor == null) {
+            return null;
+        }
+        TensorInfo info = tensor.getInfo();
+        if (array.getDataType() != OrtUtils.toDataType(info.type)
+                || !Arrays.equals(array.getShape().getShape(), info.getShape())) {
+            return null;
+        }
+        ByteBuffer src = array.toByteBuffer();
+        if (src.order() != ByteOrder.nativeOrder()) {
+            return null;
+        }
+        ByteBuffer buf = inputBuffers.get(name).duplicate();
+        buf.put(src);
+        return tensor;
+    }
+
+    /**
+     * Returns the bound output tensors.
+     *
+     * @return the bound output tensors
+     */
+    Map<String, OnnxTensor> getOutputs() {
+        return outputs;
+    }
+
+    /**
+     * Returns the bound outputs as {@link OrtNDArray}s that share the output buffers.
+     *
+     * @param manager the manager to create the arrays
+     * @return the outputs
+     */
+    NDList toNDList(OrtNDManager manager) {
+        pending.set(outputs.size());
+        NDList list = new NDList(outputs.size());
+        for (Map.Entry<String, OnnxTensor> entry : outputs.entrySet()) {
+            String name = entry.getKey();
+            ByteBuffer data = outputBuffers.get(name);
+            list.add(manager.createInternal(entry.getValue(), data, this::release));
+        }
+        return list;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        OnnxValue.close(inputs);
+        OnnxValue.close(outputs);
+        inputs.clear();
+        outputs.clear();
+    }
+
+    private void release() {
+        if (pending.decrementAndGet() == 0) {
+            recycler.accept(this);
+        }
+    }
+
+    private static void allocate(
+            OrtEnvironment env,
+            Map<String, TensorInfo> info,
+            Map<String, OnnxTensor> tensors,
+            Map<String, ByteBuffer> buffers) {
+        for (Map.Entry<String, TensorInfo> entry : info.entrySet()) {
+            TensorInfo tensorInfo = entry.getValue();
+            Shape shape = new Shape(tensorInfo.getShape());
+            DataType dataType = OrtUtils.toDataType(tensorInfo.type);
+            int size = Math.toIntExact(shape.size() * dataType.getNumOfBytes());
+            ByteBuffer bb = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+            // a tensor over a direct buffer shares the memory of the buffer
+            tensors.put(entry.getKey(), OrtUtils.toTensor(env, bb, shape, dataType));
+            buffers.put(entry.getKey(), bb);
+        }
+    }
+}
@@ -36,6 +36,8 @@ import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -67,7 +69,20 @@ public class OrtModel extends BaseModel {
         sessionOptions = new SessionOptions();
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Set the {@code ioBinding} option to {@code true} to reuse preallocated input and output
+     * tensors across runs for models with fixed shape outputs. The outputs of a run share the
+     * preallocated tensors until they are closed.
+     *
+     * <p>Set the {@code sessionPoolSize} option to create multiple sessions of the model, each run
+     * leases an idle session. Combined with {@code intraOpNumThreads}, this trades the parallelism
+     * within a run for concurrent runs. Use {@code auto} to create one session per group of {@code
+     * intraOpNumThreads} cores. Each session holds its own copy of the weights; to share the
+     * weights, keep a single session and use {@code disablePerSessionThreads} with the global
+     * thread pool instead.
+     */
     @Override
     public void load(Path modelPath, String prefix, Map<String, ?> options)
             throws IOException, MalformedModelException {
@@ -91,8 +106,8 @@ public class OrtModel extends BaseModel {
 
         try {
             SessionOptions ortOptions = getSessionOptions(options);
-            OrtSession session = env.createSession(modelFile.toString(), ortOptions);
-            block = new OrtSymbolBlock(session, (OrtNDManager) manager);
+            String path = modelFile.toString();
+            block = newBlock(() -> env.createSession(path, ortOptions), options);
         } catch (OrtException e) {
             throw new MalformedModelException("ONNX Model cannot be loaded", e);
         }
@@ -110,13 +125,58 @@ public class OrtModel extends BaseModel {
         try {
             byte[] buf = Utils.toByteArray(is);
             SessionOptions ortOptions = getSessionOptions(options);
-            OrtSession session = env.createSession(buf, ortOptions);
-            block = new OrtSymbolBlock(session, (OrtNDManager) manager);
+            block = newBlock(() -> env.createSession(buf, ortOptions), options);
         } catch (OrtException e) {
             throw new MalformedModelException("ONNX Model cannot be loaded", e);
         }
     }
 
+    private OrtSymbolBlock newBlock(SessionFactory factory, Map<String, ?> options)
+            throws OrtException {
+        int poolSize = getSessionPoolSize(options);
+        List<OrtSession> sessions = new ArrayList<>(poolSize);
+        try {
+            for (int i = 0; i < poolSize; ++i) {
+                sessions.add(factory.newSession());
+            }
+        } catch (OrtException e) {
+            for (OrtSession session : sessions) {
+                try {
+                    session.close();
+                } catch (OrtException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        OrtSymbolBlock symbolBlock = new OrtSymbolBlock(sessions, (OrtNDManager) manager);
+        if (options != null && Boolean.parseBoolean((String) options.get("ioBinding"))) {
+            symbolBlock.enableIoBinding();
+        }
+        return symbolBlock;
+    }
+
+    private static int getSessionPoolSize(Map<String, ?> options) {
+        String value = options == null ? null : (String) options.get("sessionPoolSize");
+        if (value == null) {
+            return 1;
+        }
+        if ("auto".equals(value)) {
+            // one session per group of intra-op threads
+            String intraOpNumThreads = (String) options.get("intraOpNumThreads");
+            int threads = intraOpNumThreads == null ? 0 : Integer.parseInt(intraOpNumThreads);
+            if (threads <= 0) {
+                return 1;
+            }
+            return Math.max(1, Runtime.getRuntime().availableProcessors() / threads);
+        }
+        int size = Integer.parseInt(value);
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid sessionPoolSize: " + value);
+        }
+        return size;
+    }
+
     private Path findModelFile(String... prefixes) {
         if (Files.isRegularFile(modelDir)) {
             Path file = modelDir;
@@ -170,7 +230,7 @@ public class OrtModel extends BaseModel {
             ortSession.setInterOpNumThreads(Integer.parseInt(interOpNumThreads));
         }
         String intraOpNumThreads = (String) options.get("intraOpNumThreads");
-        if (interOpNumThreads != null) {
+        if (intraOpNumThreads != null) {
             ortSession.setIntraOpNumThreads(Integer.parseInt(intraOpNumThreads));
         }
         String executionMode = (String) options.get("executionMode");
@@ -246,4 +306,10 @@ public class OrtModel extends BaseModel {
         }
         return null;
     }
+
+    /** A function that creates an {@link OrtSession}. */
+    private interface SessionFactory {
+
+        OrtSession newSession() throws OrtException;
+    }
 }
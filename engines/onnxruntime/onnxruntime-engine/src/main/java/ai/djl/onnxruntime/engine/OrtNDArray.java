@@ -31,27 +31,43 @@ import java.util.concurrent.atomic.AtomicReference;
 public class OrtNDArray extends NDArrayAdapter {
 
     private AtomicReference<OnnxTensor> tensor;
+    private ByteBuffer data;
+    private Runnable release;
 
     /**
      * Constructs an ONNX Runtime NDArray from a {@link OnnxTensor} (internal. Use {@link NDManager}
      * instead).
      *
      * @param manager the manager to attach the new array to
-     * @param alternativeManager the alternative manager to execute unsupported operation
      * @param tensor the {@link OnnxTensor} to the ONNX Runtime
      */
-    OrtNDArray(OrtNDManager manager, NDManager alternativeManager, OnnxTensor tensor) {
-        super(manager, alternativeManager, null, null, UUID.randomUUID().toString());
+    OrtNDArray(OrtNDManager manager, OnnxTensor tensor) {
+        super(manager, null, null, UUID.randomUUID().toString());
         this.tensor = new AtomicReference<>(tensor);
         manager.attachInternal(uid, this);
     }
 
+    /**
+     * Constructs an ONNX Runtime NDArray that shares a preallocated {@link OnnxTensor}.
+     *
+     * @param manager the manager to attach the new array to
+     * @param tensor the preallocated {@link OnnxTensor}
+     * @param data the direct buffer that backs the tensor
+     * @param release the function to return the tensor instead of closing it
+     */
+    OrtNDArray(OrtNDManager manager, OnnxTensor tensor, ByteBuffer data, Runnable release) {
+        this(manager, tensor);
+        this.data = data;
+        this.release = release;
+    }
+
     /**
      * Returns the {@code OnnxTensor} representation of this OrtNDArray.
      *
      * @return the {@code OnnxTensor} representation of this OrtNDArray
      */
     public OnnxTensor getTensor() {
+        syncAlternativeArray();
         return tensor.get();
     }
 
@@ -85,9 +101,12 @@ public class OrtNDArray extends NDArrayAdapter {
         OrtNDArray arr = (OrtNDArray) replaced;
         OnnxTensor oldHandle = tensor.getAndSet(arr.tensor.getAndSet(null));
         if (oldHandle != null) {
-            oldHandle.close();
+            closeTensor(oldHandle);
         }
+        data = arr.data;
+        release = arr.release;
         replaced.close();
+        markDirty();
     }
 
     /** {@inheritDoc} */
@@ -121,6 +140,11 @@ public class OrtNDArray extends NDArrayAdapter {
         if (getDataType() == DataType.STRING) {
             throw new IllegalArgumentException("Please use toStringArray() for String NDArray.");
         }
+        syncAlternativeArray();
+        if (data != null) {
+            // the tensor is backed by a direct buffer, avoid copying it out
+            return data.duplicate().order(ByteOrder.nativeOrder());
+        }
         return tensor.get().getByteBuffer().order(ByteOrder.nativeOrder());
     }
 
@@ -129,8 +153,17 @@ public class OrtNDArray extends NDArrayAdapter {
     public void close() {
         OnnxTensor ortTensor = tensor.getAndSet(null);
         if (ortTensor != null) {
-            ortTensor.close();
+            closeTensor(ortTensor);
         }
         super.close();
     }
+
+    private void closeTensor(OnnxTensor ortTensor) {
+        if (release != null) {
+            // the preallocated tensor is reused by the next run
+            release.run();
+        } else {
+            ortTensor.close();
+        }
+    }
 }
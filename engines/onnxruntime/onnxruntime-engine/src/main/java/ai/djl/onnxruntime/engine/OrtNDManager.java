@@ -28,7 +28,6 @@ import ai.onnxruntime.TensorInfo;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 
 /** {@code OrtNDManager} is the ONNX Runtime implementation of {@link NDManager}. */
@@ -47,12 +46,6 @@ public class OrtNDManager extends BaseNDManager {
         return SYSTEM_MANAGER;
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public ByteBuffer allocateDirect(int capacity) {
-        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
-    }
-
     /** {@inheritDoc} */
     @Override
     public OrtNDArray from(NDArray array) {
@@ -70,7 +63,15 @@ public class OrtNDManager extends BaseNDManager {
     }
 
     OrtNDArray createInternal(OnnxTensor tensor) {
-        return new OrtNDArray(this, alternativeManager, tensor);
+        return new OrtNDArray(this, tensor);
+    }
+
+    OrtNDArray createInternal(OnnxTensor tensor, ByteBuffer data, Runnable release) {
+        return new OrtNDArray(this, tensor, data, release);
+    }
+
+    OrtEnvironment getEnv() {
+        return env;
     }
 
     /** {@inheritDoc} */
@@ -83,14 +84,14 @@ public class OrtNDManager extends BaseNDManager {
         int size = Math.toIntExact(shape.size());
         BaseNDManager.validateBuffer(data, dataType, size);
         OnnxTensor tensor = OrtUtils.toTensor(env, data, shape, dataType);
-        return new OrtNDArray(this, alternativeManager, tensor);
+        return new OrtNDArray(this, tensor);
     }
 
     /** {@inheritDoc} */
     @Override
     public OrtNDArray create(boolean[] data) {
         try {
-            return new OrtNDArray(this, alternativeManager, OrtUtils.toTensor(env, data));
+            return new OrtNDArray(this, OrtUtils.toTensor(env, data));
         } catch (OrtException e) {
             throw new EngineException(e);
         }
@@ -118,7 +119,7 @@ public class OrtNDManager extends BaseNDManager {
         }
 
         try {
-            return new OrtNDArray(this, alternativeManager, OrtUtils.toTensor(env, tensorIn));
+            return new OrtNDArray(this, OrtUtils.toTensor(env, tensorIn));
         } catch (OrtException e) {
             throw new EngineException(e);
         }
@@ -140,7 +141,7 @@ public class OrtNDManager extends BaseNDManager {
     @Override
     public NDArray create(String[] data, Charset charset, Shape shape) {
         try {
-            return new OrtNDArray(this, alternativeManager, OrtUtils.toTensor(env, data, shape));
+            return new OrtNDArray(this, OrtUtils.toTensor(env, data, shape));
         } catch (OrtException e) {
             throw new EngineException(e);
         }
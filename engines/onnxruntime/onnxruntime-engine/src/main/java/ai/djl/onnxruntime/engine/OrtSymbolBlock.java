@@ -24,6 +24,7 @@ import ai.djl.nn.ParameterList;
 import ai.djl.nn.SymbolBlock;
 import ai.djl.training.ParameterStore;
 import ai.djl.util.PairList;
+import ai.onnxruntime.NodeInfo;
 import ai.onnxruntime.OnnxJavaType;
 import ai.onnxruntime.OnnxMap;
 import ai.onnxruntime.OnnxSequence;
@@ -31,13 +32,26 @@ import ai.onnxruntime.OnnxTensor;
 import ai.onnxruntime.OnnxValue;
 import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
+import ai.onnxruntime.OrtSession.RunOptions;
+import ai.onnxruntime.TensorInfo;
+import ai.onnxruntime.ValueInfo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * {@code OrtSymbolBlock} is the ONNX Runtime implementation of {@link SymbolBlock}.
@@ -47,8 +61,17 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable {
 
+    private static final Logger logger = LoggerFactory.getLogger(OrtSymbolBlock.class);
+
     private OrtSession session;
+    private List<OrtSession> sessions;
+    private BlockingQueue<OrtSession> idleSessions;
     private OrtNDManager manager;
+    private List<String> inputNames;
+    private ThreadLocal<RunOptions> runOptions;
+    private Map<String, TensorInfo> boundInputs;
+    private Map<String, TensorInfo> boundOutputs;
+    private Queue<OrtIoBinding> bindings;
 
     /**
      * Constructs a {@code OrtSymbolBlock}.
@@ -59,10 +82,29 @@ public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
      * @param session the {@link OrtSession} contains the model information
      * @param manager the {@link NDManager} to holds the NDArray
      */
-    @SuppressWarnings("this-escape")
     public OrtSymbolBlock(OrtSession session, OrtNDManager manager) {
-        this.session = session;
+        this(Collections.singletonList(session), manager);
+    }
+
+    /**
+     * Constructs a {@code OrtSymbolBlock} that runs with a pool of sessions of the same model.
+     *
+     * <p>Each run leases an idle session from the pool, so up to {@code sessions.size()} runs are
+     * executed concurrently with the intra-op threads of their own session.
+     *
+     * @param sessions the {@link OrtSession}s of the same model
+     * @param manager the {@link NDManager} to holds the NDArray
+     */
+    @SuppressWarnings("this-escape")
+    OrtSymbolBlock(List<OrtSession> sessions, OrtNDManager manager) {
+        this.sessions = sessions;
         this.manager = manager;
+        session = sessions.get(0);
+        if (sessions.size() > 1) {
+            idleSessions = new ArrayBlockingQueue<>(sessions.size(), false, sessions);
+        }
+        inputNames = new ArrayList<>(session.getInputNames());
+        runOptions = new ThreadLocal<>();
         manager.attachInternal(UUID.randomUUID().toString(), this);
     }
 
@@ -79,12 +121,13 @@ public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
             NDList inputs,
             boolean training,
             PairList<String, Object> params) {
-        List<String> inputNames = new ArrayList<>(session.getInputNames());
         if (inputs.size() != inputNames.size()) {
             throw new IllegalArgumentException("Input mismatch, looking for: " + inputNames);
         }
 
-        Map<String, OnnxTensor> container = new ConcurrentHashMap<>();
+        Map<String, OnnxTensor> container = new HashMap<>(inputNames.size() * 2);
+        OrtIoBinding binding = bindings == null ? null : acquireBinding();
+        NDList ret = null;
         // forward
         try (OrtNDManager sub = (OrtNDManager) manager.newSubManager()) {
             // If input data has name
@@ -98,23 +141,143 @@ public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
                     if (!inputNames.contains(name)) {
                         throw new IllegalArgumentException("Invalid input tensor name: " + name);
                     }
-                    OrtNDArray ortNDArray = sub.from(input);
-                    container.put(name, ortNDArray.getTensor());
+                    container.put(name, toTensor(sub, binding, name, input));
                 }
             } else {
                 // feed data in to match names
                 for (int i = 0; i < inputNames.size(); ++i) {
-                    OrtNDArray ortNDArray = sub.from(inputs.get(i));
-                    container.put(inputNames.get(i), ortNDArray.getTensor());
+                    String name = inputNames.get(i);
+                    container.put(name, toTensor(sub, binding, name, inputs.get(i)));
                 }
             }
 
-            OrtSession.Result results = session.run(container);
-            NDList ret = evaluateOutput(results);
+            RunOptions options = runOptions.get();
+            OrtSession leased = leaseSession();
+            OrtSession.Result results;
+            try {
+                if (binding == null) {
+                    results = leased.run(container, options);
+                } else {
+                    // the outputs are written into the preallocated tensors
+                    Set<String> requested = Collections.emptySet();
+                    results = leased.run(container, requested, binding.getOutputs(), options);
+                }
+            } finally {
+                releaseSession(leased);
+            }
+            if (binding == null) {
+                ret = evaluateOutput(results);
+            } else {
+                results.close();
+                ret = binding.toNDList(manager);
+            }
             ret.attach(inputs.head().getManager());
             return ret;
         } catch (OrtException e) {
             throw new EngineException(e);
+        } finally {
+            if (binding != null && ret == null) {
+                recycle(binding);
+            }
+        }
+    }
+
+    /**
+     * Sets the {@link RunOptions} of the runs on the calling thread.
+     *
+     * <p>The run options can set a run tag for logging, and terminate the runs that use them by
+     * calling {@link RunOptions#setTerminate(boolean)} from another thread.
+     *
+     * @param options the {@link RunOptions}, or {@code null} to run without options
+     */
+    public void setRunOptions(RunOptions options) {
+        if (options == null) {
+            runOptions.remove();
+        } else {
+            runOptions.set(options);
+        }
+    }
+
+    /**
+     * Enables the I/O binding mode if all outputs of the model are tensors with a fixed shape.
+     *
+     * <p>In I/O binding mode, the inputs and outputs are bound to tensors that are preallocated
+     * over direct buffers and reused across runs. Inputs that are not {@link OrtNDArray} are copied
+     * into the bound tensors if they match the fixed shape of the input. The outputs share the
+     * bound tensors, which are reused once all outputs of the run are closed.
+     *
+     * @return {@code true} if the I/O binding mode is enabled
+     */
+    boolean enableIoBinding() {
+        try {
+            Map<String, TensorInfo> outputs = new LinkedHashMap<>();
+            for (NodeInfo node : session.getOutputInfo().values()) {
+                ValueInfo info = node.getInfo();
+                if (!(info instanceof TensorInfo) || !OrtIoBinding.isBindable((TensorInfo) info)) {
+                    logger.info("I/O binding is disabled, output {} is not fixed.", node.getName());
+                    return false;
+                }
+                outputs.put(node.getName(), (TensorInfo) info);
+            }
+            Map<String, TensorInfo> fixedInputs = new LinkedHashMap<>();
+            for (NodeInfo node : session.getInputInfo().values()) {
+                ValueInfo info = node.getInfo();
+                if (info instanceof TensorInfo && OrtIoBinding.isBindable((TensorInfo) info)) {
+                    fixedInputs.put(node.getName(), (TensorInfo) info);
+                }
+            }
+            boundInputs = fixedInputs;
+            boundOutputs = outputs;
+            bindings = new ConcurrentLinkedQueue<>();
+            return true;
+        } catch (OrtException e) {
+            throw new EngineException(e);
+        }
+    }
+
+    private OnnxTensor toTensor(
+            OrtNDManager sub, OrtIoBinding binding, String name, NDArray input) {
+        if (binding != null && !(input instanceof OrtNDArray)) {
+            OnnxTensor tensor = binding.bindInput(name, input);
+            if (tensor != null) {
+                return tensor;
+            }
+        }
+        // OrtNDArray is used as is, a direct buffer input is wrapped without copy
+        return sub.from(input).getTensor();
+    }
+
+    private OrtSession leaseSession() {
+        if (idleSessions == null) {
+            return session;
+        }
+        try {
+            return idleSessions.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EngineException("Interrupted while waiting for an ONNX Runtime session", e);
+        }
+    }
+
+    private void releaseSession(OrtSession leased) {
+        if (idleSessions != null) {
+            idleSessions.offer(leased);
+        }
+    }
+
+    private OrtIoBinding acquireBinding() {
+        OrtIoBinding binding = bindings.poll();
+        if (binding == null) {
+            binding = new OrtIoBinding(manager.getEnv(), boundInputs, boundOutputs, this::recycle);
+        }
+        return binding;
+    }
+
+    private void recycle(OrtIoBinding binding) {
+        if (session == null) {
+            binding.close();
+        } else {
+            bindings.offer(binding);
         }
     }
 
@@ -209,12 +372,20 @@ public class OrtSymbolBlock extends AbstractSymbolBlock implements AutoCloseable
     public void close() {
         if (session != null) {
             try {
-                session.close();
+                for (OrtSession ortSession : sessions) {
+                    ortSession.close();
+                }
                 session = null;
             } catch (OrtException e) {
                 throw new EngineException(e);
             }
         }
+        if (bindings != null) {
+            OrtIoBinding binding;
+            while ((binding = bindings.poll()) != null) {
+                binding.close();
+            }
+        }
     }
 
     /** {@inheritDoc} */
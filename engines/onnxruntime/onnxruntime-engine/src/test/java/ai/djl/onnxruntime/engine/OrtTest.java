@@ -25,9 +25,12 @@ import ai.djl.ndarray.types.Shape;
 import ai.djl.onnxruntime.zoo.tabular.softmax_regression.IrisFlower;
 import ai.djl.repository.zoo.Criteria;
 import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.NoopTranslator;
 import ai.djl.translate.TranslateException;
 import ai.djl.util.Utils;
+import ai.onnxruntime.OnnxTensor;
 import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession.RunOptions;
 
 import org.testng.Assert;
 import org.testng.SkipException;
@@ -40,6 +43,16 @@ import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -120,6 +133,90 @@ public class OrtTest {
         }
     }
 
+    @Test
+    public void testIoBinding() throws ModelException, IOException, TranslateException {
+        Path modelFile = Paths.get("src/test/resources/identity.onnx");
+        try (Model model = Model.newInstance("identity", "OnnxRuntime")) {
+            model.load(modelFile, null, Collections.singletonMap("ioBinding", "true"));
+            Predictor<NDList, NDList> predictor = model.newPredictor(new NoopTranslator());
+            NDManager manager = model.getNDManager();
+            Shape shape = new Shape(1, 1, 2, 2);
+            float[] data = {1f, 2f, 3f, 4f};
+            NDArray array = manager.create(data, shape);
+            NDList output = predictor.predict(new NDList(array));
+            Assert.assertEquals(output.head().toFloatArray(), data);
+            OnnxTensor tensor = ((OrtNDArray) output.head()).getTensor();
+
+            // the output is not overwritten while it is open
+            NDList other =
+                    predictor.predict(
+                            new NDList(manager.create(new float[] {2f, 3f, 4f, 5f}, shape)));
+            Assert.assertNotSame(((OrtNDArray) other.head()).getTensor(), tensor);
+            Assert.assertEquals(output.head().toFloatArray(), data);
+
+            // the preallocated output is reused after it is closed
+            output.close();
+            array = manager.create(new float[] {2f, 4f, 6f, 8f}, shape);
+            output = predictor.predict(new NDList(array));
+            Assert.assertSame(((OrtNDArray) output.head()).getTensor(), tensor);
+            Assert.assertEquals(output.head().toFloatArray(), new float[] {2f, 4f, 6f, 8f});
+            Assert.assertEquals(other.head().toFloatArray(), new float[] {2f, 3f, 4f, 5f});
+        }
+    }
+
+    @Test
+    public void testSessionPool()
+            throws ModelException,
+                    IOException,
+                    OrtException,
+                    TranslateException,
+                    InterruptedException,
+                    ExecutionException {
+        Path modelFile = Paths.get("src/test/resources/identity.onnx");
+        Map<String, String> options = new HashMap<>();
+        options.put("sessionPoolSize", "2");
+        options.put("intraOpNumThreads", "1");
+        try (Model model = Model.newInstance("identity", "OnnxRuntime")) {
+            model.load(modelFile, null, options);
+            Shape shape = new Shape(1, 1, 2, 2);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Callable<float[]>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                float[] data = {i, i + 1, i + 2, i + 3};
+                tasks.add(
+                        () -> {
+                            try (Predictor<NDList, NDList> predictor =
+                                            model.newPredictor(new NoopTranslator());
+                                    NDManager manager = model.getNDManager().newSubManager()) {
+                                NDArray array = manager.create(data, shape);
+                                return predictor.predict(new NDList(array)).head().toFloatArray();
+                            }
+                        });
+            }
+            List<Future<float[]>> futures = executor.invokeAll(tasks);
+            executor.shutdown();
+            for (int i = 0; i < futures.size(); ++i) {
+                Assert.assertEquals(futures.get(i).get(), new float[] {i, i + 1, i + 2, i + 3});
+            }
+
+            OrtSymbolBlock block = (OrtSymbolBlock) model.getBlock();
+            try (RunOptions runOptions = new RunOptions();
+                    Predictor<NDList, NDList> predictor = model.newPredictor(new NoopTranslator());
+                    NDManager manager = model.getNDManager().newSubManager()) {
+                NDList input = new NDList(manager.create(new float[] {1f, 2f, 3f, 4f}, shape));
+                runOptions.setRunTag("testSessionPool");
+                runOptions.setTerminate(true);
+                block.setRunOptions(runOptions);
+                Assert.assertThrows(TranslateException.class, () -> predictor.predict(input));
+
+                block.setRunOptions(null);
+                Assert.assertEquals(
+                        predictor.predict(input).head().toFloatArray(),
+                        new float[] {1f, 2f, 3f, 4f});
+            }
+        }
+    }
+
     @Test
     public void testNDArray() throws OrtException {
         try (NDManager manager = OrtNDManager.getSystemManager().newSubManager()) {
@@ -73,6 +73,9 @@ public final class TrtEngine extends Engine {
             if (engine.getRank() < getRank()) {
                 // alternativeEngine should not have the same rank as TensorRT
                 alternativeEngine = engine;
+            } else if (Engine.hasEngine("Java")) {
+                // fallback to the pure Java engine if no native engine is available
+                alternativeEngine = Engine.getEngine("Java");
             }
             initialized = true;
         }
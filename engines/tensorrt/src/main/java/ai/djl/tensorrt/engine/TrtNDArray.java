@@ -15,7 +15,6 @@ package ai.djl.tensorrt.engine;
 import ai.djl.ndarray.BaseNDManager;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDArrayAdapter;
-import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 
@@ -29,13 +28,8 @@ public class TrtNDArray extends NDArrayAdapter {
     private TrtNDManager manager;
     private ByteBuffer data;
 
-    TrtNDArray(
-            TrtNDManager manager,
-            NDManager alternativeManager,
-            ByteBuffer data,
-            Shape shape,
-            DataType dataType) {
-        super(manager, alternativeManager, shape, dataType, UUID.randomUUID().toString());
+    TrtNDArray(TrtNDManager manager, ByteBuffer data, Shape shape, DataType dataType) {
+        super(manager, shape, dataType, UUID.randomUUID().toString());
         this.data = data;
         manager.attachInternal(uid, this);
     }
@@ -44,6 +38,7 @@ public class TrtNDArray extends NDArrayAdapter {
     @Override
     public void intern(NDArray replaced) {
         data = ((TrtNDArray) replaced).data;
+        markDirty();
     }
 
     /** {@inheritDoc} */
@@ -56,6 +51,7 @@ public class TrtNDArray extends NDArrayAdapter {
     /** {@inheritDoc} */
     @Override
     public ByteBuffer toByteBuffer(boolean tryDirect) {
+        syncAlternativeArray();
         data.rewind();
         return data;
     }
@@ -66,5 +62,6 @@ public class TrtNDArray extends NDArrayAdapter {
         int size = Math.toIntExact(shape.size());
         BaseNDManager.validateBuffer(buffer, dataType, size);
         BaseNDManager.copyBuffer(buffer, data);
+        markDirty();
     }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.examples.inference.benchmark;
+
+import ai.djl.ModelException;
+import ai.djl.inference.Predictor;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.repository.zoo.Criteria;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.NoopTranslator;
+import ai.djl.translate.TranslateException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An example that measures the throughput of an ONNX Runtime model with a session pool.
+ *
+ * <p>The benchmark sweeps the number of sessions ({@code sessionPoolSize}) and the number of
+ * intra-op threads per session ({@code intraOpNumThreads}), and drives each configuration with one
+ * client thread per session. Each session keeps its own copy of the weights, so the memory usage
+ * grows with the pool size.
+ */
+public final class OnnxRuntimeSessionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(OnnxRuntimeSessionPool.class);
+
+    private static final String MODEL_URL = "djl://ai.djl.onnxruntime/resnet";
+
+    private OnnxRuntimeSessionPool() {}
+
+    public static void main(String[] args) throws IOException, ModelException, TranslateException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        Map<String, Double> result = runBenchmark(cores, 10);
+        result.forEach((k, v) -> logger.info("{}: {} inferences/s", k, String.format("%.1f", v)));
+    }
+
+    /**
+     * Runs the benchmark over all combinations of sessions and intra-op threads that fit in the
+     * given number of cores.
+     *
+     * @param cores the maximum of sessions &times; intra-op threads
+     * @param seconds the duration of each configuration in seconds
+     * @return the throughput in inferences per second of each configuration
+     * @throws IOException if failed to load the model
+     * @throws ModelException if the model is not found or invalid
+     * @throws TranslateException if the inference failed
+     */
+    public static Map<String, Double> runBenchmark(int cores, int seconds)
+            throws IOException, ModelException, TranslateException {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int sessions = 1; sessions <= cores; sessions *= 2) {
+            for (int threads = 1; sessions * threads <= cores; threads *= 2) {
+                double throughput = run(sessions, threads, seconds);
+                String key = "sessions=" + sessions + ", intraOpNumThreads=" + threads;
+                logger.info("{}: {} inferences/s", key, String.format("%.1f", throughput));
+                result.put(key, throughput);
+            }
+        }
+        return result;
+    }
+
+    private static double run(int sessions, int threads, int seconds)
+            throws IOException, ModelException, TranslateException {
+        Criteria<NDList, NDList> criteria =
+                Criteria.builder()
+                        .setTypes(NDList.class, NDList.class)
+                        .optModelUrls(MODEL_URL)
+                        .optEngine("OnnxRuntime")
+                        .optOption("sessionPoolSize", String.valueOf(sessions))
+                        .optOption("intraOpNumThreads", String.valueOf(threads))
+                        .optOption("interOpNumThreads", "1")
+                        .optTranslator(new NoopTranslator())
+                        .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(sessions);
+        try (ZooModel<NDList, NDList> model = criteria.loadModel()) {
+            // warm up every session before timing
+            predict(model, sessions * 2, Long.MAX_VALUE);
+
+            long begin = System.nanoTime();
+            long end = begin + seconds * 1_000_000_000L;
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < sessions; ++i) {
+                futures.add(executor.submit(() -> predict(model, Integer.MAX_VALUE, end)));
+            }
+            long count = 0;
+            for (Future<Integer> future : futures) {
+                count += future.get();
+            }
+            return count * 1e9 / (System.nanoTime() - begin);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrupted while running the benchmark", e);
+        } catch (ExecutionException e) {
+            throw new TranslateException("Failed to run the benchmark", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int predict(ZooModel<NDList, NDList> model, int iterations, long end)
+            throws TranslateException {
+        int count = 0;
+        try (Predictor<NDList, NDList> predictor = model.newPredictor();
+                NDManager manager = NDManager.newBaseManager("OnnxRuntime")) {
+            Shape shape = new Shape(1, 3, 224, 224);
+            NDList input = new NDList(manager.create(new float[(int) shape.size()], shape));
+            while (count < iterations && System.nanoTime() < end) {
+                predictor.predict(input).close();
+                ++count;
+            }
+        }
+        return count;
+    }
+}
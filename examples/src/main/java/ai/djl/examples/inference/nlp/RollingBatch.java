@@ -17,10 +17,12 @@ import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
 import ai.djl.inference.Predictor;
 import ai.djl.modality.nlp.generate.CausalLMOutput;
 import ai.djl.modality.nlp.generate.ContrastiveSeqBatchScheduler;
+import ai.djl.modality.nlp.generate.PagedKvCache;
 import ai.djl.modality.nlp.generate.SearchConfig;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
 import ai.djl.repository.zoo.Criteria;
 import ai.djl.repository.zoo.ZooModel;
 import ai.djl.translate.DeferredTranslatorFactory;
@@ -45,6 +47,11 @@ public final class RollingBatch {
 
     public static String[] seqBatchSchedulerWithPyTorchContrastive()
             throws ModelException, IOException, TranslateException {
+        return seqBatchSchedulerWithPyTorchContrastive(false);
+    }
+
+    public static String[] seqBatchSchedulerWithPyTorchContrastive(boolean pagedKvCache)
+            throws ModelException, IOException, TranslateException {
         String url = "https://djl-misc.s3.amazonaws.com/test/models/gpt2/gpt2_pt.zip";
 
         Criteria<NDList, CausalLMOutput> criteria =
@@ -60,7 +67,10 @@ public final class RollingBatch {
         try (ZooModel<NDList, CausalLMOutput> model = criteria.loadModel();
                 Predictor<NDList, CausalLMOutput> predictor = model.newPredictor();
                 NDManager manager = model.getNDManager().newSubManager();
-                HuggingFaceTokenizer tokenizer = HuggingFaceTokenizer.newInstance("gpt2")) {
+                HuggingFaceTokenizer tokenizer = HuggingFaceTokenizer.newInstance("gpt2");
+                // gpt2: 12 layers of (k, v), 12 heads, 64 features per head
+                PagedKvCache kvCache =
+                        new PagedKvCache(manager, 24, 12, 64, DataType.FLOAT32, 16, 64)) {
 
             SearchConfig config = new SearchConfig();
             config.setMaxSeqLength(30);
@@ -71,6 +81,9 @@ public final class RollingBatch {
 
             ContrastiveSeqBatchScheduler scheduler =
                     new ContrastiveSeqBatchScheduler(predictor, config);
+            if (pagedKvCache) {
+                scheduler.setKvCache(kvCache);
+            }
 
             // Initial input
             String[] inputs1 = {"DeepMind Company is", "Memories follow me left and right. I can"};
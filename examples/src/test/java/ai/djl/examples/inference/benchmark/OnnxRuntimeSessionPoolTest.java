@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.examples.inference.benchmark;
+
+import ai.djl.ModelException;
+import ai.djl.translate.TranslateException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class OnnxRuntimeSessionPoolTest {
+
+    @Test
+    public void testSessionPool() throws ModelException, TranslateException, IOException {
+        Map<String, Double> result = OnnxRuntimeSessionPool.runBenchmark(2, 1);
+        Assert.assertEquals(result.size(), 3);
+        for (double throughput : result.values()) {
+            Assert.assertTrue(throughput > 0);
+        }
+    }
+}
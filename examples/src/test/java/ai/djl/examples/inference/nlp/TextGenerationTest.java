@@ -106,6 +106,16 @@ public class TextGenerationTest {
                         + " after.\n");
     }
 
+    @Test
+    public void testSeqBatchSchedulerWithPagedKvCache()
+            throws TranslateException, ModelException, IOException {
+        TestRequirements.linux();
+        TestRequirements.weekly();
+        String[] expected = RollingBatch.seqBatchSchedulerWithPyTorchContrastive(false);
+        String[] output = RollingBatch.seqBatchSchedulerWithPyTorchContrastive(true);
+        Assert.assertEquals(output, expected);
+    }
+
     @Test
     public void testTextGenerationWithOnnx()
             throws TranslateException, ModelException, IOException {
@@ -22,7 +22,6 @@ import ai.djl.ndarray.types.Shape;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 
 /** {@code PtNDManager} is the Rust implementation of {@link NDManager}. */
@@ -38,12 +37,6 @@ public class RsNDManager extends BaseNDManager {
         return SYSTEM_MANAGER;
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public ByteBuffer allocateDirect(int capacity) {
-        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
-    }
-
     /** {@inheritDoc} */
     @Override
     public RsNDArray from(NDArray array) {
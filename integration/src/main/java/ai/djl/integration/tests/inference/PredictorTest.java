@@ -15,8 +15,10 @@ package ai.djl.integration.tests.inference;
 import ai.djl.Device;
 import ai.djl.Model;
 import ai.djl.basicmodelzoo.basic.Mlp;
+import ai.djl.inference.BatchingPredictor;
 import ai.djl.inference.Predictor;
 import ai.djl.integration.util.TestUtils;
+import ai.djl.metric.Metrics;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.Shape;
@@ -26,12 +28,21 @@ import ai.djl.training.DefaultTrainingConfig;
 import ai.djl.training.Trainer;
 import ai.djl.training.TrainingConfig;
 import ai.djl.training.loss.Loss;
+import ai.djl.translate.Batchifier;
 import ai.djl.translate.NoopTranslator;
 import ai.djl.translate.TranslateException;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 public class PredictorTest {
 
     @Test
@@ -50,6 +61,74 @@ public class PredictorTest {
         predictWithDeviceHelper(Device.gpu(), Device.cpu());
     }
 
+    @Test
+    public void testBatchingPredictor()
+            throws TranslateException, ExecutionException, InterruptedException {
+        try (Model model = Model.newInstance("mlp", TestUtils.getEngine())) {
+            model.setBlock(new Mlp(10, 10, new int[] {10}));
+            try (Trainer trainer =
+                    model.newTrainer(new DefaultTrainingConfig(Loss.softmaxCrossEntropyLoss()))) {
+                trainer.initialize(new Shape(1, 10));
+            }
+
+            Metrics metrics = new Metrics();
+            try (NDManager manager = NDManager.newBaseManager(TestUtils.getEngine());
+                    Predictor<NDList, NDList> predictor =
+                            model.newPredictor(new NoopTranslator(Batchifier.STACK));
+                    BatchingPredictor<NDList, NDList> batching =
+                            new BatchingPredictor<>(predictor, 4, 100, TimeUnit.MILLISECONDS)) {
+                batching.setMetrics(metrics);
+                List<CompletableFuture<NDList>> futures = new ArrayList<>();
+                for (int i = 0; i < 8; ++i) {
+                    futures.add(batching.predictAsync(new NDList(manager.ones(new Shape(10)))));
+                }
+                for (CompletableFuture<NDList> future : futures) {
+                    Assert.assertEquals(future.get().singletonOrThrow().getShape(), new Shape(10));
+                }
+                NDList single = batching.predict(new NDList(manager.ones(new Shape(10))));
+                Assert.assertEquals(single.singletonOrThrow().getShape(), new Shape(10));
+            }
+            Assert.assertTrue(metrics.hasMetric("BatchSize"));
+            Assert.assertTrue(metrics.hasMetric("BatchWaitTime"));
+            Assert.assertTrue(metrics.latestMetric("BatchSize").getValue() <= 4);
+
+            try (Predictor<NDList, NDList> predictor =
+                    model.newPredictor(new NoopTranslator(Batchifier.STACK))) {
+                BatchingPredictor<NDList, NDList> batching =
+                        new BatchingPredictor<>(predictor, 4, 100, TimeUnit.MILLISECONDS);
+                batching.close();
+                Assert.assertTrue(batching.predictAsync(new NDList()).isCompletedExceptionally());
+            }
+        }
+    }
+
+    @Test
+    public void testPredictAsync() throws ExecutionException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (Model model = Model.newInstance("mlp", TestUtils.getEngine())) {
+            model.setBlock(new Mlp(10, 10, new int[] {10}));
+            try (Trainer trainer =
+                    model.newTrainer(new DefaultTrainingConfig(Loss.softmaxCrossEntropyLoss()))) {
+                trainer.initialize(new Shape(1, 10));
+            }
+
+            try (NDManager manager = NDManager.newBaseManager(TestUtils.getEngine());
+                    Predictor<NDList, NDList> predictor =
+                            model.newPredictor(new NoopTranslator(Batchifier.STACK))) {
+                predictor.setPipelineExecutors(executor, null, executor);
+                List<CompletableFuture<NDList>> futures = new ArrayList<>();
+                for (int i = 0; i < 4; ++i) {
+                    futures.add(predictor.predictAsync(new NDList(manager.ones(new Shape(10)))));
+                }
+                for (CompletableFuture<NDList> future : futures) {
+                    Assert.assertEquals(future.get().singletonOrThrow().getShape(), new Shape(10));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     public void predictWithDeviceHelper(Device device, Device predictorDevice)
             throws TranslateException {
         // Create simple model on modelDevice
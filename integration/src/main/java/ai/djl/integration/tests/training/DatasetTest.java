@@ -16,6 +16,7 @@ import ai.djl.Model;
 import ai.djl.basicdataset.cv.classification.Cifar10;
 import ai.djl.integration.util.TestUtils;
 import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
@@ -27,12 +28,16 @@ import ai.djl.training.TrainingConfig;
 import ai.djl.training.dataset.ArrayDataset;
 import ai.djl.training.dataset.Batch;
 import ai.djl.training.dataset.BatchSampler;
+import ai.djl.training.dataset.DataIterable;
 import ai.djl.training.dataset.Dataset;
 import ai.djl.training.dataset.RandomAccessDataset;
 import ai.djl.training.dataset.RandomSampler;
+import ai.djl.training.dataset.Record;
 import ai.djl.training.dataset.SequenceSampler;
+import ai.djl.training.dataset.StreamingDataset;
 import ai.djl.training.initializer.Initializer;
 import ai.djl.training.loss.Loss;
+import ai.djl.translate.Batchifier;
 import ai.djl.translate.TranslateException;
 import ai.djl.util.Pair;
 
@@ -40,12 +45,19 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 
@@ -324,6 +336,223 @@ public class DatasetTest {
         }
     }
 
+    @Test
+    public void testParallelFetch() throws InterruptedException {
+        ExecutorService fetchExecutor = Executors.newFixedThreadPool(4);
+        try (NDManager manager = NDManager.newBaseManager(TestUtils.getEngine())) {
+            NDArray data = manager.arange(0, 100, 1, DataType.INT64, manager.defaultDevice());
+            ArrayDataset dataset =
+                    new ArrayDataset.Builder()
+                            .setData(data)
+                            .setSampling(new BatchSampler(new RandomSampler(), 16, false))
+                            .build();
+            DataIterable iterable =
+                    new DataIterable(
+                            dataset,
+                            manager,
+                            new BatchSampler(new RandomSampler(), 16, false),
+                            Batchifier.STACK,
+                            Batchifier.STACK,
+                            null,
+                            null,
+                            null,
+                            fetchExecutor,
+                            0,
+                            null);
+            List<Long> all = new ArrayList<>();
+            for (Batch batch : iterable) {
+                long[] values = batch.getData().singletonOrThrow().toLongArray();
+                List<?> indices = batch.getIndices();
+                Assert.assertEquals(values.length, indices.size());
+                for (int i = 0; i < values.length; ++i) {
+                    Assert.assertEquals(values[i], indices.get(i));
+                    all.add(values[i]);
+                }
+                batch.close();
+            }
+            Collections.sort(all);
+            Assert.assertEquals(all, LongStream.range(0, 100).boxed().collect(Collectors.toList()));
+        } finally {
+            fetchExecutor.shutdown();
+            fetchExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testParallelFetchFailure() throws InterruptedException {
+        ExecutorService fetchExecutor = Executors.newFixedThreadPool(4);
+        AtomicInteger running = new AtomicInteger();
+        try (NDManager manager = NDManager.newBaseManager(TestUtils.getEngine())) {
+            NDArray data = manager.arange(0, 8, 1, DataType.INT64, manager.defaultDevice());
+            ArrayDataset.Builder builder =
+                    new ArrayDataset.Builder()
+                            .setData(data)
+                            .setSampling(new BatchSampler(new SequenceSampler(), 8, false));
+            ArrayDataset dataset =
+                    new ArrayDataset(builder) {
+
+                        /** {@inheritDoc} */
+                        @Override
+                        public Record get(NDManager subManager, long index) {
+                            if (index == 0) {
+                                throw new IllegalArgumentException("Corrupted record");
+                            }
+                            running.incrementAndGet();
+                            try {
+                                Thread.sleep(50);
+                                return super.get(subManager, index);
+                            } catch (InterruptedException e) {
+                                // still create the arrays, like a record that ignores interrupts
+                                return super.get(subManager, index);
+                            } finally {
+                                running.decrementAndGet();
+                            }
+                        }
+                    };
+            DataIterable iterable =
+                    new DataIterable(
+                            dataset,
+                            manager,
+                            new BatchSampler(new SequenceSampler(), 8, false),
+                            Batchifier.STACK,
+                            Batchifier.STACK,
+                            null,
+                            null,
+                            null,
+                            fetchExecutor,
+                            0,
+                            null);
+            Assert.assertThrows(IllegalStateException.class, iterable::next);
+            // the batch manager is only closed after the running records are done
+            Assert.assertEquals(running.get(), 0);
+        } finally {
+            fetchExecutor.shutdown();
+            fetchExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testFetchListOverride() {
+        try (NDManager manager = NDManager.newBaseManager(TestUtils.getEngine())) {
+            NDArray data = manager.arange(0, 10, 1, DataType.INT64, manager.defaultDevice());
+            ArrayDataset dataset =
+                    new ArrayDataset.Builder()
+                            .setData(data)
+                            .setSampling(new BatchSampler(new SequenceSampler(), 5, false))
+                            .build();
+            AtomicInteger calls = new AtomicInteger();
+            DataIterable iterable =
+                    new DataIterable(
+                            dataset,
+                            manager,
+                            new BatchSampler(new SequenceSampler(), 5, false),
+                            Batchifier.STACK,
+                            Batchifier.STACK,
+                            null,
+                            null,
+                            null,
+                            0,
+                            null) {
+
+                        /** {@inheritDoc} */
+                        @Override
+                        protected Batch fetch(List<Long> indices, int progress)
+                                throws IOException {
+                            calls.incrementAndGet();
+                            return super.fetch(indices, progress);
+                        }
+                    };
+            for (Batch batch : iterable) {
+                Assert.assertEquals(batch.getSize(), 5);
+                batch.close();
+            }
+            Assert.assertEquals(calls.get(), 2);
+        }
+    }
+
+    @Test
+    public void testStreamingDataset()
+            throws IOException, TranslateException, InterruptedException {
+        Path dir = Paths.get("build/tmp/test/streaming");
+        Files.createDirectories(dir);
+        List<Path> shards = new ArrayList<>();
+        try (NDManager manager = NDManager.newBaseManager(TestUtils.getEngine())) {
+            // 3 shards of 7 records: data [value, value], label [value]
+            for (int i = 0; i < 3; ++i) {
+                Path shard = dir.resolve("shard-" + i + ".rec");
+                try (OutputStream os = Files.newOutputStream(shard)) {
+                    for (int j = 0; j < 7; ++j) {
+                        float value = i * 7 + j;
+                        StreamingDataset.writeRecord(
+                                os,
+                                new NDList(manager.create(new float[] {value, value})),
+                                new NDList(manager.create(new float[] {value})));
+                    }
+                }
+                shards.add(shard);
+            }
+
+            StreamingDataset dataset =
+                    StreamingDataset.builder()
+                            .setShards(shards)
+                            .setSampling(4, true)
+                            .optShuffleBufferSize(5)
+                            .optSeed(1)
+                            .build();
+            dataset.prepare();
+            List<Float> values = new ArrayList<>();
+            for (Batch batch : dataset.getData(manager)) {
+                Assert.assertEquals(batch.getData().head().getShape().get(1), 2);
+                for (float v : batch.getLabels().head().toFloatArray()) {
+                    values.add(v);
+                }
+                batch.close();
+            }
+            Assert.assertEquals(values.size(), 21);
+            List<Float> sorted = new ArrayList<>(values);
+            sorted.sort(Float::compare);
+            for (int i = 0; i < 21; ++i) {
+                Assert.assertEquals(sorted.get(i), (float) i);
+            }
+            Assert.assertNotEquals(values, sorted);
+
+            // the second worker reads the second shard only, with read-ahead
+            dataset =
+                    StreamingDataset.builder()
+                            .setShards(shards)
+                            .setSampling(3, false, true)
+                            .optWorker(1, 3)
+                            .build();
+            Assert.assertEquals(dataset.getShards(), Collections.singletonList(shards.get(1)));
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            values.clear();
+            for (Batch batch : dataset.getData(manager, executor)) {
+                Assert.assertEquals(batch.getSize(), 3);
+                for (float v : batch.getLabels().head().toFloatArray()) {
+                    values.add(v);
+                }
+                batch.close();
+            }
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            Assert.assertEquals(values, Arrays.asList(7f, 8f, 9f, 10f, 11f, 12f));
+
+            // an abandoned epoch stops the loader once the iterator is garbage collected
+            dataset = StreamingDataset.builder().setShards(shards).setSampling(1, false).build();
+            executor = Executors.newSingleThreadExecutor();
+            Iterator<Batch> it = dataset.getData(manager, executor).iterator();
+            it.next().close();
+            it = null; // NOPMD
+            executor.shutdown();
+            for (int i = 0; i < 100 && !executor.isTerminated(); ++i) {
+                System.gc(); // NOPMD
+                System.runFinalization();
+                executor.awaitTermination(100, TimeUnit.MILLISECONDS);
+            }
+            Assert.assertTrue(executor.isTerminated());
+        }
+    }
+
     private DefaultTrainingConfig config() {
         return new DefaultTrainingConfig(Loss.l2Loss())
                 .optInitializer(Initializer.ONES, Parameter.Type.WEIGHT);
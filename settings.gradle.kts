@@ -7,6 +7,7 @@ plugins {
 include(":api")
 include(":basicdataset")
 include(":djl-zero")
+include(":engines:java-engine")
 include(":engines:ml:lightgbm")
 include(":engines:ml:xgboost")
 include(":engines:mxnet:jnarator")